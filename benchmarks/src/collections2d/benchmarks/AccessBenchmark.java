@@ -0,0 +1,68 @@
+package collections2d.benchmarks;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads every element of the matrix, through rows, columns and coordinates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AccessBenchmark {
+
+	@Benchmark
+	public void getRow(MatrixState s, Blackhole bh) {
+		for (int i = 0; i < s.rows; i++) {
+			Collection<Integer> row = s.matrix.getRow(i);
+			for (Integer e : row)
+				bh.consume(e);
+		}
+	}
+
+	@Benchmark
+	public void getColumn(MatrixState s, Blackhole bh) {
+		for (int j = 0; j < s.columns; j++) {
+			Collection<Integer> column = s.matrix.getColumn(j);
+			for (Integer e : column)
+				bh.consume(e);
+		}
+	}
+
+	@Benchmark
+	public void rowIterator(MatrixState s, Blackhole bh) {
+		Iterator<Collection<Integer>> rows = s.matrix.rowIterator();
+		while (rows.hasNext())
+			bh.consume(rows.next());
+	}
+
+	@Benchmark
+	public long getElementByRows(MatrixState s) {
+		long sum = 0;
+		for (int i = 0; i < s.rows; i++)
+			for (int j = 0; j < s.columns; j++)
+				sum += s.matrix.getElement(i, j);
+		return sum;
+	}
+
+	@Benchmark
+	public long getElementByColumns(MatrixState s) {
+		long sum = 0;
+		for (int j = 0; j < s.columns; j++)
+			for (int i = 0; i < s.rows; i++)
+				sum += s.matrix.getElement(i, j);
+		return sum;
+	}
+}
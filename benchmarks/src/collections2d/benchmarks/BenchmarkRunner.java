@@ -0,0 +1,44 @@
+package collections2d.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this package with the GC profiler, so each result
+ * comes with its allocation rate ({@code gc.alloc.rate.norm} is the number of
+ * bytes allocated per operation), and writes every result as JSON to be kept
+ * as a baseline.<p>
+ *
+ * The benchmarks need {@code jmh-core} and {@code jmh-generator-annprocess}
+ * in the classpath when they are compiled together with the sources of the
+ * project. Any JMH command line option can be passed, for example
+ * {@code -p elements=100,10000 -p shape=TALL} to run only some of the shapes,
+ * or a regular expression to run only some of the benchmarks:
+ * <pre>
+ * java -cp ... collections2d.benchmarks.BenchmarkRunner SearchBenchmark -p elements=1000000
+ * </pre>
+ * Results are written to {@code collections2d-benchmarks.json}, unless
+ * another file is given with {@code -rff}.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		if (commandLine.getIncludes().isEmpty())
+			builder.include(BenchmarkRunner.class.getPackageName() + ".*");
+		Options options = builder
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(commandLine.getResult().orElse("collections2d-benchmarks.json"))
+				.build();
+		new Runner(options).run();
+	}
+}
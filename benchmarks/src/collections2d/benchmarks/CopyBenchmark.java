@@ -0,0 +1,83 @@
+package collections2d.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collections2d.Matrix;
+import collections2d.RegularMatrix;
+
+/**
+ * Compares, hashes and copies whole matrices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CopyBenchmark {
+
+	/**
+	 * A second matrix equal to the one of {@link MatrixState}, so
+	 * {@code equals} has to compare every element.
+	 */
+	@State(Scope.Benchmark)
+	public static class EqualState {
+		RegularMatrix<Integer> other;
+
+		@Setup(Level.Trial)
+		public void setUp(MatrixState s) {
+			other = s.build();
+		}
+	}
+
+	/**
+	 * A new matrix for each invocation, with the spare capacity left by
+	 * appending rows, to be trimmed.
+	 */
+	@State(Scope.Thread)
+	public static class UntrimmedState {
+		RegularMatrix<Integer> matrix;
+
+		@Setup(Level.Invocation)
+		public void setUp(MatrixState s) {
+			matrix = s.build();
+		}
+	}
+
+	@Benchmark
+	public boolean equalsEqual(MatrixState s, EqualState e) {
+		return s.matrix.equals(e.other);
+	}
+
+	@Benchmark
+	public int hashCode(MatrixState s) {
+		return s.matrix.hashCode();
+	}
+
+	@Benchmark
+	public Object clone(MatrixState s) {
+		return s.matrix.clone();
+	}
+
+	@Benchmark
+	public Matrix<Integer> subMatrix(MatrixState s) {
+		return s.matrix.subMatrix(s.rows / 2, s.columns / 2);
+	}
+
+	@Benchmark
+	public RegularMatrix<Integer> trimToSize(UntrimmedState u) {
+		u.matrix.trimToSize();
+		return u.matrix;
+	}
+}
@@ -0,0 +1,58 @@
+package collections2d.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collections2d.RegularMatrix;
+
+/**
+ * Builds whole matrices row by row and column by column, measuring how the
+ * storage grows with each insertion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GrowthBenchmark {
+
+	@Benchmark
+	public RegularMatrix<Integer> addRow(MatrixState s) {
+		RegularMatrix<Integer> m = new RegularMatrix<>();
+		for (List<Integer> row : s.rowList)
+			m.addRow(row);
+		return m;
+	}
+
+	@Benchmark
+	public RegularMatrix<Integer> addRowAtStart(MatrixState s) {
+		RegularMatrix<Integer> m = new RegularMatrix<>();
+		for (List<Integer> row : s.rowList)
+			m.addRow(0, row);
+		return m;
+	}
+
+	@Benchmark
+	public RegularMatrix<Integer> addColumn(MatrixState s) {
+		RegularMatrix<Integer> m = new RegularMatrix<>();
+		for (List<Integer> column : s.columnList)
+			m.addColumn(column);
+		return m;
+	}
+
+	@Benchmark
+	public RegularMatrix<Integer> addColumnAtStart(MatrixState s) {
+		RegularMatrix<Integer> m = new RegularMatrix<>();
+		for (List<Integer> column : s.columnList)
+			m.addColumn(0, column);
+		return m;
+	}
+}
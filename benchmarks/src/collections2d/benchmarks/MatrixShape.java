@@ -0,0 +1,52 @@
+package collections2d.benchmarks;
+
+/**
+ * Shapes of the matrices used by the benchmarks. A shape turns a number of
+ * elements into a number of rows and columns.
+ */
+public enum MatrixShape {
+
+	/**
+	 * Sixteen times more rows than columns.
+	 */
+	TALL(16),
+	/**
+	 * Sixteen times more columns than rows.
+	 */
+	WIDE(1.0 / 16),
+	/**
+	 * As many rows as columns.
+	 */
+	SQUARE(1);
+
+	/**
+	 * Rows per column.
+	 */
+	private final double aspect;
+
+	MatrixShape(double aspect) {
+		this.aspect = aspect;
+	}
+
+	/**
+	 * Returns the number of rows of a matrix of this shape with (about) the
+	 * specified number of elements.
+	 *
+	 * @param elements the number of elements of the matrix
+	 * @return the number of rows, at least one
+	 */
+	public int rows(int elements) {
+		return Math.max(1, (int) Math.round(Math.sqrt(elements * aspect)));
+	}
+
+	/**
+	 * Returns the number of columns of a matrix of this shape with (about) the
+	 * specified number of elements.
+	 *
+	 * @param elements the number of elements of the matrix
+	 * @return the number of columns, at least one
+	 */
+	public int columns(int elements) {
+		return Math.max(1, elements / rows(elements));
+	}
+}
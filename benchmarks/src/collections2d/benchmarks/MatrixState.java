@@ -0,0 +1,88 @@
+package collections2d.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import collections2d.RegularMatrix;
+
+/**
+ * A {@code RegularMatrix} filled with distinct integers, shared by the
+ * benchmarks that do not modify it. The value at {@code (i, j)} is
+ * {@code i * columns + j}, so every element can be found and
+ * {@link #missing} never is.
+ */
+@State(Scope.Benchmark)
+public class MatrixState {
+
+	@Param({"TALL", "WIDE", "SQUARE"})
+	public MatrixShape shape;
+
+	@Param({"100", "10000", "1000000", "10000000"})
+	public int elements;
+
+	public int rows;
+	public int columns;
+
+	public RegularMatrix<Integer> matrix;
+
+	/**
+	 * Rows of the matrix, to be appended by the growth benchmarks.
+	 */
+	public List<List<Integer>> rowList;
+
+	/**
+	 * Columns of the matrix, to be inserted by the growth benchmarks.
+	 */
+	public List<List<Integer>> columnList;
+
+	/**
+	 * An element which is not in the matrix.
+	 */
+	public Integer missing;
+
+	/**
+	 * The element in the middle of the matrix.
+	 */
+	public Integer middle;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		rows = shape.rows(elements);
+		columns = shape.columns(elements);
+		rowList = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			List<Integer> row = new ArrayList<>(columns);
+			for (int j = 0; j < columns; j++)
+				row.add(i * columns + j);
+			rowList.add(row);
+		}
+		columnList = new ArrayList<>(columns);
+		for (int j = 0; j < columns; j++) {
+			List<Integer> column = new ArrayList<>(rows);
+			for (int i = 0; i < rows; i++)
+				column.add(i * columns + j);
+			columnList.add(column);
+		}
+		matrix = build();
+		missing = -1;
+		middle = (rows / 2) * columns + columns / 2;
+	}
+
+	/**
+	 * Returns a new matrix with the values of the state, appending its rows.
+	 *
+	 * @return a new matrix
+	 */
+	public RegularMatrix<Integer> build() {
+		RegularMatrix<Integer> m = new RegularMatrix<>();
+		for (List<Integer> row : rowList)
+			m.addRow(row);
+		return m;
+	}
+}
@@ -0,0 +1,49 @@
+package collections2d.benchmarks;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks for elements in the middle of the matrix and for elements which are
+ * not in it, so the whole matrix is scanned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SearchBenchmark {
+
+	@Benchmark
+	public Point indexOfMiddle(MatrixState s) {
+		return s.matrix.indexOf(s.middle);
+	}
+
+	@Benchmark
+	public Point indexOfMissing(MatrixState s) {
+		return s.matrix.indexOf(s.missing);
+	}
+
+	@Benchmark
+	public Point lastIndexOfMiddle(MatrixState s) {
+		return s.matrix.lastIndexOf(s.middle);
+	}
+
+	@Benchmark
+	public Point lastIndexOfMissing(MatrixState s) {
+		return s.matrix.lastIndexOf(s.missing);
+	}
+
+	@Benchmark
+	public boolean containsMissing(MatrixState s) {
+		return s.matrix.contains(s.missing);
+	}
+}
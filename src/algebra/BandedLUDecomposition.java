@@ -0,0 +1,184 @@
+package algebra;
+
+import java.util.Objects;
+
+import collections2d.BandedMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.SingularMatrixException;
+
+/**
+ * LU decomposition with partial pivoting of a square band matrix {@code A} of
+ * order {@code n}, with lower bandwidth {@code kl} and upper bandwidth
+ * {@code ku}, such that {@code P * A = L * U}. {@code L} is unit lower
+ * triangular with at most {@code kl} multipliers in each column, and {@code U}
+ * is upper triangular with bandwidth {@code kl + ku}, since the rows swapped
+ * by pivoting fill in up to {@code kl} more diagonals.<p>
+ *
+ * Only the band of both factors is stored, {@code 2*kl + ku + 1} values for
+ * each row, so the decomposition takes {@code O(n * kl * (kl + ku))} time and
+ * {@code O(n * (kl + ku))} memory, and each solve {@code O(n * (kl + ku))}
+ * time, instead of the {@code O(n^3)} time and {@code O(n^2)} memory of a
+ * {@link LUDecomposition}. As in LAPACK, the multipliers of each step stay in
+ * the rows where they were computed, and are applied to the right-hand side
+ * with the same row interchanges, in the same order.<p>
+ *
+ * The decomposition always exists, even if {@code A} is singular; in that case
+ * {@link #solve(double[])} throws a {@link SingularMatrixException}.
+ *
+ * @see BandedMatrix
+ * @see LUDecomposition
+ */
+public class BandedLUDecomposition {
+
+	/**
+	 * Rows of the decomposition, each one from column {@code i - kl} to column
+	 * {@code i + kl + ku}. Columns before the diagonal hold the multipliers of
+	 * {@code L}, and the rest holds {@code U}.
+	 */
+	private final double[] lu;
+
+	private final int n, kl, ku, width;
+
+	/**
+	 * {@code piv[k]} is the row interchanged with row {@code k} at step {@code k}.
+	 */
+	private final int[] piv;
+
+	/**
+	 * Sign of the permutation, {@code 1} or {@code -1}.
+	 */
+	private int pivotSign;
+
+	/**
+	 * Computes the LU decomposition of the specified band matrix, which is not
+	 * modified.
+	 *
+	 * @param a the matrix to decompose
+	 * @throws IllegalArgumentException if the band of the factors is too large
+	 *         for an array
+	 */
+	public BandedLUDecomposition(BandedMatrix a) {
+		n = a.rowSize();
+		kl = a.getLowerBandwidth();
+		ku = a.getUpperBandwidth();
+		long w = 2L * kl + ku + 1;
+		if (w * n > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Band of " + w + " values is too large for " + n + " rows");
+		width = (int) w;
+		lu = new double[n * width];
+		piv = new int[n];
+		for (int i = 0; i < n; i++) {
+			int first = Math.max(0, i - kl), last = Math.min(n - 1, i + ku);
+			a.copyRowTo(i, first, lu, index(i, first), last - first + 1);
+		}
+		pivotSign = 1;
+		decompose();
+	}
+
+	/**
+	 * Returns the position in {@code lu} of the element at the specified coordinates.
+	 */
+	private int index(int i, int j) {
+		return i * width + kl + j - i;
+	}
+
+	/**
+	 * Gaussian elimination within the band, one column at a time. At step
+	 * {@code k}, only rows {@code k} to {@code k + kl} have values in column
+	 * {@code k}, and none of them has values after column {@code k + kl + ku}.
+	 */
+	private void decompose() {
+		for (int k = 0; k < n; k++) {
+			int last = Math.min(n - 1, k + kl), right = Math.min(n - 1, k + kl + ku);
+			int p = k;
+			double max = Math.abs(lu[index(k, k)]);
+			for (int i = k + 1; i <= last; i++) {
+				double v = Math.abs(lu[index(i, k)]);
+				if (v > max) {
+					max = v;
+					p = i;
+				}
+			}
+			piv[k] = p;
+			if (p != k) {
+				for (int j = k, a = index(k, k), b = index(p, k); j <= right; j++, a++, b++) {
+					double t = lu[a];
+					lu[a] = lu[b];
+					lu[b] = t;
+				}
+				pivotSign = -pivotSign;
+			}
+			double pivot = lu[index(k, k)];
+			if (pivot == 0.0)
+				continue;
+			int pivotRow = index(k, k);
+			for (int i = k + 1; i <= last; i++) {
+				int row = index(i, k);
+				double l = lu[row] /= pivot;
+				if (l != 0.0)
+					for (int j = 1; j <= right - k; j++)
+						lu[row + j] -= l * lu[pivotRow + j];
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the decomposed matrix is singular.
+	 *
+	 * @return {@code true} if {@code U}, and hence {@code A}, is singular
+	 */
+	public boolean isSingular() {
+		for (int k = 0; k < n; k++)
+			if (lu[index(k, k)] == 0.0)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Returns the determinant of the decomposed matrix, computed as the product
+	 * of the diagonal of {@code U} times the sign of the permutation.
+	 *
+	 * @return the determinant of {@code A}
+	 */
+	public double determinant() {
+		double d = pivotSign;
+		for (int k = 0; k < n; k++)
+			d *= lu[index(k, k)];
+		return d;
+	}
+
+	/**
+	 * Solves {@code A * x = b}, in {@code O(n * (kl + ku))} time.
+	 *
+	 * @param b the right-hand side, of length {@code n}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of the matrix
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public double[] solve(double[] b) {
+		Objects.requireNonNull(b);
+		if (isSingular())
+			throw new SingularMatrixException("Matrix is singular");
+		if (b.length != n)
+			throw new IncompatibleDimensionException("Vector of length " + b.length + " for a matrix of " + n + " rows");
+		double[] x = b.clone();
+		for (int k = 0; k < n; k++) {
+			int p = piv[k];
+			double xk = x[p];
+			x[p] = x[k];
+			x[k] = xk;
+			if (xk != 0.0)
+				for (int i = k + 1, last = Math.min(n - 1, k + kl); i <= last; i++)
+					x[i] -= lu[index(i, k)] * xk;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			int d = index(i, i);
+			double s = x[i];
+			for (int j = i + 1, right = Math.min(n - 1, i + kl + ku); j <= right; j++)
+				s -= lu[d + j - i] * x[j];
+			x[i] = s / lu[d];
+		}
+		return x;
+	}
+}
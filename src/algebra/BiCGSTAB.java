@@ -0,0 +1,97 @@
+package algebra;
+
+/**
+ * Biconjugate gradient stabilized method of van der Vorst, with right
+ * preconditioning, for general non-symmetric systems. Each iteration costs two
+ * products with {@code A}, two systems of the preconditioner, four dot
+ * products and six vector updates, with eight work vectors, and the residuals
+ * it records are those of the unpreconditioned system. It may break down,
+ * when {@code rho} or {@code omega} become zero, in which case the solve
+ * stops and returns {@code false}; {@link GMRES} does not break down.
+ *
+ * @see GMRES
+ */
+public class BiCGSTAB extends IterativeSolver {
+
+	private final double[] r, shadow, p, v, s, t, pHat, sHat;
+
+	/**
+	 * Creates a solver of systems of the specified order, with the default
+	 * tolerance and at most {@code order} iterations.
+	 *
+	 * @param order the order of the systems
+	 * @throws IllegalArgumentException if the order is negative
+	 */
+	public BiCGSTAB(int order) {
+		this(order, DEFAULT_TOLERANCE, order);
+	}
+
+	/**
+	 * Creates a solver of systems of the specified order.
+	 *
+	 * @param order the order of the systems
+	 * @param tolerance the relative tolerance of the residual
+	 * @param maxIterations the maximum number of iterations
+	 * @throws IllegalArgumentException if the order or the maximum number of
+	 *         iterations are negative, or the tolerance is not positive
+	 */
+	public BiCGSTAB(int order, double tolerance, int maxIterations) {
+		super(order, tolerance, maxIterations);
+		r = new double[order];
+		shadow = new double[order];
+		p = new double[order];
+		v = new double[order];
+		s = new double[order];
+		t = new double[order];
+		pHat = new double[order];
+		sHat = new double[order];
+	}
+
+	@Override
+	boolean iterate(LinearOperator a, double[] b, double[] x, Preconditioner m) {
+		residual(a, b, x, r);
+		if (record(norm(r)))
+			return true;
+		System.arraycopy(r, 0, shadow, 0, n);
+		double rho = 1.0, alpha = 1.0, omega = 1.0;
+		boolean first = true;
+		while (!exhausted()) {
+			double next = dot(shadow, r);
+			if (next == 0.0 || omega == 0.0)
+				return false;
+			if (first) {
+				System.arraycopy(r, 0, p, 0, n);
+				first = false;
+			} else {
+				double beta = (next / rho) * (alpha / omega);
+				for (int i = 0; i < n; i++)
+					p[i] = r[i] + beta * (p[i] - omega * v[i]);
+			}
+			rho = next;
+			m.apply(p, pHat);
+			a.apply(pHat, v);
+			double sv = dot(shadow, v);
+			if (sv == 0.0)
+				return false;
+			alpha = rho / sv;
+			for (int i = 0; i < n; i++)
+				s[i] = r[i] - alpha * v[i];
+			double sNorm = norm(s);
+			if (sNorm <= threshold) {
+				axpy(alpha, pHat, x);
+				return record(sNorm);
+			}
+			m.apply(s, sHat);
+			a.apply(sHat, t);
+			double tt = dot(t, t);
+			omega = tt == 0.0 ? 0.0 : dot(t, s) / tt;
+			for (int i = 0; i < n; i++) {
+				x[i] += alpha * pHat[i] + omega * sHat[i];
+				r[i] = s[i] - omega * t[i];
+			}
+			if (record(norm(r)))
+				return true;
+		}
+		return false;
+	}
+}
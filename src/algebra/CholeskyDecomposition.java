@@ -0,0 +1,449 @@
+package algebra;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.LowerTriangularMatrix;
+import collections2d.NotPositiveDefiniteMatrixException;
+import collections2d.NumericMatrix;
+
+/**
+ * Cholesky decomposition of a symmetric positive-definite matrix {@code A} of
+ * order {@code n}, such that {@code A = L * L^T}, where {@code L} is a lower
+ * triangular matrix with a positive diagonal.<p>
+ *
+ * As in LAPACK, only the elements on and below the diagonal of {@code A} are
+ * read, and the matrix is assumed to be symmetric. They are copied into an
+ * array per row, of length {@code i + 1} for row {@code i}, and {@code L} is
+ * computed in place in those arrays. The decomposition takes about
+ * {@code n^3/3} multiplications, half of those of a {@link LUDecomposition},
+ * and needs no pivoting. It is computed by blocks of {@value #NB} columns: the
+ * diagonal block is decomposed, the rows below it are solved against it, and
+ * the rest of the lower triangle is updated tile by tile with the dot
+ * products of those rows, in parallel with a {@link ForkJoinPool} for large
+ * matrices.<p>
+ *
+ * If {@code A} is not positive definite, the constructor throws a
+ * {@link NotPositiveDefiniteMatrixException}. Once computed, the
+ * decomposition can be reused for the determinant and any number of solves,
+ * and it can be modified by {@link #update(double[]) rank-1 updates} and
+ * {@link #downdate(double[]) downdates} in {@code O(n^2)} time, instead of
+ * decomposing {@code A + x * x^T} or {@code A - x * x^T} again.
+ *
+ * @see LowerTriangularMatrix
+ * @see collections2d.SymmetricMatrix
+ */
+public class CholeskyDecomposition {
+
+	/**
+	 * Number of columns of each block, and number of rows of the tiles updated
+	 * by each task.
+	 */
+	static final int NB = 64;
+
+	/**
+	 * Matrices of a smaller order cubed are decomposed in the calling thread.
+	 */
+	private static final long PARALLEL_THRESHOLD = 1L << 21;
+
+	/**
+	 * Rows of {@code L}, row {@code i} with the columns {@code 0} to {@code i}.
+	 */
+	private final double[][] l;
+
+	private final int n;
+
+	/**
+	 * Computes the Cholesky decomposition of the specified matrix, which is not
+	 * modified, in the common pool.
+	 *
+	 * @param a the matrix to decompose
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws NotPositiveDefiniteMatrixException if the matrix is not positive
+	 *         definite
+	 */
+	public CholeskyDecomposition(NumericMatrix a) {
+		this(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the Cholesky decomposition of the specified matrix, which is not
+	 * modified, updating the tiles of large matrices in the specified pool.
+	 *
+	 * @param a the matrix to decompose
+	 * @param pool the pool where the tiles are updated
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws NotPositiveDefiniteMatrixException if the matrix is not positive
+	 *         definite
+	 */
+	public CholeskyDecomposition(NumericMatrix a, ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+		n = a.rowSize();
+		if (a.columnSize() != n)
+			throw new IncompatibleDimensionException("Matrix " + n + "x" + a.columnSize() + " is not square");
+		l = new double[n][];
+		for (int i = 0; i < n; i++) {
+			l[i] = new double[i + 1];
+			a.copyRowTo(i, 0, l[i], 0, i + 1);
+		}
+		boolean parallel = (long) n * n * n >= PARALLEL_THRESHOLD && pool.getParallelism() > 1;
+		for (int kb = 0; kb < n; kb += NB) {
+			int kend = Math.min(n, kb + NB);
+			decomposeDiagonal(kb, kend);
+			if (kend == n)
+				break;
+			if (parallel) {
+				pool.invoke(new RowBlocks(this, false, kb, kend, kend, n));
+				pool.invoke(new RowBlocks(this, true, kb, kend, kend, n));
+			} else {
+				solvePanel(kb, kend, kend, n);
+				updateTrailing(kb, kend, kend, n);
+			}
+		}
+	}
+
+	/**
+	 * Decomposes the diagonal block of the columns {@code kb} to {@code kend},
+	 * already updated with the columns before {@code kb}.
+	 */
+	private void decomposeDiagonal(int kb, int kend) {
+		for (int j = kb; j < kend; j++) {
+			double[] lj = l[j];
+			double d = lj[j] - dot(lj, lj, kb, j);
+			if (!(d > 0.0))
+				throw new NotPositiveDefiniteMatrixException("Matrix is not positive definite: leading minor of order "
+						+ (j + 1) + " is not positive");
+			double ljj = lj[j] = Math.sqrt(d);
+			for (int i = j + 1; i < kend; i++) {
+				double[] li = l[i];
+				li[j] = (li[j] - dot(li, lj, kb, j)) / ljj;
+			}
+		}
+	}
+
+	/**
+	 * Solves the rows {@code from} to {@code to}, in the columns {@code kb} to
+	 * {@code kend}, against the transpose of the decomposed diagonal block.
+	 */
+	private void solvePanel(int kb, int kend, int from, int to) {
+		for (int i = from; i < to; i++) {
+			double[] li = l[i];
+			for (int j = kb; j < kend; j++)
+				li[j] = (li[j] - dot(li, l[j], kb, j)) / l[j][j];
+		}
+	}
+
+	/**
+	 * Subtracts from the lower triangle of the rows {@code from} to {@code to},
+	 * after column {@code kend}, the products of the solved panel of the
+	 * columns {@code kb} to {@code kend}. Each tile of {@value #NB} columns is
+	 * updated four columns at a time, reading each value of a row once for
+	 * the four of them.
+	 */
+	private void updateTrailing(int kb, int kend, int from, int to) {
+		for (int ib = from; ib < to; ib += NB) {
+			int ie = Math.min(to, ib + NB);
+			for (int jb = kend; jb < ie; jb += NB) {
+				int je = Math.min(ie, jb + NB);
+				for (int i = Math.max(ib, jb); i < ie; i++) {
+					double[] li = l[i];
+					int j = jb, last = Math.min(je, i + 1);
+					for (; j + 3 < last; j += 4) {
+						double[] l0 = l[j], l1 = l[j + 1], l2 = l[j + 2], l3 = l[j + 3];
+						double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+						for (int p = kb; p < kend; p++) {
+							double v = li[p];
+							s0 += v * l0[p];
+							s1 += v * l1[p];
+							s2 += v * l2[p];
+							s3 += v * l3[p];
+						}
+						li[j] -= s0;
+						li[j + 1] -= s1;
+						li[j + 2] -= s2;
+						li[j + 3] -= s3;
+					}
+					for (; j < last; j++)
+						li[j] -= dot(li, l[j], kb, kend);
+				}
+			}
+		}
+	}
+
+	private static double dot(double[] a, double[] b, int from, int to) {
+		double s = 0.0;
+		for (int p = from; p < to; p++)
+			s += a[p] * b[p];
+		return s;
+	}
+
+	/**
+	 * Returns the order of the decomposed matrix.
+	 *
+	 * @return the number of rows and columns of {@code A}
+	 */
+	public int order() {
+		return n;
+	}
+
+	/**
+	 * Returns the lower triangular factor {@code L}.
+	 *
+	 * @return a new lower triangular matrix with {@code L}
+	 */
+	public LowerTriangularMatrix getL() {
+		LowerTriangularMatrix m = new LowerTriangularMatrix(n);
+		for (int i = 0; i < n; i++)
+			m.copyRowFrom(i, 0, l[i], 0, i + 1);
+		return m;
+	}
+
+	/**
+	 * Returns the determinant of the decomposed matrix, computed as the square
+	 * of the product of the diagonal of {@code L}. For large matrices it easily
+	 * overflows or underflows, in which case {@link #logDeterminant()} should be
+	 * used instead.
+	 *
+	 * @return the determinant of {@code A}
+	 */
+	public double determinant() {
+		double d = 1.0;
+		for (int i = 0; i < n; i++)
+			d *= l[i][i];
+		return d * d;
+	}
+
+	/**
+	 * Returns the natural logarithm of the determinant of the decomposed
+	 * matrix, computed as twice the sum of the logarithms of the diagonal of
+	 * {@code L}, which does not overflow.
+	 *
+	 * @return the natural logarithm of the determinant of {@code A}
+	 */
+	public double logDeterminant() {
+		double s = 0.0;
+		for (int i = 0; i < n; i++)
+			s += Math.log(l[i][i]);
+		return 2.0 * s;
+	}
+
+	/**
+	 * Solves {@code A * x = b}, solving {@code L * y = b} by forward
+	 * substitution and then {@code L^T * x = y} by back substitution.
+	 *
+	 * @param b the right-hand side, of length {@code order()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of the matrix
+	 */
+	public double[] solve(double[] b) {
+		checkLength(b);
+		double[] x = forward(b);
+		for (int i = n - 1; i >= 0; i--) {
+			double[] li = l[i];
+			double xi = x[i] /= li[i];
+			for (int k = 0; k < i; k++)
+				x[k] -= li[k] * xi;
+		}
+		return x;
+	}
+
+	/**
+	 * Solves {@code A * X = B}, solving all the columns of {@code B} at the same time.
+	 *
+	 * @param b the right-hand sides, a matrix of {@code order()} rows
+	 * @return a new matrix with the solution {@code X}
+	 * @throws IncompatibleDimensionException if the rows of {@code b} are not as
+	 *         many as the order of the matrix
+	 */
+	public DoubleMatrix solve(NumericMatrix b) {
+		if (b.rowSize() != n)
+			throw new IncompatibleDimensionException("Matrix of " + b.rowSize() + " rows for a matrix of order " + n);
+		int columns = b.columnSize();
+		double[][] x = new double[n][columns];
+		for (int i = 0; i < n; i++)
+			b.copyRowTo(i, 0, x[i], 0, columns);
+		substitute(x, columns);
+		DoubleMatrix result = DoubleMatrix.zeros(n, columns);
+		for (int i = 0; i < n; i++)
+			result.copyRowFrom(i, 0, x[i], 0, columns);
+		return result;
+	}
+
+	/**
+	 * Returns the inverse of the decomposed matrix, solving {@code A * X = I}.
+	 *
+	 * @return a new matrix with the inverse of {@code A}
+	 */
+	public DoubleMatrix inverse() {
+		double[][] x = new double[n][n];
+		for (int i = 0; i < n; i++)
+			x[i][i] = 1.0;
+		substitute(x, n);
+		return new DoubleMatrix(x);
+	}
+
+	/**
+	 * Forward and back substitution over whole rows of {@code x}, which holds
+	 * {@code B}.
+	 */
+	private void substitute(double[][] x, int columns) {
+		for (int i = 0; i < n; i++) {
+			double[] li = l[i], xi = x[i];
+			for (int k = 0; k < i; k++) {
+				double v = li[k];
+				if (v != 0.0) {
+					double[] xk = x[k];
+					for (int j = 0; j < columns; j++)
+						xi[j] -= v * xk[j];
+				}
+			}
+			double d = li[i];
+			for (int j = 0; j < columns; j++)
+				xi[j] /= d;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double[] li = l[i], xi = x[i];
+			double d = li[i];
+			for (int j = 0; j < columns; j++)
+				xi[j] /= d;
+			for (int k = 0; k < i; k++) {
+				double v = li[k];
+				if (v != 0.0) {
+					double[] xk = x[k];
+					for (int j = 0; j < columns; j++)
+						xk[j] -= v * xi[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves {@code L * y = b} by forward substitution.
+	 */
+	private double[] forward(double[] b) {
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			double[] li = l[i];
+			y[i] = (b[i] - dot(li, y, 0, i)) / li[i];
+		}
+		return y;
+	}
+
+	/**
+	 * Modifies this decomposition to be the decomposition of
+	 * {@code A + x * x^T}, in {@code O(n^2)} time. Each column of {@code L} is
+	 * combined with {@code x} by a plane rotation that keeps the diagonal
+	 * positive.
+	 *
+	 * @param x the vector of the update, of length {@code order()}, which is
+	 *        not modified
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of the matrix
+	 */
+	public void update(double[] x) {
+		checkLength(x);
+		double[] w = x.clone();
+		for (int k = 0; k < n; k++) {
+			double lkk = l[k][k], wk = w[k];
+			if (wk == 0.0)
+				continue;
+			double r = Math.sqrt(lkk * lkk + wk * wk);
+			double c = r / lkk, s = wk / lkk;
+			l[k][k] = r;
+			for (int i = k + 1; i < n; i++) {
+				double[] li = l[i];
+				double v = li[k] = (li[k] + s * w[i]) / c;
+				w[i] = c * w[i] - s * v;
+			}
+		}
+	}
+
+	/**
+	 * Modifies this decomposition to be the decomposition of
+	 * {@code A - x * x^T}, in {@code O(n^2)} time. As in LINPACK, {@code L * p = x}
+	 * is solved first: the downdated matrix is positive definite only if
+	 * {@code ||p|| < 1}, so this decomposition is not modified at all if it is
+	 * not. Then the rotations that reduce {@code p} are applied to each row of
+	 * {@code L}.
+	 *
+	 * @param x the vector of the downdate, of length {@code order()}, which is
+	 *        not modified
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of the matrix
+	 * @throws NotPositiveDefiniteMatrixException if {@code A - x * x^T} is not
+	 *         positive definite
+	 */
+	public void downdate(double[] x) {
+		checkLength(x);
+		double[] p = forward(x);
+		double norm = dot(p, p, 0, n);
+		if (!(norm < 1.0))
+			throw new NotPositiveDefiniteMatrixException("Downdated matrix is not positive definite");
+		double alpha = Math.sqrt(1.0 - norm);
+		double[] c = new double[n], s = new double[n];
+		for (int i = n - 1; i >= 0; i--) {
+			double scale = alpha + Math.abs(p[i]);
+			double a = alpha / scale, b = p[i] / scale;
+			double h = Math.sqrt(a * a + b * b);
+			c[i] = a / h;
+			s[i] = b / h;
+			alpha = scale * h;
+		}
+		for (int j = 0; j < n; j++) {
+			double[] lj = l[j];
+			double xx = 0.0;
+			for (int i = j; i >= 0; i--) {
+				double t = c[i] * xx + s[i] * lj[i];
+				lj[i] = c[i] * lj[i] - s[i] * xx;
+				xx = t;
+			}
+		}
+	}
+
+	private void checkLength(double[] v) {
+		if (v.length != n)
+			throw new IncompatibleDimensionException("Vector of length " + v.length + " for a matrix of order " + n);
+	}
+
+	/**
+	 * Splits the rows after a block of columns in halves (at multiples of
+	 * {@code NB}) until each task has a single tile of rows, which is solved
+	 * against the diagonal block or updated with the solved panel.
+	 */
+	private static final class RowBlocks extends RecursiveAction {
+
+		private static final long serialVersionUID = -1873602553413329620L;
+
+		private final transient CholeskyDecomposition decomposition;
+		private final boolean update;
+		private final int kb, kend, from, to;
+
+		RowBlocks(CholeskyDecomposition decomposition, boolean update, int kb, int kend, int from, int to) {
+			this.decomposition = decomposition;
+			this.update = update;
+			this.kb = kb;
+			this.kend = kend;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int blocks = (to - from + NB - 1) / NB;
+			if (blocks <= 1) {
+				if (update)
+					decomposition.updateTrailing(kb, kend, from, to);
+				else
+					decomposition.solvePanel(kb, kend, from, to);
+			} else {
+				int mid = from + (blocks / 2) * NB;
+				invokeAll(new RowBlocks(decomposition, update, kb, kend, from, mid),
+						new RowBlocks(decomposition, update, kb, kend, mid, to));
+			}
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package algebra;
+
+/**
+ * Preconditioned conjugate gradient method, for symmetric positive-definite
+ * systems. Each iteration costs a product with {@code A}, a system of the
+ * preconditioner, which must be symmetric positive definite as well, two dot
+ * products and three vector updates, with four work vectors. In exact
+ * arithmetic it converges in at most {@code n} iterations, and in far fewer if
+ * the eigenvalues of the preconditioned matrix are clustered.
+ *
+ * @see CholeskyDecomposition
+ */
+public class ConjugateGradient extends IterativeSolver {
+
+	private final double[] r, z, p, q;
+
+	/**
+	 * Creates a solver of systems of the specified order, with the default
+	 * tolerance and at most {@code order} iterations.
+	 *
+	 * @param order the order of the systems
+	 * @throws IllegalArgumentException if the order is negative
+	 */
+	public ConjugateGradient(int order) {
+		this(order, DEFAULT_TOLERANCE, order);
+	}
+
+	/**
+	 * Creates a solver of systems of the specified order.
+	 *
+	 * @param order the order of the systems
+	 * @param tolerance the relative tolerance of the residual
+	 * @param maxIterations the maximum number of iterations
+	 * @throws IllegalArgumentException if the order or the maximum number of
+	 *         iterations are negative, or the tolerance is not positive
+	 */
+	public ConjugateGradient(int order, double tolerance, int maxIterations) {
+		super(order, tolerance, maxIterations);
+		r = new double[order];
+		z = new double[order];
+		p = new double[order];
+		q = new double[order];
+	}
+
+	@Override
+	boolean iterate(LinearOperator a, double[] b, double[] x, Preconditioner m) {
+		residual(a, b, x, r);
+		if (record(norm(r)))
+			return true;
+		m.apply(r, z);
+		System.arraycopy(z, 0, p, 0, n);
+		double rz = dot(r, z);
+		while (!exhausted()) {
+			a.apply(p, q);
+			double pq = dot(p, q);
+			if (pq == 0.0 || rz == 0.0)
+				return false;
+			double alpha = rz / pq;
+			axpy(alpha, p, x);
+			axpy(-alpha, q, r);
+			if (record(norm(r)))
+				return true;
+			m.apply(r, z);
+			double next = dot(r, z);
+			double beta = next / rz;
+			rz = next;
+			for (int i = 0; i < n; i++)
+				p[i] = z[i] + beta * p[i];
+		}
+		return false;
+	}
+}
@@ -0,0 +1,167 @@
+package algebra;
+
+import java.util.Arrays;
+
+/**
+ * Restarted generalized minimal residual method, GMRES(m), with right
+ * preconditioning, for general non-symmetric systems. Each cycle builds an
+ * orthonormal basis of up to {@code m} vectors of the Krylov space by the
+ * Arnoldi process, with modified Gram-Schmidt, and the least squares problem
+ * of the Hessenberg matrix is reduced by Givens rotations as it grows, so the
+ * norm of the residual is known at each iteration without computing it. At
+ * the end of the cycle, the correction is computed from the basis and the
+ * method restarts from the new residual.<p>
+ *
+ * Each iteration costs a product with {@code A}, a system of the
+ * preconditioner, and {@code j} dot products and vector updates for the
+ * {@code j}-th vector of the basis, so the restart length trades memory,
+ * {@code (m + 3) * n} values, and the cost of the iterations against
+ * convergence. The residual of each iteration is minimal over the Krylov space,
+ * so GMRES does not break down, and the residuals it records never increase
+ * within a cycle.
+ *
+ * @see BiCGSTAB
+ */
+public class GMRES extends IterativeSolver {
+
+	/**
+	 * Default number of iterations of each cycle.
+	 */
+	static final int DEFAULT_RESTART = 30;
+
+	private final int restart;
+
+	/**
+	 * Basis of the Krylov space, one vector per row, and one more row for the
+	 * vector computed by each iteration.
+	 */
+	private final double[][] v;
+
+	/**
+	 * Hessenberg matrix, reduced to triangular by the rotations, by columns:
+	 * {@code h[j]} holds the column {@code j}, of length {@code j + 2}.
+	 */
+	private final double[][] h;
+
+	private final double[] cos, sin, g, y, w, u;
+
+	/**
+	 * Creates a solver of systems of the specified order, with the default
+	 * tolerance, cycles of {@value #DEFAULT_RESTART} iterations, or
+	 * {@code order} if it is smaller, and at most {@code order} iterations.
+	 *
+	 * @param order the order of the systems
+	 * @throws IllegalArgumentException if the order is negative
+	 */
+	public GMRES(int order) {
+		this(order, Math.max(1, Math.min(order, DEFAULT_RESTART)), DEFAULT_TOLERANCE, order);
+	}
+
+	/**
+	 * Creates a solver of systems of the specified order.
+	 *
+	 * @param order the order of the systems
+	 * @param restart the number of iterations of each cycle
+	 * @param tolerance the relative tolerance of the residual
+	 * @param maxIterations the maximum number of iterations, of all the cycles
+	 * @throws IllegalArgumentException if the order or the maximum number of
+	 *         iterations are negative, the restart length is not positive or
+	 *         the tolerance is not positive
+	 */
+	public GMRES(int order, int restart, double tolerance, int maxIterations) {
+		super(order, tolerance, maxIterations);
+		if (restart <= 0)
+			throw new IllegalArgumentException("Restart length is not positive: " + restart);
+		this.restart = restart;
+		v = new double[restart + 1][order];
+		h = new double[restart][];
+		for (int j = 0; j < restart; j++)
+			h[j] = new double[j + 2];
+		cos = new double[restart];
+		sin = new double[restart];
+		g = new double[restart + 1];
+		y = new double[restart];
+		w = new double[order];
+		u = new double[order];
+	}
+
+	/**
+	 * Returns the number of iterations of each cycle.
+	 *
+	 * @return the restart length {@code m}
+	 */
+	public int restart() {
+		return restart;
+	}
+
+	@Override
+	boolean iterate(LinearOperator a, double[] b, double[] x, Preconditioner m) {
+		double[] r = v[0];
+		residual(a, b, x, r);
+		double beta = norm(r);
+		if (record(beta))
+			return true;
+		while (!exhausted()) {
+			for (int i = 0; i < n; i++)
+				r[i] /= beta;
+			g[0] = beta;
+			int j = 0;
+			boolean converged = false;
+			while (j < restart && !exhausted() && !converged) {
+				double[] hj = h[j], next = v[j + 1];
+				m.apply(v[j], w);
+				a.apply(w, next);
+				for (int i = 0; i <= j; i++) {
+					double[] vi = v[i];
+					double c = dot(next, vi);
+					hj[i] = c;
+					axpy(-c, vi, next);
+				}
+				double norm = norm(next);
+				hj[j + 1] = norm;
+				if (norm != 0.0)
+					for (int i = 0; i < n; i++)
+						next[i] /= norm;
+				for (int i = 0; i < j; i++) {
+					double t = cos[i] * hj[i] + sin[i] * hj[i + 1];
+					hj[i + 1] = -sin[i] * hj[i] + cos[i] * hj[i + 1];
+					hj[i] = t;
+				}
+				double d = Math.hypot(hj[j], hj[j + 1]);
+				cos[j] = d == 0.0 ? 1.0 : hj[j] / d;
+				sin[j] = d == 0.0 ? 0.0 : hj[j + 1] / d;
+				hj[j] = d;
+				hj[j + 1] = 0.0;
+				g[j + 1] = -sin[j] * g[j];
+				g[j] *= cos[j];
+				j++;
+				converged = record(Math.abs(g[j])) || norm == 0.0;
+			}
+			correct(x, m, j);
+			residual(a, b, x, r);
+			beta = norm(r);
+			if (converged && beta <= threshold)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Solves the triangular system of the first {@code j} columns of the
+	 * reduced Hessenberg matrix, and adds the preconditioned combination of the
+	 * basis, {@code M^-1 * V * y}, to {@code x}.
+	 */
+	private void correct(double[] x, Preconditioner m, int j) {
+		for (int i = j - 1; i >= 0; i--) {
+			double s = g[i];
+			for (int k = i + 1; k < j; k++)
+				s -= h[k][i] * y[k];
+			y[i] = h[i][i] == 0.0 ? 0.0 : s / h[i][i];
+		}
+		Arrays.fill(u, 0.0);
+		for (int i = 0; i < j; i++)
+			axpy(y[i], v[i], u);
+		m.apply(u, w);
+		axpy(1.0, w, x);
+	}
+}
@@ -0,0 +1,114 @@
+package algebra;
+
+import java.util.Arrays;
+
+import collections2d.IncompatibleDimensionException;
+import collections2d.SingularMatrixException;
+import collections2d.SparseMatrix;
+
+/**
+ * Incomplete LU preconditioner without fill-in, ILU(0), of a square
+ * {@link SparseMatrix}: {@code M = L * U}, where {@code L} is unit lower
+ * triangular and {@code U} upper triangular, with the same non-zero pattern as
+ * {@code A}. It is the Gaussian elimination of {@code A}, without pivoting,
+ * that drops every value that would fall outside that pattern, so it takes the
+ * same memory as {@code A} and each of its systems costs about as much as a
+ * product with {@code A}.<p>
+ *
+ * The factors are computed in a copy of the compressed rows of {@code A}, row
+ * by row, with an array that maps each column of the current row to its
+ * position, as in Saad's <i>Iterative Methods for Sparse Linear Systems</i>.
+ * Every diagonal element of {@code A} must be stored, and every pivot must be
+ * different from zero, which holds for diagonally dominant matrices and for
+ * M-matrices.
+ *
+ * @see JacobiPreconditioner
+ */
+public class IncompleteLUPreconditioner implements Preconditioner {
+
+	private final int n;
+
+	/**
+	 * Compressed rows of the factors: {@code L} before the diagonal of each row,
+	 * without its unit diagonal, and {@code U} from the diagonal.
+	 */
+	private final int[] rowPointers, columns;
+
+	private final double[] values;
+
+	/**
+	 * Position of the diagonal element of each row.
+	 */
+	private final int[] diagonal;
+
+	/**
+	 * Computes the ILU(0) factorization of the specified matrix.
+	 *
+	 * @param a the square sparse matrix, which is not modified
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws SingularMatrixException if a diagonal element is not stored, or
+	 *         a pivot is zero
+	 */
+	public IncompleteLUPreconditioner(SparseMatrix a) {
+		n = a.rowSize();
+		if (a.columnSize() != n)
+			throw new IncompatibleDimensionException("Matrix " + n + "x" + a.columnSize() + " is not square");
+		rowPointers = new int[n + 1];
+		columns = new int[a.nonZeroCount()];
+		values = new double[columns.length];
+		diagonal = new int[n];
+		for (int i = 0; i < n; i++) {
+			int from = rowPointers[i];
+			int to = rowPointers[i + 1] = from + a.copyRowNonZeros(i, columns, values, from);
+			int d = Arrays.binarySearch(columns, from, to, i);
+			if (d < 0)
+				throw new SingularMatrixException("Diagonal element of row " + i + " is not stored");
+			diagonal[i] = d;
+		}
+		factor();
+	}
+
+	private void factor() {
+		int[] position = new int[n];
+		Arrays.fill(position, -1);
+		for (int i = 0; i < n; i++) {
+			int from = rowPointers[i], to = rowPointers[i + 1];
+			for (int p = from; p < to; p++)
+				position[columns[p]] = p;
+			for (int p = from; p < diagonal[i]; p++) {
+				int k = columns[p];
+				double lik = values[p] /= values[diagonal[k]];
+				for (int q = diagonal[k] + 1, end = rowPointers[k + 1]; q < end; q++) {
+					int at = position[columns[q]];
+					if (at >= 0)
+						values[at] -= lik * values[q];
+				}
+			}
+			if (values[diagonal[i]] == 0.0)
+				throw new SingularMatrixException("Zero pivot at row " + i);
+			for (int p = from; p < to; p++)
+				position[columns[p]] = -1;
+		}
+	}
+
+	/**
+	 * Solves {@code L * U * z = r}, by forward substitution with {@code L} and
+	 * back substitution with {@code U}, in {@code z}.
+	 */
+	@Override
+	public void apply(double[] r, double[] z) {
+		for (int i = 0; i < n; i++) {
+			double s = r[i];
+			for (int p = rowPointers[i]; p < diagonal[i]; p++)
+				s -= values[p] * z[columns[p]];
+			z[i] = s;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double s = z[i];
+			int d = diagonal[i];
+			for (int p = d + 1, end = rowPointers[i + 1]; p < end; p++)
+				s -= values[p] * z[columns[p]];
+			z[i] = s / values[d];
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+
+/**
+ * Skeleton of the iterative solvers of square linear systems {@code A * x = b}
+ * of order {@code n}, which only need the product of {@code A} with a vector,
+ * as a {@link LinearOperator}, and optionally a {@link Preconditioner}.<p>
+ *
+ * Each solver allocates its work vectors, and the array of the residual
+ * history, once, in its constructor, for its order and maximum number of
+ * iterations, and reuses them in every call to {@code solve}. As long as the
+ * operator and the preconditioner do not allocate, no iteration allocates.
+ * {@code x} holds the initial guess, and is updated in place with the
+ * solution. A system is solved when the norm of its residual
+ * {@code ||b - A * x||} is at most {@code tolerance * ||b||}.<p>
+ *
+ * After each solve, {@link #iterations()}, {@link #residualNorm()} and
+ * {@link #getResidualHistory()} tell how the solver converged, and
+ * {@link #isConverged()} whether it did. A solve that does not converge
+ * within the maximum number of iterations, or breaks down, leaves the last
+ * iterate in {@code x} and returns {@code false}, instead of throwing.
+ *
+ * @see ConjugateGradient
+ * @see BiCGSTAB
+ * @see GMRES
+ */
+public abstract class IterativeSolver {
+
+	/**
+	 * Default relative tolerance of the residual.
+	 */
+	static final double DEFAULT_TOLERANCE = 1e-10;
+
+	final int n;
+
+	final double tolerance;
+
+	final int maxIterations;
+
+	/**
+	 * Norm of the residual of the initial guess and after each iteration.
+	 */
+	private final double[] history;
+
+	private int iterations;
+
+	private boolean converged, recorded;
+
+	/**
+	 * Threshold of the norm of the residual of the current solve.
+	 */
+	double threshold;
+
+	/**
+	 * Sole constructor, for the subclasses.
+	 *
+	 * @param order the order of the systems
+	 * @param tolerance the relative tolerance of the residual
+	 * @param maxIterations the maximum number of iterations
+	 * @throws IllegalArgumentException if the order or the maximum number of
+	 *         iterations are negative, or the tolerance is not positive
+	 */
+	IterativeSolver(int order, double tolerance, int maxIterations) {
+		if (order < 0)
+			throw new IllegalArgumentException("Negative order: " + order);
+		if (!(tolerance > 0.0))
+			throw new IllegalArgumentException("Tolerance is not positive: " + tolerance);
+		if (maxIterations < 0)
+			throw new IllegalArgumentException("Negative maximum number of iterations: " + maxIterations);
+		n = order;
+		this.tolerance = tolerance;
+		this.maxIterations = maxIterations;
+		history = new double[maxIterations + 1];
+	}
+
+	/**
+	 * Solves {@code A * x = b} without preconditioning.
+	 *
+	 * @param a the matrix, which is not modified
+	 * @param b the right-hand side, of length {@code order()}, which is not modified
+	 * @param x the initial guess, of length {@code order()}, replaced by the solution
+	 * @return {@code true} if the solve converged
+	 * @throws IncompatibleDimensionException if the matrix is not square of order
+	 *         {@code order()}, or the vectors are not of length {@code order()}
+	 */
+	public boolean solve(NumericMatrix a, double[] b, double[] x) {
+		if (a.rowSize() != n)
+			throw new IncompatibleDimensionException("Matrix " + a.rowSize() + "x" + a.columnSize()
+					+ " for a solver of order " + n);
+		return solve(LinearOperator.of(a), b, x, Preconditioner.identity());
+	}
+
+	/**
+	 * Solves {@code A * x = b}, with the specified preconditioner.
+	 *
+	 * @param a the operator {@code A}
+	 * @param b the right-hand side, of length {@code order()}, which is not modified
+	 * @param x the initial guess, of length {@code order()}, replaced by the solution
+	 * @param m the preconditioner, which may be {@link Preconditioner#identity()}
+	 * @return {@code true} if the solve converged
+	 * @throws IncompatibleDimensionException if the vectors are not of length
+	 *         {@code order()}
+	 */
+	public boolean solve(LinearOperator a, double[] b, double[] x, Preconditioner m) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(m);
+		if (b.length != n || x.length != n)
+			throw new IncompatibleDimensionException("Vectors of length " + b.length + " and " + x.length
+					+ " for a solver of order " + n);
+		iterations = 0;
+		converged = false;
+		recorded = false;
+		threshold = tolerance * norm(b);
+		converged = iterate(a, b, x, m);
+		return converged;
+	}
+
+	/**
+	 * Runs the iterations of the method, calling {@link #record(double)} with
+	 * the norm of the initial residual and after each iteration, and returns
+	 * {@code true} if the residual fell below {@link #threshold}.
+	 */
+	abstract boolean iterate(LinearOperator a, double[] b, double[] x, Preconditioner m);
+
+	/**
+	 * Records the norm of the residual, the initial one or the one after an
+	 * iteration, and returns {@code true} if it is below the threshold.
+	 */
+	final boolean record(double residual) {
+		if (recorded)
+			iterations++;
+		else
+			recorded = true;
+		history[iterations] = residual;
+		return residual <= threshold;
+	}
+
+	/**
+	 * Returns {@code true} if no more iterations are allowed.
+	 */
+	final boolean exhausted() {
+		return iterations >= maxIterations;
+	}
+
+	/**
+	 * Stores {@code b - A * x} into {@code r}, computing {@code A * x} in
+	 * {@code r} first.
+	 */
+	final void residual(LinearOperator a, double[] b, double[] x, double[] r) {
+		a.apply(x, r);
+		for (int i = 0; i < n; i++)
+			r[i] = b[i] - r[i];
+	}
+
+	final double dot(double[] x, double[] y) {
+		double s = 0.0;
+		for (int i = 0; i < n; i++)
+			s += x[i] * y[i];
+		return s;
+	}
+
+	final double norm(double[] x) {
+		return Math.sqrt(dot(x, x));
+	}
+
+	/**
+	 * Computes {@code y = y + alpha * x}.
+	 */
+	final void axpy(double alpha, double[] x, double[] y) {
+		for (int i = 0; i < n; i++)
+			y[i] += alpha * x[i];
+	}
+
+	/**
+	 * Returns the order of the systems of this solver.
+	 *
+	 * @return the number of unknowns
+	 */
+	public int order() {
+		return n;
+	}
+
+	/**
+	 * Returns the number of iterations of the last solve.
+	 *
+	 * @return the number of iterations
+	 */
+	public int iterations() {
+		return iterations;
+	}
+
+	/**
+	 * Returns {@code true} if the last solve converged.
+	 *
+	 * @return {@code true} if the residual fell below the tolerance
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * Returns the norm of the last residual of the last solve.
+	 *
+	 * @return the norm of the residual after the last iteration
+	 */
+	public double residualNorm() {
+		return history[iterations];
+	}
+
+	/**
+	 * Returns the norms of the residuals of the last solve: the one of the
+	 * initial guess, followed by the one after each iteration.
+	 *
+	 * @return a new array of length {@code iterations() + 1}
+	 */
+	public double[] getResidualHistory() {
+		return Arrays.copyOf(history, iterations + 1);
+	}
+}
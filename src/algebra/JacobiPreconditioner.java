@@ -0,0 +1,47 @@
+package algebra;
+
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+import collections2d.SingularMatrixException;
+
+/**
+ * Jacobi preconditioner, the diagonal {@code M = diag(A)} of a square matrix.
+ * It is the cheapest preconditioner, a multiplication per value, and it
+ * corrects the different scales of the rows of {@code A}, which is often
+ * enough for diagonally dominant matrices.
+ *
+ * @see IncompleteLUPreconditioner
+ */
+public class JacobiPreconditioner implements Preconditioner {
+
+	/**
+	 * Inverses of the diagonal of {@code A}.
+	 */
+	private final double[] inverse;
+
+	/**
+	 * Creates the Jacobi preconditioner of the specified matrix.
+	 *
+	 * @param a the square matrix, which is not modified
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws SingularMatrixException if any value of the diagonal is zero
+	 */
+	public JacobiPreconditioner(NumericMatrix a) {
+		int n = a.rowSize();
+		if (a.columnSize() != n)
+			throw new IncompatibleDimensionException("Matrix " + n + "x" + a.columnSize() + " is not square");
+		inverse = new double[n];
+		for (int i = 0; i < n; i++) {
+			double d = a.getDouble(i, i);
+			if (d == 0.0)
+				throw new SingularMatrixException("Zero diagonal value at row " + i);
+			inverse[i] = 1.0 / d;
+		}
+	}
+
+	@Override
+	public void apply(double[] r, double[] z) {
+		for (int i = 0; i < inverse.length; i++)
+			z[i] = inverse[i] * r[i];
+	}
+}
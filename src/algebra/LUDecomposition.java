@@ -0,0 +1,313 @@
+package algebra;
+
+import java.util.Objects;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+import collections2d.SingularMatrixException;
+
+/**
+ * LU decomposition with partial pivoting of a {@code m x n} numeric matrix
+ * {@code A}, such that {@code P * A = L * U}, where {@code P} is a permutation
+ * matrix, {@code L} is a {@code m x min(m,n)} unit lower triangular matrix and
+ * {@code U} is a {@code min(m,n) x n} upper triangular matrix.<p>
+ *
+ * The decomposition is computed once, in {@code O(n^3)} time, and then reused
+ * for the determinant, the rank, the inverse and any number of solves against
+ * new right-hand sides. The values of {@code A} are copied into an array per
+ * row, and both factors are computed in place in those arrays. Rows are
+ * interchanged by swapping the references to their arrays, the same way
+ * {@link collections2d.RegularMatrix#swapRows(int, int)} does, so pivoting never
+ * copies values.<p>
+ *
+ * The decomposition always exists, even if {@code A} is singular; in that case
+ * {@link #solve(double[])}, {@link #solve(NumericMatrix)} and {@link #inverse()}
+ * throw a {@link SingularMatrixException}.
+ *
+ * @see NumericMatrix
+ */
+public class LUDecomposition {
+
+	/**
+	 * Rows of the decomposition. The strictly lower part holds the multipliers of
+	 * {@code L}, and the upper part holds {@code U}.
+	 */
+	private final double[][] lu;
+
+	private final int m, n;
+
+	/**
+	 * {@code piv[i]} is the row of {@code A} that ended at row {@code i}.
+	 */
+	private final int[] piv;
+
+	/**
+	 * Sign of the permutation, {@code 1} or {@code -1}.
+	 */
+	private int pivotSign;
+
+	/**
+	 * Computes the LU decomposition of the specified matrix, which is not modified.
+	 *
+	 * @param a the matrix to decompose
+	 */
+	public LUDecomposition(NumericMatrix a) {
+		m = a.rowSize();
+		n = a.columnSize();
+		lu = new double[m][];
+		piv = new int[m];
+		for (int i = 0; i < m; i++) {
+			lu[i] = new double[n];
+			a.copyRowTo(i, 0, lu[i], 0, n);
+			piv[i] = i;
+		}
+		pivotSign = 1;
+		decompose();
+	}
+
+	/**
+	 * Gaussian elimination, eliminating one column at a time below the pivot.
+	 */
+	private void decompose() {
+		int steps = Math.min(m, n);
+		for (int k = 0; k < steps; k++) {
+			int p = k;
+			double max = Math.abs(lu[k][k]);
+			for (int i = k + 1; i < m; i++) {
+				double v = Math.abs(lu[i][k]);
+				if (v > max) {
+					max = v;
+					p = i;
+				}
+			}
+			if (p != k) {
+				double[] row = lu[p];
+				lu[p] = lu[k];
+				lu[k] = row;
+				int t = piv[p];
+				piv[p] = piv[k];
+				piv[k] = t;
+				pivotSign = -pivotSign;
+			}
+			double[] pivotRow = lu[k];
+			double pivot = pivotRow[k];
+			if (pivot == 0.0)
+				continue;
+			for (int i = k + 1; i < m; i++) {
+				double[] row = lu[i];
+				double l = row[k] /= pivot;
+				if (l != 0.0)
+					for (int j = k + 1; j < n; j++)
+						row[j] -= l * pivotRow[j];
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the decomposed matrix is square and singular.
+	 *
+	 * @return {@code true} if {@code U}, and hence {@code A}, is singular
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 */
+	public boolean isSingular() {
+		checkSquare();
+		for (int k = 0; k < n; k++)
+			if (lu[k][k] == 0.0)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Returns the determinant of the decomposed matrix, computed as the product
+	 * of the diagonal of {@code U} times the sign of the permutation.
+	 *
+	 * @return the determinant of {@code A}
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 */
+	public double determinant() {
+		checkSquare();
+		double d = pivotSign;
+		for (int k = 0; k < n; k++)
+			d *= lu[k][k];
+		return d;
+	}
+
+	/**
+	 * Returns the numerical rank of the decomposed matrix, which is the number of
+	 * values in the diagonal of {@code U} larger than
+	 * {@code max(m,n) * max|U(k,k)| * ulp(1.0)}. Partial pivoting is not
+	 * rank-revealing in every case, so for nearly rank deficient matrices a
+	 * decomposition with column pivoting gives a more reliable value.
+	 *
+	 * @return the numerical rank of {@code A}
+	 */
+	public int rank() {
+		int steps = Math.min(m, n);
+		double max = 0.0;
+		for (int k = 0; k < steps; k++)
+			max = Math.max(max, Math.abs(lu[k][k]));
+		double tolerance = Math.max(m, n) * max * Math.ulp(1.0);
+		int rank = 0;
+		for (int k = 0; k < steps; k++)
+			if (Math.abs(lu[k][k]) > tolerance)
+				rank++;
+		return rank;
+	}
+
+	/**
+	 * Returns the unit lower triangular factor {@code L}.
+	 *
+	 * @return a new {@code m x min(m,n)} matrix with {@code L}
+	 */
+	public DoubleMatrix getL() {
+		int steps = Math.min(m, n);
+		DoubleMatrix l = DoubleMatrix.zeros(m, steps);
+		for (int i = 0; i < m; i++) {
+			int count = Math.min(i, steps);
+			l.copyRowFrom(i, 0, lu[i], 0, count);
+			if (i < steps)
+				l.setDouble(i, i, 1.0);
+		}
+		return l;
+	}
+
+	/**
+	 * Returns the upper triangular factor {@code U}.
+	 *
+	 * @return a new {@code min(m,n) x n} matrix with {@code U}
+	 */
+	public DoubleMatrix getU() {
+		int steps = Math.min(m, n);
+		DoubleMatrix u = DoubleMatrix.zeros(steps, n);
+		for (int i = 0; i < steps; i++)
+			u.copyRowFrom(i, i, lu[i], i, n - i);
+		return u;
+	}
+
+	/**
+	 * Returns the pivot vector, where the value at position {@code i} is the row of
+	 * {@code A} that became row {@code i} of {@code P * A}.
+	 *
+	 * @return a copy of the pivot vector
+	 */
+	public int[] getPivot() {
+		return piv.clone();
+	}
+
+	/**
+	 * Solves {@code A * x = b}.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the matrix is not square, or the
+	 *         length of {@code b} is not the number of rows
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public double[] solve(double[] b) {
+		Objects.requireNonNull(b);
+		checkNonSingular();
+		if (b.length != m)
+			throw new IncompatibleDimensionException("Vector of length " + b.length + " for a matrix of " + m + " rows");
+		double[] x = new double[n];
+		for (int i = 0; i < n; i++)
+			x[i] = b[piv[i]];
+		for (int i = 1; i < n; i++) {
+			double[] row = lu[i];
+			double s = x[i];
+			for (int k = 0; k < i; k++)
+				s -= row[k] * x[k];
+			x[i] = s;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double[] row = lu[i];
+			double s = x[i];
+			for (int k = i + 1; k < n; k++)
+				s -= row[k] * x[k];
+			x[i] = s / row[i];
+		}
+		return x;
+	}
+
+	/**
+	 * Solves {@code A * X = B}, solving all the columns of {@code B} at the same time.
+	 *
+	 * @param b the right-hand sides, a matrix of {@code rowSize()} rows
+	 * @return a new matrix with the solution {@code X}
+	 * @throws IncompatibleDimensionException if the matrix is not square, or the
+	 *         rows of {@code b} are not as many as the rows of the matrix
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public DoubleMatrix solve(NumericMatrix b) {
+		checkNonSingular();
+		if (b.rowSize() != m)
+			throw new IncompatibleDimensionException("Matrix of " + b.rowSize() + " rows for a matrix of " + m + " rows");
+		int columns = b.columnSize();
+		double[][] x = new double[n][columns];
+		for (int i = 0; i < n; i++)
+			b.copyRowTo(piv[i], 0, x[i], 0, columns);
+		substitute(x, columns);
+		DoubleMatrix result = DoubleMatrix.zeros(n, columns);
+		for (int i = 0; i < n; i++)
+			result.copyRowFrom(i, 0, x[i], 0, columns);
+		return result;
+	}
+
+	/**
+	 * Returns the inverse of the decomposed matrix, solving {@code A * X = I}.
+	 *
+	 * @return a new matrix with the inverse of {@code A}
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public DoubleMatrix inverse() {
+		checkNonSingular();
+		double[][] x = new double[n][n];
+		for (int i = 0; i < n; i++)
+			x[i][piv[i]] = 1.0;
+		substitute(x, n);
+		return new DoubleMatrix(x);
+	}
+
+	/**
+	 * Forward and back substitution over whole rows of {@code x}, which already
+	 * holds {@code P * B}.
+	 */
+	private void substitute(double[][] x, int columns) {
+		for (int k = 0; k < n; k++) {
+			double[] xk = x[k];
+			for (int i = k + 1; i < n; i++) {
+				double l = lu[i][k];
+				if (l != 0.0) {
+					double[] xi = x[i];
+					for (int j = 0; j < columns; j++)
+						xi[j] -= l * xk[j];
+				}
+			}
+		}
+		for (int k = n - 1; k >= 0; k--) {
+			double[] xk = x[k];
+			double pivot = lu[k][k];
+			for (int j = 0; j < columns; j++)
+				xk[j] /= pivot;
+			for (int i = 0; i < k; i++) {
+				double u = lu[i][k];
+				if (u != 0.0) {
+					double[] xi = x[i];
+					for (int j = 0; j < columns; j++)
+						xi[j] -= u * xk[j];
+				}
+			}
+		}
+	}
+
+	private void checkSquare() {
+		if (m != n)
+			throw new IncompatibleDimensionException("Matrix " + m + "x" + n + " is not square");
+	}
+
+	private void checkNonSingular() {
+		if (isSingular())
+			throw new SingularMatrixException("Matrix is singular");
+	}
+}
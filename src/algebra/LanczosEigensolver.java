@@ -0,0 +1,442 @@
+package algebra;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NoConvergenceException;
+import collections2d.NumericMatrix;
+import collections2d.SparseMatrix;
+
+/**
+ * Computes the {@code k} largest eigenvalues of a symmetric matrix of order
+ * {@code n}, and their eigenvectors, by the thick-restart Lanczos method,
+ * which only reads the matrix through products {@code A * x}, so it also works
+ * on a {@link LinearOperator} that is never stored as a matrix. The products
+ * with a {@link SparseMatrix} only read its stored elements.<p>
+ *
+ * A Krylov basis of {@code subspace} vectors is built from a random vector,
+ * fully reorthogonalized against the vectors before it, and the eigenpairs of
+ * the projection of the matrix on that basis, computed by a
+ * {@link SymmetricEigenDecomposition} of order {@code subspace}, approximate
+ * the eigenpairs of the matrix. If the {@code k} largest ones are not yet
+ * accurate enough, the basis is restarted with the best approximations found,
+ * which are kept in place of the first vectors, and extended again. Each
+ * restart costs {@code subspace - kept} products and {@code O(n * subspace^2)}
+ * other operations, so it is much cheaper than a dense decomposition when
+ * {@code k} and {@code subspace} are small compared with {@code n}.<p>
+ *
+ * As with {@link SymmetricEigenDecomposition}, all the arrays are allocated
+ * once, for the order and the number of eigenpairs, and reused by every call
+ * to {@link #solve(LinearOperator, long)}. The random start vector comes from
+ * a {@link SplittableRandom} with the specified seed, so the results are
+ * reproducible. The smallest eigenvalues of {@code A} are the largest ones of
+ * {@code -A}, or of {@code c * I - A} for {@code c} above the spectrum.
+ *
+ * @see SymmetricEigenDecomposition
+ */
+public class LanczosEigensolver {
+
+	/**
+	 * Default relative tolerance of the residuals.
+	 */
+	static final double DEFAULT_TOLERANCE = 1e-10;
+
+	/**
+	 * Default maximum number of restarts.
+	 */
+	static final int DEFAULT_MAX_RESTARTS = 1000;
+
+	/**
+	 * Number of columns of the basis combined at a time when it is restarted.
+	 */
+	private static final int COLUMNS = 64;
+
+	private final int n, k, m;
+
+	private final double tolerance;
+
+	private final int maxRestarts;
+
+	/**
+	 * The basis, one vector per row, and one more row for the residual.
+	 */
+	private final double[][] v;
+
+	/**
+	 * Projection of the matrix on the basis, {@code V^T * A * V}.
+	 */
+	private final double[][] t;
+
+	/**
+	 * Decomposition of the projection, reused at every restart.
+	 */
+	private final SymmetricEigenDecomposition projection;
+
+	/**
+	 * Work arrays: a row of the matrix, the coefficients of the last vector
+	 * of the basis in the projection, the coefficients of each pass of the
+	 * orthogonalization and the values of a block of columns of the basis.
+	 */
+	private final double[] row, h, c, block;
+
+	private final double[] values;
+
+	private boolean solved;
+
+	private int restarts, products;
+
+	/**
+	 * Creates a solver of the {@code k} largest eigenpairs of matrices of the
+	 * specified order, with a basis of {@code max(2k, k + 20)} vectors (or
+	 * {@code order}, if it is smaller) and the default tolerance.
+	 *
+	 * @param order the order of the matrices
+	 * @param k the number of eigenpairs
+	 * @throws IllegalArgumentException if {@code k} is not positive or larger
+	 *         than {@code order}
+	 */
+	public LanczosEigensolver(int order, int k) {
+		this(order, k, Math.min(order, Math.max(2 * k, k + 20)), DEFAULT_TOLERANCE, DEFAULT_MAX_RESTARTS);
+	}
+
+	/**
+	 * Creates a solver of the {@code k} largest eigenpairs of matrices of the
+	 * specified order. An eigenpair {@code (theta, x)} is accepted when
+	 * {@code ||A * x - theta * x|| <= tolerance * max|theta|}.
+	 *
+	 * @param order the order of the matrices
+	 * @param k the number of eigenpairs
+	 * @param subspace the number of vectors of the basis, larger than {@code k}
+	 *        unless it is {@code order}
+	 * @param tolerance the relative tolerance of the residuals
+	 * @param maxRestarts the maximum number of restarts
+	 * @throws IllegalArgumentException if {@code k} is not positive or larger
+	 *         than {@code order}, {@code subspace} is not larger than {@code k}
+	 *         and smaller than {@code order}, or is larger than it, the tolerance
+	 *         is not positive or the maximum number of restarts is negative
+	 */
+	public LanczosEigensolver(int order, int k, int subspace, double tolerance, int maxRestarts) {
+		if (k <= 0 || k > order)
+			throw new IllegalArgumentException("Number of eigenpairs " + k + " for a matrix of order " + order);
+		if (subspace > order || subspace < k || subspace == k && subspace < order)
+			throw new IllegalArgumentException("Subspace of " + subspace + " vectors for " + k
+					+ " eigenpairs of a matrix of order " + order);
+		if (!(tolerance > 0.0))
+			throw new IllegalArgumentException("Tolerance is not positive: " + tolerance);
+		if (maxRestarts < 0)
+			throw new IllegalArgumentException("Negative maximum number of restarts: " + maxRestarts);
+		n = order;
+		this.k = k;
+		m = subspace;
+		this.tolerance = tolerance;
+		this.maxRestarts = maxRestarts;
+		v = new double[m + 1][n];
+		t = new double[m][m];
+		projection = new SymmetricEigenDecomposition(m);
+		row = new double[n];
+		h = new double[m];
+		c = new double[m];
+		block = new double[m * COLUMNS];
+		values = new double[k];
+	}
+
+	/**
+	 * Computes the largest eigenpairs of the specified matrix, starting from a
+	 * random vector of seed {@code 0}.
+	 *
+	 * @param a the symmetric matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square of
+	 *         order {@code order()}
+	 * @throws NoConvergenceException if the eigenpairs do not converge within
+	 *         the maximum number of restarts
+	 */
+	public void solve(NumericMatrix a) {
+		solve(a, 0L);
+	}
+
+	/**
+	 * Computes the largest eigenpairs of the specified matrix, which is not
+	 * modified, starting from a random vector of the specified seed, and
+	 * replacing the results of the previous call.
+	 *
+	 * @param a the symmetric matrix
+	 * @param seed the seed of the start vector
+	 * @throws IncompatibleDimensionException if the matrix is not square of
+	 *         order {@code order()}
+	 * @throws NoConvergenceException if the eigenpairs do not converge within
+	 *         the maximum number of restarts
+	 */
+	public void solve(NumericMatrix a, long seed) {
+		if (a.rowSize() != n || a.columnSize() != n)
+			throw new IncompatibleDimensionException(
+					"Matrix " + a.rowSize() + "x" + a.columnSize() + " for a solver of order " + n);
+		if (a instanceof SparseMatrix s)
+			solve(s::multiply, seed);
+		else
+			solve((x, y) -> multiply(a, x, y), seed);
+	}
+
+	/**
+	 * Computes the largest eigenpairs of the specified symmetric operator of
+	 * order {@code order()}, starting from a random vector of the specified
+	 * seed, and replacing the results of the previous call.
+	 *
+	 * @param a the symmetric operator
+	 * @param seed the seed of the start vector
+	 * @throws NoConvergenceException if the eigenpairs do not converge within
+	 *         the maximum number of restarts
+	 */
+	public void solve(LinearOperator a, long seed) {
+		Objects.requireNonNull(a);
+		solved = false;
+		restarts = 0;
+		products = 0;
+		SplittableRandom random = new SplittableRandom(seed);
+		randomVector(0, random);
+		int kept = 0;
+		for (;;) {
+			double beta = extend(a, kept, random);
+			projection.decompose(t, true);
+			double norm = Math.max(Math.abs(projection.eigenvalue(0)), Math.abs(projection.eigenvalue(m - 1)));
+			boolean converged = true;
+			for (int i = 0; i < k && converged; i++)
+				converged = Math.abs(beta * projection.eigenvector(i)[m - 1]) <= tolerance * norm;
+			if (converged || m == n) {
+				combine(k);
+				for (int i = 0; i < k; i++)
+					values[i] = projection.eigenvalue(i);
+				solved = true;
+				return;
+			}
+			if (restarts == maxRestarts)
+				throw new NoConvergenceException("Lanczos iterations did not converge after " + restarts + " restarts");
+			restarts++;
+			kept = Math.min(m - 1, k + (m - k) / 2);
+			combine(kept);
+			double[] residual = v[m];
+			v[m] = v[kept];
+			v[kept] = residual;
+			for (int i = 0; i < kept; i++) {
+				double[] ti = t[i];
+				for (int j = 0; j < kept; j++)
+					ti[j] = 0.0;
+				ti[i] = projection.eigenvalue(i);
+			}
+		}
+	}
+
+	/**
+	 * Extends the basis from the vector {@code from} to the last one, filling
+	 * the columns of the projection, and returns the norm of the residual left
+	 * in {@code v[m]}.
+	 */
+	private double extend(LinearOperator a, int from, SplittableRandom random) {
+		double beta = 0.0;
+		for (int j = from; j < m; j++) {
+			double[] w = v[j + 1];
+			a.apply(v[j], w);
+			products++;
+			double norm = Math.sqrt(dot(w, w));
+			for (int i = 0; i <= j; i++)
+				h[i] = 0.0;
+			orthogonalize(w, j + 1, true);
+			orthogonalize(w, j + 1, true);
+			for (int i = 0; i <= j; i++)
+				t[i][j] = t[j][i] = h[i];
+			beta = Math.sqrt(dot(w, w));
+			if (beta > Math.ulp(1.0) * norm && beta > Double.MIN_NORMAL) {
+				scale(w, 1.0 / beta);
+			} else {
+				beta = 0.0;
+				if (j + 1 < m)
+					randomVector(j + 1, random);
+			}
+		}
+		return beta;
+	}
+
+	/**
+	 * Subtracts from {@code w} its projection on the first {@code count}
+	 * vectors of the basis, by classical Gram-Schmidt, adding the coefficients
+	 * to {@code h} if {@code record} is {@code true}.
+	 */
+	private void orthogonalize(double[] w, int count, boolean record) {
+		for (int i = 0; i < count; i++)
+			c[i] = dot(v[i], w);
+		for (int i = 0; i < count; i++) {
+			double[] vi = v[i];
+			double ci = c[i];
+			if (record)
+				h[i] += ci;
+			if (ci != 0.0)
+				for (int p = 0; p < n; p++)
+					w[p] -= ci * vi[p];
+		}
+	}
+
+	/**
+	 * Stores in {@code v[index]} a random unit vector orthogonal to the vectors
+	 * before it.
+	 */
+	private void randomVector(int index, SplittableRandom random) {
+		double[] w = v[index];
+		for (int p = 0; p < n; p++)
+			w[p] = random.nextDouble(-1.0, 1.0);
+		orthogonalize(w, index, false);
+		orthogonalize(w, index, false);
+		scale(w, 1.0 / Math.sqrt(dot(w, w)));
+	}
+
+	/**
+	 * Replaces the first {@code count} vectors of the basis by the Ritz vectors
+	 * {@code V * y}, for the first {@code count} eigenvectors {@code y} of the
+	 * projection, a block of columns at a time.
+	 */
+	private void combine(int count) {
+		for (int c0 = 0; c0 < n; c0 += COLUMNS) {
+			int width = Math.min(COLUMNS, n - c0);
+			for (int j = 0; j < m; j++)
+				System.arraycopy(v[j], c0, block, j * width, width);
+			for (int i = 0; i < count; i++) {
+				double[] y = projection.eigenvector(i), vi = v[i];
+				for (int c = 0; c < width; c++)
+					vi[c0 + c] = 0.0;
+				for (int j = 0; j < m; j++) {
+					double yj = y[j];
+					if (yj != 0.0)
+						for (int c = 0, q = j * width; c < width; c++, q++)
+							vi[c0 + c] += yj * block[q];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code y = A * x}, a row of a dense {@code A} at a time.
+	 */
+	private void multiply(NumericMatrix a, double[] x, double[] y) {
+		for (int i = 0; i < n; i++) {
+			a.copyRowTo(i, 0, row, 0, n);
+			y[i] = dot(row, x);
+		}
+	}
+
+	private double dot(double[] x, double[] y) {
+		double s = 0.0;
+		for (int p = 0; p < n; p++)
+			s += x[p] * y[p];
+		return s;
+	}
+
+	private void scale(double[] x, double factor) {
+		for (int p = 0; p < n; p++)
+			x[p] *= factor;
+	}
+
+	/**
+	 * Returns the order of the matrices of this solver.
+	 *
+	 * @return the number of rows and columns of {@code A}
+	 */
+	public int order() {
+		return n;
+	}
+
+	/**
+	 * Returns the number of eigenpairs computed by this solver.
+	 *
+	 * @return the number of eigenpairs
+	 */
+	public int eigenpairs() {
+		return k;
+	}
+
+	/**
+	 * Returns the number of restarts of the last call to
+	 * {@link #solve(LinearOperator, long)}.
+	 *
+	 * @return the number of restarts
+	 */
+	public int restarts() {
+		return restarts;
+	}
+
+	/**
+	 * Returns the number of products {@code A * x} computed by the last call
+	 * to {@link #solve(LinearOperator, long)}.
+	 *
+	 * @return the number of matrix-vector products
+	 */
+	public int products() {
+		return products;
+	}
+
+	/**
+	 * Returns the eigenvalue at the specified position, in decreasing order.
+	 *
+	 * @param index the position of the eigenvalue
+	 * @return the eigenvalue at the specified position
+	 * @throws IllegalStateException if no eigenpairs have been computed
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         ({@code index < 0 || index >= eigenpairs()})
+	 */
+	public double eigenvalue(int index) {
+		checkSolved();
+		return values[Objects.checkIndex(index, k)];
+	}
+
+	/**
+	 * Returns the {@code k} largest eigenvalues, in decreasing order.
+	 *
+	 * @return a new array with the eigenvalues
+	 * @throws IllegalStateException if no eigenpairs have been computed
+	 */
+	public double[] getEigenvalues() {
+		checkSolved();
+		return values.clone();
+	}
+
+	/**
+	 * Copies the eigenvector of the eigenvalue at the specified position into
+	 * the destination array.
+	 *
+	 * @param index the position of the eigenvalue
+	 * @param dest the destination array
+	 * @param destPos starting position in the destination array
+	 * @throws IllegalStateException if no eigenpairs have been computed
+	 * @throws IndexOutOfBoundsException if the index is out of range, or the
+	 *         destination range is out of the bounds of the array
+	 */
+	public void copyEigenvectorTo(int index, double[] dest, int destPos) {
+		checkSolved();
+		Objects.checkIndex(index, k);
+		Objects.checkFromIndexSize(destPos, n, dest.length);
+		System.arraycopy(v[index], 0, dest, destPos, n);
+	}
+
+	/**
+	 * Returns the eigenvectors of the {@code k} largest eigenvalues.
+	 *
+	 * @return a new {@code n x k} matrix whose column {@code j} is the
+	 *         eigenvector of the eigenvalue at position {@code j}
+	 * @throws IllegalStateException if no eigenpairs have been computed
+	 */
+	public DoubleMatrix getEigenvectors() {
+		checkSolved();
+		DoubleMatrix x = DoubleMatrix.zeros(n, k);
+		double[] r = new double[k];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < k; j++)
+				r[j] = v[j][i];
+			x.copyRowFrom(i, 0, r, 0, k);
+		}
+		return x;
+	}
+
+	private void checkSolved() {
+		if (!solved)
+			throw new IllegalStateException("No eigenpairs have been computed");
+	}
+}
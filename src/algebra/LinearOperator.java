@@ -0,0 +1,58 @@
+package algebra;
+
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+import collections2d.SparseMatrix;
+
+/**
+ * A square linear operator of order {@code n}, known only through its product
+ * with a vector, {@code y = A * x}. It is all the iterative solvers of this
+ * package need from a matrix, so they also work on operators that are never
+ * stored as a matrix, written as a lambda expression.<p>
+ *
+ * Implementations must not allocate in {@link #apply(double[], double[])}, so
+ * that the iterations of a solver do not allocate either.
+ *
+ * @see IterativeSolver
+ */
+@FunctionalInterface
+public interface LinearOperator {
+
+	/**
+	 * Stores the product of this operator and the vector {@code x} into the
+	 * vector {@code y}.
+	 *
+	 * @param x the vector, which is not modified
+	 * @param y the destination of the product, which is not {@code x}
+	 */
+	void apply(double[] x, double[] y);
+
+	/**
+	 * Returns the operator of the product with the specified square matrix. The
+	 * product with a {@link SparseMatrix} only reads its stored elements, and
+	 * the product with any other matrix reads it a row at a time, with
+	 * {@link NumericMatrix#copyRowTo}, into an array of the operator, so the
+	 * returned operator must not be used by several threads at the same time.
+	 *
+	 * @param a the matrix, which is read at every product
+	 * @return the operator {@code x -> a * x}
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 */
+	static LinearOperator of(NumericMatrix a) {
+		int n = a.rowSize();
+		if (a.columnSize() != n)
+			throw new IncompatibleDimensionException("Matrix " + n + "x" + a.columnSize() + " is not square");
+		if (a instanceof SparseMatrix s)
+			return s::multiply;
+		double[] row = new double[n];
+		return (x, y) -> {
+			for (int i = 0; i < n; i++) {
+				a.copyRowTo(i, 0, row, 0, n);
+				double s = 0.0;
+				for (int j = 0; j < n; j++)
+					s += row[j] * x[j];
+				y[i] = s;
+			}
+		};
+	}
+}
@@ -0,0 +1,502 @@
+package algebra;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import collections2d.ConstantMatrix;
+import collections2d.DiagonalMatrix;
+import collections2d.DoubleMatrix;
+import collections2d.IdentityMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+
+/**
+ * Dense matrix multiplication over {@link NumericMatrix} instances, computing
+ * the general product {@code C = alpha * op(A) * op(B) + beta * C}, where
+ * {@code op(X)} is either {@code X} or its transpose.<p>
+ *
+ * The product is computed by blocks, the same way optimized BLAS libraries do:
+ * <ul>
+ * <li>{@code C} is split into blocks of {@value #MC} rows and {@value #NC} columns,
+ * and the shared dimension into slices of {@value #KC} values.</li>
+ * <li>For each block, the needed parts of {@code op(A)} and {@code op(B)} are
+ * <i>packed</i> into small contiguous buffers that fit in the processor caches,
+ * in the exact order the inner kernel reads them.</li>
+ * <li>The inner kernel computes a {@value #MR}x{@value #NR} tile of {@code C}
+ * holding the sixteen partial sums in local variables (registers), so each
+ * value loaded from the packed buffers is used four times.</li>
+ * </ul>
+ * Large products are split by row blocks of {@code C} and computed in parallel
+ * with a {@link ForkJoinPool}. Operands are only accessed through
+ * {@link NumericMatrix#copyRowTo} and {@link NumericMatrix#copyRowFrom}, so any
+ * primitive matrix implementation can take part in a product.<p>
+ *
+ * Products with a {@link DiagonalMatrix} or an {@link IdentityMatrix} scale the
+ * rows (or columns) of the other operand instead, in {@code O(m * n)} time,
+ * when the other operand is not transposed. Products with a
+ * {@link ConstantMatrix} only need the sums of the columns (or rows) of the
+ * other operand, since every row (or column) of the result is the same.<p>
+ *
+ * This class cannot be instantiated.
+ *
+ * @see NumericMatrix
+ */
+public final class MatrixMultiplication {
+
+	/**
+	 * Rows of the register tile computed by the inner kernel.
+	 */
+	static final int MR = 4;
+	/**
+	 * Columns of the register tile computed by the inner kernel.
+	 */
+	static final int NR = 4;
+	/**
+	 * Rows of {@code C} (and of {@code op(A)}) in each block.
+	 */
+	static final int MC = 64;
+	/**
+	 * Length of each slice of the shared dimension.
+	 */
+	static final int KC = 256;
+	/**
+	 * Columns of {@code C} (and of {@code op(B)}) in each block.
+	 */
+	static final int NC = 1024;
+
+	/**
+	 * Number of multiply-add operations under which a product is always
+	 * computed in the calling thread.
+	 */
+	private static final long PARALLEL_THRESHOLD = 1L << 21;
+
+	private MatrixMultiplication() {}
+
+	/**
+	 * Returns the product of the two specified matrices, as a new {@code DoubleMatrix}.
+	 *
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @return the matrix {@code a * b}
+	 * @throws IncompatibleDimensionException if the columns of {@code a} are not as
+	 *         many as the rows of {@code b}
+	 */
+	public static DoubleMatrix multiply(NumericMatrix a, NumericMatrix b) {
+		return multiply(a, false, b, false);
+	}
+
+	/**
+	 * Returns the product {@code op(a) * op(b)}, as a new {@code DoubleMatrix}.
+	 *
+	 * @param a the left matrix
+	 * @param transposeA whether to use the transpose of {@code a}
+	 * @param b the right matrix
+	 * @param transposeB whether to use the transpose of {@code b}
+	 * @return the matrix {@code op(a) * op(b)}
+	 * @throws IncompatibleDimensionException if the columns of {@code op(a)} are not
+	 *         as many as the rows of {@code op(b)}
+	 */
+	public static DoubleMatrix multiply(NumericMatrix a, boolean transposeA, NumericMatrix b, boolean transposeB) {
+		int m = transposeA ? a.columnSize() : a.rowSize();
+		int n = transposeB ? b.rowSize() : b.columnSize();
+		DoubleMatrix c = DoubleMatrix.zeros(m, n);
+		gemm(1.0, a, transposeA, b, transposeB, 0.0, c);
+		return c;
+	}
+
+	/**
+	 * Computes {@code c = alpha * a * b + beta * c}.
+	 *
+	 * @param alpha the scalar for the product
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @param beta the scalar for {@code c}
+	 * @param c the matrix where the result is accumulated
+	 * @throws IncompatibleDimensionException if the dimensions of the matrices do not agree
+	 */
+	public static void gemm(double alpha, NumericMatrix a, NumericMatrix b, double beta, NumericMatrix c) {
+		gemm(alpha, a, false, b, false, beta, c);
+	}
+
+	/**
+	 * Computes {@code c = alpha * op(a) * op(b) + beta * c}, in the common pool.
+	 * When {@code beta} is zero, {@code c} does not need to be initialized (its
+	 * values, even NaN, are ignored).
+	 *
+	 * @param alpha the scalar for the product
+	 * @param a the left matrix
+	 * @param transposeA whether to use the transpose of {@code a}
+	 * @param b the right matrix
+	 * @param transposeB whether to use the transpose of {@code b}
+	 * @param beta the scalar for {@code c}
+	 * @param c the matrix where the result is accumulated, which must not be
+	 *        {@code a} nor {@code b}
+	 * @throws IncompatibleDimensionException if the dimensions of the matrices do not agree
+	 * @throws IllegalArgumentException if {@code c} is the same matrix as {@code a} or {@code b}
+	 */
+	public static void gemm(double alpha, NumericMatrix a, boolean transposeA, NumericMatrix b, boolean transposeB,
+			double beta, NumericMatrix c) {
+		gemm(alpha, a, transposeA, b, transposeB, beta, c, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes {@code c = alpha * op(a) * op(b) + beta * c}, splitting large
+	 * products between the threads of the specified pool.
+	 *
+	 * @param alpha the scalar for the product
+	 * @param a the left matrix
+	 * @param transposeA whether to use the transpose of {@code a}
+	 * @param b the right matrix
+	 * @param transposeB whether to use the transpose of {@code b}
+	 * @param beta the scalar for {@code c}
+	 * @param c the matrix where the result is accumulated, which must not be
+	 *        {@code a} nor {@code b}
+	 * @param pool the pool where the product is computed
+	 * @throws IncompatibleDimensionException if the dimensions of the matrices do not agree
+	 * @throws IllegalArgumentException if {@code c} is the same matrix as {@code a} or {@code b}
+	 */
+	public static void gemm(double alpha, NumericMatrix a, boolean transposeA, NumericMatrix b, boolean transposeB,
+			double beta, NumericMatrix c, ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+		int m = transposeA ? a.columnSize() : a.rowSize();
+		int k = transposeA ? a.rowSize() : a.columnSize();
+		int kb = transposeB ? b.columnSize() : b.rowSize();
+		int n = transposeB ? b.rowSize() : b.columnSize();
+		if (k != kb || c.rowSize() != m || c.columnSize() != n)
+			throw new IncompatibleDimensionException("Cannot compute " + m + "x" + k + " * " + kb + "x" + n
+					+ " into " + c.rowSize() + "x" + c.columnSize());
+		if (c == a || c == b)
+			throw new IllegalArgumentException("The result matrix cannot be one of the operands");
+		if (m == 0 || n == 0)
+			return;
+		if (alpha != 0.0 && structured(alpha, a, transposeA, b, transposeB, beta, c, m, n, k))
+			return;
+		Product p = new Product(alpha, a, transposeA, b, transposeB, beta, c, m, n, k);
+		if ((long) m * n * k < PARALLEL_THRESHOLD || m <= MC || pool.getParallelism() == 1)
+			p.rows(0, m);
+		else
+			pool.invoke(new RowBlocks(p, 0, m));
+	}
+
+	/**
+	 * Computes the product without the packed kernel if one of the operands has
+	 * a structure that makes it cheaper, and returns {@code true}, or returns
+	 * {@code false} if none has. A diagonal operand scales the rows of
+	 * {@code op(B)} (or the columns of {@code op(A)}), and a constant operand
+	 * multiplies the column sums of {@code op(B)} (or the row sums of
+	 * {@code op(A)}). The operands are checked before any buffer is allocated,
+	 * so a product of dense matrices allocates nothing here.
+	 */
+	private static boolean structured(double alpha, NumericMatrix a, boolean transposeA, NumericMatrix b,
+			boolean transposeB, double beta, NumericMatrix c, int m, int n, int k) {
+		boolean diagonalA = !transposeB && isDiagonal(a);
+		boolean diagonalB = !diagonalA && !transposeA && isDiagonal(b);
+		if (!diagonalA && !diagonalB && !(a instanceof ConstantMatrix) && !(b instanceof ConstantMatrix))
+			return false;
+		double[] line = new double[Math.max(Math.max(m, n), k)];
+		double[] cl = beta != 0.0 ? new double[n] : null;
+		if (diagonalA) {
+			double[] d = diagonal(a);
+			for (int i = 0; i < m; i++) {
+				b.copyRowTo(i, 0, line, 0, n);
+				double s = alpha * d[i];
+				for (int j = 0; j < n; j++)
+					line[j] *= s;
+				storeRow(c, i, line, cl, n, beta);
+			}
+			return true;
+		}
+		if (diagonalB) {
+			double[] d = diagonal(b);
+			for (int j = 0; j < n; j++)
+				d[j] *= alpha;
+			for (int i = 0; i < m; i++) {
+				a.copyRowTo(i, 0, line, 0, n);
+				for (int j = 0; j < n; j++)
+					line[j] *= d[j];
+				storeRow(c, i, line, cl, n, beta);
+			}
+			return true;
+		}
+		if (a instanceof ConstantMatrix ca) {
+			double[] sums = new double[n];
+			if (!transposeB) {
+				for (int l = 0; l < k; l++) {
+					b.copyRowTo(l, 0, line, 0, n);
+					for (int j = 0; j < n; j++)
+						sums[j] += line[j];
+				}
+			} else {
+				for (int j = 0; j < n; j++)
+					sums[j] = sum(b, j, line, k);
+			}
+			double s = alpha * ca.getValue();
+			for (int j = 0; j < n; j++)
+				sums[j] *= s;
+			for (int i = 0; i < m; i++) {
+				System.arraycopy(sums, 0, line, 0, n);
+				storeRow(c, i, line, cl, n, beta);
+			}
+			return true;
+		}
+		if (b instanceof ConstantMatrix cb) {
+			double[] sums = new double[m];
+			if (!transposeA) {
+				for (int i = 0; i < m; i++)
+					sums[i] = sum(a, i, line, k);
+			} else {
+				for (int l = 0; l < k; l++) {
+					a.copyRowTo(l, 0, line, 0, m);
+					for (int i = 0; i < m; i++)
+						sums[i] += line[i];
+				}
+			}
+			double s = alpha * cb.getValue();
+			for (int i = 0; i < m; i++) {
+				java.util.Arrays.fill(line, 0, n, s * sums[i]);
+				storeRow(c, i, line, cl, n, beta);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns {@code true} if the specified matrix is a diagonal or an
+	 * identity matrix.
+	 */
+	private static boolean isDiagonal(NumericMatrix x) {
+		return x instanceof DiagonalMatrix || x instanceof IdentityMatrix;
+	}
+
+	/**
+	 * Returns a new array with the diagonal of the specified matrix, which is
+	 * a diagonal or an identity matrix.
+	 */
+	private static double[] diagonal(NumericMatrix x) {
+		if (x instanceof DiagonalMatrix d)
+			return d.getDiagonal();
+		double[] ones = new double[x.rowSize()];
+		java.util.Arrays.fill(ones, 1.0);
+		return ones;
+	}
+
+	/**
+	 * Returns the sum of the first {@code length} values of a row.
+	 */
+	private static double sum(NumericMatrix x, int indexRow, double[] line, int length) {
+		x.copyRowTo(indexRow, 0, line, 0, length);
+		double s = 0;
+		for (int j = 0; j < length; j++)
+			s += line[j];
+		return s;
+	}
+
+	/**
+	 * Stores {@code line + beta * c[i]} in row {@code i} of {@code c}, using
+	 * {@code cl} to read the row when {@code beta} is not zero.
+	 */
+	private static void storeRow(NumericMatrix c, int i, double[] line, double[] cl, int n, double beta) {
+		if (beta != 0.0) {
+			c.copyRowTo(i, 0, cl, 0, n);
+			for (int j = 0; j < n; j++)
+				line[j] += beta * cl[j];
+		}
+		c.copyRowFrom(i, 0, line, 0, n);
+	}
+
+	/**
+	 * The operands and dimensions of a product being computed.
+	 */
+	private static final class Product {
+		final double alpha, beta;
+		final NumericMatrix a, b, c;
+		final boolean transposeA, transposeB;
+		final int m, n, k;
+
+		Product(double alpha, NumericMatrix a, boolean transposeA, NumericMatrix b, boolean transposeB,
+				double beta, NumericMatrix c, int m, int n, int k) {
+			this.alpha = alpha;
+			this.a = a;
+			this.transposeA = transposeA;
+			this.b = b;
+			this.transposeB = transposeB;
+			this.beta = beta;
+			this.c = c;
+			this.m = m;
+			this.n = n;
+			this.k = k;
+		}
+
+		/**
+		 * Computes the rows {@code [from, to)} of {@code C}, with buffers owned by
+		 * the calling thread.
+		 */
+		void rows(int from, int to) {
+			int kcMax = Math.min(KC, Math.max(k, 1));
+			int ncMax = Math.min(NC, n);
+			double[] ap = new double[roundUp(MC, MR) * kcMax];
+			double[] bp = new double[roundUp(ncMax, NR) * kcMax];
+			double[] cb = new double[roundUp(MC, MR) * roundUp(ncMax, NR)];
+			double[] line = new double[Math.max(Math.max(kcMax, ncMax), MC)];
+			for (int ic = from; ic < to; ic += MC) {
+				int mc = Math.min(MC, to - ic);
+				for (int jc = 0; jc < n; jc += NC) {
+					int nc = Math.min(NC, n - jc);
+					int ldc = roundUp(nc, NR);
+					loadC(cb, ldc, ic, mc, jc, nc);
+					if (alpha != 0.0) {
+						for (int pc = 0; pc < k; pc += KC) {
+							int kc = Math.min(KC, k - pc);
+							packA(ap, line, ic, mc, pc, kc);
+							packB(bp, line, pc, kc, jc, nc);
+							macroKernel(ap, bp, cb, ldc, mc, nc, kc);
+						}
+					}
+					for (int i = 0; i < mc; i++)
+						c.copyRowFrom(ic + i, jc, cb, i * ldc, nc);
+				}
+			}
+		}
+
+		/**
+		 * Copies a block of {@code C} in the buffer, already multiplied by {@code beta}.
+		 */
+		private void loadC(double[] cb, int ldc, int ic, int mc, int jc, int nc) {
+			int rows = roundUp(mc, MR);
+			if (beta == 0.0) {
+				java.util.Arrays.fill(cb, 0, rows * ldc, 0.0);
+				return;
+			}
+			java.util.Arrays.fill(cb, mc * ldc, rows * ldc, 0.0);
+			for (int i = 0; i < mc; i++) {
+				int off = i * ldc;
+				c.copyRowTo(ic + i, jc, cb, off, nc);
+				if (beta != 1.0)
+					for (int j = 0; j < nc; j++)
+						cb[off + j] *= beta;
+			}
+		}
+
+		/**
+		 * Packs the {@code mc x kc} block of {@code alpha * op(A)} starting at
+		 * {@code (ic, pc)} in panels of {@code MR} rows, each panel stored column
+		 * after column. Rows past the end of the block are filled with zeros.
+		 */
+		private void packA(double[] ap, double[] line, int ic, int mc, int pc, int kc) {
+			int panels = roundUp(mc, MR) / MR;
+			java.util.Arrays.fill(ap, (mc / MR) * MR * kc, panels * MR * kc, 0.0);
+			if (!transposeA) {
+				for (int i = 0; i < mc; i++) {
+					a.copyRowTo(ic + i, pc, line, 0, kc);
+					int off = (i / MR) * MR * kc + i % MR;
+					for (int l = 0; l < kc; l++, off += MR)
+						ap[off] = alpha * line[l];
+				}
+			} else {
+				for (int l = 0; l < kc; l++) {
+					a.copyRowTo(pc + l, ic, line, 0, mc);
+					for (int i = 0; i < mc; i++)
+						ap[(i / MR) * MR * kc + l * MR + i % MR] = alpha * line[i];
+				}
+			}
+		}
+
+		/**
+		 * Packs the {@code kc x nc} block of {@code op(B)} starting at
+		 * {@code (pc, jc)} in panels of {@code NR} columns, each panel stored row
+		 * after row. Columns past the end of the block are filled with zeros.
+		 */
+		private void packB(double[] bp, double[] line, int pc, int kc, int jc, int nc) {
+			int panels = roundUp(nc, NR) / NR;
+			java.util.Arrays.fill(bp, (nc / NR) * NR * kc, panels * NR * kc, 0.0);
+			if (!transposeB) {
+				for (int l = 0; l < kc; l++) {
+					b.copyRowTo(pc + l, jc, line, 0, nc);
+					for (int j = 0; j < nc; j++)
+						bp[(j / NR) * NR * kc + l * NR + j % NR] = line[j];
+				}
+			} else {
+				for (int j = 0; j < nc; j++) {
+					b.copyRowTo(jc + j, pc, line, 0, kc);
+					int off = (j / NR) * NR * kc + j % NR;
+					for (int l = 0; l < kc; l++, off += NR)
+						bp[off] = line[l];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Multiplies the packed blocks, adding the result to the buffered block of
+	 * {@code C}, one register tile at a time.
+	 */
+	private static void macroKernel(double[] ap, double[] bp, double[] cb, int ldc, int mc, int nc, int kc) {
+		int rowPanels = roundUp(mc, MR) / MR;
+		int columnPanels = roundUp(nc, NR) / NR;
+		for (int jr = 0; jr < columnPanels; jr++)
+			for (int ir = 0; ir < rowPanels; ir++)
+				microKernel(kc, ap, ir * MR * kc, bp, jr * NR * kc, cb, ir * MR * ldc + jr * NR, ldc);
+	}
+
+	/**
+	 * Adds to the {@code MR x NR} tile of {@code cb} at {@code cOff} the product of
+	 * a packed panel of {@code A} and a packed panel of {@code B}.
+	 */
+	private static void microKernel(int kc, double[] ap, int aOff, double[] bp, int bOff,
+			double[] cb, int cOff, int ldc) {
+		double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+		double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+		double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+		double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+		for (int l = 0; l < kc; l++, aOff += MR, bOff += NR) {
+			double a0 = ap[aOff], a1 = ap[aOff + 1], a2 = ap[aOff + 2], a3 = ap[aOff + 3];
+			double b0 = bp[bOff], b1 = bp[bOff + 1], b2 = bp[bOff + 2], b3 = bp[bOff + 3];
+			c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+			c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+			c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+			c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+		}
+		cb[cOff] += c00; cb[cOff + 1] += c01; cb[cOff + 2] += c02; cb[cOff + 3] += c03;
+		cOff += ldc;
+		cb[cOff] += c10; cb[cOff + 1] += c11; cb[cOff + 2] += c12; cb[cOff + 3] += c13;
+		cOff += ldc;
+		cb[cOff] += c20; cb[cOff + 1] += c21; cb[cOff + 2] += c22; cb[cOff + 3] += c23;
+		cOff += ldc;
+		cb[cOff] += c30; cb[cOff + 1] += c31; cb[cOff + 2] += c32; cb[cOff + 3] += c33;
+	}
+
+	private static int roundUp(int value, int multiple) {
+		return (value + multiple - 1) / multiple * multiple;
+	}
+
+	/**
+	 * Splits the rows of {@code C} in halves (at multiples of {@code MC}) until
+	 * each task has a single block of rows.
+	 */
+	private static final class RowBlocks extends RecursiveAction {
+
+		private static final long serialVersionUID = 5212870343305419462L;
+
+		private final transient Product product;
+		private final int from, to;
+
+		RowBlocks(Product product, int from, int to) {
+			this.product = product;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int blocks = (to - from + MC - 1) / MC;
+			if (blocks <= 1) {
+				product.rows(from, to);
+			} else {
+				int mid = from + (blocks / 2) * MC;
+				invokeAll(new RowBlocks(product, from, mid), new RowBlocks(product, mid, to));
+			}
+		}
+	}
+}
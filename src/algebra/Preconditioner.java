@@ -0,0 +1,36 @@
+package algebra;
+
+/**
+ * A preconditioner {@code M} of a linear system {@code A * x = b}, an
+ * approximation of {@code A} whose systems {@code M * z = r} are cheap to
+ * solve. The iterative solvers of this package solve one of those systems at
+ * each iteration, and converge in fewer iterations the closer {@code M} is to
+ * {@code A}.<p>
+ *
+ * As with {@link LinearOperator}, implementations must not allocate in
+ * {@link #apply(double[], double[])}.
+ *
+ * @see JacobiPreconditioner
+ * @see IncompleteLUPreconditioner
+ */
+@FunctionalInterface
+public interface Preconditioner {
+
+	/**
+	 * Solves {@code M * z = r}, storing the solution into {@code z}.
+	 *
+	 * @param r the right-hand side, which is not modified
+	 * @param z the destination of the solution, which is not {@code r}
+	 */
+	void apply(double[] r, double[] z);
+
+	/**
+	 * Returns the identity preconditioner, which copies {@code r} into
+	 * {@code z}, for solving without preconditioning.
+	 *
+	 * @return the preconditioner {@code M = I}
+	 */
+	static Preconditioner identity() {
+		return (r, z) -> System.arraycopy(r, 0, z, 0, r.length);
+	}
+}
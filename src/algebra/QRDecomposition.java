@@ -0,0 +1,700 @@
+package algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+import collections2d.SingularMatrixException;
+
+/**
+ * QR decomposition of a {@code m x n} numeric matrix {@code A} by Householder
+ * reflections, such that {@code A * P = Q * R}, where {@code Q} is a
+ * {@code m x m} orthogonal matrix, {@code R} is a {@code min(m,n) x n} upper
+ * triangular matrix and {@code P} is a permutation matrix, which is the
+ * identity unless the decomposition is computed
+ * {@link #withColumnPivoting(NumericMatrix) with column pivoting}.<p>
+ *
+ * As in LAPACK, {@code Q} is never formed: it is kept as the product of
+ * {@code min(m,n)} reflections {@code I - tau * v * v^T}, whose vectors are
+ * stored below the diagonal of {@code R}, in the same arrays. The values of
+ * {@code A} are copied into an array per row, as they are, so a tall matrix
+ * built row by row is never transposed. The reflections of each block of
+ * {@value #NB} columns are combined into the compact WY form
+ * {@code I - V * T * V^T}, with {@code T} upper triangular, so they are
+ * applied to the rest of the matrix, and to the right-hand sides of
+ * {@link #solve(double[])}, with two passes over the rows for each block
+ * instead of two passes for each column. For matrices with many rows, those
+ * passes are split by rows and computed in parallel with a
+ * {@link ForkJoinPool}.<p>
+ *
+ * {@link #solve(double[])} computes the least squares solution of
+ * {@code A * x = b} for matrices with at least as many rows as columns, which
+ * is as accurate as the conditioning of {@code A} allows, unlike solving the
+ * normal equations {@code A^T * A * x = A^T * b}, which squares it. With
+ * column pivoting, the column of largest remaining norm is moved forward at
+ * each step, so the diagonal of {@code R} does not increase in magnitude and
+ * reveals the numerical rank of {@code A}. The pivoted decomposition is
+ * computed one reflection at a time, since every step needs the norms updated
+ * by the step before it.
+ *
+ * @see LUDecomposition
+ * @see CholeskyDecomposition
+ */
+public class QRDecomposition {
+
+	/**
+	 * Number of columns of each block of reflections.
+	 */
+	static final int NB = 32;
+
+	/**
+	 * Minimum number of rows of each task when a block of reflections is applied
+	 * in parallel.
+	 */
+	private static final int CHUNK = 8192;
+
+	/**
+	 * Blocks with fewer multiplications are applied in the calling thread.
+	 */
+	private static final long PARALLEL_THRESHOLD = 1L << 21;
+
+	/**
+	 * Sums of squares below this value are computed again, scaled, to avoid
+	 * underflow.
+	 */
+	private static final double SMALL_SUM = 0x1p-900;
+
+	/**
+	 * Rows of the decomposition. The upper part holds {@code R}, and the
+	 * strictly lower part the vectors of the reflections, without their leading
+	 * one.
+	 */
+	private final double[][] qr;
+
+	private final int m, n;
+
+	/**
+	 * Number of reflections, {@code min(m,n)}.
+	 */
+	private final int k;
+
+	/**
+	 * Scalar factors of the reflections.
+	 */
+	private final double[] tau;
+
+	/**
+	 * Triangular factors {@code T} of each block of reflections, in row-major order.
+	 */
+	private final double[][] t;
+
+	/**
+	 * {@code piv[j]} is the column of {@code A} that ended at column {@code j}.
+	 */
+	private final int[] piv;
+
+	private final boolean pivoting;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Computes the QR decomposition of the specified matrix, which is not
+	 * modified, in the common pool.
+	 *
+	 * @param a the matrix to decompose
+	 */
+	public QRDecomposition(NumericMatrix a) {
+		this(a, ForkJoinPool.commonPool(), false);
+	}
+
+	/**
+	 * Computes the QR decomposition of the specified matrix, which is not
+	 * modified, applying the blocks of reflections to large matrices in the
+	 * specified pool.
+	 *
+	 * @param a the matrix to decompose
+	 * @param pool the pool where the blocks of reflections are applied
+	 */
+	public QRDecomposition(NumericMatrix a, ForkJoinPool pool) {
+		this(a, pool, false);
+	}
+
+	/**
+	 * Computes the QR decomposition with column pivoting of the specified
+	 * matrix, which is not modified. At each step, the column with the largest
+	 * norm below the rows already reduced is swapped to the front, and the norms
+	 * of the other columns are downdated as in LAPACK.
+	 *
+	 * @param a the matrix to decompose
+	 * @return the QR decomposition with column pivoting of the matrix
+	 */
+	public static QRDecomposition withColumnPivoting(NumericMatrix a) {
+		return new QRDecomposition(a, ForkJoinPool.commonPool(), true);
+	}
+
+	private QRDecomposition(NumericMatrix a, ForkJoinPool pool, boolean pivoting) {
+		this.pool = Objects.requireNonNull(pool);
+		this.pivoting = pivoting;
+		m = a.rowSize();
+		n = a.columnSize();
+		k = Math.min(m, n);
+		qr = new double[m][];
+		for (int i = 0; i < m; i++) {
+			qr[i] = new double[n];
+			a.copyRowTo(i, 0, qr[i], 0, n);
+		}
+		tau = new double[k];
+		piv = new int[n];
+		for (int j = 0; j < n; j++)
+			piv[j] = j;
+		t = new double[(k + NB - 1) / NB][];
+		if (pivoting) {
+			decomposePivoted();
+			for (int b = 0; b < t.length; b++)
+				t[b] = triangularFactor(b);
+		} else {
+			for (int b = 0; b < t.length; b++) {
+				int kb = b * NB, kend = Math.min(k, kb + NB);
+				decomposePanel(kb, kend);
+				t[b] = triangularFactor(b);
+				if (kend < n)
+					applyBlock(b, qr, kend, n - kend, true);
+			}
+		}
+	}
+
+	/**
+	 * Computes the reflections of the columns {@code kb} to {@code kend}, one at
+	 * a time, applying each one only to the rest of those columns.
+	 */
+	private void decomposePanel(int kb, int kend) {
+		double sumsq = -1.0;
+		for (int j = kb; j < kend; j++) {
+			double norm = j + 1 >= m ? 0.0 : sumsq >= 0.0 ? checkedNorm(sumsq, j, j + 1) : columnNorm(j, j + 1);
+			sumsq = applyReflection(j, householder(j, norm), j + 1, kend);
+		}
+	}
+
+	/**
+	 * Householder QR with column pivoting, applying each reflection to all the
+	 * columns after it.
+	 */
+	private void decomposePivoted() {
+		double[] norms = new double[n], original = new double[n];
+		for (int i = 0; i < m; i++) {
+			double[] row = qr[i];
+			for (int j = 0; j < n; j++)
+				norms[j] += row[j] * row[j];
+		}
+		for (int j = 0; j < n; j++)
+			norms[j] = original[j] = checkedNorm(norms[j], j, 0);
+		for (int j = 0; j < k; j++) {
+			int p = j;
+			for (int c = j + 1; c < n; c++)
+				if (norms[c] > norms[p])
+					p = c;
+			if (p != j) {
+				for (int i = 0; i < m; i++) {
+					double[] row = qr[i];
+					double v = row[p];
+					row[p] = row[j];
+					row[j] = v;
+				}
+				norms[p] = norms[j];
+				original[p] = original[j];
+				int q = piv[p];
+				piv[p] = piv[j];
+				piv[j] = q;
+			}
+			applyReflection(j, householder(j, j + 1 < m ? columnNorm(j, j + 1) : 0.0), j + 1, n);
+			double[] rj = qr[j];
+			for (int c = j + 1; c < n; c++) {
+				if (norms[c] == 0.0)
+					continue;
+				double r = Math.abs(rj[c]) / norms[c];
+				r = Math.max(0.0, 1.0 - r * r);
+				double ratio = norms[c] / original[c];
+				if (1.0 + 0.05 * r * ratio * ratio == 1.0)
+					norms[c] = original[c] = j + 1 < m ? columnNorm(c, j + 1) : 0.0;
+				else
+					norms[c] *= Math.sqrt(r);
+			}
+		}
+	}
+
+	/**
+	 * Computes the reflection that reduces the column {@code j}, below row
+	 * {@code j}, whose norm is {@code norm}. Stores its scalar factor and the
+	 * diagonal element of {@code R}, and returns the value by which the rest of
+	 * the column must be scaled to become the vector of the reflection.
+	 */
+	private double householder(int j, double norm) {
+		if (norm == 0.0) {
+			tau[j] = 0.0;
+			return 1.0;
+		}
+		double alpha = qr[j][j];
+		double beta = -Math.copySign(Math.hypot(alpha, norm), alpha);
+		tau[j] = (beta - alpha) / beta;
+		qr[j][j] = beta;
+		return 1.0 / (alpha - beta);
+	}
+
+	/**
+	 * Scales the vector of the reflection {@code j} by {@code scale}, and
+	 * applies the reflection to the columns {@code from} to {@code to}, with a
+	 * pass over the rows to compute the products and a pass to subtract them.
+	 * Returns the sum of squares of the column {@code j + 1} below row
+	 * {@code j + 1}, computed in the second pass, or {@code -1} if it was not.
+	 */
+	private double applyReflection(int j, double scale, int from, int to) {
+		double tj = tau[j];
+		if (tj == 0.0)
+			return -1.0;
+		int width = to - from;
+		double[] w = new double[width];
+		double[] rj = qr[j];
+		System.arraycopy(rj, from, w, 0, width);
+		for (int i = j + 1; i < m; i++) {
+			double[] row = qr[i];
+			double vi = row[j] *= scale;
+			if (vi != 0.0)
+				for (int c = 0; c < width; c++)
+					w[c] += vi * row[from + c];
+		}
+		for (int c = 0; c < width; c++) {
+			w[c] *= tj;
+			rj[from + c] -= w[c];
+		}
+		boolean next = from == j + 1 && width > 0;
+		double sumsq = 0.0;
+		for (int i = j + 1; i < m; i++) {
+			double[] row = qr[i];
+			double vi = row[j];
+			if (vi != 0.0)
+				for (int c = 0; c < width; c++)
+					row[from + c] -= vi * w[c];
+			if (next && i > j + 1)
+				sumsq += row[j + 1] * row[j + 1];
+		}
+		return next ? sumsq : -1.0;
+	}
+
+	/**
+	 * Returns the norm of the column {@code j}, from row {@code from}.
+	 */
+	private double columnNorm(int j, int from) {
+		double s = 0.0;
+		for (int i = from; i < m; i++) {
+			double v = qr[i][j];
+			s += v * v;
+		}
+		return checkedNorm(s, j, from);
+	}
+
+	/**
+	 * Returns the square root of the sum of squares of the column {@code j} from
+	 * row {@code from}, computing it again scaled by its largest value if it may
+	 * have overflowed or underflowed.
+	 */
+	private double checkedNorm(double sumsq, int j, int from) {
+		if (sumsq < Double.MAX_VALUE && sumsq > SMALL_SUM)
+			return Math.sqrt(sumsq);
+		double max = 0.0;
+		for (int i = from; i < m; i++)
+			max = Math.max(max, Math.abs(qr[i][j]));
+		if (max == 0.0 || Double.isInfinite(max))
+			return max;
+		double s = 0.0;
+		for (int i = from; i < m; i++) {
+			double v = qr[i][j] / max;
+			s += v * v;
+		}
+		return max * Math.sqrt(s);
+	}
+
+	/**
+	 * Returns the triangular factor {@code T} of the block of reflections
+	 * {@code b}, such that {@code H(kb) * ... * H(kend-1) = I - V * T * V^T}.
+	 * The products of the vectors {@code V^T * V} are computed in one pass over
+	 * the rows, and then each column of {@code T} as in LAPACK's {@code DLARFT}.
+	 */
+	private double[] triangularFactor(int b) {
+		int kb = b * NB, w = Math.min(NB, k - kb);
+		double[] g = new double[w * w];
+		double[] buf = new double[w];
+		for (int i = kb; i < m; i++) {
+			double[] v = vectors(i, kb, w, buf);
+			int off = v == buf ? 0 : kb;
+			for (int p = 0; p < w; p++) {
+				double vp = v[off + p];
+				if (vp != 0.0)
+					for (int q = p + 1; q < w; q++)
+						g[p * w + q] += vp * v[off + q];
+			}
+		}
+		double[] f = new double[w * w];
+		for (int j = 0; j < w; j++) {
+			double tj = tau[kb + j];
+			f[j * w + j] = tj;
+			if (tj == 0.0)
+				continue;
+			for (int p = 0; p < j; p++) {
+				double s = 0.0;
+				for (int q = p; q < j; q++)
+					s += f[p * w + q] * g[q * w + j];
+				f[p * w + j] = -tj * s;
+			}
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the elements of row {@code i} of the vectors of the reflections
+	 * {@code kb} to {@code kb + w}: the row itself, from column {@code kb}, if
+	 * it is below all of them, or else {@code buf} with the elements of the
+	 * triangle, the implicit ones and the zeros above them.
+	 */
+	private double[] vectors(int i, int kb, int w, double[] buf) {
+		if (i >= kb + w)
+			return qr[i];
+		double[] row = qr[i];
+		int d = i - kb;
+		for (int p = 0; p < w; p++)
+			buf[p] = p < d ? row[kb + p] : p == d ? 1.0 : 0.0;
+		return buf;
+	}
+
+	/**
+	 * Applies the block of reflections {@code b}, or its transpose, to the
+	 * columns {@code from} to {@code from + columns} of the rows {@code x}:
+	 * {@code W = V^T * X}, {@code W = T^T * W} (or {@code T * W}) and
+	 * {@code X = X - V * W}.
+	 */
+	private void applyBlock(int b, double[][] x, int from, int columns, boolean transpose) {
+		int kb = b * NB, w = Math.min(NB, k - kb);
+		boolean parallel = (long) (m - kb) * w * columns >= PARALLEL_THRESHOLD && m - kb > CHUNK
+				&& pool.getParallelism() > 1;
+		double[] wm = parallel ? pool.invoke(new RowChunks(this, b, x, from, columns, null, kb, m))
+				: project(b, x, from, columns, kb, m);
+		multiplyFactor(t[b], w, wm, columns, transpose);
+		if (parallel)
+			pool.invoke(new RowChunks(this, b, x, from, columns, wm, kb, m));
+		else
+			subtract(b, x, from, columns, wm, kb, m);
+	}
+
+	/**
+	 * Returns {@code V^T * X} for the rows {@code r0} to {@code r1}.
+	 */
+	private double[] project(int b, double[][] x, int from, int columns, int r0, int r1) {
+		int kb = b * NB, w = Math.min(NB, k - kb);
+		double[] wm = new double[w * columns];
+		double[] buf = new double[w];
+		for (int i = Math.max(r0, kb); i < r1; i++) {
+			double[] v = vectors(i, kb, w, buf), xi = x[i];
+			int off = v == buf ? 0 : kb;
+			for (int p = 0; p < w; p++) {
+				double vp = v[off + p];
+				if (vp != 0.0)
+					for (int c = 0, q = p * columns; c < columns; c++, q++)
+						wm[q] += vp * xi[from + c];
+			}
+		}
+		return wm;
+	}
+
+	/**
+	 * Subtracts {@code V * W} from the rows {@code r0} to {@code r1}.
+	 */
+	private void subtract(int b, double[][] x, int from, int columns, double[] wm, int r0, int r1) {
+		int kb = b * NB, w = Math.min(NB, k - kb);
+		double[] buf = new double[w];
+		for (int i = Math.max(r0, kb); i < r1; i++) {
+			double[] v = vectors(i, kb, w, buf), xi = x[i];
+			int off = v == buf ? 0 : kb;
+			for (int p = 0; p < w; p++) {
+				double vp = v[off + p];
+				if (vp != 0.0)
+					for (int c = 0, q = p * columns; c < columns; c++, q++)
+						xi[from + c] -= vp * wm[q];
+			}
+		}
+	}
+
+	/**
+	 * Replaces {@code W} by {@code T^T * W}, or {@code T * W}, in place.
+	 */
+	private static void multiplyFactor(double[] f, int w, double[] wm, int columns, boolean transpose) {
+		double[] acc = new double[columns];
+		if (transpose) {
+			for (int p = w - 1; p >= 0; p--) {
+				Arrays.fill(acc, 0.0);
+				for (int q = 0; q <= p; q++)
+					axpy(f[q * w + p], wm, q * columns, acc, columns);
+				System.arraycopy(acc, 0, wm, p * columns, columns);
+			}
+		} else {
+			for (int p = 0; p < w; p++) {
+				Arrays.fill(acc, 0.0);
+				for (int q = p; q < w; q++)
+					axpy(f[p * w + q], wm, q * columns, acc, columns);
+				System.arraycopy(acc, 0, wm, p * columns, columns);
+			}
+		}
+	}
+
+	private static void axpy(double a, double[] x, int offset, double[] y, int length) {
+		if (a != 0.0)
+			for (int c = 0; c < length; c++)
+				y[c] += a * x[offset + c];
+	}
+
+	/**
+	 * Applies {@code Q^T} to the vector {@code y}, in place, one block of
+	 * reflections at a time.
+	 */
+	private void applyQTranspose(double[] y) {
+		double[] buf = new double[NB], wv = new double[NB];
+		for (int b = 0; b < t.length; b++) {
+			int kb = b * NB, w = Math.min(NB, k - kb);
+			Arrays.fill(wv, 0.0);
+			for (int i = kb; i < m; i++) {
+				double[] v = vectors(i, kb, w, buf);
+				int off = v == buf ? 0 : kb;
+				double yi = y[i];
+				for (int p = 0; p < w; p++)
+					wv[p] += v[off + p] * yi;
+			}
+			multiplyFactor(t[b], w, wv, 1, true);
+			for (int i = kb; i < m; i++) {
+				double[] v = vectors(i, kb, w, buf);
+				int off = v == buf ? 0 : kb;
+				double s = 0.0;
+				for (int p = 0; p < w; p++)
+					s += v[off + p] * wv[p];
+				y[i] -= s;
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the decomposition was computed with column pivoting.
+	 *
+	 * @return {@code true} if the decomposition was computed with column pivoting
+	 */
+	public boolean isPivoted() {
+		return pivoting;
+	}
+
+	/**
+	 * Returns the numerical rank of the decomposed matrix, which is the number of
+	 * values in the diagonal of {@code R} larger than
+	 * {@code max(m,n) * max|R(j,j)| * ulp(1.0)}. The rank is only reliable for
+	 * nearly rank deficient matrices if the decomposition was computed with
+	 * column pivoting.
+	 *
+	 * @return the numerical rank of {@code A}
+	 */
+	public int rank() {
+		double max = 0.0;
+		for (int j = 0; j < k; j++)
+			max = Math.max(max, Math.abs(qr[j][j]));
+		double tolerance = Math.max(m, n) * max * Math.ulp(1.0);
+		int rank = 0;
+		for (int j = 0; j < k; j++)
+			if (Math.abs(qr[j][j]) > tolerance)
+				rank++;
+		return rank;
+	}
+
+	/**
+	 * Returns the upper triangular factor {@code R}.
+	 *
+	 * @return a new {@code min(m,n) x n} matrix with {@code R}
+	 */
+	public DoubleMatrix getR() {
+		DoubleMatrix r = DoubleMatrix.zeros(k, n);
+		for (int i = 0; i < k; i++)
+			r.copyRowFrom(i, i, qr[i], i, n - i);
+		return r;
+	}
+
+	/**
+	 * Returns the first {@code min(m,n)} columns of the orthogonal factor
+	 * {@code Q}, computed by applying the reflections to those columns of the
+	 * identity. Least squares solutions do not need it.
+	 *
+	 * @return a new {@code m x min(m,n)} matrix with orthonormal columns
+	 */
+	public DoubleMatrix getQ() {
+		double[][] x = new double[m][k];
+		for (int i = 0; i < k; i++)
+			x[i][i] = 1.0;
+		applyQ(x, k);
+		DoubleMatrix q = DoubleMatrix.zeros(m, k);
+		for (int i = 0; i < m; i++)
+			q.copyRowFrom(i, 0, x[i], 0, k);
+		return q;
+	}
+
+	/**
+	 * Replaces the first {@code columns} columns of the rows {@code x}, as many
+	 * as the rows of {@code A}, by their product with {@code Q}, in place.
+	 */
+	void applyQ(double[][] x, int columns) {
+		for (int b = t.length - 1; b >= 0; b--)
+			applyBlock(b, x, 0, columns, false);
+	}
+
+	/**
+	 * Returns the pivot vector, where the value at position {@code j} is the
+	 * column of {@code A} that became column {@code j} of {@code A * P}. Without
+	 * column pivoting, it is the identity permutation.
+	 *
+	 * @return a copy of the pivot vector
+	 */
+	public int[] getPivot() {
+		return piv.clone();
+	}
+
+	/**
+	 * Returns the least squares solution of {@code A * x = b}, the vector that
+	 * minimizes {@code ||A * x - b||}, computing {@code Q^T * b} block by block
+	 * and solving {@code R * x = (Q^T * b)} by back substitution. With column
+	 * pivoting, only the first {@link #rank()} columns are used, and the rest
+	 * of the solution is zero.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}, of length {@code columnSize()}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not the
+	 *         number of rows, or the decomposition is not pivoted and the matrix
+	 *         has fewer rows than columns
+	 * @throws SingularMatrixException if the decomposition is not pivoted and the
+	 *         matrix does not have full column rank
+	 */
+	public double[] solve(double[] b) {
+		Objects.requireNonNull(b);
+		if (b.length != m)
+			throw new IncompatibleDimensionException("Vector of length " + b.length + " for a matrix of " + m + " rows");
+		int r = solvedColumns();
+		double[] y = b.clone();
+		applyQTranspose(y);
+		double[] z = new double[n];
+		for (int i = r - 1; i >= 0; i--) {
+			double[] row = qr[i];
+			double s = y[i];
+			for (int j = i + 1; j < r; j++)
+				s -= row[j] * z[j];
+			z[i] = s / row[i];
+		}
+		double[] x = new double[n];
+		for (int j = 0; j < n; j++)
+			x[piv[j]] = z[j];
+		return x;
+	}
+
+	/**
+	 * Returns the least squares solution of {@code A * X = B}, solving all the
+	 * columns of {@code B} at the same time.
+	 *
+	 * @param b the right-hand sides, a matrix of {@code rowSize()} rows
+	 * @return a new matrix with the solution {@code X}, of {@code columnSize()} rows
+	 * @throws IncompatibleDimensionException if the rows of {@code b} are not as
+	 *         many as the rows of the matrix, or the decomposition is not
+	 *         pivoted and the matrix has fewer rows than columns
+	 * @throws SingularMatrixException if the decomposition is not pivoted and the
+	 *         matrix does not have full column rank
+	 */
+	public DoubleMatrix solve(NumericMatrix b) {
+		if (b.rowSize() != m)
+			throw new IncompatibleDimensionException("Matrix of " + b.rowSize() + " rows for a matrix of " + m + " rows");
+		int r = solvedColumns();
+		int columns = b.columnSize();
+		double[][] y = new double[m][columns];
+		for (int i = 0; i < m; i++)
+			b.copyRowTo(i, 0, y[i], 0, columns);
+		for (int blk = 0; blk < t.length; blk++)
+			applyBlock(blk, y, 0, columns, true);
+		for (int i = r - 1; i >= 0; i--) {
+			double[] row = qr[i], yi = y[i];
+			for (int j = i + 1; j < r; j++)
+				axpy(-row[j], y[j], 0, yi, columns);
+			double d = row[i];
+			for (int c = 0; c < columns; c++)
+				yi[c] /= d;
+		}
+		DoubleMatrix x = DoubleMatrix.zeros(n, columns);
+		for (int j = 0; j < r; j++)
+			x.copyRowFrom(piv[j], 0, y[j], 0, columns);
+		return x;
+	}
+
+	/**
+	 * Returns the number of leading columns of {@code R} used by the solutions.
+	 */
+	private int solvedColumns() {
+		if (pivoting)
+			return rank();
+		if (m < n)
+			throw new IncompatibleDimensionException("Matrix " + m + "x" + n + " has fewer rows than columns");
+		for (int j = 0; j < n; j++)
+			if (qr[j][j] == 0.0)
+				throw new SingularMatrixException("Matrix does not have full column rank");
+		return n;
+	}
+
+	/**
+	 * Splits the rows from the first one of a block of reflections in halves
+	 * (at multiples of {@code CHUNK}) until each task has a single chunk, which
+	 * either computes its part of {@code V^T * X}, added to the parts of the
+	 * other tasks, or subtracts {@code V * W} from its rows.
+	 */
+	private static final class RowChunks extends RecursiveTask<double[]> {
+
+		private static final long serialVersionUID = 3870515496291063617L;
+
+		private final transient QRDecomposition decomposition;
+		private final transient double[][] x;
+		private final transient double[] wm;
+		private final int block, from, columns, r0, r1;
+
+		RowChunks(QRDecomposition decomposition, int block, double[][] x, int from, int columns, double[] wm,
+				int r0, int r1) {
+			this.decomposition = decomposition;
+			this.block = block;
+			this.x = x;
+			this.from = from;
+			this.columns = columns;
+			this.wm = wm;
+			this.r0 = r0;
+			this.r1 = r1;
+		}
+
+		@Override
+		protected double[] compute() {
+			int chunks = (r1 - r0 + CHUNK - 1) / CHUNK;
+			if (chunks <= 1) {
+				if (wm != null) {
+					decomposition.subtract(block, x, from, columns, wm, r0, r1);
+					return null;
+				}
+				return decomposition.project(block, x, from, columns, r0, r1);
+			}
+			int mid = r0 + (chunks / 2) * CHUNK;
+			RowChunks left = new RowChunks(decomposition, block, x, from, columns, wm, r0, mid);
+			RowChunks right = new RowChunks(decomposition, block, x, from, columns, wm, mid, r1);
+			right.fork();
+			double[] sum = left.compute();
+			double[] other = right.join();
+			if (sum != null)
+				for (int q = 0; q < sum.length; q++)
+					sum[q] += other[q];
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,255 @@
+package algebra;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import collections2d.DoubleMatrix;
+import collections2d.NumericMatrix;
+
+/**
+ * Truncated singular value decomposition of rank {@code k} of a {@code m x n}
+ * numeric matrix {@code A}, {@code A ~ U * S * V^T}, computed by the
+ * randomized range finder of Halko, Martinsson and Tropp.<p>
+ *
+ * A random Gaussian {@code n x l} matrix {@code G}, with
+ * {@code l = k + oversampling} columns, is multiplied by {@code A}, and the
+ * {@code m x l} matrix {@code Q} with orthonormal columns computed by a
+ * {@link QRDecomposition} of {@code A * G} spans approximately the range of
+ * the {@code k} leading singular vectors. Each power iteration replaces
+ * {@code Q} by the orthonormalized {@code A * A^T * Q}, which separates the
+ * leading singular values from the rest when they decay slowly. Then
+ * {@code B^T = A^T * Q} is computed, and the exact
+ * {@link SingularValueDecomposition} of that small {@code n x l} matrix gives
+ * the factors, with {@code U = Q * V_B} and {@code V = U_B}.<p>
+ *
+ * {@code A} is only read by rows, in blocks of at most {@value #BLOCK_VALUES}
+ * values, each copied once into a dense buffer with
+ * {@link NumericMatrix#copyRowTo} and multiplied with the
+ * {@link MatrixMultiplication#gemm blocked, parallel product}. So the matrix
+ * is read {@code 2 * powerIterations + 2} times from the first row to the
+ * last, which is the best access pattern for matrices backed by a file, and
+ * the memory used apart from {@code A} is {@code O((m + n) * l)}. The random
+ * matrix comes from a {@link SplittableRandom} with the specified seed, so
+ * the results are reproducible.
+ *
+ * @see SingularValueDecomposition
+ */
+public class RandomizedSVD {
+
+	/**
+	 * Default number of columns sampled beyond the rank.
+	 */
+	static final int DEFAULT_OVERSAMPLING = 10;
+
+	/**
+	 * Default number of power iterations.
+	 */
+	static final int DEFAULT_POWER_ITERATIONS = 2;
+
+	/**
+	 * Maximum number of values of each block of rows of {@code A}.
+	 */
+	static final int BLOCK_VALUES = 1 << 20;
+
+	private final int k;
+
+	private final double[] s;
+
+	private final DoubleMatrix u, v;
+
+	/**
+	 * Computes the truncated singular value decomposition of the specified
+	 * rank of the specified matrix, which is not modified, with the default
+	 * oversampling and power iterations, a random matrix of seed {@code 0} and
+	 * the common pool.
+	 *
+	 * @param a the matrix to decompose
+	 * @param rank the number of singular values and vectors
+	 * @throws IllegalArgumentException if the rank is not positive or larger
+	 *         than {@code min(m,n)}
+	 */
+	public RandomizedSVD(NumericMatrix a, int rank) {
+		this(a, rank, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS, 0L, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the truncated singular value decomposition of the specified
+	 * rank of the specified matrix, which is not modified.
+	 *
+	 * @param a the matrix to decompose
+	 * @param rank the number of singular values and vectors
+	 * @param oversampling the number of random columns beyond the rank, which
+	 *        are limited to {@code min(m,n)} in total
+	 * @param powerIterations the number of power iterations
+	 * @param seed the seed of the random matrix
+	 * @param pool the pool where the products and the QR decompositions are computed
+	 * @throws IllegalArgumentException if the rank is not positive or larger
+	 *         than {@code min(m,n)}, or the oversampling or the number of power
+	 *         iterations are negative
+	 */
+	public RandomizedSVD(NumericMatrix a, int rank, int oversampling, int powerIterations, long seed,
+			ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+		int m = a.rowSize(), n = a.columnSize();
+		if (rank <= 0 || rank > Math.min(m, n))
+			throw new IllegalArgumentException("Rank " + rank + " for a matrix " + m + "x" + n);
+		if (oversampling < 0 || powerIterations < 0)
+			throw new IllegalArgumentException(
+					"Negative oversampling " + oversampling + " or power iterations " + powerIterations);
+		k = rank;
+		int l = (int) Math.min(Math.min(m, n), (long) rank + oversampling);
+		SplittableRandom random = new SplittableRandom(seed);
+		DoubleMatrix g = DoubleMatrix.zeros(n, l);
+		double[] line = new double[l];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < l; j++)
+				line[j] = random.nextGaussian();
+			g.copyRowFrom(i, 0, line, 0, l);
+		}
+		RowBlocks blocks = new RowBlocks(a, l, pool);
+		DoubleMatrix q = new QRDecomposition(blocks.multiply(g), pool).getQ();
+		for (int it = 0; it < powerIterations; it++) {
+			DoubleMatrix z = new QRDecomposition(blocks.multiplyTransposed(q), pool).getQ();
+			q = new QRDecomposition(blocks.multiply(z), pool).getQ();
+		}
+		SingularValueDecomposition svd = new SingularValueDecomposition(blocks.multiplyTransposed(q), pool);
+		s = new double[k];
+		System.arraycopy(svd.getSingularValues(), 0, s, 0, k);
+		v = leadingColumns(svd.getU(), k);
+		u = DoubleMatrix.zeros(m, k);
+		MatrixMultiplication.gemm(1.0, q, false, leadingColumns(svd.getV(), k), false, 0.0, u, pool);
+	}
+
+	private static DoubleMatrix leadingColumns(DoubleMatrix x, int columns) {
+		int rows = x.rowSize();
+		DoubleMatrix y = DoubleMatrix.zeros(rows, columns);
+		double[] line = new double[columns];
+		for (int i = 0; i < rows; i++) {
+			x.copyRowTo(i, 0, line, 0, columns);
+			y.copyRowFrom(i, 0, line, 0, columns);
+		}
+		return y;
+	}
+
+	/**
+	 * Returns the number of singular values and vectors of this decomposition.
+	 *
+	 * @return the rank {@code k}
+	 */
+	public int rank() {
+		return k;
+	}
+
+	/**
+	 * Returns the approximations of the {@code k} largest singular values, in
+	 * decreasing order.
+	 *
+	 * @return a new array with the singular values
+	 */
+	public double[] getSingularValues() {
+		return s.clone();
+	}
+
+	/**
+	 * Returns the matrix {@code U} of the approximate left singular vectors.
+	 *
+	 * @return a new {@code m x k} matrix with orthonormal columns
+	 */
+	public DoubleMatrix getU() {
+		return (DoubleMatrix) u.clone();
+	}
+
+	/**
+	 * Returns the matrix {@code V} of the approximate right singular vectors.
+	 *
+	 * @return a new {@code n x k} matrix with orthonormal columns
+	 */
+	public DoubleMatrix getV() {
+		return (DoubleMatrix) v.clone();
+	}
+
+	/**
+	 * Reads {@code A} by blocks of rows into reused buffers, computing the
+	 * products of each block with {@code gemm}. The buffers of a full block,
+	 * and of the last, shorter block if {@code m} is not a multiple of the
+	 * rows of a block, are allocated once, and reused by every pass over
+	 * {@code A}.
+	 */
+	private static final class RowBlocks {
+
+		private final NumericMatrix a;
+		private final ForkJoinPool pool;
+		private final int m, n, l, rows;
+		private final double[] line;
+
+		/**
+		 * The rows of a block of {@code A} and their product with a
+		 * {@code n x l} matrix, for a full block and for the last block.
+		 */
+		private final DoubleMatrix block, part, tailBlock, tailPart;
+
+		RowBlocks(NumericMatrix a, int l, ForkJoinPool pool) {
+			this.a = a;
+			this.pool = pool;
+			this.l = l;
+			m = a.rowSize();
+			n = a.columnSize();
+			rows = Math.max(1, Math.min(m, BLOCK_VALUES / Math.max(1, n)));
+			line = new double[n];
+			block = DoubleMatrix.zeros(rows, n);
+			part = DoubleMatrix.zeros(rows, l);
+			int tail = m % rows;
+			tailBlock = tail == 0 ? block : DoubleMatrix.zeros(tail, n);
+			tailPart = tail == 0 ? part : DoubleMatrix.zeros(tail, l);
+		}
+
+		/**
+		 * Copies the rows {@code r0} to {@code r1} of {@code A} into the buffer
+		 * of their block.
+		 */
+		private DoubleMatrix read(int r0, int r1) {
+			DoubleMatrix buffer = r1 - r0 == rows ? block : tailBlock;
+			for (int i = r0; i < r1; i++) {
+				a.copyRowTo(i, 0, line, 0, n);
+				buffer.copyRowFrom(i - r0, 0, line, 0, n);
+			}
+			return buffer;
+		}
+
+		/**
+		 * Returns {@code A * x}, for a {@code n x l} matrix {@code x}.
+		 */
+		DoubleMatrix multiply(DoubleMatrix x) {
+			DoubleMatrix y = DoubleMatrix.zeros(m, l);
+			for (int r0 = 0; r0 < m; r0 += rows) {
+				int r1 = Math.min(m, r0 + rows);
+				DoubleMatrix p = r1 - r0 == rows ? part : tailPart;
+				MatrixMultiplication.gemm(1.0, read(r0, r1), false, x, false, 0.0, p, pool);
+				for (int i = r0; i < r1; i++) {
+					p.copyRowTo(i - r0, 0, line, 0, l);
+					y.copyRowFrom(i, 0, line, 0, l);
+				}
+			}
+			return y;
+		}
+
+		/**
+		 * Returns {@code A^T * x}, for a {@code m x l} matrix {@code x}, as the
+		 * sum of the products of the blocks of rows of {@code A} and {@code x}.
+		 */
+		DoubleMatrix multiplyTransposed(DoubleMatrix x) {
+			DoubleMatrix y = DoubleMatrix.zeros(n, l);
+			for (int r0 = 0; r0 < m; r0 += rows) {
+				int r1 = Math.min(m, r0 + rows);
+				DoubleMatrix p = r1 - r0 == rows ? part : tailPart;
+				for (int i = r0; i < r1; i++) {
+					x.copyRowTo(i, 0, line, 0, l);
+					p.copyRowFrom(i - r0, 0, line, 0, l);
+				}
+				MatrixMultiplication.gemm(1.0, read(r0, r1), true, p, false, 1.0, y, pool);
+			}
+			return y;
+		}
+	}
+}
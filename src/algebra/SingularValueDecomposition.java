@@ -0,0 +1,300 @@
+package algebra;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import collections2d.DoubleMatrix;
+import collections2d.NoConvergenceException;
+import collections2d.NumericMatrix;
+
+/**
+ * Singular value decomposition of a {@code m x n} numeric matrix {@code A},
+ * such that {@code A = U * S * V^T}, where {@code S} is the diagonal matrix of
+ * the {@code p = min(m,n)} singular values, in decreasing order, and the
+ * {@code m x p} matrix {@code U} and the {@code n x p} matrix {@code V} have
+ * orthonormal columns, the left and right singular vectors.<p>
+ *
+ * If {@code m >= n}, a {@link QRDecomposition} {@code A = Q * R} is computed
+ * first, blocked and in parallel, and the singular values of the {@code n x n}
+ * triangle {@code R} by the one-sided Jacobi method: pairs of columns of
+ * {@code R} are rotated until all of them are orthogonal, and then their norms
+ * are the singular values, and the accumulated rotations are {@code V}. The
+ * columns are kept as rows of an array per column, so each rotation updates
+ * two contiguous arrays. {@code U} is the product of {@code Q}, applied by
+ * blocks of reflections, and the normalized columns. The Jacobi method
+ * computes the small singular values to high relative accuracy, and the QR
+ * decomposition reduces a tall matrix to a square one in a single pass over
+ * its rows. If {@code m < n}, the transpose of {@code A} is decomposed.<p>
+ *
+ * The decomposition costs {@code O(m * n^2)} operations, so for the leading
+ * singular values of very large matrices a {@link RandomizedSVD} is much
+ * cheaper.
+ *
+ * @see RandomizedSVD
+ * @see QRDecomposition
+ */
+public class SingularValueDecomposition {
+
+	/**
+	 * Maximum number of sweeps over all the pairs of columns.
+	 */
+	private static final int MAX_SWEEPS = 60;
+
+	private final int m, n, p;
+
+	private final double[] s;
+
+	private final DoubleMatrix u, v;
+
+	/**
+	 * Computes the singular value decomposition of the specified matrix, which
+	 * is not modified, in the common pool.
+	 *
+	 * @param a the matrix to decompose
+	 * @throws NoConvergenceException if the Jacobi rotations do not converge
+	 */
+	public SingularValueDecomposition(NumericMatrix a) {
+		this(a, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the singular value decomposition of the specified matrix, which
+	 * is not modified, computing the QR decomposition of large matrices in the
+	 * specified pool.
+	 *
+	 * @param a the matrix to decompose
+	 * @param pool the pool where the QR decomposition is computed
+	 * @throws NoConvergenceException if the Jacobi rotations do not converge
+	 */
+	public SingularValueDecomposition(NumericMatrix a, ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+		m = a.rowSize();
+		n = a.columnSize();
+		p = Math.min(m, n);
+		boolean transpose = m < n;
+		NumericMatrix tall = transpose ? transpose(a) : a;
+		int rows = Math.max(m, n);
+		QRDecomposition qr = new QRDecomposition(tall, pool);
+		DoubleMatrix r = qr.getR();
+		double[][] g = new double[p][p], w = new double[p][p];
+		double[] line = new double[p];
+		for (int i = 0; i < p; i++) {
+			r.copyRowTo(i, 0, line, 0, p);
+			for (int j = i; j < p; j++)
+				g[j][i] = line[j];
+			w[i][i] = 1.0;
+		}
+		s = new double[p];
+		rotate(g, w);
+		for (int j = 0; j < p; j++) {
+			double norm = Math.sqrt(dot(g[j], g[j]));
+			s[j] = norm;
+			if (norm != 0.0)
+				for (int i = 0; i < p; i++)
+					g[j][i] /= norm;
+		}
+		sort(g, w);
+		complete(g);
+		double[][] x = new double[rows][p];
+		for (int j = 0; j < p; j++)
+			for (int i = 0; i < p; i++)
+				x[i][j] = g[j][i];
+		qr.applyQ(x, p);
+		DoubleMatrix left = DoubleMatrix.zeros(rows, p), right = DoubleMatrix.zeros(p, p);
+		for (int i = 0; i < rows; i++)
+			left.copyRowFrom(i, 0, x[i], 0, p);
+		for (int i = 0; i < p; i++) {
+			for (int j = 0; j < p; j++)
+				line[j] = w[j][i];
+			right.copyRowFrom(i, 0, line, 0, p);
+		}
+		u = transpose ? right : left;
+		v = transpose ? left : right;
+	}
+
+	private static DoubleMatrix transpose(NumericMatrix a) {
+		int rows = a.rowSize(), columns = a.columnSize();
+		double[][] x = new double[columns][rows];
+		double[] line = new double[columns];
+		for (int i = 0; i < rows; i++) {
+			a.copyRowTo(i, 0, line, 0, columns);
+			for (int j = 0; j < columns; j++)
+				x[j][i] = line[j];
+		}
+		DoubleMatrix t = DoubleMatrix.zeros(columns, rows);
+		for (int j = 0; j < columns; j++)
+			t.copyRowFrom(j, 0, x[j], 0, rows);
+		return t;
+	}
+
+	/**
+	 * Rotates the pairs of rows of {@code g}, the columns of {@code R}, until
+	 * all of them are orthogonal to working precision, applying the same
+	 * rotations to the rows of {@code w}, the columns of {@code V}.
+	 */
+	private void rotate(double[][] g, double[][] w) {
+		double eps = Math.ulp(1.0);
+		for (int sweep = 0;; sweep++) {
+			boolean rotated = false;
+			for (int j = 0; j < p - 1; j++) {
+				for (int k = j + 1; k < p; k++) {
+					double[] gj = g[j], gk = g[k];
+					double alpha = dot(gj, gj), beta = dot(gk, gk), gamma = dot(gj, gk);
+					if (Math.abs(gamma) <= eps * Math.sqrt(alpha * beta) || gamma == 0.0)
+						continue;
+					rotated = true;
+					double zeta = (beta - alpha) / (2.0 * gamma);
+					double t = Math.copySign(1.0, zeta) / (Math.abs(zeta) + Math.hypot(1.0, zeta));
+					double c = 1.0 / Math.hypot(1.0, t), sn = c * t;
+					plane(gj, gk, c, sn);
+					plane(w[j], w[k], c, sn);
+				}
+			}
+			if (!rotated)
+				return;
+			if (sweep == MAX_SWEEPS)
+				throw new NoConvergenceException("Jacobi rotations did not converge after " + MAX_SWEEPS + " sweeps");
+		}
+	}
+
+	private static void plane(double[] x, double[] y, double c, double sn) {
+		for (int i = 0; i < x.length; i++) {
+			double a = x[i], b = y[i];
+			x[i] = c * a - sn * b;
+			y[i] = sn * a + c * b;
+		}
+	}
+
+	private static double dot(double[] x, double[] y) {
+		double sum = 0.0;
+		for (int i = 0; i < x.length; i++)
+			sum += x[i] * y[i];
+		return sum;
+	}
+
+	/**
+	 * Sorts the singular values in decreasing order, swapping the rows of
+	 * {@code g} and {@code w} with them.
+	 */
+	private void sort(double[][] g, double[][] w) {
+		for (int i = 0; i < p - 1; i++) {
+			int k = i;
+			for (int j = i + 1; j < p; j++)
+				if (s[j] > s[k])
+					k = j;
+			if (k != i) {
+				double sv = s[k];
+				s[k] = s[i];
+				s[i] = sv;
+				double[] row = g[k];
+				g[k] = g[i];
+				g[i] = row;
+				row = w[k];
+				w[k] = w[i];
+				w[i] = row;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the rows of {@code g} of the zero singular values, which are
+	 * zero, by unit vectors orthogonal to the other rows, so that {@code U}
+	 * still has orthonormal columns. For each of them, every vector of the
+	 * standard basis is orthogonalized against the other rows, and the one with
+	 * the largest remainder is kept: since the other rows span at most
+	 * {@code p - 1} dimensions, that remainder is at least {@code 1 / sqrt(p)}.
+	 */
+	private void complete(double[][] g) {
+		double[] candidate = null;
+		for (int j = 0; j < p; j++) {
+			if (s[j] != 0.0)
+				continue;
+			if (candidate == null)
+				candidate = new double[p];
+			double[] gj = g[j];
+			double best = -1.0;
+			for (int e = 0; e < p; e++) {
+				Arrays.fill(candidate, 0.0);
+				candidate[e] = 1.0;
+				for (int pass = 0; pass < 2; pass++)
+					for (int i = 0; i < p; i++)
+						if (i != j) {
+							double c = dot(g[i], candidate);
+							for (int q = 0; q < p; q++)
+								candidate[q] -= c * g[i][q];
+						}
+				double norm = Math.sqrt(dot(candidate, candidate));
+				if (norm > best) {
+					best = norm;
+					System.arraycopy(candidate, 0, gj, 0, p);
+				}
+			}
+			for (int q = 0; q < p; q++)
+				gj[q] /= best;
+		}
+	}
+
+	/**
+	 * Returns the singular values, in decreasing order.
+	 *
+	 * @return a new array with the {@code min(m,n)} singular values
+	 */
+	public double[] getSingularValues() {
+		return s.clone();
+	}
+
+	/**
+	 * Returns the matrix {@code U} of the left singular vectors.
+	 *
+	 * @return a new {@code m x min(m,n)} matrix with orthonormal columns
+	 */
+	public DoubleMatrix getU() {
+		return (DoubleMatrix) u.clone();
+	}
+
+	/**
+	 * Returns the matrix {@code V} of the right singular vectors.
+	 *
+	 * @return a new {@code n x min(m,n)} matrix with orthonormal columns
+	 */
+	public DoubleMatrix getV() {
+		return (DoubleMatrix) v.clone();
+	}
+
+	/**
+	 * Returns the largest singular value, the 2-norm of the decomposed matrix.
+	 *
+	 * @return the 2-norm of {@code A}, or zero if it is empty
+	 */
+	public double norm2() {
+		return p == 0 ? 0.0 : s[0];
+	}
+
+	/**
+	 * Returns the condition number of the decomposed matrix in the 2-norm,
+	 * the ratio of its largest and smallest singular values.
+	 *
+	 * @return the condition number of {@code A}, infinite if it is rank deficient
+	 */
+	public double conditionNumber() {
+		return p == 0 ? 0.0 : s[0] / s[p - 1];
+	}
+
+	/**
+	 * Returns the numerical rank of the decomposed matrix, which is the number
+	 * of singular values larger than {@code max(m,n) * s[0] * ulp(1.0)}.
+	 *
+	 * @return the numerical rank of {@code A}
+	 */
+	public int rank() {
+		if (p == 0)
+			return 0;
+		double tolerance = Math.max(m, n) * s[0] * Math.ulp(1.0);
+		int rank = 0;
+		for (int j = 0; j < p; j++)
+			if (s[j] > tolerance)
+				rank++;
+		return rank;
+	}
+}
@@ -0,0 +1,454 @@
+package algebra;
+
+import java.util.Objects;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NoConvergenceException;
+import collections2d.NumericMatrix;
+
+/**
+ * Eigenvalue decomposition of a symmetric matrix {@code A} of order {@code n},
+ * such that {@code A = V * D * V^T}, where {@code D} is the diagonal matrix of
+ * the eigenvalues, in decreasing order, and the columns of the orthogonal
+ * matrix {@code V} are the corresponding eigenvectors.<p>
+ *
+ * As in LAPACK, only the elements on and below the diagonal of {@code A} are
+ * read, and the matrix is assumed to be symmetric. The matrix is reduced to a
+ * tridiagonal one by Householder reflections, and the eigenvalues of that
+ * matrix are computed by the implicit QL algorithm, as in the EISPACK routines
+ * {@code tred2} and {@code tql2}. Most of the time is spent accumulating the
+ * transformations, which is skipped if only the eigenvalues are needed. The
+ * transformations are kept transposed, in an array per row, so each
+ * reflection and each plane rotation of the QL iterations updates whole rows,
+ * and at the end each row is an eigenvector.<p>
+ *
+ * Unlike the other decompositions of this package, the arrays of an instance
+ * are allocated once, for its order, and are reused by every call to
+ * {@link #decompose(NumericMatrix)}, so decomposing many matrices of the same
+ * order in a loop does not allocate. The results of the last decomposition
+ * can be read without copies with {@link #eigenvalue(int)} and
+ * {@link #copyEigenvectorTo(int, double[], int)}. For only a few eigenpairs
+ * of a large matrix, a {@link LanczosEigensolver} is much cheaper.
+ *
+ * @see LanczosEigensolver
+ * @see collections2d.SymmetricMatrix
+ */
+public class SymmetricEigenDecomposition {
+
+	/**
+	 * Maximum number of QL iterations per eigenvalue, on average, as in LAPACK.
+	 */
+	private static final int MAX_ITERATIONS = 30;
+
+	private final int n;
+
+	/**
+	 * Rows of the workspace, which hold the matrix, then the transposed
+	 * transformations and at the end the eigenvectors, one per row.
+	 */
+	private final double[][] z;
+
+	/**
+	 * Diagonal of the tridiagonal matrix, and then the eigenvalues.
+	 */
+	private final double[] d;
+
+	/**
+	 * Subdiagonal of the tridiagonal matrix.
+	 */
+	private final double[] e;
+
+	private boolean decomposed, vectors;
+
+	/**
+	 * Creates the workspace to decompose symmetric matrices of the specified
+	 * order. No decomposition is available until
+	 * {@link #decompose(NumericMatrix)} is called.
+	 *
+	 * @param order the order of the matrices to decompose
+	 * @throws IllegalArgumentException if the order is negative
+	 */
+	public SymmetricEigenDecomposition(int order) {
+		if (order < 0)
+			throw new IllegalArgumentException("Negative order: " + order);
+		n = order;
+		z = new double[n][n];
+		d = new double[n];
+		e = new double[n];
+	}
+
+	/**
+	 * Computes the eigenvalues and eigenvectors of the specified matrix, which
+	 * is not modified.
+	 *
+	 * @param a the symmetric matrix to decompose
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws NoConvergenceException if the QL iterations do not converge
+	 */
+	public SymmetricEigenDecomposition(NumericMatrix a) {
+		this(a.rowSize());
+		copyLowerTriangle(a);
+		compute(true);
+	}
+
+	/**
+	 * Computes the eigenvalues and eigenvectors of the specified matrix, which
+	 * is not modified, replacing the results of the previous decomposition.
+	 *
+	 * @param a the symmetric matrix to decompose
+	 * @throws IncompatibleDimensionException if the matrix is not square of
+	 *         order {@code order()}
+	 * @throws NoConvergenceException if the QL iterations do not converge
+	 */
+	public void decompose(NumericMatrix a) {
+		decompose(a, true);
+	}
+
+	/**
+	 * Computes the eigenvalues of the specified matrix, which is not modified,
+	 * and its eigenvectors only if {@code computeVectors} is {@code true},
+	 * replacing the results of the previous decomposition.
+	 *
+	 * @param a the symmetric matrix to decompose
+	 * @param computeVectors whether the eigenvectors are computed
+	 * @throws IncompatibleDimensionException if the matrix is not square of
+	 *         order {@code order()}
+	 * @throws NoConvergenceException if the QL iterations do not converge
+	 */
+	public void decompose(NumericMatrix a, boolean computeVectors) {
+		copyLowerTriangle(a);
+		compute(computeVectors);
+	}
+
+	/**
+	 * Copies the lower triangle of the matrix, which must be of order
+	 * {@code order()}, into the rows of {@code z}.
+	 */
+	private void copyLowerTriangle(NumericMatrix a) {
+		if (a.rowSize() != n || a.columnSize() != n)
+			throw new IncompatibleDimensionException(
+					"Matrix " + a.rowSize() + "x" + a.columnSize() + " for a decomposition of order " + n);
+		for (int i = 0; i < n; i++)
+			a.copyRowTo(i, 0, z[i], 0, i + 1);
+	}
+
+	/**
+	 * Decomposes the matrix whose lower triangle is in the rows {@code a}, of
+	 * at least {@code order()} rows.
+	 */
+	void decompose(double[][] a, boolean computeVectors) {
+		for (int i = 0; i < n; i++)
+			System.arraycopy(a[i], 0, z[i], 0, i + 1);
+		compute(computeVectors);
+	}
+
+	private void compute(boolean computeVectors) {
+		decomposed = false;
+		for (int i = 0; i < n; i++) {
+			double[] zi = z[i];
+			for (int j = 0; j < i; j++)
+				z[j][i] = zi[j];
+		}
+		if (n > 0) {
+			tridiagonalize(computeVectors);
+			diagonalize(computeVectors);
+			sort(computeVectors);
+		}
+		vectors = computeVectors;
+		decomposed = true;
+	}
+
+	/**
+	 * Reduces the matrix in {@code z} to tridiagonal form, leaving its diagonal
+	 * in {@code d} and its subdiagonal in {@code e}, and if {@code accumulate}
+	 * is {@code true}, the transpose of the product of the reflections in
+	 * {@code z}. The rows of {@code z} are the columns of the EISPACK routine,
+	 * so every inner loop runs along a row.
+	 */
+	private void tridiagonalize(boolean accumulate) {
+		for (int j = 0; j < n; j++)
+			d[j] = z[j][n - 1];
+		for (int i = n - 1; i > 0; i--) {
+			double scale = 0.0, h = 0.0;
+			for (int k = 0; k < i; k++)
+				scale += Math.abs(d[k]);
+			if (scale == 0.0) {
+				e[i] = d[i - 1];
+				for (int j = 0; j < i; j++) {
+					d[j] = z[j][i - 1];
+					z[j][i] = 0.0;
+					z[i][j] = 0.0;
+				}
+			} else {
+				for (int k = 0; k < i; k++) {
+					d[k] /= scale;
+					h += d[k] * d[k];
+				}
+				double f = d[i - 1];
+				double g = Math.sqrt(h);
+				if (f > 0)
+					g = -g;
+				e[i] = scale * g;
+				h -= f * g;
+				d[i - 1] = f - g;
+				for (int j = 0; j < i; j++)
+					e[j] = 0.0;
+				for (int j = 0; j < i; j++) {
+					double[] zj = z[j];
+					f = d[j];
+					z[i][j] = f;
+					g = e[j] + zj[j] * f;
+					for (int k = j + 1; k < i; k++) {
+						g += zj[k] * d[k];
+						e[k] += zj[k] * f;
+					}
+					e[j] = g;
+				}
+				f = 0.0;
+				for (int j = 0; j < i; j++) {
+					e[j] /= h;
+					f += e[j] * d[j];
+				}
+				double hh = f / (h + h);
+				for (int j = 0; j < i; j++)
+					e[j] -= hh * d[j];
+				for (int j = 0; j < i; j++) {
+					double[] zj = z[j];
+					f = d[j];
+					g = e[j];
+					for (int k = j; k < i; k++)
+						zj[k] -= f * e[k] + g * d[k];
+					d[j] = zj[i - 1];
+					zj[i] = 0.0;
+				}
+			}
+			d[i] = h;
+		}
+		if (!accumulate) {
+			for (int j = 0; j < n; j++)
+				d[j] = z[j][j];
+			e[0] = 0.0;
+			return;
+		}
+		for (int i = 0; i < n - 1; i++) {
+			double[] zi = z[i], next = z[i + 1];
+			zi[n - 1] = zi[i];
+			zi[i] = 1.0;
+			double h = d[i + 1];
+			if (h != 0.0) {
+				for (int k = 0; k <= i; k++)
+					d[k] = next[k] / h;
+				for (int j = 0; j <= i; j++) {
+					double[] zj = z[j];
+					double g = 0.0;
+					for (int k = 0; k <= i; k++)
+						g += next[k] * zj[k];
+					for (int k = 0; k <= i; k++)
+						zj[k] -= g * d[k];
+				}
+			}
+			for (int k = 0; k <= i; k++)
+				next[k] = 0.0;
+		}
+		for (int j = 0; j < n; j++) {
+			d[j] = z[j][n - 1];
+			z[j][n - 1] = 0.0;
+		}
+		z[n - 1][n - 1] = 1.0;
+		e[0] = 0.0;
+	}
+
+	/**
+	 * Computes the eigenvalues of the tridiagonal matrix in {@code d} and
+	 * {@code e} with the implicit QL algorithm and Wilkinson shifts, applying
+	 * the plane rotations to pairs of rows of {@code z} if {@code rotate} is
+	 * {@code true}.
+	 */
+	private void diagonalize(boolean rotate) {
+		for (int i = 1; i < n; i++)
+			e[i - 1] = e[i];
+		e[n - 1] = 0.0;
+		double f = 0.0, tst1 = 0.0, eps = Math.ulp(1.0);
+		int iterations = 0;
+		for (int l = 0; l < n; l++) {
+			tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+			int m = l;
+			while (Math.abs(e[m]) > eps * tst1)
+				m++;
+			if (m > l) {
+				do {
+					if (++iterations > MAX_ITERATIONS * n)
+						throw new NoConvergenceException(
+								"QL iterations did not converge after " + (iterations - 1) + " iterations");
+					double g = d[l];
+					double p = (d[l + 1] - g) / (2.0 * e[l]);
+					double r = Math.hypot(p, 1.0);
+					if (p < 0)
+						r = -r;
+					d[l] = e[l] / (p + r);
+					d[l + 1] = e[l] * (p + r);
+					double dl1 = d[l + 1];
+					double h = g - d[l];
+					for (int i = l + 2; i < n; i++)
+						d[i] -= h;
+					f += h;
+					p = d[m];
+					double c = 1.0, c2 = c, c3 = c;
+					double el1 = e[l + 1];
+					double s = 0.0, s2 = 0.0;
+					for (int i = m - 1; i >= l; i--) {
+						c3 = c2;
+						c2 = c;
+						s2 = s;
+						g = c * e[i];
+						h = c * p;
+						r = Math.hypot(p, e[i]);
+						e[i + 1] = s * r;
+						s = e[i] / r;
+						c = p / r;
+						p = c * d[i] - s * g;
+						d[i + 1] = h + s * (c * g + s * d[i]);
+						if (rotate) {
+							double[] zi = z[i], zi1 = z[i + 1];
+							for (int k = 0; k < n; k++) {
+								double v = zi1[k];
+								zi1[k] = s * zi[k] + c * v;
+								zi[k] = c * zi[k] - s * v;
+							}
+						}
+					}
+					p = -s * s2 * c3 * el1 * e[l] / dl1;
+					e[l] = s * p;
+					d[l] = c * p;
+				} while (Math.abs(e[l]) > eps * tst1);
+			}
+			d[l] += f;
+			e[l] = 0.0;
+		}
+	}
+
+	/**
+	 * Sorts the eigenvalues in decreasing order, swapping the rows of the
+	 * eigenvectors with them.
+	 */
+	private void sort(boolean vectors) {
+		for (int i = 0; i < n - 1; i++) {
+			int k = i;
+			for (int j = i + 1; j < n; j++)
+				if (d[j] > d[k])
+					k = j;
+			if (k != i) {
+				double v = d[k];
+				d[k] = d[i];
+				d[i] = v;
+				if (vectors) {
+					double[] row = z[k];
+					z[k] = z[i];
+					z[i] = row;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the order of the matrices decomposed by this instance.
+	 *
+	 * @return the number of rows and columns of {@code A}
+	 */
+	public int order() {
+		return n;
+	}
+
+	/**
+	 * Returns {@code true} if the last decomposition computed the eigenvectors.
+	 *
+	 * @return {@code true} if the eigenvectors are available
+	 */
+	public boolean hasEigenvectors() {
+		return decomposed && vectors;
+	}
+
+	/**
+	 * Returns the eigenvalue at the specified position, in decreasing order.
+	 *
+	 * @param index the position of the eigenvalue
+	 * @return the eigenvalue at the specified position
+	 * @throws IllegalStateException if no matrix has been decomposed
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         ({@code index < 0 || index >= order()})
+	 */
+	public double eigenvalue(int index) {
+		checkDecomposed();
+		return d[Objects.checkIndex(index, n)];
+	}
+
+	/**
+	 * Returns the eigenvalues, in decreasing order.
+	 *
+	 * @return a new array with the eigenvalues
+	 * @throws IllegalStateException if no matrix has been decomposed
+	 */
+	public double[] getEigenvalues() {
+		checkDecomposed();
+		return d.clone();
+	}
+
+	/**
+	 * Copies the eigenvector of the eigenvalue at the specified position into
+	 * the destination array.
+	 *
+	 * @param index the position of the eigenvalue
+	 * @param dest the destination array
+	 * @param destPos starting position in the destination array
+	 * @throws IllegalStateException if the last decomposition did not compute
+	 *         the eigenvectors
+	 * @throws IndexOutOfBoundsException if the index is out of range, or the
+	 *         destination range is out of the bounds of the array
+	 */
+	public void copyEigenvectorTo(int index, double[] dest, int destPos) {
+		checkVectors();
+		Objects.checkIndex(index, n);
+		Objects.checkFromIndexSize(destPos, n, dest.length);
+		System.arraycopy(z[index], 0, dest, destPos, n);
+	}
+
+	/**
+	 * Returns the matrix {@code V} of the eigenvectors.
+	 *
+	 * @return a new matrix whose column {@code j} is the eigenvector of the
+	 *         eigenvalue at position {@code j}
+	 * @throws IllegalStateException if the last decomposition did not compute
+	 *         the eigenvectors
+	 */
+	public DoubleMatrix getEigenvectors() {
+		checkVectors();
+		DoubleMatrix v = DoubleMatrix.zeros(n, n);
+		double[] row = new double[n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++)
+				row[j] = z[j][i];
+			v.copyRowFrom(i, 0, row, 0, n);
+		}
+		return v;
+	}
+
+	/**
+	 * Returns the eigenvector at position {@code index}, in place, for the
+	 * other classes of this package.
+	 */
+	double[] eigenvector(int index) {
+		return z[index];
+	}
+
+	private void checkDecomposed() {
+		if (!decomposed)
+			throw new IllegalStateException("No matrix has been decomposed");
+	}
+
+	private void checkVectors() {
+		checkDecomposed();
+		if (!vectors)
+			throw new IllegalStateException("Eigenvectors were not computed");
+	}
+}
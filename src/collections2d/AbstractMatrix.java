@@ -1,12 +1,19 @@
 package collections2d;
 
 import java.awt.Point;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 /**
  * This class provides a skeletal implementation of the {@link Matrix}
@@ -37,100 +44,114 @@ public abstract class AbstractMatrix<E> extends AbstractCollection2D<E> implemen
      * {@inheritDoc}
      *
      * @implSpec
-     * This implementation first gets a matrix iterator (with
-     * {@code matrixRowIterator()}). Then, it iterates over the rows until the
-     * specified element is found or the end of the matrix is reached.
+     * This implementation returns {@code indexOf(o) != null}, but without
+     * creating a {@code Point}.
+     *
+     * @throws ClassCastException   {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+	public boolean contains(Object o) {
+		return find(o, false) >= 0;
+	}
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * If this matrix implements {@link RandomAccess}, this implementation scans
+     * the elements with {@code getElement(int, int)}, row after row. Otherwise,
+     * it iterates over the rows with {@code rowIterator()}, and over the elements
+     * of each row with its own iterator, until the specified element is found
+     * or the end of the matrix is reached. No row is copied, and a {@code Point}
+     * is only created for the position found.
      *
      * @throws ClassCastException   {@inheritDoc}
      * @throws NullPointerException {@inheritDoc}
      */
 	public Point indexOf(Object o) {
-		Point indexes = new Point(-1,-1);
-		
-		MatrixIterator<Collection<E>> rowsItr = matrixRowIterator();
-
-		if (o == null) {
-			while (rowsItr.hasNext()) {
-				Collection<E> row = rowsItr.next();
-				if (row != null) {
-					ListIterator<E> colItr = new ArrayList<E>(row).listIterator();
-					while (colItr.hasNext()) {
-						if (colItr.next() == null) {
-							indexes.x = rowsItr.nextIndex() -1;
-							indexes.y = colItr.nextIndex() -1;
-							return indexes;
-						}
-					}
-				}
-			}
-		}
-		else {
-			while (rowsItr.hasNext()) {
-				Collection<E> row = rowsItr.next();
-				if (row != null) {
-					ListIterator<E> colItr = new ArrayList<E>(row).listIterator();
-					while (colItr.hasNext()) {
-						if (o.equals(colItr.next())) {
-							indexes.x = rowsItr.nextIndex() -1;
-							indexes.y = colItr.nextIndex() -1;
-							return indexes;
-						}
-					}
-				}
-			}
-		}
-		return null;
+		return toPoint(find(o, false));
 	}
 
     /**
      * {@inheritDoc}
      *
      * @implSpec
-     * This implementation first gets a matrix iterator that points to the end
-     * of the matrix (with {@code listIterator(rowSize())}).  Then, it iterates
-     * backwards over the matrix until the specified element is found, or the
-     * beginning of the matrix is reached.
+     * If this matrix implements {@link RandomAccess}, this implementation scans
+     * the elements backwards with {@code getElement(int, int)}. Otherwise, it
+     * iterates backwards over the rows with a matrix iterator that points to the
+     * end of the matrix (with {@code matrixRowIterator(rowSize())}), and forwards
+     * over the elements of each row, keeping the last match. No row is copied,
+     * and a {@code Point} is only created for the position found.
      *
      * @throws ClassCastException   {@inheritDoc}
      * @throws NullPointerException {@inheritDoc}
      */
 	public Point lastIndexOf(Object o) {
-		Point indexes = new Point(-1,-1);
-		
-		MatrixIterator<Collection<E>> rowsItr = matrixRowIterator(rowSize());
+		return toPoint(find(o, true));
+	}
 
-		if (o == null) {
+	/**
+	 * Packs the coordinates of an element in a {@code long}, the row in the high
+	 * half and the column in the low half, so a search can return a position
+	 * without creating an object.
+	 */
+	static long position(int indexRow, int indexColumn) {
+		return (long) indexRow << 32 | indexColumn;
+	}
 
+	/**
+	 * Unpacks a position made by {@link #position(int, int)}, or returns
+	 * {@code null} if the position is negative.
+	 */
+	static Point toPoint(long position) {
+		return position < 0 ? null : new Point((int) (position >>> 32), (int) position);
+	}
+
+	/**
+	 * Returns the packed position of the first (or last) occurrence of the
+	 * specified element, or {@code -1} if there is none.
+	 */
+	private long find(Object o, boolean last) {
+		int rows = rowSize(), columns = columnSize();
+		if (this instanceof RandomAccess) {
+			if (last) {
+				for (int i = rows - 1; i >= 0; i--)
+					for (int j = columns - 1; j >= 0; j--)
+						if (o == null ? getElement(i, j) == null : o.equals(getElement(i, j)))
+							return position(i, j);
+			} else {
+				for (int i = 0; i < rows; i++)
+					for (int j = 0; j < columns; j++)
+						if (o == null ? getElement(i, j) == null : o.equals(getElement(i, j)))
+							return position(i, j);
+			}
+			return -1;
+		}
+		if (last) {
+			MatrixIterator<Collection<E>> rowsItr = matrixRowIterator(rows);
 			while (rowsItr.hasPrevious()) {
 				Collection<E> row = rowsItr.previous();
-				if (row != null) {
-					ListIterator<E> colItr = new ArrayList<E>(row).listIterator(row.size());
-					while (colItr.hasPrevious()) {
-						if (colItr.previous() == null) {
-							indexes.x = rowsItr.nextIndex();
-							indexes.y = colItr.nextIndex();
-							return indexes;
-						}
-					}
+				int j = 0, found = -1;
+				for (E e : row) {
+					if (o == null ? e == null : o.equals(e))
+						found = j;
+					j++;
 				}
+				if (found >= 0)
+					return position(rowsItr.nextIndex(), found);
 			}
-
 		} else {
-			while (rowsItr.hasPrevious()) {
-				Collection<E> row = rowsItr.previous();
-				if (row != null) {
-					ListIterator<E> colItr = new ArrayList<E>(row).listIterator(row.size());
-					while (colItr.hasPrevious()) {
-						if (o.equals(colItr.previous())) {
-							indexes.x = rowsItr.nextIndex();
-							indexes.y = colItr.nextIndex();
-							return indexes;
-						}
-					}
+			Iterator<Collection<E>> rowsItr = rowIterator();
+			for (int i = 0; rowsItr.hasNext(); i++) {
+				int j = 0;
+				for (E e : rowsItr.next()) {
+					if (o == null ? e == null : o.equals(e))
+						return position(i, j);
+					j++;
 				}
 			}
 		}
-		return null;
+		return -1;
 	}
 	
     /**
@@ -229,6 +250,66 @@ public abstract class AbstractMatrix<E> extends AbstractCollection2D<E> implemen
 		throw new UnsupportedOperationException();
 	}
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * This implementation calls {@code addRow(Collection)} for each row of the
+     * specified collection, so the rows added before a failing one remain in
+     * this matrix.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+	public boolean addRows(Collection<? extends Collection<E>> rows) {
+		boolean modified = false;
+		for (Collection<E> row : rows)
+			modified |= addRow(row);
+		return modified;
+	}
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * This implementation calls {@code addColumn(Collection)} for each column of
+     * the specified collection, so the columns added before a failing one remain
+     * in this matrix.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+	public boolean addColumns(Collection<? extends Collection<E>> columns) {
+		boolean modified = false;
+		for (Collection<E> column : columns)
+			modified |= addColumn(column);
+		return modified;
+	}
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * This implementation calls {@code addRow(Collection)} with a copy of each
+     * row of the specified matrix.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+	public boolean addAll(Matrix<? extends E> m) {
+		int rows = m.rowSize();
+		boolean modified = false;
+		for (int i = 0; i < rows; i++)
+			modified |= addRow(new ArrayList<E>(m.getRow(i)));
+		return modified;
+	}
+
     /**
      * Compares the specified object with this matrix for equality.  Returns
      * {@code true} if and only if the specified object is also a matrix, both
@@ -289,6 +370,39 @@ public abstract class AbstractMatrix<E> extends AbstractCollection2D<E> implemen
         return hashCode == 0 ? 1 : hashCode;
 	}
 
+	/**
+	 * Returns {@code 31^n}, with the overflow of {@code int} arithmetic, for
+	 * subclasses that compute the hash codes of their rows without iterating
+	 * over them.
+	 */
+	static int power31(int n) {
+		int p = 1;
+		for (int b = 31; n > 0; n >>>= 1, b *= b)
+			if ((n & 1) != 0)
+				p *= b;
+		return p;
+	}
+
+	/**
+	 * Returns the hash code, as defined by {@link java.util.List#hashCode()}, of
+	 * a list of {@code n} values equal to {@code e}: {@code 31^n} plus the hash
+	 * code of {@code e} times the sum of {@code 31^k} for {@code k < n}. The sum
+	 * is built from the highest bit of {@code n} down, doubling its length at
+	 * each step.
+	 */
+	static int repeatedHash(int n, double e) {
+		int sum = 0, p = 1;
+		for (int bit = Integer.highestOneBit(n); bit > 0; bit >>>= 1) {
+			sum += sum * p;
+			p *= p;
+			if ((n & bit) != 0) {
+				sum = sum * 31 + 1;
+				p *= 31;
+			}
+		}
+		return p + Double.hashCode(e) * sum;
+	}
+
 
     /**
      * Returns an iterator over the rows in this matrix in proper sequence.
@@ -580,12 +694,456 @@ public abstract class AbstractMatrix<E> extends AbstractCollection2D<E> implemen
 		}
 	}
 
+    /**
+     * Creates a {@link Spliterator} over the rows of this matrix.
+     *
+     * @implSpec
+     * This implementation returns a spliterator over the range of row indices,
+     * relying on {@code getRow(int)}. It splits the range in halves, and reports
+     * {@link Spliterator#ORDERED}, {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}.
+     * The range is bound when the spliterator is created, so the matrix must not
+     * be structurally modified while it is traversed.
+     *
+     * @return a {@code Spliterator} over the rows of this matrix
+     */
+	public Spliterator<Collection<E>> spliterator() {
+		return new RowSpliterator<>(this, 0, rowSize());
+	}
+
+    /**
+     * Creates a {@link Spliterator} over the elements of this matrix, row after row.
+     *
+     * @implSpec
+     * This implementation returns a spliterator over the range of positions
+     * {@code [0, rowSize() * columnSize())}, relying on {@code getElement(int, int)}.
+     * It splits the range in halves, even in the middle of a row, and reports
+     * {@link Spliterator#ORDERED}, {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}.
+     * The range is bound when the spliterator is created, so the matrix must not
+     * be structurally modified while it is traversed.
+     *
+     * @return a {@code Spliterator} over the elements of this matrix
+     */
+	public Spliterator<E> elementSpliterator() {
+		return new ElementSpliterator<>(this, 0, (long) rowSize() * columnSize(), columnSize());
+	}
+
+	/**
+	 * Spliterator over a range of row indices of a matrix.
+	 */
+	static final class RowSpliterator<E> implements Spliterator<Collection<E>> {
+
+		private final Matrix<E> matrix;
+		private int index;
+		private final int fence;
+
+		RowSpliterator(Matrix<E> matrix, int origin, int fence) {
+			this.matrix = matrix;
+			this.index = origin;
+			this.fence = fence;
+		}
+
+		public boolean tryAdvance(Consumer<? super Collection<E>> action) {
+			Objects.requireNonNull(action);
+			if (index >= fence)
+				return false;
+			action.accept(matrix.getRow(index++));
+			return true;
+		}
+
+		public void forEachRemaining(Consumer<? super Collection<E>> action) {
+			Objects.requireNonNull(action);
+			int i = index;
+			index = fence;
+			for (; i < fence; i++)
+				action.accept(matrix.getRow(i));
+		}
+
+		public Spliterator<Collection<E>> trySplit() {
+			int lo = index, mid = (lo + fence) >>> 1;
+			if (lo >= mid)
+				return null;
+			index = mid;
+			return new RowSpliterator<>(matrix, lo, mid);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
+
+	/**
+	 * Spliterator over a range of positions of the elements of a matrix, where
+	 * position {@code p} is the element at {@code (p / columns, p % columns)}.
+	 */
+	static final class ElementSpliterator<E> implements Spliterator<E> {
+
+		private final Matrix<E> matrix;
+		private long index;
+		private final long fence;
+		private final int columns;
+
+		ElementSpliterator(Matrix<E> matrix, long origin, long fence, int columns) {
+			this.matrix = matrix;
+			this.index = origin;
+			this.fence = fence;
+			this.columns = columns;
+		}
+
+		public boolean tryAdvance(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			if (index >= fence)
+				return false;
+			long p = index++;
+			action.accept(matrix.getElement((int) (p / columns), (int) (p % columns)));
+			return true;
+		}
+
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			long p = index;
+			if (p >= fence)
+				return;
+			index = fence;
+			int i = (int) (p / columns), j = (int) (p % columns);
+			for (; p < fence; p++) {
+				action.accept(matrix.getElement(i, j));
+				if (++j == columns) {
+					j = 0;
+					i++;
+				}
+			}
+		}
+
+		public Spliterator<E> trySplit() {
+			long lo = index, mid = (lo + fence) >>> 1;
+			if (lo >= mid)
+				return null;
+			index = mid;
+			return new ElementSpliterator<>(matrix, lo, mid, columns);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
+
 	/**
-	 * {@inheritDoc}
-	 * @implSpec This implementation always throws an {@code UnsupportedOperationException}.
+	 * Spliterator over a range of positions of the values of a numeric matrix,
+	 * the primitive counterpart of {@link ElementSpliterator}.
 	 */
+	static final class DoubleElementSpliterator implements Spliterator.OfDouble {
+
+		private final NumericMatrix matrix;
+		private long index;
+		private final long fence;
+		private final int columns;
+
+		DoubleElementSpliterator(NumericMatrix matrix, long origin, long fence, int columns) {
+			this.matrix = matrix;
+			this.index = origin;
+			this.fence = fence;
+			this.columns = columns;
+		}
+
+		public boolean tryAdvance(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+			if (index >= fence)
+				return false;
+			long p = index++;
+			action.accept(matrix.getDouble((int) (p / columns), (int) (p % columns)));
+			return true;
+		}
+
+		public void forEachRemaining(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+			long p = index;
+			if (p >= fence)
+				return;
+			index = fence;
+			int i = (int) (p / columns), j = (int) (p % columns);
+			for (; p < fence; p++) {
+				action.accept(matrix.getDouble(i, j));
+				if (++j == columns) {
+					j = 0;
+					i++;
+				}
+			}
+		}
+
+		public Spliterator.OfDouble trySplit() {
+			long lo = index, mid = (lo + fence) >>> 1;
+			if (lo >= mid)
+				return null;
+			index = mid;
+			return new DoubleElementSpliterator(matrix, lo, mid, columns);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * This implementation returns a view that maps its coordinates to the
+     * coordinates of this matrix, so no element is copied and the view is
+     * created in constant time. The sub matrices of the view map straight to
+     * this matrix as well, so each level of nesting adds one step to the
+     * mapping of a coordinate rather than another copy. If this matrix is a
+     * {@link NumericMatrix}, so is the returned view.
+     *
+     * <p>The view relies on the {@code getElement(int, int)} and
+     * {@code setElement(int, int, E)} methods of this matrix, and detects
+     * structural modifications of this matrix by checking its dimension,
+     * throwing a {@code ConcurrentModificationException}.
+     *
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	@SuppressWarnings("unchecked")
 	public Matrix<E> subMatrix(int indexRow, int indexColumn){
-		// TODO someday
-		throw new UnsupportedOperationException();
+		Objects.checkIndex(indexRow, rowSize());
+		Objects.checkIndex(indexColumn, columnSize());
+		int[] removedRows = {indexRow}, removedColumns = {indexColumn};
+		if (this instanceof NumericMatrix)
+			return (Matrix<E>) new NumericSubMatrix((NumericMatrix) this, removedRows, removedColumns);
+		return new SubMatrix<>(this, removedRows, removedColumns);
+	}
+
+	/**
+	 * View of a matrix without some of its rows and columns. The removed rows
+	 * and columns are kept as sorted arrays of indices of the root matrix.
+	 */
+	private static class SubMatrix<E> extends AbstractMatrix<E> implements RandomAccess {
+
+		final Matrix<E> root;
+		final int[] removedRows, removedColumns;
+		private final int rootRows, rootColumns;
+
+		SubMatrix(Matrix<E> root, int[] removedRows, int[] removedColumns) {
+			this.root = root;
+			this.removedRows = removedRows;
+			this.removedColumns = removedColumns;
+			this.rootRows = root.rowSize();
+			this.rootColumns = root.columnSize();
+		}
+
+		/**
+		 * Returns a view of the same root without the specified rows and columns.
+		 */
+		SubMatrix<E> newView(int[] removedRows, int[] removedColumns) {
+			return new SubMatrix<>(root, removedRows, removedColumns);
+		}
+
+		private void checkForComodification() {
+			if (root.rowSize() != rootRows || root.columnSize() != rootColumns)
+				throw new ConcurrentModificationException();
+		}
+
+		public int rowSize() {
+			checkForComodification();
+			int rows = rootRows - removedRows.length, columns = rootColumns - removedColumns.length;
+			return columns == 0 ? 0 : rows;
+		}
+
+		public int columnSize() {
+			checkForComodification();
+			int rows = rootRows - removedRows.length, columns = rootColumns - removedColumns.length;
+			return rows == 0 ? 0 : columns;
+		}
+
+		public int totalSize() {
+			return rowSize() * columnSize();
+		}
+
+		public boolean isEmpty() {
+			return rowSize() == 0;
+		}
+
+		/**
+		 * Maps an index of this view to an index of the root matrix.
+		 */
+		private static int map(int index, int[] removed) {
+			for (int r : removed)
+				if (r <= index)
+					index++;
+			return index;
+		}
+
+		/**
+		 * Inserts an index of the root matrix in a sorted array of indices.
+		 */
+		private static int[] insert(int[] removed, int index) {
+			int at = -Arrays.binarySearch(removed, index) - 1;
+			int[] r = new int[removed.length + 1];
+			System.arraycopy(removed, 0, r, 0, at);
+			r[at] = index;
+			System.arraycopy(removed, at, r, at + 1, removed.length - at);
+			return r;
+		}
+
+		int rootRow(int indexRow) {
+			return map(Objects.checkIndex(indexRow, rowSize()), removedRows);
+		}
+
+		int rootColumn(int indexColumn) {
+			return map(Objects.checkIndex(indexColumn, columnSize()), removedColumns);
+		}
+
+		/**
+		 * Returns the first removed column of the root matrix after the specified
+		 * one, or the number of columns of the root matrix if there is none.
+		 */
+		int nextRemovedColumn(int rootColumn) {
+			for (int c : removedColumns)
+				if (c > rootColumn)
+					return c;
+			return rootColumns;
+		}
+
+		public E getElement(int indexRow, int indexColumn) {
+			return root.getElement(rootRow(indexRow), rootColumn(indexColumn));
+		}
+
+		public E setElement(int indexRow, int indexColumn, E newElement) {
+			return root.setElement(rootRow(indexRow), rootColumn(indexColumn), newElement);
+		}
+
+		public Collection<E> getRow(int index) {
+			Objects.checkIndex(index, rowSize());
+			return new Line(index, true);
+		}
+
+		public Collection<E> getColumn(int index) {
+			Objects.checkIndex(index, columnSize());
+			return new Line(index, false);
+		}
+
+		public Collection<E> setRow(int index, Collection<E> newRow) {
+			Objects.checkIndex(index, rowSize());
+			if (newRow.size() != columnSize())
+				throw new IncompatibleCollectionSizeException();
+			Object[] elements = newRow.toArray();
+			Collection<E> replaced = new ArrayList<>(getRow(index));
+			for (int j = 0; j < elements.length; j++)
+				setElement(index, j, cast(elements[j]));
+			return replaced;
+		}
+
+		public Collection<E> setColumn(int index, Collection<E> newColumn) {
+			Objects.checkIndex(index, columnSize());
+			if (newColumn.size() != rowSize())
+				throw new IncompatibleCollectionSizeException();
+			Object[] elements = newColumn.toArray();
+			Collection<E> replaced = new ArrayList<>(getColumn(index));
+			for (int i = 0; i < elements.length; i++)
+				setElement(i, index, cast(elements[i]));
+			return replaced;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <E> E cast(Object o) {
+			return (E) o;
+		}
+
+		public Collection<E> removeRow(int index) {
+			throw new UnsupportedOperationException();
+		}
+
+		public Collection<E> removeColumn(int index) {
+			throw new UnsupportedOperationException();
+		}
+
+		public Matrix<E> subMatrix(int indexRow, int indexColumn) {
+			return newView(insert(removedRows, rootRow(indexRow)),
+					insert(removedColumns, rootColumn(indexColumn)));
+		}
+
+		/**
+		 * Live view of a row or a column of this sub matrix.
+		 */
+		private class Line extends AbstractList<E> implements RandomAccess {
+
+			private final int index;
+			private final boolean row;
+
+			Line(int index, boolean row) {
+				this.index = index;
+				this.row = row;
+			}
+
+			public int size() {
+				return row ? columnSize() : rowSize();
+			}
+
+			public E get(int i) {
+				return row ? getElement(index, i) : getElement(i, index);
+			}
+
+			public E set(int i, E element) {
+				return row ? setElement(index, i, element) : setElement(i, index, element);
+			}
+		}
+	}
+
+	/**
+	 * View of a numeric matrix without some of its rows and columns, which
+	 * copies each run of consecutive columns of a row with a single call to
+	 * the bulk methods of the root matrix.
+	 */
+	private static final class NumericSubMatrix extends SubMatrix<Double> implements NumericMatrix {
+
+		NumericSubMatrix(NumericMatrix root, int[] removedRows, int[] removedColumns) {
+			super(root, removedRows, removedColumns);
+		}
+
+		SubMatrix<Double> newView(int[] removedRows, int[] removedColumns) {
+			return new NumericSubMatrix((NumericMatrix) root, removedRows, removedColumns);
+		}
+
+		public double getDouble(int indexRow, int indexColumn) {
+			return ((NumericMatrix) root).getDouble(rootRow(indexRow), rootColumn(indexColumn));
+		}
+
+		public double setDouble(int indexRow, int indexColumn, double newValue) {
+			return ((NumericMatrix) root).setDouble(rootRow(indexRow), rootColumn(indexColumn), newValue);
+		}
+
+		public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+			Objects.checkFromIndexSize(fromColumn, length, columnSize());
+			Objects.checkFromIndexSize(destPos, length, dest.length);
+			int r = rootRow(indexRow);
+			for (int j = fromColumn, end = fromColumn + length; j < end;) {
+				int c = rootColumn(j);
+				int run = Math.min(end - j, nextRemovedColumn(c) - c);
+				((NumericMatrix) root).copyRowTo(r, c, dest, destPos + j - fromColumn, run);
+				j += run;
+			}
+		}
+
+		public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+			Objects.checkFromIndexSize(fromColumn, length, columnSize());
+			Objects.checkFromIndexSize(srcPos, length, src.length);
+			int r = rootRow(indexRow);
+			for (int j = fromColumn, end = fromColumn + length; j < end;) {
+				int c = rootColumn(j);
+				int run = Math.min(end - j, nextRemovedColumn(c) - c);
+				((NumericMatrix) root).copyRowFrom(r, c, src, srcPos + j - fromColumn, run);
+				j += run;
+			}
+		}
 	}
 }
\ No newline at end of file
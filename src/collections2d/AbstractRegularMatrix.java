@@ -10,7 +10,7 @@ import java.util.Objects;
  * @see Matrix
  * @see AbstractMatrix
  * @see RegularMatrix
- * @See {@link algebra.AlgebraicMatrix}
+ * @see algebra.MatrixMultiplication
  */
 public abstract class AbstractRegularMatrix<E> extends AbstractMatrix<E> {
 
@@ -0,0 +1,207 @@
+package collections2d;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of the interface {@code Matrix} for square band matrices of
+ * {@code double} values, such as the discretizations of differential
+ * equations, where only the elements within a band around the diagonal are
+ * stored. With a lower bandwidth {@code kl} and an upper bandwidth {@code ku},
+ * the element {@code (i, j)} is in the band if
+ * {@code -kl <= j - i <= ku}, and row {@code i} stores its elements from
+ * column {@code i - kl} to column {@code i + ku} in {@code kl + ku + 1}
+ * consecutive positions of a single array. A matrix of order {@code n} takes
+ * {@code n * (kl + ku + 1)} values, instead of {@code n * n}; the few
+ * positions of the first and last rows that fall outside the matrix are
+ * unused.<p>
+ *
+ * Every element outside the band is an implicit zero with no storage: it can
+ * be set to zero, which has no effect, but setting it to any other value throws
+ * an {@code IllegalArgumentException}. The product with a vector takes
+ * {@code O(n * (kl + ku))} time, and systems can be solved in
+ * {@code O(n * kl * (kl + ku))} time with
+ * {@link algebra.BandedLUDecomposition}.<p>
+ *
+ * The order and bandwidths of a {@code BandedMatrix} are fixed when it is
+ * created, so every operation that would change its dimension throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see TridiagonalMatrix
+ */
+public class BandedMatrix extends PackedMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = -1734094186528203776L;
+
+	/**
+	 * The number of diagonals below and above the main diagonal that are stored.
+	 */
+	final int lowerBandwidth, upperBandwidth;
+
+	/**
+	 * The number of values stored for each row, {@code kl + ku + 1}.
+	 */
+	final int width;
+
+	/**
+	 * Constructs a band matrix of the specified order and bandwidths, with every
+	 * value zero.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @param lowerBandwidth the number of diagonals below the main diagonal
+	 * @param upperBandwidth the number of diagonals above the main diagonal
+	 * @throws IllegalArgumentException if any of the arguments is negative, or
+	 *         the matrix is too large
+	 */
+	public BandedMatrix(int order, int lowerBandwidth, int upperBandwidth) {
+		super(order, (long) order * bandWidth(lowerBandwidth, upperBandwidth));
+		this.lowerBandwidth = lowerBandwidth;
+		this.upperBandwidth = upperBandwidth;
+		this.width = lowerBandwidth + upperBandwidth + 1;
+	}
+
+	private static long bandWidth(int lowerBandwidth, int upperBandwidth) {
+		if (lowerBandwidth < 0 || upperBandwidth < 0)
+			throw new IllegalArgumentException("Illegal bandwidths: " + lowerBandwidth + ", " + upperBandwidth);
+		return (long) lowerBandwidth + upperBandwidth + 1;
+	}
+
+	/**
+	 * Returns a new band matrix of the specified bandwidths with the values of
+	 * the specified matrix, which must be zero outside the band.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @param lowerBandwidth the number of diagonals below the main diagonal
+	 * @param upperBandwidth the number of diagonals above the main diagonal
+	 * @return a new band matrix with the values of the specified matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws IllegalArgumentException if any of the bandwidths is negative, or
+	 *         any element outside the band is not zero
+	 */
+	public static BandedMatrix copyOf(NumericMatrix m, int lowerBandwidth, int upperBandwidth) {
+		checkSquare(m);
+		BandedMatrix b = new BandedMatrix(m.rowSize(), lowerBandwidth, upperBandwidth);
+		double[] row = new double[b.order];
+		for (int i = 0; i < b.order; i++) {
+			m.copyRowTo(i, 0, row, 0, b.order);
+			b.copyRowFrom(i, 0, row, 0, b.order);
+		}
+		return b;
+	}
+
+	/**
+	 * Returns the number of diagonals below the main diagonal that are stored.
+	 *
+	 * @return the lower bandwidth of this matrix
+	 */
+	public int getLowerBandwidth() {
+		return lowerBandwidth;
+	}
+
+	/**
+	 * Returns the number of diagonals above the main diagonal that are stored.
+	 *
+	 * @return the upper bandwidth of this matrix
+	 */
+	public int getUpperBandwidth() {
+		return upperBandwidth;
+	}
+
+	/**
+	 * Returns {@code true} if the element at the specified coordinates is in the band.
+	 */
+	private boolean inBand(int indexRow, int indexColumn) {
+		int d = indexColumn - indexRow;
+		return d >= -lowerBandwidth && d <= upperBandwidth;
+	}
+
+	/**
+	 * Returns the position in the packed array of the element at the specified
+	 * coordinates, which must be in the band.
+	 */
+	final int index(int indexRow, int indexColumn) {
+		return indexRow * width + lowerBandwidth + indexColumn - indexRow;
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		return inBand(indexRow, indexColumn) ? data[index(indexRow, indexColumn)] : 0.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if the element is outside the band and
+	 *         the new value is not zero
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		if (!inBand(indexRow, indexColumn)) {
+			if (newValue != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + indexColumn
+						+ ") is outside the band of the matrix");
+			return 0.0;
+		}
+		int k = index(indexRow, indexColumn);
+		double old = data[k];
+		data[k] = newValue;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		int to = fromColumn + length;
+		int first = Math.min(to, Math.max(fromColumn, indexRow - lowerBandwidth));
+		int last = Math.max(first, Math.min(to, indexRow + upperBandwidth + 1));
+		Arrays.fill(dest, destPos, destPos + first - fromColumn, 0.0);
+		System.arraycopy(data, index(indexRow, first), dest, destPos + first - fromColumn, last - first);
+		Arrays.fill(dest, destPos + last - fromColumn, destPos + length, 0.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if any of the values to be copied outside
+	 *         the band is not zero; no value is copied then
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		int to = fromColumn + length;
+		int first = Math.min(to, Math.max(fromColumn, indexRow - lowerBandwidth));
+		int last = Math.max(first, Math.min(to, indexRow + upperBandwidth + 1));
+		for (int j = fromColumn; j < to; j++)
+			if ((j < first || j >= last) && src[srcPos + j - fromColumn] != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + j
+						+ ") is outside the band of the matrix");
+		System.arraycopy(src, srcPos + first - fromColumn, data, index(indexRow, first), last - first);
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified vector, reading only
+	 * the elements in the band.
+	 *
+	 * @param x the vector, of length {@code rowSize()}
+	 * @return a new array with the product {@code A * x}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		checkLength(x);
+		double[] y = new double[order];
+		for (int i = 0; i < order; i++) {
+			int first = Math.max(0, i - lowerBandwidth), last = Math.min(order - 1, i + upperBandwidth);
+			double s = 0;
+			for (int j = first, k = index(i, first); j <= last; j++, k++)
+				s += data[k] * x[j];
+			y[i] = s;
+		}
+		return y;
+	}
+}
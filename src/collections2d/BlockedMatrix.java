@@ -0,0 +1,661 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the interface {@code Matrix} for large dense matrices of
+ * {@code double} values, stored as square tiles of
+ * {@value #TILE_SIZE}x{@value #TILE_SIZE} values. Each tile is a
+ * {@code double[]} of its own, in row-major order, and the tiles are also
+ * laid out row after row. The tiles of the last row and the last column are
+ * full size, padded with zeros.<p>
+ *
+ * A tile takes 32 KiB, so it stays in the processor caches while it is used:
+ * reading a column only touches one tile every {@value #TILE_SIZE} rows,
+ * instead of a different array (or a different page) for every row, and
+ * {@link #transpose()} and {@link #multiply(BlockedMatrix)} work one tile at
+ * a time, with good locality in both dimensions. Algorithms can do the same
+ * through the {@link Tile} views of {@link #getTile(int, int)},
+ * {@link #tileIterator()} and {@link #forEachTile(Consumer)}.<p>
+ *
+ * The dimension of a {@code BlockedMatrix} is fixed when it is created, so
+ * every operation that would change it throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see DoubleMatrix
+ */
+public class BlockedMatrix extends AbstractMatrix<Double>
+		implements NumericMatrix, RandomAccess, Cloneable, java.io.Serializable
+{
+
+	@java.io.Serial
+	private static final long serialVersionUID = 7118604418153946025L;
+
+	/**
+	 * The number of rows and columns of every tile.
+	 */
+	public final static int TILE_SIZE = 64;
+
+	private final static int SHIFT = 6;
+	private final static int MASK = TILE_SIZE - 1;
+
+	/**
+	 * Number of multiply-add operations under which a product is computed in
+	 * the calling thread.
+	 */
+	private final static long PARALLEL_THRESHOLD = 1L << 21;
+
+	/**
+	 * The tiles of this matrix, row after row of tiles.
+	 */
+	private double[][] tiles;
+
+	/**
+	 * The number of rows and columns of this matrix.
+	 */
+	private final int numberOfRows, numberOfColumns;
+
+	/**
+	 * The number of rows and columns of tiles.
+	 */
+	private final int tileRows, tileColumns;
+
+	/**
+	 * Constructs a matrix of the specified dimension, with every value zero.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public BlockedMatrix(int rows, int columns) {
+		if (rows < 0 || columns < 0)
+			throw new IllegalArgumentException("Illegal dimension: " + rows + "x" + columns);
+		if (rows == 0 || columns == 0)
+			rows = columns = 0;
+		this.numberOfRows = rows;
+		this.numberOfColumns = columns;
+		this.tileRows = (rows + MASK) >>> SHIFT;
+		this.tileColumns = (columns + MASK) >>> SHIFT;
+		this.tiles = new double[tileRows * tileColumns][];
+		for (int t = 0; t < tiles.length; t++)
+			tiles[t] = new double[TILE_SIZE * TILE_SIZE];
+	}
+
+	/**
+	 * Returns a new matrix with the values of the specified matrix.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new matrix with the values of the specified matrix
+	 */
+	public static BlockedMatrix copyOf(NumericMatrix m) {
+		BlockedMatrix b = new BlockedMatrix(m.rowSize(), m.columnSize());
+		if (m instanceof BlockedMatrix other) {
+			for (int t = 0; t < b.tiles.length; t++)
+				System.arraycopy(other.tiles[t], 0, b.tiles[t], 0, TILE_SIZE * TILE_SIZE);
+		} else {
+			double[] row = new double[b.numberOfColumns];
+			for (int i = 0; i < b.numberOfRows; i++) {
+				m.copyRowTo(i, 0, row, 0, row.length);
+				b.copyRowFrom(i, 0, row, 0, row.length);
+			}
+		}
+		return b;
+	}
+
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/**
+	 * Returns the number of elements in this matrix, or {@code Integer.MAX_VALUE}
+	 * if there are more elements than that.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) numberOfRows * numberOfColumns;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix.
+	 * @return dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(numberOfColumns, numberOfRows);
+	}
+
+	/**
+	 * Returns the number of rows of tiles of this matrix.
+	 *
+	 * @return the number of rows of tiles
+	 */
+	public int tileRowSize() {
+		return tileRows;
+	}
+
+	/**
+	 * Returns the number of columns of tiles of this matrix.
+	 *
+	 * @return the number of columns of tiles
+	 */
+	public int tileColumnSize() {
+		return tileColumns;
+	}
+
+	private double[] tileOf(int indexRow, int indexColumn) {
+		return tiles[(indexRow >>> SHIFT) * tileColumns + (indexColumn >>> SHIFT)];
+	}
+
+	/**
+	 * Returns the position, in its tile, of the value at the specified coordinates.
+	 */
+	private static int offset(int indexRow, int indexColumn) {
+		return (indexRow & MASK) << SHIFT | (indexColumn & MASK);
+	}
+
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return tileOf(indexRow, indexColumn)[offset(indexRow, indexColumn)];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		double[] tile = tileOf(indexRow, indexColumn);
+		int k = offset(indexRow, indexColumn);
+		double old = tile[k];
+		tile[k] = newValue;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		for (int j = fromColumn, to = fromColumn + length; j < to; ) {
+			int n = Math.min(TILE_SIZE - (j & MASK), to - j);
+			System.arraycopy(tileOf(indexRow, j), offset(indexRow, j), dest, destPos + j - fromColumn, n);
+			j += n;
+		}
+	}
+
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		for (int j = fromColumn, to = fromColumn + length; j < to; ) {
+			int n = Math.min(TILE_SIZE - (j & MASK), to - j);
+			System.arraycopy(src, srcPos + j - fromColumn, tileOf(indexRow, j), offset(indexRow, j), n);
+			j += n;
+		}
+	}
+
+	/**
+	 * Copies {@code length} consecutive values of the specified column, starting
+	 * at row {@code fromRow}, into the destination array. Only one tile is read
+	 * for every {@value #TILE_SIZE} values.
+	 *
+	 * @param indexColumn index of the column to copy from
+	 * @param fromRow index of the first row to copy
+	 * @param dest the destination array
+	 * @param destPos starting position in the destination array
+	 * @param length the number of values to copy
+	 * @throws IndexOutOfBoundsException if the column or the row range is out of
+	 *         the bounds of this matrix, or the destination range is out of the
+	 *         bounds of the array
+	 */
+	public void copyColumnTo(int indexColumn, int fromRow, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		Objects.checkFromIndexSize(fromRow, length, numberOfRows);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		for (int i = fromRow, to = fromRow + length; i < to; ) {
+			int n = Math.min(TILE_SIZE - (i & MASK), to - i);
+			double[] tile = tileOf(i, indexColumn);
+			for (int k = 0, p = offset(i, indexColumn), d = destPos + i - fromRow; k < n; k++, p += TILE_SIZE)
+				dest[d + k] = tile[p];
+			i += n;
+		}
+	}
+
+	/**
+	 * Replaces {@code length} consecutive values of the specified column,
+	 * starting at row {@code fromRow}, with the values of the source array.
+	 * Only one tile is written for every {@value #TILE_SIZE} values.
+	 *
+	 * @param indexColumn index of the column to copy to
+	 * @param fromRow index of the first row to replace
+	 * @param src the source array
+	 * @param srcPos starting position in the source array
+	 * @param length the number of values to copy
+	 * @throws IndexOutOfBoundsException if the column or the row range is out of
+	 *         the bounds of this matrix, or the source range is out of the
+	 *         bounds of the array
+	 */
+	public void copyColumnFrom(int indexColumn, int fromRow, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		Objects.checkFromIndexSize(fromRow, length, numberOfRows);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		for (int i = fromRow, to = fromRow + length; i < to; ) {
+			int n = Math.min(TILE_SIZE - (i & MASK), to - i);
+			double[] tile = tileOf(i, indexColumn);
+			for (int k = 0, p = offset(i, indexColumn), s = srcPos + i - fromRow; k < n; k++, p += TILE_SIZE)
+				tile[p] = src[s + k];
+			i += n;
+		}
+	}
+
+	/**
+	 * Returns a view of the tile at the specified position in the grid of
+	 * tiles.
+	 *
+	 * @param tileRow index of the row of tiles
+	 * @param tileColumn index of the column of tiles
+	 * @return the tile at the specified position
+	 * @throws IndexOutOfBoundsException if any of the indices is out of the
+	 *         grid of tiles
+	 */
+	public Tile getTile(int tileRow, int tileColumn) {
+		Objects.checkIndex(tileRow, tileRows);
+		Objects.checkIndex(tileColumn, tileColumns);
+		return new Tile(tileRow, tileColumn);
+	}
+
+	/**
+	 * Returns an iterator over the tiles of this matrix, row after row of tiles.
+	 *
+	 * @return an iterator over the tiles of this matrix
+	 */
+	public Iterator<Tile> tileIterator() {
+		return new Iterator<>() {
+			int next;
+
+			public boolean hasNext() {
+				return next < tiles.length;
+			}
+
+			public Tile next() {
+				if (next >= tiles.length)
+					throw new NoSuchElementException();
+				int t = next++;
+				return new Tile(t / tileColumns, t % tileColumns);
+			}
+		};
+	}
+
+	/**
+	 * Performs the given action for each tile of this matrix, row after row of
+	 * tiles.
+	 *
+	 * @param action the action to be performed for each tile
+	 * @throws NullPointerException if the action is null
+	 */
+	public void forEachTile(Consumer<? super Tile> action) {
+		Objects.requireNonNull(action);
+		for (int ti = 0; ti < tileRows; ti++)
+			for (int tj = 0; tj < tileColumns; tj++)
+				action.accept(new Tile(ti, tj));
+	}
+
+	/**
+	 * Returns the transpose of this matrix, as a new {@code BlockedMatrix}. Each
+	 * tile is transposed into the mirrored position, so both the tile read and
+	 * the tile written stay in the caches.
+	 *
+	 * @return the transpose of this matrix
+	 */
+	public BlockedMatrix transpose() {
+		BlockedMatrix t = new BlockedMatrix(numberOfColumns, numberOfRows);
+		for (int ti = 0; ti < tileRows; ti++) {
+			for (int tj = 0; tj < tileColumns; tj++) {
+				double[] src = tiles[ti * tileColumns + tj], dst = t.tiles[tj * t.tileColumns + ti];
+				for (int i = 0; i < TILE_SIZE; i++)
+					for (int j = 0, p = i << SHIFT; j < TILE_SIZE; j++, p++)
+						dst[j << SHIFT | i] = src[p];
+			}
+		}
+		return t;
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified matrix, as a new
+	 * {@code BlockedMatrix}. Each tile of the result accumulates the products
+	 * of a row of tiles of this matrix and a column of tiles of the other one,
+	 * so the three tiles involved in each step fit in the caches. The rows of
+	 * tiles of the result are computed in parallel in the common pool when the
+	 * product is large.
+	 *
+	 * @param other the right matrix
+	 * @return the matrix {@code this * other}
+	 * @throws IncompatibleDimensionException if the columns of this matrix are
+	 *         not as many as the rows of the other one
+	 */
+	public BlockedMatrix multiply(BlockedMatrix other) {
+		if (numberOfColumns != other.numberOfRows)
+			throw new IncompatibleDimensionException("Cannot compute " + numberOfRows + "x" + numberOfColumns
+					+ " * " + other.numberOfRows + "x" + other.numberOfColumns);
+		BlockedMatrix c = new BlockedMatrix(numberOfRows, other.numberOfColumns);
+		if (c.tiles.length == 0)
+			return c;
+		IntStream rows = IntStream.range(0, tileRows);
+		if ((long) numberOfRows * numberOfColumns * other.numberOfColumns >= PARALLEL_THRESHOLD)
+			rows = rows.parallel();
+		rows.forEach(ti -> {
+			for (int tj = 0; tj < c.tileColumns; tj++) {
+				double[] ct = c.tiles[ti * c.tileColumns + tj];
+				for (int tl = 0; tl < tileColumns; tl++)
+					multiplyAdd(tiles[ti * tileColumns + tl], other.tiles[tl * other.tileColumns + tj], ct);
+			}
+		});
+		return c;
+	}
+
+	/**
+	 * Adds to tile {@code c} the product of tiles {@code a} and {@code b}. The
+	 * padding of the tiles is zero, so whole tiles are multiplied. Four rows of
+	 * {@code c} are updated with each row of {@code b}, so each value of
+	 * {@code b} is loaded once for four multiply-adds, and the inner loop runs
+	 * along rows, so it can be vectorized.
+	 */
+	private static void multiplyAdd(double[] a, double[] b, double[] c) {
+		for (int i = 0; i < TILE_SIZE; i += 4) {
+			int c0 = i * TILE_SIZE, c1 = c0 + TILE_SIZE, c2 = c1 + TILE_SIZE, c3 = c2 + TILE_SIZE;
+			for (int l = 0; l < TILE_SIZE; l++) {
+				double a0 = a[c0 + l], a1 = a[c1 + l], a2 = a[c2 + l], a3 = a[c3 + l];
+				int bl = l * TILE_SIZE;
+				for (int j = 0; j < TILE_SIZE; j++) {
+					double bj = b[bl + j];
+					c[c0 + j] += a0 * bj;
+					c[c1 + j] += a1 * bj;
+					c[c2 + j] += a2 * bj;
+					c[c3 + j] += a3 * bj;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the row at the specified position in this matrix.
+	 * The returned list is a view over the tiles, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexRow index of the row to return
+	 * @return the row at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new Line(indexRow, true);
+	}
+
+	/**
+	 * Returns the column at the specified position in this matrix.
+	 * The returned list is a view over the tiles, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexColumn index of the column to return
+	 * @return the column at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new Line(indexColumn, false);
+	}
+
+	/**
+	 * Replaces the row at the specified position in this matrix with the
+	 * specified row.
+	 *
+	 * @throws NullPointerException if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the row is
+	 *         different than the number of columns
+	 */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		if (newRow.size() != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		double[] row = new double[numberOfColumns];
+		int j = 0;
+		for (Double e : newRow)
+			row[j++] = e;
+		List<Double> replaced = new ArrayList<>(getRow(indexRow));
+		copyRowFrom(indexRow, 0, row, 0, numberOfColumns);
+		return replaced;
+	}
+
+	/**
+	 * Replaces the column at the specified position in this matrix with the
+	 * specified column, with {@link #copyColumnFrom copyColumnFrom}.
+	 *
+	 * @throws NullPointerException if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the column is
+	 *         different than the number of rows
+	 */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		if (newColumn.size() != numberOfRows)
+			throw new IncompatibleCollectionSizeException();
+		double[] column = new double[numberOfRows];
+		int i = 0;
+		for (Double e : newColumn)
+			column[i++] = e;
+		List<Double> replaced = new ArrayList<>(getColumn(indexColumn));
+		copyColumnFrom(indexColumn, 0, column, 0, numberOfRows);
+		return replaced;
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeRow(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeColumn(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()}.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Returns a copy of this matrix, with a copy of every tile.
+	 *
+	 * @return a clone of this matrix
+	 */
+	public Object clone() {
+		try {
+			BlockedMatrix m = (BlockedMatrix) super.clone();
+			m.tiles = new double[tiles.length][];
+			for (int t = 0; t < tiles.length; t++)
+				m.tiles[t] = tiles[t].clone();
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * A live view of one tile of a {@code BlockedMatrix}. Its coordinates are
+	 * relative to the tile, and the tiles of the last row and column of the
+	 * grid may have fewer than {@value BlockedMatrix#TILE_SIZE} rows or columns
+	 * in the matrix.
+	 * The backing array, returned by {@link #values()}, lets algorithms work on
+	 * the whole tile without any bounds check.
+	 */
+	public final class Tile {
+
+		private final int tileRow, tileColumn;
+		private final double[] values;
+
+		Tile(int tileRow, int tileColumn) {
+			this.tileRow = tileRow;
+			this.tileColumn = tileColumn;
+			this.values = tiles[tileRow * tileColumns + tileColumn];
+		}
+
+		/**
+		 * Returns the index in the matrix of the first row of this tile.
+		 *
+		 * @return the index of the first row
+		 */
+		public int firstRow() {
+			return tileRow << SHIFT;
+		}
+
+		/**
+		 * Returns the index in the matrix of the first column of this tile.
+		 *
+		 * @return the index of the first column
+		 */
+		public int firstColumn() {
+			return tileColumn << SHIFT;
+		}
+
+		/**
+		 * Returns the number of rows of this tile that are in the matrix.
+		 *
+		 * @return the number of rows of this tile
+		 */
+		public int rowSize() {
+			return Math.min(TILE_SIZE, numberOfRows - firstRow());
+		}
+
+		/**
+		 * Returns the number of columns of this tile that are in the matrix.
+		 *
+		 * @return the number of columns of this tile
+		 */
+		public int columnSize() {
+			return Math.min(TILE_SIZE, numberOfColumns - firstColumn());
+		}
+
+		/**
+		 * Returns the array with the values of this tile, in row-major order
+		 * with a stride of {@value BlockedMatrix#TILE_SIZE}. Changes in the array
+		 * are reflected in the matrix, and vice-versa. The positions outside
+		 * the matrix must be left zero.
+		 *
+		 * @return the array backing this tile
+		 */
+		public double[] values() {
+			return values;
+		}
+
+		/**
+		 * Returns the value at the specified coordinates in this tile.
+		 *
+		 * @param indexRow index of the row in this tile
+		 * @param indexColumn index of the column in this tile
+		 * @return the value at the specified coordinates
+		 * @throws IndexOutOfBoundsException if any of the indices is out of
+		 *         the part of this tile that is in the matrix
+		 */
+		public double getDouble(int indexRow, int indexColumn) {
+			Objects.checkIndex(indexRow, rowSize());
+			Objects.checkIndex(indexColumn, columnSize());
+			return values[indexRow << SHIFT | indexColumn];
+		}
+
+		/**
+		 * Replaces the value at the specified coordinates in this tile.
+		 *
+		 * @param indexRow index of the row in this tile
+		 * @param indexColumn index of the column in this tile
+		 * @param newValue value to be stored at the specified position
+		 * @return the value previously at the specified coordinates
+		 * @throws IndexOutOfBoundsException if any of the indices is out of
+		 *         the part of this tile that is in the matrix
+		 */
+		public double setDouble(int indexRow, int indexColumn, double newValue) {
+			Objects.checkIndex(indexRow, rowSize());
+			Objects.checkIndex(indexColumn, columnSize());
+			int k = indexRow << SHIFT | indexColumn;
+			double old = values[k];
+			values[k] = newValue;
+			return old;
+		}
+	}
+
+	/**
+	 * Live view of a row or a column of this matrix.
+	 */
+	private class Line extends AbstractList<Double> implements RandomAccess {
+
+		private final int index;
+		private final boolean row;
+
+		Line(int index, boolean row) {
+			this.index = index;
+			this.row = row;
+		}
+
+		public int size() {
+			return row ? numberOfColumns : numberOfRows;
+		}
+
+		public Double get(int i) {
+			return row ? getDouble(index, i) : getDouble(i, index);
+		}
+
+		public Double set(int i, Double element) {
+			return row ? setDouble(index, i, element) : setDouble(i, index, element);
+		}
+	}
+}
@@ -2,6 +2,10 @@ package collections2d;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A two-dimensional collection which is basically a collection of collections.
@@ -83,6 +87,78 @@ public interface Collection2D<E> extends Iterable2D<E> {
      */
 	boolean containsAll(Collection<?> c);
 
+	// streams
+
+	/**
+	 * Creates a {@link Spliterator} over the rows of this two-dimensional collection.
+	 * The spliterator reports {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}.
+	 *
+	 * @implSpec
+	 * The default implementation creates a spliterator from the {@code rowIterator()}
+	 * of this two-dimensional collection, sized with {@code rowSize()}.
+	 *
+	 * @return a {@code Spliterator} over the rows of this two-dimensional collection
+	 */
+	@Override
+	default Spliterator<Collection<E>> spliterator() {
+		return Spliterators.spliterator(rowIterator(), rowSize(), 0);
+	}
+
+	/**
+	 * Creates a {@link Spliterator} over the elements of this two-dimensional collection,
+	 * row after row.
+	 *
+	 * @implSpec
+	 * The default implementation flattens the rows returned by {@link #spliterator()}.
+	 * Implementations should override it with a {@link Spliterator#SIZED} and
+	 * {@link Spliterator#SUBSIZED} spliterator when they can split their elements
+	 * evenly.
+	 *
+	 * @return a {@code Spliterator} over the elements of this two-dimensional collection
+	 */
+	default Spliterator<E> elementSpliterator() {
+		return rowStream().flatMap(Collection::stream).spliterator();
+	}
+
+	/**
+	 * Returns a sequential {@code Stream} over the rows of this two-dimensional collection.
+	 *
+	 * @return a sequential {@code Stream} over the rows
+	 */
+	default Stream<Collection<E>> rowStream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a possibly parallel {@code Stream} over the rows of this
+	 * two-dimensional collection.
+	 *
+	 * @return a possibly parallel {@code Stream} over the rows
+	 */
+	default Stream<Collection<E>> parallelRowStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * Returns a sequential {@code Stream} over the elements of this two-dimensional
+	 * collection.
+	 *
+	 * @return a sequential {@code Stream} over the elements
+	 */
+	default Stream<E> elementStream() {
+		return StreamSupport.stream(elementSpliterator(), false);
+	}
+
+	/**
+	 * Returns a possibly parallel {@code Stream} over the elements of this
+	 * two-dimensional collection.
+	 *
+	 * @return a possibly parallel {@code Stream} over the elements
+	 */
+	default Stream<E> parallelElementStream() {
+		return StreamSupport.stream(elementSpliterator(), true);
+	}
+
 	// métodos modificación
 
     /**
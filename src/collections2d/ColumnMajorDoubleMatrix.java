@@ -0,0 +1,1199 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Resizable implementation of the interface {@code Matrix} specialized for
+ * {@code double} values, stored column after column.
+ * The elements are stored in a single contiguous {@code double[]} in
+ * column-major order, where the element at {@code (row, column)} lives at
+ * {@code column * stride + row}. This is the transposed layout of
+ * {@link DoubleMatrix}: reading, replacing, inserting and removing a column
+ * move one contiguous run of values, while the same operations on a row touch
+ * every column. It suits workloads that work on whole columns, such as the
+ * features of a data set.
+ *
+ * <p>Each {@code ColumnMajorDoubleMatrix} instance has a <i>row capacity</i>
+ * and <i>column capacity</i>. The row capacity is the <i>stride</i> between
+ * two consecutive columns in the backing array, and the column capacity is the
+ * number of columns that fit in the backing array. Both are always at least as
+ * large as the matrix current dimensions, and grow automatically (by half of
+ * their current value) as rows and columns are added.
+ *
+ * <p>Matrices are converted between both layouts with {@link #copyOf(NumericMatrix)}
+ * and {@link #toDoubleMatrix()}, which transpose the values in square blocks of
+ * 32 by 32 values, so the values read and the values written stay in
+ * the processor caches. This matrix does not permit null elements.
+ *
+ * @see DoubleMatrix
+ * @see NumericMatrix
+ */
+public class ColumnMajorDoubleMatrix extends AbstractRegularMatrix<Double>
+		implements NumericMatrix, Cloneable, java.io.Serializable, java.util.RandomAccess
+{
+
+	@java.io.Serial
+	private static final long serialVersionUID = -5630716024318390178L;
+
+	/**
+	 * Default initial row capacity
+	 */
+	private final static int DEFAULT_MAX_ROWS_CAPACITY = 3;
+	/**
+	 * Default initial column capacity
+	 */
+	private final static int DEFAULT_MAX_COLUMNS_CAPACITY = 3;
+
+	/**
+	 * Side of the square blocks in which the values are transposed when
+	 * converting between layouts.
+	 */
+	private final static int BLOCK = 32;
+
+	/**
+	 * Shared empty array instance used for empty instances.
+	 */
+	private final static double[] EMPTY_DATA = {};
+
+	/**
+	 * The array buffer into which the elements of the {@code ColumnMajorDoubleMatrix}
+	 * are stored, column after column. Its length is always
+	 * {@code currentColumnCapacity * stride}.
+	 */
+	private transient double[] data;
+
+	/**
+	 * Distance in the backing array between two consecutive columns, which is
+	 * the row capacity of this matrix.
+	 */
+	private transient int stride;
+
+	/**
+	 * The total columns this ColumnMajorDoubleMatrix can contain without growing.
+	 */
+	private transient int currentColumnCapacity;
+	/**
+	 * The number of rows this ColumnMajorDoubleMatrix currently has.
+	 */
+	private int numberOfRows;
+	/**
+	 * The number of columns this ColumnMajorDoubleMatrix currently has.
+	 */
+	private int numberOfColumns;
+
+	/**
+	 * Constructs an empty ColumnMajorDoubleMatrix instance with an initial
+	 * capacity of {@code 3x3}.
+	 */
+	public ColumnMajorDoubleMatrix() {
+		this(DEFAULT_MAX_ROWS_CAPACITY, DEFAULT_MAX_COLUMNS_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty ColumnMajorDoubleMatrix with an initial row and column
+	 * capacity of {@code rowColCapacity}.
+	 *
+	 * @param rowColCapacity the initial row/column capacity of the matrix
+	 * @throws IllegalArgumentException if the initial row/column capacity is
+	 *                                  negative
+	 */
+	public ColumnMajorDoubleMatrix(int rowColCapacity) {
+		this(rowColCapacity, rowColCapacity);
+	}
+
+	/**
+	 * Constructs an empty ColumnMajorDoubleMatrix with an initial row capacity of
+	 * {@code rowCapacity} and an initial column capacity of {@code columnCapacity}.
+	 *
+	 * @param rowCapacity    the initial row capacity of the matrix
+	 * @param columnCapacity the initial column capacity of the matrix
+	 * @throws IllegalArgumentException if any of the initial capacities is negative
+	 */
+	public ColumnMajorDoubleMatrix(int rowCapacity, int columnCapacity) {
+		if (rowCapacity < 0)
+			throw new IllegalArgumentException("Illegal Rows Capacity: " + rowCapacity);
+		if (columnCapacity < 0)
+			throw new IllegalArgumentException("Illegal Columns Capacity: " + columnCapacity);
+		currentColumnCapacity = columnCapacity;
+		stride = rowCapacity;
+		data = rowCapacity == 0 || columnCapacity == 0 ? EMPTY_DATA
+				: new double[Math.multiplyExact(rowCapacity, columnCapacity)];
+	}
+
+	/**
+	 * Returns a new {@code rows x columns} ColumnMajorDoubleMatrix where every
+	 * element is {@code 0.0}.
+	 *
+	 * @param rows    the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @return a matrix filled with zeros
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public static ColumnMajorDoubleMatrix zeros(int rows, int columns) {
+		ColumnMajorDoubleMatrix m = new ColumnMajorDoubleMatrix(rows, columns);
+		if (rows > 0 && columns > 0) {
+			m.numberOfRows = rows;
+			m.numberOfColumns = columns;
+		}
+		return m;
+	}
+
+	/**
+	 * Returns a new ColumnMajorDoubleMatrix with the values of the specified
+	 * matrix. The rows of the matrix are read with
+	 * {@link NumericMatrix#copyRowTo copyRowTo}, 32 at a time, and
+	 * each block of rows is transposed into the columns in square blocks.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new matrix with the values of the specified matrix
+	 */
+	public static ColumnMajorDoubleMatrix copyOf(NumericMatrix m) {
+		int rows = m.rowSize(), columns = m.columnSize();
+		ColumnMajorDoubleMatrix c = zeros(rows, columns);
+		if (c.isEmpty())
+			return c;
+		if (m instanceof ColumnMajorDoubleMatrix other) {
+			for (int j = 0; j < columns; j++)
+				System.arraycopy(other.data, j * other.stride, c.data, j * c.stride, rows);
+			return c;
+		}
+		double[] block = new double[Math.multiplyExact(Math.min(BLOCK, rows), columns)];
+		for (int ib = 0; ib < rows; ib += BLOCK) {
+			int h = Math.min(BLOCK, rows - ib);
+			for (int i = 0; i < h; i++)
+				m.copyRowTo(ib + i, 0, block, i * columns, columns);
+			for (int jb = 0; jb < columns; jb += BLOCK)
+				for (int j = jb, je = Math.min(columns, jb + BLOCK); j < je; j++)
+					for (int i = 0, k = j * c.stride + ib; i < h; i++, k++)
+						c.data[k] = block[i * columns + j];
+		}
+		return c;
+	}
+
+	/**
+	 * Returns a new {@link DoubleMatrix}, in row-major order, with the values of
+	 * this matrix. The values are transposed in square blocks of 32
+	 * rows and columns.
+	 *
+	 * @return a new {@code DoubleMatrix} with the values of this matrix
+	 */
+	public DoubleMatrix toDoubleMatrix() {
+		DoubleMatrix d = DoubleMatrix.zeros(numberOfRows, numberOfColumns);
+		double[] row = new double[Math.min(BLOCK, numberOfColumns)];
+		for (int jb = 0; jb < numberOfColumns; jb += BLOCK) {
+			int w = Math.min(BLOCK, numberOfColumns - jb);
+			for (int ib = 0; ib < numberOfRows; ib += BLOCK) {
+				for (int i = ib, ie = Math.min(numberOfRows, ib + BLOCK); i < ie; i++) {
+					for (int t = 0, k = jb * stride + i; t < w; t++, k += stride)
+						row[t] = data[k];
+					d.copyRowFrom(i, jb, row, 0, w);
+				}
+			}
+		}
+		return d;
+	}
+
+	/** Returns the number of rows in this matrix.
+	 *
+	 * @return the number of rows in this matrix
+	 */
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	/** Returns the number of columns in this matrix.
+	 *
+	 * @return the number of columns in this matrix
+	 */
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/** Returns the number of elements in this matrix, which is
+	 * {@link #rowSize()} * {@link #columnSize()}.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		return numberOfRows * numberOfColumns;
+	}
+
+    /**
+     * Returns {@code true} if this matrix contains no elements.
+     *
+     * @return {@code true} if this matrix contains no elements
+     */
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix, which is
+	 * {@link #rowSize()} x {@link #columnSize()}.
+	 *
+	 * @return the dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(columnSize(), rowSize());
+	}
+
+	/**
+	 * This implementation always throws an {@code UnsupportedOperationException}.
+	 */
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * This implementation always throws an {@code UnsupportedOperationException}.
+	 */
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+     * Removes all of the elements from this matrix.
+     * The matrix will be empty after this call returns, but keeps its capacities.
+     */
+	public void clear() {
+		numberOfRows = numberOfColumns = 0;
+	}
+
+    /**
+     * Returns a copy of this {@code ColumnMajorDoubleMatrix} instance, trimmed
+     * to its current dimensions.
+     *
+     * @return a clone of this {@code ColumnMajorDoubleMatrix} instance
+     */
+	public Object clone() {
+		try {
+			ColumnMajorDoubleMatrix m = (ColumnMajorDoubleMatrix) super.clone();
+			m.data = isEmpty() ? EMPTY_DATA : copyData(numberOfColumns, numberOfRows);
+			m.currentColumnCapacity = numberOfColumns;
+			m.stride = numberOfRows;
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Saves the state of this {@code ColumnMajorDoubleMatrix} instance to a
+	 * stream. Only the values within the dimension of the matrix are written,
+	 * not the unused capacity.
+	 *
+	 * @serialData The number of rows and of columns are emitted by the default
+	 *             serialization, followed by all of the values (each a
+	 *             {@code double}) in column-major order.
+	 */
+	@java.io.Serial
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		for (int j = 0; j < numberOfColumns; j++)
+			for (int i = 0, k = j * stride; i < numberOfRows; i++, k++)
+				s.writeDouble(data[k]);
+	}
+
+	/**
+	 * Reconstitutes a {@code ColumnMajorDoubleMatrix} instance from a stream,
+	 * with its capacities trimmed to its dimension.
+	 */
+	@java.io.Serial
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		if (numberOfRows < 0 || numberOfColumns < 0 || (numberOfRows == 0) != (numberOfColumns == 0))
+			throw new java.io.InvalidObjectException("Illegal dimension: " + numberOfRows + "x" + numberOfColumns);
+		currentColumnCapacity = numberOfColumns;
+		stride = numberOfRows;
+		data = numberOfRows == 0 ? EMPTY_DATA : new double[Math.multiplyExact(numberOfRows, numberOfColumns)];
+		for (int k = 0; k < data.length; k++)
+			data[k] = s.readDouble();
+	}
+
+	/**
+	 * Copies the current elements into a new array of {@code columnCapacity}
+	 * columns, each one of length {@code newStride}.
+	 */
+	private double[] copyData(int columnCapacity, int newStride) {
+		double[] d = new double[Math.multiplyExact(columnCapacity, newStride)];
+		if (newStride == stride) {
+			System.arraycopy(data, 0, d, 0, numberOfColumns * stride);
+		} else {
+			for (int j = 0; j < numberOfColumns; j++)
+				System.arraycopy(data, j * stride, d, j * newStride, numberOfRows);
+		}
+		return d;
+	}
+
+	/**
+	 * Trims both capacities of this {@code ColumnMajorDoubleMatrix} instance to
+	 * be the matrix's current sizes. This operation can be used to minimize the
+	 * storage of a {@code ColumnMajorDoubleMatrix} instance.
+	 */
+	public void trimToSize() {
+		if (isEmpty()) {
+			data = EMPTY_DATA;
+			currentColumnCapacity = stride = 0;
+		} else if (numberOfColumns < currentColumnCapacity || numberOfRows < stride) {
+			data = copyData(numberOfColumns, numberOfRows);
+			currentColumnCapacity = numberOfColumns;
+			stride = numberOfRows;
+		}
+	}
+
+	/**
+	 * Returns a capacity at least as large as {@code minCapacity}, growing
+	 * {@code oldCapacity} by half of its value if that is enough.
+	 */
+	private static int newCapacity(int oldCapacity, int minCapacity) {
+		int grown = oldCapacity + (oldCapacity >> 1);
+		if (grown - minCapacity <= 0)
+			return Math.max(minCapacity, DEFAULT_MAX_COLUMNS_CAPACITY);
+		return grown < 0 ? Integer.MAX_VALUE - 8 : grown;
+	}
+
+	/**
+	 * Increases the row capacity of this {@code ColumnMajorDoubleMatrix}
+	 * instance, if necessary, to ensure that it can hold at least the number of
+	 * rows specified by the minimum capacity argument.
+	 *
+	 * @param minCapacity the desired minimum row capacity
+	 */
+	public void ensureRowCapacity(int minCapacity) {
+		if (minCapacity > stride)
+			resize(currentColumnCapacity, minCapacity);
+	}
+
+	/**
+	 * Increases the column capacity of this {@code ColumnMajorDoubleMatrix}
+	 * instance, if necessary, to ensure that it can hold at least the number of
+	 * columns specified by the minimum capacity argument.
+	 *
+	 * @param minCapacity the desired minimum column capacity
+	 */
+	public void ensureColumnCapacity(int minCapacity) {
+		if (minCapacity > currentColumnCapacity)
+			resize(minCapacity, stride);
+	}
+
+	private void resize(int columnCapacity, int newStride) {
+		data = copyData(columnCapacity, newStride);
+		currentColumnCapacity = columnCapacity;
+		stride = newStride;
+	}
+
+	/**
+	 * Makes room for one more row, growing the row capacity geometrically.
+	 */
+	private void growRows() {
+		if (numberOfRows == stride)
+			resize(currentColumnCapacity, newCapacity(stride, numberOfRows + 1));
+	}
+
+	/**
+	 * Makes room for one more column, growing the column capacity geometrically.
+	 */
+	private void growColumns() {
+		if (numberOfColumns == currentColumnCapacity)
+			resize(newCapacity(currentColumnCapacity, numberOfColumns + 1), stride);
+	}
+
+	/**
+	 * Unboxes the elements of the specified collection.
+	 *
+	 * @throws NullPointerException if the collection contains null elements
+	 */
+	private static double[] unbox(Collection<Double> c) {
+		double[] d = new double[c.size()];
+		int i = 0;
+		for (Double e : c)
+			d[i++] = e;
+		return d;
+	}
+
+	/** Appends the specified row to the end of this matrix.
+ 	 *
+     * @throws NullPointerException if the row is null or contains null elements
+     * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public boolean addRow(Collection<Double> row) {
+		return super.addRow(row);
+	}
+
+    /**
+     * Inserts the specified row at the specified position in this
+     * matrix. Shifts the row currently at that position (if any) and
+     * any subsequent rows down (adds one to their indices).
+     *
+     * @param index index at which the specified row is to be inserted
+     * @param row row to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+ 	 * @throws NullPointerException     if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public void addRow(int index, Collection<Double> row) {
+		super.addRow(index, row);
+		double[] newRow = unbox(row);
+		if (isEmpty()) {
+			if (newRow.length == 0)
+				return;
+			numberOfColumns = 0;
+			if (currentColumnCapacity < newRow.length)
+				resize(newRow.length, stride);
+			numberOfColumns = newRow.length;
+		}
+		growRows();
+		for (int j = 0, base = 0; j < numberOfColumns; j++, base += stride) {
+			System.arraycopy(data, base + index, data, base + index + 1, numberOfRows - index);
+			data[base + index] = newRow[j];
+		}
+		numberOfRows++;
+	}
+
+    /**
+     * Appends the specified column to the end of this matrix.
+     *
+     * @param column column to be appended to this matrix
+     * @return {@code true} (as specified by {@link Matrix#addColumn})
+	 * @throws NullPointerException     if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public boolean addColumn(Collection<Double> column) {
+		return super.addColumn(column);
+	}
+
+	/**
+	 * Appends a column with the specified values to the end of this matrix,
+	 * without boxing them. The values are copied.
+	 *
+	 * @param column values of the column to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the column is null
+	 * @throws IncompatibleCollectionSizeException if the length of the column is
+	 *                                  different than the number of rows
+	 *                                  this matrix has
+	 */
+	public boolean addColumn(double[] column) {
+		if (!isEmpty() && column.length != numberOfRows)
+			throw new IncompatibleCollectionSizeException();
+		if (!prepareColumns(1, column.length))
+			return false;
+		System.arraycopy(column, 0, data, numberOfColumns++ * stride, column.length);
+		return true;
+	}
+
+    /**
+     * Inserts the specified column at the specified position in this
+     * matrix. Shifts the column currently at that position (if any) and
+     * any subsequent column to the right (adds one to their indices).
+     *
+     * @param index index at which the specified column is to be inserted
+     * @param column column to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+ 	 * @throws NullPointerException     if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public void addColumn(int index, Collection<Double> column) {
+		super.addColumn(index, column);
+		double[] newColumn = unbox(column);
+		if (isEmpty()) {
+			if (newColumn.length == 0)
+				return;
+			numberOfRows = newColumn.length;
+			if (stride < numberOfRows)
+				resize(currentColumnCapacity, numberOfRows);
+		}
+		growColumns();
+		System.arraycopy(data, index * stride, data, (index + 1) * stride, (numberOfColumns - index) * stride);
+		System.arraycopy(newColumn, 0, data, index * stride, numberOfRows);
+		numberOfColumns++;
+	}
+
+	/**
+	 * Appends all of the specified rows to the end of this matrix. Every row is
+	 * unboxed and checked before any of them is added, and the row capacity is
+	 * increased at most once.
+	 *
+	 * @param rows rows to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the collection is null, or contains a null
+	 *                              row or a row with null elements
+	 * @throws IncompatibleCollectionSizeException if any of the rows is
+	 *                              incompatible (the length of the row is
+	 *                              different than the number of columns)
+	 */
+	public boolean addRows(Collection<? extends Collection<Double>> rows) {
+		double[][] arrays = new double[rows.size()][];
+		int count = 0;
+		for (Collection<Double> row : rows)
+			arrays[count++] = unbox(Objects.requireNonNull(row));
+		if (count == 0)
+			return false;
+		int columns = arrays[0].length;
+		for (int r = 0; r < count; r++)
+			if (arrays[r].length != columns || (!isEmpty() && columns != numberOfColumns))
+				throw new IncompatibleCollectionSizeException();
+		if (!prepareRows(count, columns))
+			return false;
+		for (int r = 0; r < count; r++) {
+			double[] row = arrays[r];
+			for (int j = 0, k = numberOfRows + r; j < columns; j++, k += stride)
+				data[k] = row[j];
+		}
+		numberOfRows += count;
+		return true;
+	}
+
+	/**
+	 * Appends all of the specified columns to the end of this matrix. Every
+	 * column is unboxed and checked before any of them is added, and the column
+	 * capacity is increased at most once.
+	 *
+	 * @param columns columns to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the collection is null, or contains a null
+	 *                              column or a column with null elements
+	 * @throws IncompatibleCollectionSizeException if any of the columns is
+	 *                              incompatible (the length of the column is
+	 *                              different than the number of rows)
+	 */
+	public boolean addColumns(Collection<? extends Collection<Double>> columns) {
+		double[][] arrays = new double[columns.size()][];
+		int count = 0;
+		for (Collection<Double> column : columns)
+			arrays[count++] = unbox(Objects.requireNonNull(column));
+		if (count == 0)
+			return false;
+		int length = arrays[0].length;
+		for (int c = 0; c < count; c++)
+			if (arrays[c].length != length || (!isEmpty() && length != numberOfRows))
+				throw new IncompatibleCollectionSizeException();
+		if (!prepareColumns(count, length))
+			return false;
+		for (int c = 0; c < count; c++, numberOfColumns++)
+			System.arraycopy(arrays[c], 0, data, numberOfColumns * stride, length);
+		return true;
+	}
+
+	/**
+	 * Appends all of the rows of the specified matrix to the end of this matrix,
+	 * sizing the storage once. Rows of a {@link NumericMatrix} are copied with
+	 * {@link NumericMatrix#copyRowTo copyRowTo}, without boxing, and this matrix
+	 * may be appended to itself.
+	 *
+	 * @param m matrix whose rows are to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the matrix is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the rows of the matrix are
+	 *                              incompatible (their length is different than
+	 *                              the number of columns)
+	 */
+	public boolean addAll(Matrix<? extends Double> m) {
+		int count = m.rowSize(), columns = m.columnSize();
+		if (count == 0)
+			return false;
+		if (!isEmpty() && columns != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		double[] rows = new double[Math.multiplyExact(count, columns)];
+		if (m instanceof NumericMatrix n) {
+			for (int i = 0; i < count; i++)
+				n.copyRowTo(i, 0, rows, i * columns, columns);
+		} else {
+			int k = 0;
+			for (int i = 0; i < count; i++)
+				for (Double e : m.getRow(i))
+					rows[k++] = e;
+		}
+		if (!prepareRows(count, columns))
+			return false;
+		for (int j = 0; j < columns; j++)
+			for (int i = 0, k = j * stride + numberOfRows; i < count; i++, k++)
+				data[k] = rows[i * columns + j];
+		numberOfRows += count;
+		return true;
+	}
+
+	/**
+	 * Makes room for {@code count} more rows of {@code columns} values, already
+	 * checked, growing the row capacity geometrically.
+	 *
+	 * @return {@code false} if there is nothing to add
+	 */
+	private boolean prepareRows(int count, int columns) {
+		if (columns == 0)
+			return false;
+		if (isEmpty()) {
+			numberOfColumns = 0;
+			if (currentColumnCapacity < columns)
+				resize(columns, stride);
+			numberOfColumns = columns;
+		}
+		if (numberOfRows + count > stride)
+			resize(currentColumnCapacity, newCapacity(stride, numberOfRows + count));
+		return true;
+	}
+
+	/**
+	 * Makes room for {@code count} more columns of {@code rows} values, already
+	 * checked, growing the column capacity geometrically.
+	 *
+	 * @return {@code false} if there is nothing to add
+	 */
+	private boolean prepareColumns(int count, int rows) {
+		if (rows == 0)
+			return false;
+		if (isEmpty()) {
+			numberOfRows = rows;
+			if (stride < rows)
+				resize(currentColumnCapacity, rows);
+		}
+		if (numberOfColumns + count > currentColumnCapacity)
+			resize(newCapacity(currentColumnCapacity, numberOfColumns + count), stride);
+		return true;
+	}
+
+    /**
+     * Returns the row at the specified position in this matrix.
+     * The returned list is a view over the backing array, so no values are
+     * copied: changes made with its {@code set} method are written through to
+     * this matrix, and non-structural changes in this matrix are visible in it.
+     * The view is no longer valid once the matrix is structurally modified.
+     *
+     * @param  indexRow index of the row to return
+     * @return the row at the specified position in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new RowView(indexRow);
+	}
+
+	/**
+	 * Copy of the row at the specified position, used when the row is
+	 * about to be removed or replaced and a view would no longer be valid.
+	 */
+	private Collection<Double> rowAt(int indexRow) {
+		Double[] r = new Double[numberOfColumns];
+		for (int j = 0, k = indexRow; j < r.length; j++, k += stride)
+			r[j] = data[k];
+		return Arrays.asList(r);
+	}
+
+    /**
+     * Returns the column at the specified position in this matrix.
+     * The returned list is a view over the backing array, so no values are
+     * copied: changes made with its {@code set} method are written through to
+     * this matrix, and non-structural changes in this matrix are visible in it.
+     * The view is no longer valid once the matrix is structurally modified.
+     *
+     * @param  indexColumn index of the column to return
+     * @return the column at the specified position in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new ColumnView(indexColumn);
+	}
+
+	/**
+	 * Copy of the column at the specified position, used when the column is
+	 * about to be removed or replaced and a view would no longer be valid.
+	 */
+	private Collection<Double> columnAt(int indexColumn) {
+		Double[] c = new Double[numberOfRows];
+		for (int i = 0, k = indexColumn * stride; i < c.length; i++, k++)
+			c[i] = data[k];
+		return Arrays.asList(c);
+	}
+
+    /**
+     * Returns the element at the specified coordinates in this matrix.
+     *
+     * @param indexRow index of the row where the element is to return
+     * @param indexColumn index of the column where the element is to return
+     * @return the element at the specified coordinates in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return data[indexColumn * stride + indexRow];
+	}
+
+    /**
+     * Replaces the element at the specified coordinates in this matrix with
+     * the specified element.
+     *
+     * @param indexRow index of the row where the element is to replace
+     * @param indexColumn index of the column where the element is to replace
+     * @return the element previously at the specified coordinates
+     * @throws NullPointerException if the specified element is null
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		int k = indexColumn * stride + indexRow;
+		double old = data[k];
+		data[k] = newValue;
+		return old;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation reads one value of each column, {@code stride}
+	 * positions apart in the backing array.
+	 */
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		for (int j = 0, k = fromColumn * stride + indexRow; j < length; j++, k += stride)
+			dest[destPos + j] = data[k];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation writes one value of each column, {@code stride}
+	 * positions apart in the backing array.
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		for (int j = 0, k = fromColumn * stride + indexRow; j < length; j++, k += stride)
+			data[k] = src[srcPos + j];
+	}
+
+	/**
+	 * Copies {@code length} consecutive values of the specified column, starting
+	 * at row {@code fromRow}, into the destination array, with
+	 * {@link System#arraycopy}.
+	 *
+	 * @param indexColumn index of the column to copy from
+	 * @param fromRow index of the first row to copy
+	 * @param dest the destination array
+	 * @param destPos starting position in the destination array
+	 * @param length the number of values to copy
+	 * @throws IndexOutOfBoundsException if the column or the row range is out of
+	 *         the bounds of this matrix, or the destination range is out of the
+	 *         bounds of the array
+	 */
+	public void copyColumnTo(int indexColumn, int fromRow, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		Objects.checkFromIndexSize(fromRow, length, numberOfRows);
+		System.arraycopy(data, indexColumn * stride + fromRow, dest, destPos, length);
+	}
+
+	/**
+	 * Replaces {@code length} consecutive values of the specified column,
+	 * starting at row {@code fromRow}, with the values of the source array,
+	 * with {@link System#arraycopy}.
+	 *
+	 * @param indexColumn index of the column to copy to
+	 * @param fromRow index of the first row to replace
+	 * @param src the source array
+	 * @param srcPos starting position in the source array
+	 * @param length the number of values to copy
+	 * @throws IndexOutOfBoundsException if the column or the row range is out of
+	 *         the bounds of this matrix, or the source range is out of the
+	 *         bounds of the array
+	 */
+	public void copyColumnFrom(int indexColumn, int fromRow, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		Objects.checkFromIndexSize(fromRow, length, numberOfRows);
+		System.arraycopy(src, srcPos, data, indexColumn * stride + fromRow, length);
+	}
+
+    /**
+     * Removes the row at the specified position in this matrix.
+     * Shifts any subsequent rows up (subtracts one from their indices).
+     *
+     * @param index the index of the row to be removed
+     * @return the row that was removed from the matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> removeRow(int index) {
+		Objects.checkIndex(index, numberOfRows);
+		Collection<Double> removedRow = rowAt(index);
+		if (numberOfRows == 1) {
+			clear();
+		} else {
+			int tail = numberOfRows - index - 1;
+			for (int j = 0, base = 0; j < numberOfColumns; j++, base += stride)
+				System.arraycopy(data, base + index + 1, data, base + index, tail);
+			numberOfRows--;
+		}
+		return removedRow;
+	}
+
+    /**
+     * Removes the column at the specified position in this matrix.
+     * Shifts any subsequent columns to the left (subtracts one from their
+     * indices).
+     *
+     * @param index the index of the column to be removed
+     * @return the column that was removed from the matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> removeColumn(int index) {
+		Objects.checkIndex(index, numberOfColumns);
+		Collection<Double> removedColumn = columnAt(index);
+		if (numberOfColumns == 1) {
+			clear();
+		} else {
+			System.arraycopy(data, (index + 1) * stride, data, index * stride, (numberOfColumns - index - 1) * stride);
+			numberOfColumns--;
+		}
+		return removedColumn;
+	}
+
+	/**
+     * Replaces the row at the specified position in this matrix with
+     * the specified row.
+     *
+     * @param indexRow index of the row to replace
+     * @param newRow row to be stored at the specified position
+     * @return the row previously at the specified position
+     * @throws NullPointerException if the specified row is null or contains null elements
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		checkRowCompability(newRow);
+		double[] r = unbox(newRow);
+		Collection<Double> replacedRow = rowAt(indexRow);
+		for (int j = 0, k = indexRow; j < numberOfColumns; j++, k += stride)
+			data[k] = r[j];
+		return replacedRow;
+	}
+
+	/**
+     * Replaces the column at the specified position in this matrix with
+     * the specified column.
+     *
+     * @param indexColumn index of the column to replace
+     * @param newColumn column to be stored at the specified position
+     * @return the column previously at the specified position
+     * @throws NullPointerException if the specified column is null or contains null elements
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		checkColumnCompability(newColumn);
+		double[] c = unbox(newColumn);
+		Collection<Double> replacedColumn = columnAt(indexColumn);
+		System.arraycopy(c, 0, data, indexColumn * stride, numberOfRows);
+		return replacedColumn;
+	}
+
+	/**
+	 * Swaps the positions of two rows in the matrix.
+	 * Their values are exchanged column by column, {@code stride} positions
+	 * apart in the backing array.
+	 * @param indexRow1 index of the first row to be swapped
+	 * @param indexRow2 index of the second row to be swapped
+	 * @throws IndexOutOfBoundsException if either indexRow1 or indexRow2 is out of range
+	 * 									 {@code (index < 0 || index >= rowSize())}
+	 */
+	public void swapRows(int indexRow1, int indexRow2) {
+		Objects.checkIndex(indexRow1, numberOfRows);
+		Objects.checkIndex(indexRow2, numberOfRows);
+		if (indexRow1 == indexRow2)
+			return;
+		for (int j = 0, k1 = indexRow1, k2 = indexRow2; j < numberOfColumns; j++, k1 += stride, k2 += stride) {
+			double t = data[k1];
+			data[k1] = data[k2];
+			data[k2] = t;
+		}
+	}
+
+	/**
+	 * Swaps the positions of two columns in the matrix.
+	 * Since the columns are stored contiguously, their values are exchanged
+	 * element by element.
+	 * @param indexColumn1 index of the first column to be swapped
+	 * @param indexColumn2 index of the second column to be swapped
+	 * @throws IndexOutOfBoundsException if either indexColumn1 or indexColumn2 is out of range
+	 * 									 {@code (index < 0 || index >= columnSize())}
+	 */
+	public void swapColumns(int indexColumn1, int indexColumn2) {
+		Objects.checkIndex(indexColumn1, numberOfColumns);
+		Objects.checkIndex(indexColumn2, numberOfColumns);
+		if (indexColumn1 == indexColumn2)
+			return;
+		for (int i = 0, k1 = indexColumn1 * stride, k2 = indexColumn2 * stride; i < numberOfRows; i++, k1++, k2++) {
+			double t = data[k1];
+			data[k1] = data[k2];
+			data[k2] = t;
+		}
+	}
+
+	/**
+	 * Returns a view of this matrix without the specified row and column. The
+	 * view is itself a {@link NumericMatrix}.
+	 *
+	 * @param indexRow index of the row not to include on the sub matrix
+	 * @param indexColumn index of the column not to include on the sub matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public NumericMatrix subMatrix(int indexRow, int indexColumn) {
+		return (NumericMatrix) super.subMatrix(indexRow, indexColumn);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation scans the backing array directly, comparing the values
+	 * as {@link Double#equals(Object)} does.
+	 */
+	public boolean contains(Object o) {
+		if (!(o instanceof Double))
+			return false;
+		long bits = Double.doubleToLongBits((Double) o);
+		for (int j = 0; j < numberOfColumns; j++)
+			for (int i = 0, k = j * stride; i < numberOfRows; i++, k++)
+				if (Double.doubleToLongBits(data[k]) == bits)
+					return true;
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation scans the backing array directly, one column after
+	 * another, comparing the values as {@link Double#equals(Object)} does.
+	 * Each column is only scanned up to the first row of the occurrences found
+	 * in the columns before it, since the first occurrence in row-major order
+	 * is the one in the lowest row, and then in the lowest column.
+	 */
+	public Point indexOf(Object o) {
+		if (!(o instanceof Double))
+			return null;
+		long bits = Double.doubleToLongBits((Double) o);
+		int row = numberOfRows, column = -1;
+		for (int j = 0; j < numberOfColumns && row > 0; j++)
+			for (int i = 0, k = j * stride; i < row; i++, k++)
+				if (Double.doubleToLongBits(data[k]) == bits) {
+					row = i;
+					column = j;
+					break;
+				}
+		return column < 0 ? null : new Point(row, column);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation scans the backing array directly and backwards, one
+	 * column after another, comparing the values as
+	 * {@link Double#equals(Object)} does. Each column is only scanned down to
+	 * the last row of the occurrences found in the columns after it.
+	 */
+	public Point lastIndexOf(Object o) {
+		if (!(o instanceof Double))
+			return null;
+		long bits = Double.doubleToLongBits((Double) o);
+		int row = -1, column = -1;
+		for (int j = numberOfColumns - 1; j >= 0 && row < numberOfRows - 1; j--)
+			for (int i = numberOfRows - 1, k = j * stride + i; i > row; i--, k--)
+				if (Double.doubleToLongBits(data[k]) == bits) {
+					row = i;
+					column = j;
+					break;
+				}
+		return column < 0 ? null : new Point(row, column);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * If the specified object is also a {@code ColumnMajorDoubleMatrix}, both
+	 * backing arrays are compared directly. Otherwise, the comparison of
+	 * {@link AbstractMatrix#equals(Object)} is done.
+	 */
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof ColumnMajorDoubleMatrix))
+			return super.equals(o);
+		ColumnMajorDoubleMatrix m = (ColumnMajorDoubleMatrix) o;
+		if (numberOfRows != m.numberOfRows || numberOfColumns != m.numberOfColumns)
+			return false;
+		for (int j = 0; j < numberOfColumns; j++) {
+			int k1 = j * stride, k2 = j * m.stride;
+			for (int i = 0; i < numberOfRows; i++)
+				if (Double.doubleToLongBits(data[k1 + i]) != Double.doubleToLongBits(m.data[k2 + i]))
+					return false;
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation computes the same value as {@link AbstractMatrix#hashCode()},
+	 * but without boxing the elements, and reading the backing array in order:
+	 * the hash codes of all the rows are computed at once, one column at a time.
+	 */
+	public int hashCode() {
+		int[] rowHashes = new int[numberOfRows];
+		Arrays.fill(rowHashes, 1);
+		for (int j = 0; j < numberOfColumns; j++)
+			for (int i = 0, k = j * stride; i < numberOfRows; i++, k++)
+				rowHashes[i] = 31 * rowHashes[i] + Double.hashCode(data[k]);
+		int hashCode = 0;
+		for (int h : rowHashes)
+			hashCode += h;
+		return hashCode == 0 ? 1 : hashCode;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()},
+	 * which boxes each value only when it is passed to the action.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Live view of a row of this matrix, which walks the backing array
+	 * {@code stride} positions at a time.
+	 */
+	private class RowView extends AbstractList<Double> implements RandomAccess {
+
+		private final int indexRow;
+
+		RowView(int indexRow) {
+			this.indexRow = indexRow;
+		}
+
+		public int size() {
+			return numberOfColumns;
+		}
+
+		public Double get(int index) {
+			Objects.checkIndex(index, numberOfColumns);
+			return data[index * stride + indexRow];
+		}
+
+		public Double set(int index, Double element) {
+			return setDouble(indexRow, index, element);
+		}
+
+		public int indexOf(Object o) {
+			if (o instanceof Double) {
+				long bits = Double.doubleToLongBits((Double) o);
+				for (int j = 0, k = indexRow; j < numberOfColumns; j++, k += stride)
+					if (Double.doubleToLongBits(data[k]) == bits)
+						return j;
+			}
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public void forEach(Consumer<? super Double> action) {
+			Objects.requireNonNull(action);
+			for (int j = 0, k = indexRow; j < numberOfColumns; j++, k += stride)
+				action.accept(data[k]);
+		}
+	}
+
+	/**
+	 * Live view of a column of this matrix, a slice of the backing array.
+	 */
+	private class ColumnView extends AbstractList<Double> implements RandomAccess {
+
+		private final int indexColumn;
+
+		ColumnView(int indexColumn) {
+			this.indexColumn = indexColumn;
+		}
+
+		public int size() {
+			return numberOfRows;
+		}
+
+		public Double get(int index) {
+			Objects.checkIndex(index, numberOfRows);
+			return data[indexColumn * stride + index];
+		}
+
+		public Double set(int index, Double element) {
+			return setDouble(index, indexColumn, element);
+		}
+
+		public int indexOf(Object o) {
+			if (o instanceof Double) {
+				long bits = Double.doubleToLongBits((Double) o);
+				for (int i = 0, k = indexColumn * stride; i < numberOfRows; i++, k++)
+					if (Double.doubleToLongBits(data[k]) == bits)
+						return i;
+			}
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public void forEach(Consumer<? super Double> action) {
+			Objects.requireNonNull(action);
+			for (int i = 0, k = indexColumn * stride; i < numberOfRows; i++, k++)
+				action.accept(data[k]);
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+package collections2d;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Unmodifiable matrix of {@code double} values where every element is the same
+ * value, such as a matrix of ones. Only the dimension and the value are
+ * stored, so it takes the same memory whatever its size, and every value,
+ * search, {@code equals} and {@code hashCode} is computed without looking at
+ * the elements one by one. A product with another matrix only needs the sums
+ * of the rows or columns of the other one (see
+ * {@link algebra.MatrixMultiplication}).<p>
+ *
+ * Every operation that would modify the matrix throws an
+ * {@code UnsupportedOperationException}.
+ *
+ * @see NumericMatrix
+ */
+public class ConstantMatrix extends ImmutableMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = -3021580569373625294L;
+
+	/**
+	 * The value of every element.
+	 */
+	private final double value;
+
+	/**
+	 * Constructs a matrix of the specified dimension, with every element equal
+	 * to the specified value. If any of the dimensions is zero, the matrix is
+	 * empty.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param value the value of every element
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public ConstantMatrix(int rows, int columns, double value) {
+		super(rows, columns);
+		this.value = value;
+	}
+
+	/**
+	 * Returns the value of every element of this matrix.
+	 *
+	 * @return the value of every element of this matrix
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, rows);
+		Objects.checkIndex(indexColumn, columns);
+		return value;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, rows);
+		Objects.checkFromIndexSize(fromColumn, length, columns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		Arrays.fill(dest, destPos, destPos + length, value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation compares the specified element with the value of
+	 * this matrix, if it is not empty.
+	 */
+	public boolean contains(Object o) {
+		return rows > 0 && o instanceof Double d && d.equals(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns {@code (0, 0)} if this matrix contains the
+	 * specified element, without searching.
+	 */
+	public Point indexOf(Object o) {
+		return contains(o) ? new Point(0, 0) : null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the coordinates of the last element if this
+	 * matrix contains the specified element, without searching.
+	 */
+	public Point lastIndexOf(Object o) {
+		return contains(o) ? new Point(rows - 1, columns - 1) : null;
+	}
+
+	/**
+	 * Compares the specified object with this matrix for equality. Only the
+	 * dimensions and values are compared if the object is a
+	 * {@code ConstantMatrix}.
+	 *
+	 * @param o the object to be compared for equality with this matrix
+	 * @return {@code true} if the specified object is equal to this matrix
+	 */
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof Matrix<?> m))
+			return false;
+		if (m.rowSize() != rows || m.columnSize() != columns)
+			return false;
+		if (o instanceof ConstantMatrix c)
+			return rows == 0 || Double.doubleToLongBits(value) == Double.doubleToLongBits(c.value);
+		return super.equals(o);
+	}
+
+	/**
+	 * Returns the hash code value for this matrix, as defined by
+	 * {@link AbstractMatrix#hashCode()}, computed in {@code O(log n)} time:
+	 * every row has the same hash code, so it is computed once and multiplied
+	 * by the number of rows.
+	 *
+	 * @return the hash code value for this matrix
+	 */
+	public int hashCode() {
+		int hashCode = rows * repeatedHash(columns, value);
+		return hashCode == 0 ? 1 : hashCode;
+	}
+}
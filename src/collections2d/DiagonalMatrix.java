@@ -0,0 +1,276 @@
+package collections2d;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of the interface {@code Matrix} for diagonal matrices of
+ * {@code double} values, where only the {@code n} elements of the diagonal are
+ * stored, in a single array, instead of the {@code n * n} of a full matrix.<p>
+ *
+ * Every element off the diagonal is zero: it can be set to zero, which has no
+ * effect, but setting it to any other value throws an
+ * {@code IllegalArgumentException}. Searches, {@code equals} and
+ * {@code hashCode} only look at the diagonal, since where the zeros are is
+ * known, and products with a vector or another matrix scale its values
+ * instead of multiplying by the zeros (see
+ * {@link algebra.MatrixMultiplication}).<p>
+ *
+ * The order of a {@code DiagonalMatrix} is fixed when it is created, so every
+ * operation that would change its dimension throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see IdentityMatrix
+ */
+public class DiagonalMatrix extends PackedMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = -2190862345087462717L;
+
+	/**
+	 * Constructs a diagonal matrix of the specified order, with every value zero.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @throws IllegalArgumentException if the order is negative, or the matrix
+	 *         is too large
+	 */
+	public DiagonalMatrix(int order) {
+		super(order, order);
+	}
+
+	/**
+	 * Constructs a diagonal matrix with the specified diagonal, whose length is
+	 * the order of the matrix. The array is copied.
+	 *
+	 * @param diagonal the values of the diagonal
+	 * @throws IllegalArgumentException if the matrix is too large
+	 */
+	public DiagonalMatrix(double[] diagonal) {
+		this(diagonal.length);
+		System.arraycopy(diagonal, 0, data, 0, order);
+	}
+
+	/**
+	 * Returns a new diagonal matrix with the values of the specified matrix,
+	 * which must be diagonal.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new diagonal matrix with the values of the specified matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws IllegalArgumentException if any element off the diagonal is not zero
+	 */
+	public static DiagonalMatrix copyOf(NumericMatrix m) {
+		checkSquare(m);
+		DiagonalMatrix d = new DiagonalMatrix(m.rowSize());
+		double[] row = new double[d.order];
+		for (int i = 0; i < d.order; i++) {
+			m.copyRowTo(i, 0, row, 0, d.order);
+			d.copyRowFrom(i, 0, row, 0, d.order);
+		}
+		return d;
+	}
+
+	/**
+	 * Returns a copy of the diagonal of this matrix.
+	 *
+	 * @return a new array with the values of the diagonal
+	 */
+	public double[] getDiagonal() {
+		return data.clone();
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		return indexRow == indexColumn ? data[indexRow] : 0.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if the element is off the diagonal and
+	 *         the new value is not zero
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		if (indexRow != indexColumn) {
+			if (newValue != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + indexColumn
+						+ ") is off the diagonal of a diagonal matrix");
+			return 0.0;
+		}
+		double old = data[indexRow];
+		data[indexRow] = newValue;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		Arrays.fill(dest, destPos, destPos + length, 0.0);
+		if (indexRow >= fromColumn && indexRow < fromColumn + length)
+			dest[destPos + indexRow - fromColumn] = data[indexRow];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if any of the values to be copied off
+	 *         the diagonal is not zero; no value is copied then
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		for (int j = 0; j < length; j++)
+			if (fromColumn + j != indexRow && src[srcPos + j] != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + (fromColumn + j)
+						+ ") is off the diagonal of a diagonal matrix");
+		if (indexRow >= fromColumn && indexRow < fromColumn + length)
+			data[indexRow] = src[srcPos + indexRow - fromColumn];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation only searches the diagonal, since the zeros off the
+	 * diagonal are known to be there when the order is greater than one.
+	 */
+	public boolean contains(Object o) {
+		return find(o, false) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation only searches the diagonal. A zero that is not
+	 * found before is at {@code (0, 1)}, the first element off the diagonal.
+	 */
+	public Point indexOf(Object o) {
+		return toPoint(find(o, false));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation only searches the diagonal. A zero that is not
+	 * found after is at {@code (n-1, n-2)}, the last element off the diagonal.
+	 */
+	public Point lastIndexOf(Object o) {
+		return toPoint(find(o, true));
+	}
+
+	/**
+	 * Returns the packed position of the first (or last) occurrence of the
+	 * specified element, or {@code -1} if there is none. Row {@code 0} starts
+	 * with the diagonal, and row {@code n-1} ends with it, so a positive zero
+	 * off the diagonal only comes first (or last) if the diagonal does not
+	 * start (or end) with one.
+	 */
+	private long find(Object o, boolean last) {
+		if (!(o instanceof Double) || order == 0)
+			return -1;
+		long bits = Double.doubleToLongBits((Double) o);
+		int end = last ? order - 1 : 0;
+		if (bits == 0L && order > 1 && Double.doubleToLongBits(data[end]) != 0L)
+			return last ? position(end, end - 1) : position(end, end + 1);
+		if (last) {
+			for (int i = order - 1; i >= 0; i--)
+				if (Double.doubleToLongBits(data[i]) == bits)
+					return position(i, i);
+		} else {
+			for (int i = 0; i < order; i++)
+				if (Double.doubleToLongBits(data[i]) == bits)
+					return position(i, i);
+		}
+		return -1;
+	}
+
+	/**
+	 * Compares the specified object with this matrix for equality. Only the
+	 * diagonals are compared if the object is a {@code DiagonalMatrix}.
+	 *
+	 * @param o the object to be compared for equality with this matrix
+	 * @return {@code true} if the specified object is equal to this matrix
+	 */
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o instanceof DiagonalMatrix d)
+			return Arrays.equals(data, d.data);
+		if (o instanceof Matrix<?> m && (m.rowSize() != order || m.columnSize() != order))
+			return false;
+		return super.equals(o);
+	}
+
+	/**
+	 * Returns the hash code value for this matrix, as defined by
+	 * {@link AbstractMatrix#hashCode()}, computed from the diagonal alone. The
+	 * hash code of row {@code i} is {@code 31^n} plus the hash code of its
+	 * diagonal element times {@code 31^(n-1-i)}, since the zeros add nothing.
+	 *
+	 * @return the hash code value for this matrix
+	 */
+	public int hashCode() {
+		int diagonal = 0;
+		for (int i = 0; i < order; i++)
+			diagonal = 31 * diagonal + Double.hashCode(data[i]);
+		int hashCode = order * power31(order) + diagonal;
+		return hashCode == 0 ? 1 : hashCode;
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified vector, scaling each
+	 * of its values by the diagonal.
+	 *
+	 * @param x the vector, of length {@code rowSize()}
+	 * @return a new array with the product {@code D * x}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		checkLength(x);
+		double[] y = new double[order];
+		for (int i = 0; i < order; i++)
+			y[i] = data[i] * x[i];
+		return y;
+	}
+
+	/**
+	 * Solves {@code D * x = b}, dividing each value of {@code b} by the diagonal.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of this matrix
+	 * @throws SingularMatrixException if any element of the diagonal is zero
+	 */
+	public double[] solve(double[] b) {
+		checkLength(b);
+		double[] x = new double[order];
+		for (int i = 0; i < order; i++) {
+			if (data[i] == 0)
+				throw new SingularMatrixException("Matrix is singular");
+			x[i] = b[i] / data[i];
+		}
+		return x;
+	}
+
+	/**
+	 * Returns the determinant of this matrix, the product of its diagonal.
+	 *
+	 * @return the determinant of this matrix
+	 */
+	public double determinant() {
+		double d = 1.0;
+		for (int i = 0; i < order; i++)
+			d *= data[i];
+		return d;
+	}
+}
@@ -0,0 +1,1193 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Resizable implementation of the interface {@code Matrix} specialized for
+ * {@code double} values.
+ * Unlike {@link RegularMatrix}, the elements are not stored as objects, but in a
+ * single contiguous {@code double[]} in row-major order, where the element at
+ * {@code (row, column)} lives at {@code row * stride + column}.
+ *
+ * <p>Each {@code DoubleMatrix} instance has a <i>row capacity</i>
+ * and <i>column capacity</i>. The column capacity is the <i>stride</i> between
+ * two consecutive rows in the backing array, and the row capacity is the number
+ * of rows that fit in the backing array. Both are always at least as large as
+ * the matrix current dimensions, and grow automatically (by half of their current
+ * value) as rows and columns are added.
+ *
+ * <p>Primitive accessors {@link #getDouble(int, int)} and {@link #setDouble(int, int, double)}
+ * are provided so numeric code never has to box its values. This matrix does not
+ * permit null elements.
+ *
+ * @see RegularMatrix
+ * @see NumericMatrix
+ */
+public class DoubleMatrix extends AbstractRegularMatrix<Double>
+		implements NumericMatrix, Cloneable, java.io.Serializable, java.util.RandomAccess
+{
+
+	@java.io.Serial
+	private static final long serialVersionUID = 4431207762219440983L;
+
+	/**
+	 * Default initial row capacity
+	 */
+	private final static int DEFAULT_MAX_ROWS_CAPACITY = 3;
+	/**
+	 * Default initial column capacity
+	 */
+	private final static int DEFAULT_MAX_COLUMNS_CAPACITY = 3;
+
+	/**
+	 * Shared empty array instance used for empty instances.
+	 */
+	private final static double[] EMPTY_DATA = {};
+
+	/**
+	 * The array buffer into which the elements of the {@code DoubleMatrix} are
+	 * stored, row after row. Its length is always
+	 * {@code currentRowCapacity * stride}.
+	 */
+	private transient double[] data;
+
+	/**
+	 * Distance in the backing array between two consecutive rows, which is the
+	 * column capacity of this matrix.
+	 */
+	private transient int stride;
+
+	/**
+	 * The total rows this DoubleMatrix can contain without growing.
+	 */
+	private transient int currentRowCapacity;
+	/**
+	 * The number of rows this DoubleMatrix currently has.
+	 */
+	private int numberOfRows;
+	/**
+	 * The number of columns this DoubleMatrix currently has.
+	 */
+	private int numberOfColumns;
+
+	/**
+	 * The serializable fields of a {@code DoubleMatrix}, which are the ones of
+	 * its first versions, so that each version reads the instances written by
+	 * the others. The values are written trimmed to the dimension of the matrix.
+	 *
+	 * @serialField data double[] the values of the matrix, row after row
+	 * @serialField stride int the number of columns
+	 * @serialField currentRowCapacity int the number of rows
+	 * @serialField numberOfRows int the number of rows
+	 * @serialField numberOfColumns int the number of columns
+	 */
+	@java.io.Serial
+	private static final java.io.ObjectStreamField[] serialPersistentFields = {
+			new java.io.ObjectStreamField("data", double[].class),
+			new java.io.ObjectStreamField("stride", int.class),
+			new java.io.ObjectStreamField("currentRowCapacity", int.class),
+			new java.io.ObjectStreamField("numberOfRows", int.class),
+			new java.io.ObjectStreamField("numberOfColumns", int.class) };
+
+	/**
+	 * Constructs an empty DoubleMatrix instance with an initial capacity of
+	 * {@code 3x3}.
+	 */
+	public DoubleMatrix() {
+		this(DEFAULT_MAX_ROWS_CAPACITY, DEFAULT_MAX_COLUMNS_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty DoubleMatrix with an initial row and column capacity of
+	 * {@code rowColCapacity}.
+	 *
+	 * @param rowColCapacity the initial row/column capacity of the matrix
+	 * @throws IllegalArgumentException if the initial row/column capacity is
+	 *                                  negative
+	 */
+	public DoubleMatrix(int rowColCapacity) {
+		this(rowColCapacity, rowColCapacity);
+	}
+
+	/**
+	 * Constructs an empty DoubleMatrix with an initial row capacity of
+	 * {@code rowCapacity} and an initial column capacity of {@code columnCapacity}.
+	 *
+	 * @param rowCapacity    the initial row capacity of the matrix
+	 * @param columnCapacity the initial column capacity of the matrix
+	 * @throws IllegalArgumentException if any of the initial capacities is negative
+	 */
+	public DoubleMatrix(int rowCapacity, int columnCapacity) {
+		if (rowCapacity < 0)
+			throw new IllegalArgumentException("Illegal Rows Capacity: " + rowCapacity);
+		if (columnCapacity < 0)
+			throw new IllegalArgumentException("Illegal Columns Capacity: " + columnCapacity);
+		currentRowCapacity = rowCapacity;
+		stride = columnCapacity;
+		data = rowCapacity == 0 || columnCapacity == 0 ? EMPTY_DATA
+				: new double[Math.multiplyExact(rowCapacity, columnCapacity)];
+	}
+
+	/**
+	 * Constructs a DoubleMatrix containing a copy of the specified values, where
+	 * {@code values[i][j]} becomes the element at row {@code i} and column {@code j}.
+	 *
+	 * @param values the rows of the matrix
+	 * @throws NullPointerException if the array or any of its rows is null
+	 * @throws IncompatibleCollectionSizeException if the rows are not all the same length
+	 */
+	public DoubleMatrix(double[][] values) {
+		this(values.length, values.length == 0 ? 0 : values[0].length);
+		int columns = stride;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i].length != columns)
+				throw new IncompatibleCollectionSizeException(new Dimension(columns, values.length), values[i].length, true);
+			System.arraycopy(values[i], 0, data, i * stride, columns);
+		}
+		if (columns > 0) {
+			numberOfRows = values.length;
+			numberOfColumns = columns;
+		}
+	}
+
+	/**
+	 * Returns a new {@code rows x columns} DoubleMatrix where every element is
+	 * {@code 0.0}.
+	 *
+	 * @param rows    the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @return a matrix filled with zeros
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public static DoubleMatrix zeros(int rows, int columns) {
+		DoubleMatrix m = new DoubleMatrix(rows, columns);
+		if (rows > 0 && columns > 0) {
+			m.numberOfRows = rows;
+			m.numberOfColumns = columns;
+		}
+		return m;
+	}
+
+	/** Returns the number of rows in this matrix.
+	 *
+	 * @return the number of rows in this matrix
+	 */
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	/** Returns the number of columns in this matrix.
+	 *
+	 * @return the number of columns in this matrix
+	 */
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/** Returns the number of elements in this matrix, which is
+	 * {@link #rowSize()} * {@link #columnSize()}.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		return numberOfRows * numberOfColumns;
+	}
+
+    /**
+     * Returns {@code true} if this matrix contains no elements.
+     *
+     * @return {@code true} if this matrix contains no elements
+     */
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix, which is
+	 * {@link #rowSize()} x {@link #columnSize()}.
+	 *
+	 * @return the dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(columnSize(), rowSize());
+	}
+
+	/**
+	 * This implementation always throws an {@code UnsupportedOperationException}.
+	 */
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * This implementation always throws an {@code UnsupportedOperationException}.
+	 */
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+     * Removes all of the elements from this matrix.
+     * The matrix will be empty after this call returns, but keeps its capacities.
+     */
+	public void clear() {
+		numberOfRows = numberOfColumns = 0;
+	}
+
+    /**
+     * Returns a copy of this {@code DoubleMatrix} instance, trimmed to its
+     * current dimensions.
+     *
+     * @return a clone of this {@code DoubleMatrix} instance
+     */
+	public Object clone() {
+		try {
+			DoubleMatrix m = (DoubleMatrix) super.clone();
+			m.data = isEmpty() ? EMPTY_DATA : copyData(numberOfRows, numberOfColumns);
+			m.currentRowCapacity = numberOfRows;
+			m.stride = numberOfColumns;
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Saves the state of this {@code DoubleMatrix} instance to a stream. Only
+	 * the values within the dimension of the matrix are written, not the unused
+	 * capacity, which is copied only if it has any.
+	 */
+	@java.io.Serial
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		double[] trimmed;
+		if (isEmpty())
+			trimmed = EMPTY_DATA;
+		else if (stride == numberOfColumns && currentRowCapacity == numberOfRows)
+			trimmed = data;
+		else
+			trimmed = copyData(numberOfRows, numberOfColumns);
+		java.io.ObjectOutputStream.PutField fields = s.putFields();
+		fields.put("data", trimmed);
+		fields.put("stride", numberOfColumns);
+		fields.put("currentRowCapacity", numberOfRows);
+		fields.put("numberOfRows", numberOfRows);
+		fields.put("numberOfColumns", numberOfColumns);
+		s.writeFields();
+	}
+
+	/**
+	 * Reconstitutes a {@code DoubleMatrix} instance from a stream, with its
+	 * capacities trimmed to its dimension.
+	 */
+	@java.io.Serial
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		java.io.ObjectInputStream.GetField fields = s.readFields();
+		int rowCount = fields.get("numberOfRows", 0), columnCount = fields.get("numberOfColumns", 0);
+		int storedStride = fields.get("stride", 0);
+		if (rowCount < 0 || columnCount < 0 || (rowCount == 0) != (columnCount == 0) || storedStride < columnCount
+				|| !(fields.get("data", null) instanceof double[] stored)
+				|| stored.length < (long) rowCount * storedStride)
+			throw new java.io.InvalidObjectException("Illegal dimension: " + rowCount + "x" + columnCount);
+		numberOfRows = currentRowCapacity = rowCount;
+		numberOfColumns = columnCount;
+		if (rowCount == 0) {
+			data = EMPTY_DATA;
+			stride = 0;
+		} else {
+			data = stored;
+			stride = storedStride;
+			if (storedStride != columnCount || stored.length != rowCount * columnCount) {
+				data = copyData(rowCount, columnCount);
+				stride = columnCount;
+			}
+		}
+	}
+
+	/**
+	 * Copies the current elements into a new array of {@code rowCapacity} rows,
+	 * each one of length {@code newStride}.
+	 */
+	private double[] copyData(int rowCapacity, int newStride) {
+		double[] d = new double[Math.multiplyExact(rowCapacity, newStride)];
+		if (newStride == stride) {
+			System.arraycopy(data, 0, d, 0, numberOfRows * stride);
+		} else {
+			for (int i = 0; i < numberOfRows; i++)
+				System.arraycopy(data, i * stride, d, i * newStride, numberOfColumns);
+		}
+		return d;
+	}
+
+	/**
+	 * Trims both capacities of this {@code DoubleMatrix} instance to be the
+	 * matrix's current sizes. This operation can be used to minimize the storage of
+	 * a {@code DoubleMatrix} instance.
+	 */
+	public void trimToSize() {
+		if (isEmpty()) {
+			data = EMPTY_DATA;
+			currentRowCapacity = stride = 0;
+		} else if (numberOfRows < currentRowCapacity || numberOfColumns < stride) {
+			data = copyData(numberOfRows, numberOfColumns);
+			currentRowCapacity = numberOfRows;
+			stride = numberOfColumns;
+		}
+	}
+
+	/**
+	 * Returns a capacity at least as large as {@code minCapacity}, growing
+	 * {@code oldCapacity} by half of its value if that is enough.
+	 */
+	private static int newCapacity(int oldCapacity, int minCapacity) {
+		int grown = oldCapacity + (oldCapacity >> 1);
+		if (grown - minCapacity <= 0)
+			return Math.max(minCapacity, DEFAULT_MAX_ROWS_CAPACITY);
+		return grown < 0 ? Integer.MAX_VALUE - 8 : grown;
+	}
+
+	/**
+	 * Increases the row capacity of this {@code DoubleMatrix} instance, if
+	 * necessary, to ensure that it can hold at least the number of rows specified
+	 * by the minimum capacity argument.
+	 *
+	 * @param minCapacity the desired minimum row capacity
+	 */
+	public void ensureRowCapacity(int minCapacity) {
+		if (minCapacity > currentRowCapacity)
+			resize(minCapacity, stride);
+	}
+
+	/**
+	 * Increases the column capacity of this {@code DoubleMatrix} instance, if
+	 * necessary, to ensure that it can hold at least the number of columns
+	 * specified by the minimum capacity argument.
+	 *
+	 * @param minCapacity the desired minimum column capacity
+	 */
+	public void ensureColumnCapacity(int minCapacity) {
+		if (minCapacity > stride)
+			resize(currentRowCapacity, minCapacity);
+	}
+
+	private void resize(int rowCapacity, int newStride) {
+		data = copyData(rowCapacity, newStride);
+		currentRowCapacity = rowCapacity;
+		stride = newStride;
+	}
+
+	/**
+	 * Makes room for one more row, growing the row capacity geometrically.
+	 */
+	private void growRows() {
+		if (numberOfRows == currentRowCapacity)
+			resize(newCapacity(currentRowCapacity, numberOfRows + 1), stride);
+	}
+
+	/**
+	 * Makes room for one more column, growing the column capacity geometrically.
+	 */
+	private void growColumns() {
+		if (numberOfColumns == stride)
+			resize(currentRowCapacity, newCapacity(stride, numberOfColumns + 1));
+	}
+
+	/**
+	 * Unboxes the elements of the specified collection.
+	 *
+	 * @throws NullPointerException if the collection contains null elements
+	 */
+	private static double[] unbox(Collection<Double> c) {
+		double[] d = new double[c.size()];
+		int i = 0;
+		for (Double e : c)
+			d[i++] = e;
+		return d;
+	}
+
+	/** Appends the specified row to the end of this matrix.
+ 	 *
+     * @throws NullPointerException if the row is null or contains null elements
+     * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public boolean addRow(Collection<Double> row) {
+		return super.addRow(row);
+	}
+
+	/**
+	 * Appends a row with the specified values to the end of this matrix,
+	 * without boxing them. The values are copied.
+	 *
+	 * @param row values of the row to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the row is null
+	 * @throws IncompatibleCollectionSizeException if the length of the row is
+	 *                                  different than the number of columns
+	 *                                  this matrix has
+	 */
+	public boolean addRow(double[] row) {
+		if (!isEmpty() && row.length != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		if (!prepareRows(1, row.length))
+			return false;
+		System.arraycopy(row, 0, data, numberOfRows++ * stride, row.length);
+		return true;
+	}
+
+    /**
+     * Inserts the specified row at the specified position in this
+     * matrix. Shifts the row currently at that position (if any) and
+     * any subsequent rows down (adds one to their indices).
+     *
+     * @param index index at which the specified row is to be inserted
+     * @param row row to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+ 	 * @throws NullPointerException     if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public void addRow(int index, Collection<Double> row) {
+		super.addRow(index, row);
+		double[] newRow = unbox(row);
+		if (isEmpty()) {
+			if (newRow.length == 0)
+				return;
+			numberOfColumns = newRow.length;
+			if (stride < numberOfColumns)
+				resize(currentRowCapacity, numberOfColumns);
+		}
+		growRows();
+		System.arraycopy(data, index * stride, data, (index + 1) * stride, (numberOfRows - index) * stride);
+		System.arraycopy(newRow, 0, data, index * stride, numberOfColumns);
+		numberOfRows++;
+	}
+
+    /**
+     * Appends the specified column to the end of this matrix.
+     *
+     * @param column column to be appended to this matrix
+     * @return {@code true} (as specified by {@link Matrix#addColumn})
+	 * @throws NullPointerException     if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public boolean addColumn(Collection<Double> column) {
+		return super.addColumn(column);
+	}
+
+    /**
+     * Inserts the specified column at the specified position in this
+     * matrix. Shifts the column currently at that position (if any) and
+     * any subsequent column to the right (adds one to their indices).
+     *
+     * @param index index at which the specified column is to be inserted
+     * @param column column to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+ 	 * @throws NullPointerException     if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public void addColumn(int index, Collection<Double> column) {
+		super.addColumn(index, column);
+		double[] newColumn = unbox(column);
+		if (isEmpty()) {
+			if (newColumn.length == 0)
+				return;
+			numberOfColumns = 0;
+			if (currentRowCapacity < newColumn.length)
+				resize(newColumn.length, stride);
+			numberOfRows = newColumn.length;
+		}
+		growColumns();
+		for (int i = 0, base = 0; i < numberOfRows; i++, base += stride) {
+			System.arraycopy(data, base + index, data, base + index + 1, numberOfColumns - index);
+			data[base + index] = newColumn[i];
+		}
+		numberOfColumns++;
+	}
+
+	/**
+	 * Appends all of the specified rows to the end of this matrix. Every row is
+	 * unboxed and checked before any of them is added, and the row capacity is
+	 * increased at most once.
+	 *
+	 * @param rows rows to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the collection is null, or contains a null
+	 *                              row or a row with null elements
+	 * @throws IncompatibleCollectionSizeException if any of the rows is
+	 *                              incompatible (the length of the row is
+	 *                              different than the number of columns)
+	 */
+	public boolean addRows(Collection<? extends Collection<Double>> rows) {
+		double[][] arrays = new double[rows.size()][];
+		int count = 0;
+		for (Collection<Double> row : rows)
+			arrays[count++] = unbox(Objects.requireNonNull(row));
+		if (count == 0)
+			return false;
+		int columns = arrays[0].length;
+		for (int i = 0; i < count; i++)
+			if (arrays[i].length != columns || (!isEmpty() && columns != numberOfColumns))
+				throw new IncompatibleCollectionSizeException();
+		if (!prepareRows(count, columns))
+			return false;
+		for (int i = 0; i < count; i++, numberOfRows++)
+			System.arraycopy(arrays[i], 0, data, numberOfRows * stride, columns);
+		return true;
+	}
+
+	/**
+	 * Appends all of the specified columns to the end of this matrix. Every
+	 * column is unboxed and checked before any of them is added, and the column
+	 * capacity is increased at most once.
+	 *
+	 * @param columns columns to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the collection is null, or contains a null
+	 *                              column or a column with null elements
+	 * @throws IncompatibleCollectionSizeException if any of the columns is
+	 *                              incompatible (the length of the column is
+	 *                              different than the number of rows)
+	 */
+	public boolean addColumns(Collection<? extends Collection<Double>> columns) {
+		double[][] arrays = new double[columns.size()][];
+		int count = 0;
+		for (Collection<Double> column : columns)
+			arrays[count++] = unbox(Objects.requireNonNull(column));
+		if (count == 0)
+			return false;
+		int length = arrays[0].length;
+		for (int c = 0; c < count; c++)
+			if (arrays[c].length != length || (!isEmpty() && length != numberOfRows))
+				throw new IncompatibleCollectionSizeException();
+		if (length == 0)
+			return false;
+		if (isEmpty()) {
+			numberOfColumns = 0;
+			if (currentRowCapacity < length || stride < count)
+				resize(Math.max(currentRowCapacity, length), Math.max(stride, count));
+			numberOfRows = length;
+		} else if (numberOfColumns + count > stride) {
+			resize(currentRowCapacity, newCapacity(stride, numberOfColumns + count));
+		}
+		for (int c = 0; c < count; c++) {
+			double[] column = arrays[c];
+			for (int i = 0, k = numberOfColumns + c; i < length; i++, k += stride)
+				data[k] = column[i];
+		}
+		numberOfColumns += count;
+		return true;
+	}
+
+	/**
+	 * Appends all of the rows of the specified matrix to the end of this matrix,
+	 * sizing the storage once. Rows of a {@link NumericMatrix} are copied with
+	 * {@link NumericMatrix#copyRowTo copyRowTo}, without boxing, and this matrix
+	 * may be appended to itself.
+	 *
+	 * @param m matrix whose rows are to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the matrix is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the rows of the matrix are
+	 *                              incompatible (their length is different than
+	 *                              the number of columns)
+	 */
+	public boolean addAll(Matrix<? extends Double> m) {
+		int count = m.rowSize(), columns = m.columnSize();
+		if (count == 0)
+			return false;
+		if (!isEmpty() && columns != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		if (m instanceof NumericMatrix n) {
+			if (!prepareRows(count, columns))
+				return false;
+			for (int i = 0; i < count; i++, numberOfRows++)
+				n.copyRowTo(i, 0, data, numberOfRows * stride, columns);
+			return true;
+		}
+		double[][] arrays = new double[count][];
+		for (int i = 0; i < count; i++) {
+			double[] row = arrays[i] = new double[columns];
+			int j = 0;
+			for (Double e : m.getRow(i))
+				row[j++] = e;
+		}
+		if (!prepareRows(count, columns))
+			return false;
+		for (int i = 0; i < count; i++, numberOfRows++)
+			System.arraycopy(arrays[i], 0, data, numberOfRows * stride, columns);
+		return true;
+	}
+
+	/**
+	 * Makes room for {@code count} more rows of {@code columns} values, already
+	 * checked, growing the row capacity geometrically.
+	 *
+	 * @return {@code false} if there is nothing to add
+	 */
+	private boolean prepareRows(int count, int columns) {
+		if (columns == 0)
+			return false;
+		if (isEmpty()) {
+			numberOfColumns = columns;
+			if (stride < columns)
+				resize(currentRowCapacity, columns);
+		}
+		if (numberOfRows + count > currentRowCapacity)
+			resize(newCapacity(currentRowCapacity, numberOfRows + count), stride);
+		return true;
+	}
+
+    /**
+     * Returns the row at the specified position in this matrix.
+     * The returned list is a view over the backing array, so no values are
+     * copied: changes made with its {@code set} method are written through to
+     * this matrix, and non-structural changes in this matrix are visible in it.
+     * The view is no longer valid once the matrix is structurally modified.
+     *
+     * @param  indexRow index of the row to return
+     * @return the row at the specified position in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new RowView(indexRow);
+	}
+
+	/**
+	 * Copy of the row at the specified position, used when the row is
+	 * about to be removed or replaced and a view would no longer be valid.
+	 */
+	private Collection<Double> rowAt(int indexRow) {
+		Double[] r = new Double[numberOfColumns];
+		for (int j = 0, k = indexRow * stride; j < r.length; j++, k++)
+			r[j] = data[k];
+		return Arrays.asList(r);
+	}
+
+    /**
+     * Returns the column at the specified position in this matrix.
+     * The returned list is a view over the backing array, so no values are
+     * copied: changes made with its {@code set} method are written through to
+     * this matrix, and non-structural changes in this matrix are visible in it.
+     * The view is no longer valid once the matrix is structurally modified.
+     *
+     * @param  indexColumn index of the column to return
+     * @return the column at the specified position in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new ColumnView(indexColumn);
+	}
+
+	/**
+	 * Copy of the column at the specified position, used when the column is
+	 * about to be removed or replaced and a view would no longer be valid.
+	 */
+	private Collection<Double> columnAt(int indexColumn) {
+		Double[] c = new Double[numberOfRows];
+		for (int i = 0, k = indexColumn; i < c.length; i++, k += stride)
+			c[i] = data[k];
+		return Arrays.asList(c);
+	}
+
+    /**
+     * Returns the element at the specified coordinates in this matrix.
+     *
+     * @param indexRow index of the row where the element is to return
+     * @param indexColumn index of the column where the element is to return
+     * @return the element at the specified coordinates in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	/**
+	 * Returns the value at the specified coordinates in this matrix, without
+	 * boxing it.
+	 *
+	 * @param indexRow index of the row where the value is to return
+	 * @param indexColumn index of the column where the value is to return
+	 * @return the value at the specified coordinates in this matrix
+	 * @throws IndexOutOfBoundsException if any of the indices is out of range
+	 *         ({@code indexRow < 0 || indexRow >= rowSize()
+	 *         || indexColumn < 0 || indexColumn >= columnSize()})
+	 */
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return data[indexRow * stride + indexColumn];
+	}
+
+    /**
+     * Replaces the element at the specified coordinates in this matrix with
+     * the specified element.
+     *
+     * @param indexRow index of the row where the element is to replace
+     * @param indexColumn index of the column where the element is to replace
+     * @return the element previously at the specified coordinates
+     * @throws NullPointerException if the specified element is null
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	/**
+	 * Replaces the value at the specified coordinates in this matrix with the
+	 * specified value, without boxing it.
+	 *
+	 * @param indexRow index of the row where the value is to replace
+	 * @param indexColumn index of the column where the value is to replace
+	 * @param newValue value to be stored at the specified position
+	 * @return the value previously at the specified coordinates
+	 * @throws IndexOutOfBoundsException if any of the indices is out of range
+	 *         ({@code indexRow < 0 || indexRow >= rowSize()
+	 *         || indexColumn < 0 || indexColumn >= columnSize()})
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		int k = indexRow * stride + indexColumn;
+		double old = data[k];
+		data[k] = newValue;
+		return old;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation copies the values with {@link System#arraycopy}.
+	 */
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		System.arraycopy(data, indexRow * stride + fromColumn, dest, destPos, length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation copies the values with {@link System#arraycopy}.
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		System.arraycopy(src, srcPos, data, indexRow * stride + fromColumn, length);
+	}
+
+    /**
+     * Removes the row at the specified position in this matrix.
+     * Shifts any subsequent rows up (subtracts one from their indices).
+     *
+     * @param index the index of the row to be removed
+     * @return the row that was removed from the matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> removeRow(int index) {
+		Objects.checkIndex(index, numberOfRows);
+		Collection<Double> removedRow = rowAt(index);
+		if (numberOfRows == 1) {
+			clear();
+		} else {
+			System.arraycopy(data, (index + 1) * stride, data, index * stride, (numberOfRows - index - 1) * stride);
+			numberOfRows--;
+		}
+		return removedRow;
+	}
+
+    /**
+     * Removes the column at the specified position in this matrix.
+     * Shifts any subsequent columns to the left (subtracts one from their
+     * indices).
+     *
+     * @param index the index of the column to be removed
+     * @return the column that was removed from the matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> removeColumn(int index) {
+		Objects.checkIndex(index, numberOfColumns);
+		Collection<Double> removedColumn = columnAt(index);
+		if (numberOfColumns == 1) {
+			clear();
+		} else {
+			int tail = numberOfColumns - index - 1;
+			for (int i = 0, base = 0; i < numberOfRows; i++, base += stride)
+				System.arraycopy(data, base + index + 1, data, base + index, tail);
+			numberOfColumns--;
+		}
+		return removedColumn;
+	}
+
+	/**
+     * Replaces the row at the specified position in this matrix with
+     * the specified row.
+     *
+     * @param indexRow index of the row to replace
+     * @param newRow row to be stored at the specified position
+     * @return the row previously at the specified position
+     * @throws NullPointerException if the specified row is null or contains null elements
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		checkRowCompability(newRow);
+		double[] r = unbox(newRow);
+		Collection<Double> replacedRow = rowAt(indexRow);
+		System.arraycopy(r, 0, data, indexRow * stride, numberOfColumns);
+		return replacedRow;
+	}
+
+	/**
+     * Replaces the column at the specified position in this matrix with
+     * the specified column.
+     *
+     * @param indexColumn index of the column to replace
+     * @param newColumn column to be stored at the specified position
+     * @return the column previously at the specified position
+     * @throws NullPointerException if the specified column is null or contains null elements
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		checkColumnCompability(newColumn);
+		double[] c = unbox(newColumn);
+		Collection<Double> replacedColumn = columnAt(indexColumn);
+		for (int i = 0, k = indexColumn; i < numberOfRows; i++, k += stride)
+			data[k] = c[i];
+		return replacedColumn;
+	}
+
+	/**
+	 * Swaps the positions of two rows in the matrix.
+	 * Since the rows are stored contiguously, their values are exchanged
+	 * element by element.
+	 * @param indexRow1 index of the first row to be swapped
+	 * @param indexRow2 index of the second row to be swapped
+	 * @throws IndexOutOfBoundsException if either indexRow1 or indexRow2 is out of range
+	 * 									 {@code (index < 0 || index >= rowSize())}
+	 */
+	public void swapRows(int indexRow1, int indexRow2) {
+		Objects.checkIndex(indexRow1, numberOfRows);
+		Objects.checkIndex(indexRow2, numberOfRows);
+		if (indexRow1 == indexRow2)
+			return;
+		for (int j = 0, k1 = indexRow1 * stride, k2 = indexRow2 * stride; j < numberOfColumns; j++, k1++, k2++) {
+			double t = data[k1];
+			data[k1] = data[k2];
+			data[k2] = t;
+		}
+	}
+
+	/**
+	 * Returns a view of this matrix without the specified row and column. The
+	 * view is itself a {@link NumericMatrix}, and its bulk methods copy each
+	 * run of consecutive values with {@link System#arraycopy}.
+	 *
+	 * @param indexRow index of the row not to include on the sub matrix
+	 * @param indexColumn index of the column not to include on the sub matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public NumericMatrix subMatrix(int indexRow, int indexColumn) {
+		return (NumericMatrix) super.subMatrix(indexRow, indexColumn);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation scans the backing array directly, comparing the values
+	 * as {@link Double#equals(Object)} does.
+	 */
+	public boolean contains(Object o) {
+		return indexOf(o) != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation scans the backing array directly, comparing the values
+	 * as {@link Double#equals(Object)} does.
+	 */
+	public Point indexOf(Object o) {
+		if (!(o instanceof Double))
+			return null;
+		long bits = Double.doubleToLongBits((Double) o);
+		for (int i = 0; i < numberOfRows; i++)
+			for (int j = 0, k = i * stride; j < numberOfColumns; j++, k++)
+				if (Double.doubleToLongBits(data[k]) == bits)
+					return new Point(i, j);
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation scans the backing array directly and backwards, comparing
+	 * the values as {@link Double#equals(Object)} does.
+	 */
+	public Point lastIndexOf(Object o) {
+		if (!(o instanceof Double))
+			return null;
+		long bits = Double.doubleToLongBits((Double) o);
+		for (int i = numberOfRows - 1; i >= 0; i--)
+			for (int j = numberOfColumns - 1, k = i * stride + j; j >= 0; j--, k--)
+				if (Double.doubleToLongBits(data[k]) == bits)
+					return new Point(i, j);
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * If the specified object is also a {@code DoubleMatrix}, both backing arrays
+	 * are compared directly. Otherwise, the comparison of {@link AbstractMatrix#equals(Object)}
+	 * is done.
+	 */
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof DoubleMatrix))
+			return super.equals(o);
+		DoubleMatrix m = (DoubleMatrix) o;
+		if (numberOfRows != m.numberOfRows || numberOfColumns != m.numberOfColumns)
+			return false;
+		for (int i = 0; i < numberOfRows; i++) {
+			int k1 = i * stride, k2 = i * m.stride;
+			for (int j = 0; j < numberOfColumns; j++)
+				if (Double.doubleToLongBits(data[k1 + j]) != Double.doubleToLongBits(m.data[k2 + j]))
+					return false;
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation computes the same value as {@link AbstractMatrix#hashCode()},
+	 * but without boxing the elements of each row.
+	 */
+	public int hashCode() {
+		int hashCode = 0;
+		for (int i = 0; i < numberOfRows; i++) {
+			int rowHash = 1;
+			for (int j = 0, k = i * stride; j < numberOfColumns; j++, k++)
+				rowHash = 31 * rowHash + Double.hashCode(data[k]);
+			hashCode += rowHash;
+		}
+		return hashCode == 0 ? 1 : hashCode;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()},
+	 * which boxes each value only when it is passed to the action.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation reads the backing array directly, skipping the unused
+	 * capacity at the end of each row.
+	 */
+	public Spliterator.OfDouble doubleSpliterator() {
+		return new ArraySpliterator(data, stride, numberOfColumns, 0, (long) numberOfRows * numberOfColumns);
+	}
+
+	/**
+	 * Spliterator over a range of positions of the values of a backing array,
+	 * where position {@code p} is the value at index
+	 * {@code (p / columns) * stride + p % columns}.
+	 */
+	private static final class ArraySpliterator implements Spliterator.OfDouble {
+
+		private final double[] data;
+		private final int stride, columns;
+		private long index;
+		private final long fence;
+
+		ArraySpliterator(double[] data, int stride, int columns, long origin, long fence) {
+			this.data = data;
+			this.stride = stride;
+			this.columns = columns;
+			this.index = origin;
+			this.fence = fence;
+		}
+
+		public boolean tryAdvance(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+			if (index >= fence)
+				return false;
+			long p = index++;
+			action.accept(data[(int) (p / columns) * stride + (int) (p % columns)]);
+			return true;
+		}
+
+		public void forEachRemaining(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+			long p = index;
+			if (p >= fence)
+				return;
+			index = fence;
+			int i = (int) (p / columns), j = (int) (p % columns);
+			while (p < fence) {
+				int k = i * stride + j;
+				int end = (int) Math.min(columns - j, fence - p);
+				for (int e = k + end; k < e; k++)
+					action.accept(data[k]);
+				p += end;
+				i++;
+				j = 0;
+			}
+		}
+
+		public Spliterator.OfDouble trySplit() {
+			long lo = index, mid = (lo + fence) >>> 1;
+			if (lo >= mid)
+				return null;
+			index = mid;
+			return new ArraySpliterator(data, stride, columns, lo, mid);
+		}
+
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
+	/**
+	 * Live view of a row of this matrix, a slice of the backing array.
+	 */
+	private class RowView extends AbstractList<Double> implements RandomAccess {
+
+		private final int indexRow;
+
+		RowView(int indexRow) {
+			this.indexRow = indexRow;
+		}
+
+		public int size() {
+			return numberOfColumns;
+		}
+
+		public Double get(int index) {
+			Objects.checkIndex(index, numberOfColumns);
+			return data[indexRow * stride + index];
+		}
+
+		public Double set(int index, Double element) {
+			return setDouble(indexRow, index, element);
+		}
+
+		public int indexOf(Object o) {
+			if (o instanceof Double) {
+				long bits = Double.doubleToLongBits((Double) o);
+				for (int j = 0, k = indexRow * stride; j < numberOfColumns; j++, k++)
+					if (Double.doubleToLongBits(data[k]) == bits)
+						return j;
+			}
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public void forEach(Consumer<? super Double> action) {
+			Objects.requireNonNull(action);
+			for (int j = 0, k = indexRow * stride; j < numberOfColumns; j++, k++)
+				action.accept(data[k]);
+		}
+	}
+
+	/**
+	 * Live view of a column of this matrix, which walks the backing array
+	 * {@code stride} positions at a time.
+	 */
+	private class ColumnView extends AbstractList<Double> implements RandomAccess {
+
+		private final int indexColumn;
+
+		ColumnView(int indexColumn) {
+			this.indexColumn = indexColumn;
+		}
+
+		public int size() {
+			return numberOfRows;
+		}
+
+		public Double get(int index) {
+			Objects.checkIndex(index, numberOfRows);
+			return data[index * stride + indexColumn];
+		}
+
+		public Double set(int index, Double element) {
+			return setDouble(index, indexColumn, element);
+		}
+
+		public int indexOf(Object o) {
+			if (o instanceof Double) {
+				long bits = Double.doubleToLongBits((Double) o);
+				for (int i = 0, k = indexColumn; i < numberOfRows; i++, k += stride)
+					if (Double.doubleToLongBits(data[k]) == bits)
+						return i;
+			}
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public void forEach(Consumer<? super Double> action) {
+			Objects.requireNonNull(action);
+			for (int i = 0, k = indexColumn; i < numberOfRows; i++, k += stride)
+				action.accept(data[k]);
+		}
+	}
+
+}
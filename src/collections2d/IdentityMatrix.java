@@ -0,0 +1,152 @@
+package collections2d;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Unmodifiable identity matrix of {@code double} values, with ones on the
+ * diagonal and zeros everywhere else. Only its order is stored, so it takes
+ * the same memory whatever its size, and every value, search, {@code equals}
+ * and {@code hashCode} is computed in constant time (or from the diagonal of
+ * the other matrix, when comparing with a {@link DiagonalMatrix}). Products
+ * with another matrix just copy it (see {@link algebra.MatrixMultiplication}).<p>
+ *
+ * Every operation that would modify the matrix throws an
+ * {@code UnsupportedOperationException}.
+ *
+ * @see NumericMatrix
+ * @see DiagonalMatrix
+ */
+public class IdentityMatrix extends ImmutableMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = 4807441567396375470L;
+
+	/**
+	 * Constructs an identity matrix of the specified order.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @throws IllegalArgumentException if the order is negative
+	 */
+	public IdentityMatrix(int order) {
+		super(order, order);
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, rows);
+		Objects.checkIndex(indexColumn, columns);
+		return indexRow == indexColumn ? 1.0 : 0.0;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, rows);
+		Objects.checkFromIndexSize(fromColumn, length, columns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		Arrays.fill(dest, destPos, destPos + length, 0.0);
+		if (indexRow >= fromColumn && indexRow < fromColumn + length)
+			dest[destPos + indexRow - fromColumn] = 1.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns {@code true} for a one, and for a positive
+	 * zero if the order is greater than one.
+	 */
+	public boolean contains(Object o) {
+		return find(o, false) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns {@code (0, 0)} for a one, and {@code (0, 1)}
+	 * for a positive zero, without searching.
+	 */
+	public Point indexOf(Object o) {
+		return toPoint(find(o, false));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns {@code (n-1, n-1)} for a one, and
+	 * {@code (n-1, n-2)} for a positive zero, without searching.
+	 */
+	public Point lastIndexOf(Object o) {
+		return toPoint(find(o, true));
+	}
+
+	/**
+	 * Returns the packed position of the first (or last) occurrence of the
+	 * specified element, or {@code -1} if there is none.
+	 */
+	private long find(Object o, boolean last) {
+		if (!(o instanceof Double) || rows == 0)
+			return -1;
+		long bits = Double.doubleToLongBits((Double) o);
+		int end = last ? rows - 1 : 0;
+		if (bits == Double.doubleToLongBits(1.0))
+			return position(end, end);
+		if (bits == 0L && rows > 1)
+			return last ? position(end, end - 1) : position(end, end + 1);
+		return -1;
+	}
+
+	/**
+	 * Compares the specified object with this matrix for equality. Only the
+	 * orders are compared if the object is an {@code IdentityMatrix}, and only
+	 * the diagonal if it is a {@code DiagonalMatrix}.
+	 *
+	 * @param o the object to be compared for equality with this matrix
+	 * @return {@code true} if the specified object is equal to this matrix
+	 */
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof Matrix<?> m))
+			return false;
+		if (m.rowSize() != rows || m.columnSize() != columns)
+			return false;
+		if (o instanceof IdentityMatrix)
+			return true;
+		if (o instanceof DiagonalMatrix d) {
+			for (int i = 0; i < rows; i++)
+				if (Double.doubleToLongBits(d.data[i]) != Double.doubleToLongBits(1.0))
+					return false;
+			return true;
+		}
+		return super.equals(o);
+	}
+
+	/**
+	 * Returns the hash code value for this matrix, as defined by
+	 * {@link AbstractMatrix#hashCode()}, computed in {@code O(log n)} time.
+	 * Each row adds {@code 31^n}, and the ones on the diagonal add the hash code
+	 * of {@code 1.0} times {@code 31^k}, for every {@code k < n}.
+	 *
+	 * @return the hash code value for this matrix
+	 */
+	public int hashCode() {
+		int hashCode = repeatedHash(rows, 1.0) + (rows - 1) * power31(rows);
+		return hashCode == 0 ? 1 : hashCode;
+	}
+
+	/**
+	 * Returns a copy of the specified vector, the product of this matrix and it.
+	 *
+	 * @param x the vector, of length {@code rowSize()}
+	 * @return a new array with the values of {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		if (x.length != rows)
+			throw new IncompatibleDimensionException("Vector of length " + x.length + " for a matrix of order " + rows);
+		return x.clone();
+	}
+}
@@ -0,0 +1,204 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * Skeletal implementation of an unmodifiable {@code NumericMatrix} whose values
+ * follow from a formula, so none of them is stored. Subclasses only compute
+ * the value at given coordinates; rows and columns are read-only views that
+ * compute their elements the same way.<p>
+ *
+ * Every operation that would modify the matrix throws an
+ * {@code UnsupportedOperationException}.
+ *
+ * @see IdentityMatrix
+ * @see ConstantMatrix
+ */
+abstract class ImmutableMatrix extends AbstractMatrix<Double>
+		implements NumericMatrix, RandomAccess, java.io.Serializable
+{
+
+	@java.io.Serial
+	private static final long serialVersionUID = -6400972402394431207L;
+
+	/**
+	 * The number of rows and columns of this matrix.
+	 */
+	final int rows, columns;
+
+	/**
+	 * Constructs a matrix of the specified dimension. If any of them is zero,
+	 * the matrix is empty, with no rows and no columns.
+	 *
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	ImmutableMatrix(int rows, int columns) {
+		if (rows < 0 || columns < 0)
+			throw new IllegalArgumentException("Illegal dimension: " + rows + "x" + columns);
+		boolean empty = rows == 0 || columns == 0;
+		this.rows = empty ? 0 : rows;
+		this.columns = empty ? 0 : columns;
+	}
+
+	public int rowSize() {
+		return rows;
+	}
+
+	public int columnSize() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of elements in this matrix, or {@code Integer.MAX_VALUE}
+	 * if there are more elements than that.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) rows * columns;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	public boolean isEmpty() {
+		return rows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix.
+	 * @return dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(columns, rows);
+	}
+
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns the row at the specified position in this matrix, as an
+	 * unmodifiable list whose elements are computed when they are read.
+	 *
+	 * @param  indexRow index of the row to return
+	 * @return the row at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, rows);
+		return new Line(indexRow, true);
+	}
+
+	/**
+	 * Returns the column at the specified position in this matrix, as an
+	 * unmodifiable list whose elements are computed when they are read.
+	 *
+	 * @param  indexColumn index of the column to return
+	 * @return the column at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, columns);
+		return new Line(indexColumn, false);
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public Collection<Double> removeRow(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public Collection<Double> removeColumn(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since this matrix
+	 * cannot be modified.
+	 */
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()}.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Read-only view of a row or a column of this matrix.
+	 */
+	private class Line extends AbstractList<Double> implements RandomAccess {
+
+		private final int index;
+		private final boolean row;
+
+		Line(int index, boolean row) {
+			this.index = index;
+			this.row = row;
+		}
+
+		public int size() {
+			return row ? columns : rows;
+		}
+
+		public Double get(int i) {
+			return row ? getDouble(index, i) : getDouble(i, index);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package collections2d;
+
+/**
+ * Thrown when an operation between matrices, or between a matrix and a vector,
+ * is attempted with operands whose dimensions do not agree.
+*/
+public class IncompatibleDimensionException extends MatrixException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -2771906035522815384L;
+
+	public IncompatibleDimensionException() {
+		super();
+	}
+
+	public IncompatibleDimensionException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,188 @@
+package collections2d;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of the interface {@code Matrix} for lower triangular matrices
+ * of {@code double} values, where only the elements on and below the diagonal
+ * are stored. Row {@code i}, the values {@code (i, 0)} to {@code (i, i)},
+ * starts at position {@code i(i+1)/2} of a single array, so a matrix of order
+ * {@code n} takes {@code n(n+1)/2} values, about half the memory of a full
+ * matrix.<p>
+ *
+ * Every element above the diagonal is zero: it can be set to zero, which has
+ * no effect, but setting it to any other value throws an
+ * {@code IllegalArgumentException}. Products and triangular solves read the
+ * packed rows directly, without looking at the zeros.<p>
+ *
+ * The order of a {@code LowerTriangularMatrix} is fixed when it is created, so
+ * every operation that would change its dimension throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see UpperTriangularMatrix
+ * @see SymmetricMatrix
+ */
+public class LowerTriangularMatrix extends PackedMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = 8253075148817012617L;
+
+	/**
+	 * Constructs a lower triangular matrix of the specified order, with every
+	 * value zero.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @throws IllegalArgumentException if the order is negative or greater than
+	 *         {@link #MAX_ORDER}
+	 */
+	public LowerTriangularMatrix(int order) {
+		super(order, triangleLength(order));
+	}
+
+	/**
+	 * Returns a new lower triangular matrix with the values of the specified
+	 * matrix, which must be lower triangular.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new lower triangular matrix with the values of the specified matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws IllegalArgumentException if any element above the diagonal is
+	 *         not zero
+	 */
+	public static LowerTriangularMatrix copyOf(NumericMatrix m) {
+		checkSquare(m);
+		LowerTriangularMatrix l = new LowerTriangularMatrix(m.rowSize());
+		double[] row = new double[l.order];
+		for (int i = 0; i < l.order; i++) {
+			m.copyRowTo(i, 0, row, 0, l.order);
+			l.copyRowFrom(i, 0, row, 0, l.order);
+		}
+		return l;
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		return indexColumn > indexRow ? 0.0 : data[triangle(indexRow) + indexColumn];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if the element is above the diagonal and
+	 *         the new value is not zero
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		if (indexColumn > indexRow) {
+			if (newValue != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + indexColumn
+						+ ") is above the diagonal of a lower triangular matrix");
+			return 0.0;
+		}
+		int k = triangle(indexRow) + indexColumn;
+		double old = data[k];
+		data[k] = newValue;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		int stored = Math.max(0, Math.min(length, indexRow + 1 - fromColumn));
+		System.arraycopy(data, triangle(indexRow) + fromColumn, dest, destPos, stored);
+		Arrays.fill(dest, destPos + stored, destPos + length, 0.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if any of the values to be copied above
+	 *         the diagonal is not zero; no value is copied then
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		int stored = Math.max(0, Math.min(length, indexRow + 1 - fromColumn));
+		for (int j = stored; j < length; j++)
+			if (src[srcPos + j] != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + (fromColumn + j)
+						+ ") is above the diagonal of a lower triangular matrix");
+		System.arraycopy(src, srcPos, data, triangle(indexRow) + fromColumn, stored);
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified vector.
+	 *
+	 * @param x the vector, of length {@code rowSize()}
+	 * @return a new array with the product {@code L * x}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		checkLength(x);
+		double[] y = new double[order];
+		for (int i = 0, k = 0; i < order; i++) {
+			double s = 0;
+			for (int j = 0; j <= i; j++)
+				s += data[k++] * x[j];
+			y[i] = s;
+		}
+		return y;
+	}
+
+	/**
+	 * Solves {@code L * x = b} by forward substitution, reading each packed row
+	 * once.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of this matrix
+	 * @throws SingularMatrixException if any element of the diagonal is zero
+	 */
+	public double[] solve(double[] b) {
+		checkLength(b);
+		double[] x = new double[order];
+		for (int i = 0, k = 0; i < order; i++) {
+			double s = b[i];
+			for (int j = 0; j < i; j++)
+				s -= data[k++] * x[j];
+			double d = data[k++];
+			if (d == 0)
+				throw new SingularMatrixException("Matrix is singular");
+			x[i] = s / d;
+		}
+		return x;
+	}
+
+	/**
+	 * Solves {@code L^T * x = b}, the system of the transpose of this matrix,
+	 * by back substitution. Each packed row of this matrix is a column of the
+	 * transpose, which is read once, from the last one to the first one.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of this matrix
+	 * @throws SingularMatrixException if any element of the diagonal is zero
+	 */
+	public double[] solveTransposed(double[] b) {
+		checkLength(b);
+		double[] x = b.clone();
+		for (int i = order - 1; i >= 0; i--) {
+			int k = triangle(i);
+			double d = data[k + i];
+			if (d == 0)
+				throw new SingularMatrixException("Matrix is singular");
+			double xi = x[i] /= d;
+			for (int j = 0; j < i; j++)
+				x[j] -= data[k + j] * xi;
+		}
+		return x;
+	}
+}
@@ -0,0 +1,479 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+import collections2d.io.MatrixFormat;
+
+/**
+ * Implementation of the interface {@code Matrix} for {@code double} values
+ * stored in a file, which is mapped into memory instead of being read into the
+ * heap. The operating system pages the file in and out of memory as it is
+ * accessed, so a matrix can be much larger than the heap, and its values are
+ * shared with any other process that maps the same file.<p>
+ *
+ * The file starts with a header of {@value #HEADER_SIZE} bytes, holding a magic
+ * number, the version of the format, the number of rows, the number of
+ * columns, a tag of the dense type and the number of values, followed by the
+ * values in row-major order, with no padding. This is the format in which
+ * {@link collections2d.io.MatrixWriter} writes a dense matrix. Every
+ * number is stored in little-endian byte order. Since the values are used
+ * where they are, opening an existing file only reads the header.<p>
+ *
+ * The file is mapped in chunks of whole rows of at most one gigabyte each,
+ * since a single mapping cannot address more than two gigabytes.
+ * Random access to an element is a division and a read from one chunk, and a
+ * row is always copied from a single chunk.<p>
+ *
+ * The dimension of a {@code MappedDoubleMatrix} is fixed when its file is
+ * created, so every operation that would change it throws an
+ * {@code UnsupportedOperationException}. The values written are visible in the
+ * file at once for other mappings of it, and {@link #force()} writes them to
+ * the storage device. {@link #close()} closes the file, after which any
+ * access to this matrix throws an {@code IllegalStateException}; the memory of
+ * the mappings is released when they are garbage collected.<p>
+ *
+ * This matrix does not permit null elements.
+ *
+ * @see NumericMatrix
+ * @see DoubleMatrix
+ */
+public class MappedDoubleMatrix extends AbstractMatrix<Double>
+		implements NumericMatrix, RandomAccess, Closeable
+{
+
+	/**
+	 * Size in bytes of the header, which keeps the values aligned to eight bytes.
+	 */
+	public final static int HEADER_SIZE = MatrixFormat.HEADER_SIZE;
+
+	/**
+	 * Maximum size in bytes of each mapped chunk of the file.
+	 */
+	private final static int MAX_CHUNK_SIZE = 1 << 30;
+
+	private final FileChannel channel;
+
+	private final boolean readOnly;
+
+	/**
+	 * Mapped chunks of the file, each one holding {@code rowsPerChunk} rows,
+	 * except for the last one. {@code null} once the matrix is closed.
+	 */
+	private MappedByteBuffer[] chunks;
+
+	/**
+	 * Views of the chunks as values.
+	 */
+	private DoubleBuffer[] values;
+
+	private final int rowsPerChunk;
+
+	/**
+	 * The number of rows this MappedDoubleMatrix has.
+	 */
+	private final int numberOfRows;
+	/**
+	 * The number of columns this MappedDoubleMatrix has.
+	 */
+	private final int numberOfColumns;
+
+	private MappedDoubleMatrix(FileChannel channel, boolean readOnly, int rows, int columns) throws IOException {
+		this.channel = channel;
+		this.readOnly = readOnly;
+		this.numberOfRows = rows;
+		this.numberOfColumns = columns;
+		long rowBytes = (long) columns * Double.BYTES;
+		if (rowBytes > MAX_CHUNK_SIZE)
+			throw new IllegalArgumentException("Row of " + columns + " columns is too large to be mapped");
+		rowsPerChunk = columns == 0 ? 1 : (int) (MAX_CHUNK_SIZE / rowBytes);
+		int count = (rows + rowsPerChunk - 1) / rowsPerChunk;
+		chunks = new MappedByteBuffer[count];
+		values = new DoubleBuffer[count];
+		FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+		for (int k = 0; k < count; k++) {
+			int chunkRows = Math.min(rowsPerChunk, rows - k * rowsPerChunk);
+			long position = HEADER_SIZE + k * rowsPerChunk * rowBytes;
+			chunks[k] = channel.map(mode, position, chunkRows * rowBytes);
+			chunks[k].order(ByteOrder.LITTLE_ENDIAN);
+			values[k] = chunks[k].asDoubleBuffer();
+		}
+	}
+
+	/**
+	 * Creates a new file, or truncates an existing one, for a matrix of the
+	 * specified dimension, and maps it. Every value of the new matrix is zero;
+	 * on most file systems the space for the values is only allocated as they
+	 * are written.
+	 *
+	 * @param file the file of the matrix
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @return a new matrix backed by the file
+	 * @throws IllegalArgumentException if any of the dimensions is negative, or
+	 *         a row is too large to be mapped
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MappedDoubleMatrix create(Path file, int rows, int columns) throws IOException {
+		if (rows < 0 || columns < 0)
+			throw new IllegalArgumentException("Illegal dimension: " + rows + "x" + columns);
+		if (rows == 0 || columns == 0)
+			rows = columns = 0;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MatrixFormat.MAGIC).putInt(MatrixFormat.VERSION).putInt(rows).putInt(columns)
+					.putInt(MatrixFormat.DENSE).putInt(0).putLong((long) rows * columns).rewind();
+			while (header.hasRemaining())
+				channel.write(header, header.position());
+			return new MappedDoubleMatrix(channel, false, rows, columns);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens and maps the file of an existing matrix, for reading and writing.
+	 *
+	 * @param file the file of the matrix
+	 * @return a matrix backed by the file
+	 * @throws IOException if an I/O error occurs, or the file is not a matrix
+	 */
+	public static MappedDoubleMatrix open(Path file) throws IOException {
+		return open(file, false);
+	}
+
+	/**
+	 * Opens and maps the file of an existing matrix.
+	 *
+	 * @param file the file of the matrix
+	 * @param readOnly whether the matrix is only to be read, in which case
+	 *        every write throws an {@code UnsupportedOperationException}
+	 * @return a matrix backed by the file
+	 * @throws IOException if an I/O error occurs, or the file is not a matrix
+	 */
+	public static MappedDoubleMatrix open(Path file, boolean readOnly) throws IOException {
+		FileChannel channel = readOnly ? FileChannel.open(file, StandardOpenOption.READ)
+				: FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining())
+				if (channel.read(header, header.position()) < 0)
+					throw new IOException("Not a matrix file: " + file);
+			header.flip();
+			int magic = header.getInt(), version = header.getInt();
+			int rows = header.getInt(), columns = header.getInt(), type = header.getInt();
+			if (magic != MatrixFormat.MAGIC)
+				throw new IOException("Not a matrix file: " + file);
+			if (version != MatrixFormat.VERSION)
+				throw new IOException("Unsupported version " + version + " of matrix file: " + file);
+			if (type != MatrixFormat.DENSE)
+				throw new IOException("Not a dense matrix file: " + file);
+			if (rows < 0 || columns < 0
+					|| channel.size() < HEADER_SIZE + (long) rows * columns * Double.BYTES)
+				throw new IOException("Truncated matrix file: " + file);
+			return new MappedDoubleMatrix(channel, readOnly, rows, columns);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/**
+	 * Returns the number of elements in this matrix, or {@code Integer.MAX_VALUE}
+	 * if there are more elements than that.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) numberOfRows * numberOfColumns;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix.
+	 * @return dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(numberOfColumns, numberOfRows);
+	}
+
+	/**
+	 * Returns {@code true} if this matrix can only be read.
+	 *
+	 * @return {@code true} if this matrix was opened as read-only
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * Returns the view of the chunk that holds the specified row.
+	 */
+	private DoubleBuffer chunk(int indexRow) {
+		DoubleBuffer[] v = values;
+		if (v == null)
+			throw new IllegalStateException("Matrix is closed");
+		return v[indexRow / rowsPerChunk];
+	}
+
+	/**
+	 * Returns the index of the value at the specified coordinates within its chunk.
+	 */
+	private int offset(int indexRow, int indexColumn) {
+		return indexRow % rowsPerChunk * numberOfColumns + indexColumn;
+	}
+
+	private void checkWritable() {
+		if (readOnly)
+			throw new UnsupportedOperationException("Matrix is read-only");
+	}
+
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return chunk(indexRow).get(offset(indexRow, indexColumn));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UnsupportedOperationException if this matrix is read-only
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UnsupportedOperationException if this matrix is read-only
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		checkWritable();
+		DoubleBuffer chunk = chunk(indexRow);
+		int k = offset(indexRow, indexColumn);
+		double old = chunk.get(k);
+		chunk.put(k, newValue);
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		chunk(indexRow).get(offset(indexRow, fromColumn), dest, destPos, length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UnsupportedOperationException if this matrix is read-only
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		checkWritable();
+		chunk(indexRow).put(offset(indexRow, fromColumn), src, srcPos, length);
+	}
+
+	/**
+	 * Returns the row at the specified position in this matrix.
+	 * The returned list is a view over the mapped file, so no values are
+	 * copied, and changes made with its {@code set} method are written through
+	 * to this matrix.
+	 *
+	 * @param  indexRow index of the row to return
+	 * @return the row at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new Line(indexRow, true);
+	}
+
+	/**
+	 * Returns the column at the specified position in this matrix.
+	 * The returned list is a view over the mapped file, so no values are
+	 * copied, and changes made with its {@code set} method are written through
+	 * to this matrix.
+	 *
+	 * @param  indexColumn index of the column to return
+	 * @return the column at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new Line(indexColumn, false);
+	}
+
+	/**
+	 * Replaces the row at the specified position in this matrix with the
+	 * specified row.
+	 *
+	 * @throws UnsupportedOperationException if this matrix is read-only
+	 * @throws NullPointerException if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the row is
+	 *         different than the number of columns
+	 */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		if (newRow.size() != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		checkWritable();
+		double[] row = new double[numberOfColumns];
+		int j = 0;
+		for (Double e : newRow)
+			row[j++] = e;
+		List<Double> replaced = new ArrayList<>(getRow(indexRow));
+		copyRowFrom(indexRow, 0, row, 0, numberOfColumns);
+		return replaced;
+	}
+
+	/**
+	 * Replaces the column at the specified position in this matrix with the
+	 * specified column.
+	 *
+	 * @throws UnsupportedOperationException if this matrix is read-only
+	 * @throws NullPointerException if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the column is
+	 *         different than the number of rows
+	 */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		if (newColumn.size() != numberOfRows)
+			throw new IncompatibleCollectionSizeException();
+		checkWritable();
+		double[] column = new double[numberOfRows];
+		int i = 0;
+		for (Double e : newColumn)
+			column[i++] = e;
+		List<Double> replaced = new ArrayList<>(numberOfRows);
+		for (i = 0; i < numberOfRows; i++)
+			replaced.add(setDouble(i, indexColumn, column[i]));
+		return replaced;
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeRow(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeColumn(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()}.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Writes any change of the values of this matrix to the storage device
+	 * that contains its file.
+	 *
+	 * @throws IllegalStateException if this matrix is closed
+	 */
+	public void force() {
+		MappedByteBuffer[] c = chunks;
+		if (c == null)
+			throw new IllegalStateException("Matrix is closed");
+		if (!readOnly)
+			for (MappedByteBuffer chunk : c)
+				chunk.force();
+	}
+
+	/**
+	 * Closes the file of this matrix. Any later access to this matrix throws an
+	 * {@code IllegalStateException}. Closing a closed matrix has no effect.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		if (chunks != null) {
+			chunks = null;
+			values = null;
+			channel.close();
+		}
+	}
+
+	/**
+	 * Live view of a row or a column of this matrix.
+	 */
+	private class Line extends AbstractList<Double> implements RandomAccess {
+
+		private final int index;
+		private final boolean row;
+
+		Line(int index, boolean row) {
+			this.index = index;
+			this.row = row;
+		}
+
+		public int size() {
+			return row ? numberOfColumns : numberOfRows;
+		}
+
+		public Double get(int i) {
+			return row ? getDouble(index, i) : getDouble(i, index);
+		}
+
+		public Double set(int i, Double element) {
+			return row ? setDouble(index, i, element) : setDouble(i, index, element);
+		}
+	}
+}
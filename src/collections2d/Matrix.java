@@ -268,6 +268,58 @@ public interface Matrix<E> extends Collection2D<E> {
      */
 	void addColumn(int index, Collection<E> col);
 
+    /**
+     * Appends all of the specified rows to the end of this matrix, in the
+     * order they are returned by the specified collection's iterator
+     * (optional operation).
+     *
+     * @param rows rows to be appended to this matrix
+     * @return {@code true} if this matrix changed as a result of the call
+     * @throws UnsupportedOperationException if the {@code addRows} operation
+     *         is not supported by this matrix
+     * @throws ClassCastException if the class of a specified row
+     *         prevents it from being added to this matrix
+     * @throws NullPointerException if the specified collection is null, or
+     *         contains a null row and this matrix does not permit null rows
+     * @throws IllegalArgumentException if some property of a specified row
+     *         prevents it from being added to this matrix
+     */
+	boolean addRows(Collection<? extends Collection<E>> rows);
+
+    /**
+     * Appends all of the specified columns to the end of this matrix, in the
+     * order they are returned by the specified collection's iterator
+     * (optional operation).
+     *
+     * @param columns columns to be appended to this matrix
+     * @return {@code true} if this matrix changed as a result of the call
+     * @throws UnsupportedOperationException if the {@code addColumns} operation
+     *         is not supported by this matrix
+     * @throws ClassCastException if the class of a specified column
+     *         prevents it from being added to this matrix
+     * @throws NullPointerException if the specified collection is null, or
+     *         contains a null column and this matrix does not permit null columns
+     * @throws IllegalArgumentException if some property of a specified column
+     *         prevents it from being added to this matrix
+     */
+	boolean addColumns(Collection<? extends Collection<E>> columns);
+
+    /**
+     * Appends all of the rows of the specified matrix to the end of this
+     * matrix, in order (optional operation).
+     *
+     * @param m matrix whose rows are to be appended to this matrix
+     * @return {@code true} if this matrix changed as a result of the call
+     * @throws UnsupportedOperationException if the {@code addAll} operation
+     *         is not supported by this matrix
+     * @throws ClassCastException if the class of an element of the specified
+     *         matrix prevents it from being added to this matrix
+     * @throws NullPointerException if the specified matrix is null
+     * @throws IllegalArgumentException if some property of the rows of the
+     *         specified matrix prevents them from being added to this matrix
+     */
+	boolean addAll(Matrix<? extends E> m);
+
     /**
      * Returns the row at the specified position in this matrix.
      *
@@ -397,7 +449,13 @@ public interface Matrix<E> extends Collection2D<E> {
      * with its index {@code indexRow}, and the column specified with its index {@code indexColumn} are not included
      * in the returned martrix.  
      * Non-structural changes in the returned matrix are reflected in this matrix, and vice-versa.
-     * The returned matrix supports all of the optional matrix operations.
+     * The returned matrix supports all of the optional matrix operations that do
+     * not change its dimension, and its own sub matrices are views of this matrix too.
+     *
+     * <p>The semantics of the returned matrix become undefined if this matrix is
+     * structurally modified in any way other than via the returned matrix. An
+     * independent copy can be made by adding the returned matrix to a new matrix
+     * with {@link #addAll(Matrix)}.
      * 
      * @param indexRowRemove index of the row not to include on the sub matrix
      * @param indexColumnRemove index of the column not to include on the sub matrix
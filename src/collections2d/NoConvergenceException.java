@@ -0,0 +1,22 @@
+package collections2d;
+
+/**
+ * Thrown when an iterative numeric routine, such as an eigenvalue solver, does
+ * not converge within its maximum number of iterations.
+*/
+public class NoConvergenceException extends MatrixException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 6086403935584129722L;
+
+	public NoConvergenceException() {
+		super();
+	}
+
+	public NoConvergenceException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,22 @@
+package collections2d;
+
+/**
+ * Thrown when an operation needs a symmetric positive-definite matrix, such as
+ * a Cholesky decomposition, and the matrix is not positive definite.
+*/
+public class NotPositiveDefiniteMatrixException extends MatrixException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -2457303186841052937L;
+
+	public NotPositiveDefiniteMatrixException() {
+		super();
+	}
+
+	public NotPositiveDefiniteMatrixException(String msg) {
+		super(msg);
+	}
+
+}
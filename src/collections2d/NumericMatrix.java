@@ -0,0 +1,138 @@
+package collections2d;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A matrix of {@code double} values that can be read and written without boxing.
+ * Implementations keep their values in primitive storage, and the numeric
+ * routines of the {@code algebra} package only work through the methods of
+ * this interface, so they never create a {@code Double} per element.<p>
+ *
+ * The element-wise methods inherited from {@link Matrix} remain available, and
+ * behave as if each {@code Double} were unboxed or boxed around the primitive
+ * methods. Numeric matrices never contain null elements.
+ *
+ * @see DoubleMatrix
+ */
+public interface NumericMatrix extends Matrix<Double> {
+
+	/**
+	 * Returns the value at the specified coordinates in this matrix, without
+	 * boxing it.
+	 *
+	 * @param indexRow index of the row where the value is to return
+	 * @param indexColumn index of the column where the value is to return
+	 * @return the value at the specified coordinates in this matrix
+	 * @throws IndexOutOfBoundsException if any of the indices is out of range
+	 *         ({@code indexRow < 0 || indexRow >= rowSize()
+	 *         || indexColumn < 0 || indexColumn >= columnSize()})
+	 */
+	double getDouble(int indexRow, int indexColumn);
+
+	/**
+	 * Replaces the value at the specified coordinates in this matrix with the
+	 * specified value, without boxing it (optional operation).
+	 *
+	 * @param indexRow index of the row where the value is to replace
+	 * @param indexColumn index of the column where the value is to replace
+	 * @param newValue value to be stored at the specified position
+	 * @return the value previously at the specified coordinates
+	 * @throws UnsupportedOperationException if the {@code setDouble} operation
+	 *         is not supported by this matrix
+	 * @throws IndexOutOfBoundsException if any of the indices is out of range
+	 *         ({@code indexRow < 0 || indexRow >= rowSize()
+	 *         || indexColumn < 0 || indexColumn >= columnSize()})
+	 */
+	double setDouble(int indexRow, int indexColumn, double newValue);
+
+	/**
+	 * Copies {@code length} consecutive values of the specified row, starting at
+	 * column {@code fromColumn}, into the destination array.
+	 *
+	 * @implSpec
+	 * The default implementation calls {@link #getDouble(int, int)} for each value.
+	 * Implementations backed by arrays should override it with a bulk copy.
+	 *
+	 * @param indexRow index of the row to copy from
+	 * @param fromColumn index of the first column to copy
+	 * @param dest the destination array
+	 * @param destPos starting position in the destination array
+	 * @param length the number of values to copy
+	 * @throws IndexOutOfBoundsException if the row or the column range is out of
+	 *         the bounds of this matrix, or the destination range is out of the
+	 *         bounds of the array
+	 */
+	default void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, rowSize());
+		Objects.checkFromIndexSize(fromColumn, length, columnSize());
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		for (int j = 0; j < length; j++)
+			dest[destPos + j] = getDouble(indexRow, fromColumn + j);
+	}
+
+	/**
+	 * Replaces {@code length} consecutive values of the specified row, starting at
+	 * column {@code fromColumn}, with the values of the source array (optional operation).
+	 *
+	 * @implSpec
+	 * The default implementation calls {@link #setDouble(int, int, double)} for each value.
+	 * Implementations backed by arrays should override it with a bulk copy.
+	 *
+	 * @param indexRow index of the row to copy to
+	 * @param fromColumn index of the first column to replace
+	 * @param src the source array
+	 * @param srcPos starting position in the source array
+	 * @param length the number of values to copy
+	 * @throws UnsupportedOperationException if the {@code setDouble} operation
+	 *         is not supported by this matrix
+	 * @throws IndexOutOfBoundsException if the row or the column range is out of
+	 *         the bounds of this matrix, or the source range is out of the
+	 *         bounds of the array
+	 */
+	default void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, rowSize());
+		Objects.checkFromIndexSize(fromColumn, length, columnSize());
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		for (int j = 0; j < length; j++)
+			setDouble(indexRow, fromColumn + j, src[srcPos + j]);
+	}
+
+	/**
+	 * Creates a {@link Spliterator.OfDouble} over the values of this matrix, row
+	 * after row. The spliterator reports {@link Spliterator#ORDERED},
+	 * {@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED} and
+	 * {@link Spliterator#NONNULL}, and splits its range of values in halves.
+	 *
+	 * @implSpec
+	 * The default implementation calls {@link #getDouble(int, int)} for each value.
+	 * Implementations backed by arrays should override it to read them directly.
+	 *
+	 * @return a {@code Spliterator.OfDouble} over the values of this matrix
+	 */
+	default Spliterator.OfDouble doubleSpliterator() {
+		return new AbstractMatrix.DoubleElementSpliterator(this, 0, (long) rowSize() * columnSize(), columnSize());
+	}
+
+	/**
+	 * Returns a sequential {@code DoubleStream} over the values of this matrix,
+	 * row after row.
+	 *
+	 * @return a sequential {@code DoubleStream} over the values
+	 */
+	default DoubleStream doubleStream() {
+		return StreamSupport.doubleStream(doubleSpliterator(), false);
+	}
+
+	/**
+	 * Returns a possibly parallel {@code DoubleStream} over the values of this matrix.
+	 *
+	 * @return a possibly parallel {@code DoubleStream} over the values
+	 */
+	default DoubleStream parallelDoubleStream() {
+		return StreamSupport.doubleStream(doubleSpliterator(), true);
+	}
+
+}
@@ -0,0 +1,297 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * Skeletal implementation of a square {@code NumericMatrix} with a structure,
+ * such as a triangle, a band or a diagonal, where only the values that the
+ * structure does not determine are stored, packed row by row in a single
+ * array with no room for the others. Subclasses decide which values are stored, and what the
+ * elements that are not stored are.<p>
+ *
+ * The order of a packed matrix is fixed when it is created, so every
+ * operation that would change its dimension throws an
+ * {@code UnsupportedOperationException}. A packed matrix does not permit null
+ * elements.
+ *
+ * @see SymmetricMatrix
+ * @see LowerTriangularMatrix
+ * @see UpperTriangularMatrix
+ * @see BandedMatrix
+ * @see DiagonalMatrix
+ */
+abstract class PackedMatrix extends AbstractMatrix<Double>
+		implements NumericMatrix, RandomAccess, Cloneable, java.io.Serializable
+{
+
+	@java.io.Serial
+	private static final long serialVersionUID = 3529136420768395072L;
+
+	/**
+	 * The largest order of a matrix whose triangle still fits in an array.
+	 */
+	public final static int MAX_ORDER = 65535;
+
+	/**
+	 * The largest length of the packed array.
+	 */
+	private final static int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * The number of rows and columns of this matrix.
+	 */
+	final int order;
+
+	/**
+	 * The stored values, row by row.
+	 */
+	double[] data;
+
+	/**
+	 * Constructs a matrix of the specified order, with a packed array of the
+	 * specified length.
+	 *
+	 * @throws IllegalArgumentException if the order is negative, or the array
+	 *         would be too large
+	 */
+	PackedMatrix(int order, long length) {
+		if (order < 0)
+			throw new IllegalArgumentException("Illegal order: " + order);
+		if (length > MAX_LENGTH)
+			throw new IllegalArgumentException("Matrix of order " + order + " is too large");
+		this.order = order;
+		this.data = new double[(int) length];
+	}
+
+	/**
+	 * Returns the number of values in a triangle of the specified order,
+	 * including the diagonal.
+	 */
+	static long triangleLength(int order) {
+		return (long) order * (order + 1) / 2;
+	}
+
+	/**
+	 * Returns the number of values in the first {@code n} rows of a lower
+	 * triangle, {@code n(n+1)/2}. The product fits in 32 bits as an unsigned
+	 * integer for every order up to {@link #MAX_ORDER}.
+	 */
+	static int triangle(int n) {
+		return (n * (n + 1)) >>> 1;
+	}
+
+	/**
+	 * Checks that the specified matrix is square, for the {@code copyOf}
+	 * methods of subclasses.
+	 */
+	static void checkSquare(Matrix<?> m) {
+		if (m.rowSize() != m.columnSize())
+			throw new IncompatibleDimensionException("Matrix " + m.rowSize() + "x" + m.columnSize() + " is not square");
+	}
+
+	/**
+	 * Checks that the length of a vector is the order of this matrix.
+	 */
+	void checkLength(double[] x) {
+		if (x.length != order)
+			throw new IncompatibleDimensionException("Vector of length " + x.length + " for a matrix of order " + order);
+	}
+
+	public int rowSize() {
+		return order;
+	}
+
+	public int columnSize() {
+		return order;
+	}
+
+	/**
+	 * Returns the number of elements in this matrix, including those that are
+	 * not stored, or {@code Integer.MAX_VALUE} if there are more elements than that.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) order * order;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	public boolean isEmpty() {
+		return order == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix.
+	 * @return dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(order, order);
+	}
+
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	/**
+	 * Returns the row at the specified position in this matrix.
+	 * The returned list is a view over this matrix, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexRow index of the row to return
+	 * @return the row at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, order);
+		return new Line(indexRow, true);
+	}
+
+	/**
+	 * Returns the column at the specified position in this matrix.
+	 * The returned list is a view over this matrix, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexColumn index of the column to return
+	 * @return the column at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, order);
+		return new Line(indexColumn, false);
+	}
+
+	/**
+	 * Replaces the row at the specified position in this matrix with the
+	 * specified row, with {@link #copyRowFrom copyRowFrom}.
+	 *
+	 * @throws NullPointerException if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the row is
+	 *         different than the number of columns
+	 */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, order);
+		if (newRow.size() != order)
+			throw new IncompatibleCollectionSizeException();
+		double[] row = new double[order];
+		int j = 0;
+		for (Double e : newRow)
+			row[j++] = e;
+		List<Double> replaced = new ArrayList<>(getRow(indexRow));
+		copyRowFrom(indexRow, 0, row, 0, order);
+		return replaced;
+	}
+
+	/**
+	 * Replaces the column at the specified position in this matrix with the
+	 * specified column, with {@link #setDouble setDouble}.
+	 *
+	 * @throws NullPointerException if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the column is
+	 *         different than the number of rows
+	 */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, order);
+		if (newColumn.size() != order)
+			throw new IncompatibleCollectionSizeException();
+		double[] column = new double[order];
+		int i = 0;
+		for (Double e : newColumn)
+			column[i++] = e;
+		List<Double> replaced = new ArrayList<>(order);
+		for (i = 0; i < order; i++)
+			replaced.add(setDouble(i, indexColumn, column[i]));
+		return replaced;
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeRow(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeColumn(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()}.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Returns a copy of this matrix, with a copy of its packed values.
+	 *
+	 * @return a clone of this matrix
+	 */
+	public Object clone() {
+		try {
+			PackedMatrix m = (PackedMatrix) super.clone();
+			m.data = data.clone();
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Live view of a row or a column of this matrix.
+	 */
+	private class Line extends AbstractList<Double> implements RandomAccess {
+
+		private final int index;
+		private final boolean row;
+
+		Line(int index, boolean row) {
+			this.index = index;
+			this.row = row;
+		}
+
+		public int size() {
+			return order;
+		}
+
+		public Double get(int i) {
+			return row ? getDouble(index, i) : getDouble(i, index);
+		}
+
+		public Double set(int i, Double element) {
+			return row ? setDouble(index, i, element) : setDouble(i, index, element);
+		}
+	}
+}
@@ -3,7 +3,13 @@ package collections2d;
 import java.util.Arrays;
 import java.util.Objects;
 import java.awt.Dimension;
+import java.awt.Point;
+import java.util.AbstractList;
 import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * Resizable-two-dimensional array implementation of the interface {@code Matrix}.
@@ -46,18 +52,18 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 * the length of this array buffer. Any empty RegularMatrix with rows ==
 	 * EMPTY_MATRIX will be expanded to the first row size.
 	 */
-	private Object[][] rows;
+	private transient Object[][] rows;
 
 	/**
 	 * The total rows this RegularMatrix can contain (this does NOT determine
 	 * whether a column can be added or not).
 	 */
-	private int currentRowCapacity;
+	private transient int currentRowCapacity;
 	/**
 	 * The total columns this RegularMatrix can contain (this does NOT determine
 	 * whether a row can be added or not).
 	 */
-	private int currentColumnCapacity;
+	private transient int currentColumnCapacity;
 	/**
 	 * The number of rows this RegularMatrix currently has.
 	 */
@@ -73,6 +79,37 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 
 	private boolean stillEmptyFromConstruction;
 
+	/**
+	 * The serializable fields of a {@code RegularMatrix}, which are the ones of
+	 * its first versions, so that each version reads the instances written by
+	 * the others. The rows are written trimmed to the dimension of the matrix.
+	 *
+	 * @serialField rows Object[][] the rows of the matrix, each one of
+	 *              {@code numberOfColumns} elements
+	 * @serialField currentRowCapacity int the number of rows
+	 * @serialField currentColumnCapacity int the number of columns
+	 * @serialField numberOfRows int the number of rows
+	 * @serialField numberOfColumns int the number of columns
+	 * @serialField numberOfElements int the number of elements
+	 * @serialField stillEmptyFromConstruction boolean {@code true} if no
+	 *              element has been added since the matrix was constructed
+	 */
+	@java.io.Serial
+	private static final java.io.ObjectStreamField[] serialPersistentFields = {
+			new java.io.ObjectStreamField("rows", Object[][].class),
+			new java.io.ObjectStreamField("currentRowCapacity", int.class),
+			new java.io.ObjectStreamField("currentColumnCapacity", int.class),
+			new java.io.ObjectStreamField("numberOfRows", int.class),
+			new java.io.ObjectStreamField("numberOfColumns", int.class),
+			new java.io.ObjectStreamField("numberOfElements", int.class),
+			new java.io.ObjectStreamField("stillEmptyFromConstruction", boolean.class) };
+
+	/**
+	 * Number of elements below which a search is not split across the common
+	 * {@code ForkJoinPool}.
+	 */
+	private final static int PARALLEL_SEARCH_THRESHOLD = 1 << 16;
+
 	/**
 	 * Constructs an empty RegularMatrix instance with an initial capacity of
 	 * {@code 3x3}.
@@ -218,6 +255,59 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 		}
 	}
 
+	/**
+	 * Saves the state of this {@code RegularMatrix} instance to a stream. Only
+	 * the elements within the dimension of the matrix are written, not the
+	 * unused capacity of the rows, which are copied only if they have any.
+	 */
+	@java.io.Serial
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		Object[][] trimmed = rows;
+		if (numberOfRows == 0)
+			trimmed = EMPTY_MATRIX;
+		else if (currentRowCapacity != numberOfRows || currentColumnCapacity != numberOfColumns) {
+			trimmed = new Object[numberOfRows][];
+			for (int i = 0; i < numberOfRows; i++)
+				trimmed[i] = Arrays.copyOf(rows[i], numberOfColumns);
+		}
+		java.io.ObjectOutputStream.PutField fields = s.putFields();
+		fields.put("rows", trimmed);
+		fields.put("currentRowCapacity", numberOfRows);
+		fields.put("currentColumnCapacity", numberOfColumns);
+		fields.put("numberOfRows", numberOfRows);
+		fields.put("numberOfColumns", numberOfColumns);
+		fields.put("numberOfElements", numberOfElements);
+		fields.put("stillEmptyFromConstruction", stillEmptyFromConstruction);
+		s.writeFields();
+	}
+
+	/**
+	 * Reconstitutes a {@code RegularMatrix} instance from a stream, with its
+	 * capacities trimmed to its dimension.
+	 */
+	@java.io.Serial
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		java.io.ObjectInputStream.GetField fields = s.readFields();
+		int rowCount = fields.get("numberOfRows", 0), columnCount = fields.get("numberOfColumns", 0);
+		int elementCount = fields.get("numberOfElements", 0);
+		if (rowCount < 0 || columnCount < 0 || elementCount != (long) rowCount * columnCount
+				|| !(fields.get("rows", null) instanceof Object[][] stored) || stored.length < rowCount)
+			throw new java.io.InvalidObjectException("Illegal dimension: " + rowCount + "x" + columnCount);
+		Object[][] trimmed = rowCount == 0 ? EMPTY_MATRIX : new Object[rowCount][];
+		for (int i = 0; i < rowCount; i++) {
+			Object[] row = stored[i];
+			if (row == null || row.length < columnCount)
+				throw new java.io.InvalidObjectException("Illegal row " + i);
+			trimmed[i] = row.length == columnCount && row.getClass() == Object[].class ? row
+					: Arrays.copyOf(row, columnCount, Object[].class);
+		}
+		rows = trimmed;
+		currentRowCapacity = numberOfRows = rowCount;
+		currentColumnCapacity = numberOfColumns = columnCount;
+		numberOfElements = elementCount;
+		stillEmptyFromConstruction = fields.get("stillEmptyFromConstruction", false);
+	}
+
 	/**
 	 * More efficient private method variant of {@code addRow()}.
 	 * Created for efficiency in {@code clone()} method and
@@ -271,8 +361,29 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 		}
 	}
 
+	/**
+	 * Returns a capacity at least as large as {@code minCapacity}, growing
+	 * {@code oldCapacity} by half of its value if that is enough.
+	 */
+	private static int newCapacity(int oldCapacity, int minCapacity, int defaultCapacity) {
+		int grown = oldCapacity + (oldCapacity >> 1);
+		if (grown - minCapacity <= 0)
+			return Math.max(minCapacity, defaultCapacity);
+		return grown < 0 ? Integer.MAX_VALUE - 8 : grown;
+	}
+
+	/**
+	 * Makes room for {@code count} more rows, growing the row capacity geometrically.
+	 */
+	private Object[][] growRows(int count) {
+		int minCapacity = numberOfRows + count;
+		if (minCapacity > currentRowCapacity)
+			increaseRowCapacity(newCapacity(currentRowCapacity, minCapacity, DEFAULT_MAX_ROWS_CAPACITY));
+		return rows;
+	}
+
 	private Object[][] increaseRowCapacity() {
-		return increaseRowCapacity(rowSize() + 1);
+		return growRows(1);
 	}
 
 	/**
@@ -290,8 +401,7 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 			return rows;
 		} else {
 			rows = new Object[currentRowCapacity = Math.max(DEFAULT_MAX_ROWS_CAPACITY,
-					newCapacity)][currentColumnCapacity];
-			Arrays.fill(rows, null);
+					newCapacity)][];
 			return rows;
 		}
 	}
@@ -319,8 +429,20 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 		}
 	}
 
+	/**
+	 * Makes room for {@code count} more columns, growing the column capacity
+	 * geometrically, so that appending columns one at a time does not
+	 * reallocate every row each time.
+	 */
+	private Object[][] growColumns(int count) {
+		int minCapacity = numberOfColumns + count;
+		if (minCapacity > currentColumnCapacity)
+			increaseColumnCapacity(newCapacity(currentColumnCapacity, minCapacity, DEFAULT_MAX_COLUMNS_CAPACITY));
+		return rows;
+	}
+
 	private Object[][] increaseColumnCapacity() {
-		return increaseColumnCapacity(columnSize() + 1);
+		return growColumns(1);
 	}
 
 	/**
@@ -331,19 +453,9 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 * @throws OutOfMemoryError if newColumnCapacity is less than zero
 	 */
 	private Object[][] increaseColumnCapacity(int newCapacity) {
-
-		if (stillEmptyFromConstruction) {
-			for (int i = 0; i < numberOfRows; i++) {
-				rows[i] = new Object[newCapacity];
-			}
-		}
-
-		else {
-			for (int i = 0; i < numberOfRows; i++) {
-				rows[i] = Arrays.copyOf(rows[i], newCapacity);
-				currentColumnCapacity = newCapacity;
-			}
-		}
+		for (int i = 0; i < numberOfRows; i++)
+			rows[i] = Arrays.copyOf(rows[i], newCapacity);
+		currentColumnCapacity = newCapacity;
 		return rows;
 	}
 
@@ -351,7 +463,7 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 * Checks if there is the necessity of increasing the column capacity.
 	 */
 	private void checkColumnCapacity(boolean newColumnWantsToBeAdded) {
-		if (newColumnWantsToBeAdded || stillEmptyFromConstruction) {
+		if (newColumnWantsToBeAdded && numberOfColumns == currentColumnCapacity) {
 			increaseColumnCapacity();
 		}
 	}
@@ -370,10 +482,8 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 */
 	protected void checkRowCompability(Collection<E> row) {
 		super.checkRowCompability(row);
-		if (isEmpty()) {
-			if (stillEmptyFromConstruction)
-				currentColumnCapacity = Math.max(row.size(), currentColumnCapacity);
-		}
+		if (isEmpty())
+			currentColumnCapacity = Math.max(row.size(), currentColumnCapacity);
 	}
 	
 	/**
@@ -389,13 +499,9 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 *                                  definition of <i>Regular</i> matrix
 	 */
 	protected void checkColumnCompability(Collection<E> column) {
-		super.checkRowCompability(column);
-		if (isEmpty()) {
-			if (stillEmptyFromConstruction)
-				Arrays.fill(rows = new Object[currentRowCapacity = Math.max(currentRowCapacity,
-						column.size())][currentColumnCapacity], null);
-			rows = increaseRowCapacity(currentRowCapacity);
-		}
+		super.checkColumnCompability(column);
+		if (isEmpty() && column.size() > currentRowCapacity)
+			increaseRowCapacity(column.size());
 	}
 
 	/** Appends the specified row to the end of this matrix.
@@ -435,18 +541,26 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 		stillEmptyFromConstruction = false;
 	}
 
-	private void addColumn(Object[][] rows, Collection<E> column, int index) {
-		checkColumnCompability(column);
+	/**
+	 * Inserts the specified column, already checked, at the specified position.
+	 * If the matrix is empty, a new array is allocated for each of its rows.
+	 */
+	private void addColumn(Object[][] rows, Object[] c, int index) {
+		if (isEmpty()) {
+			if (c.length == 0)
+				return;
+			numberOfColumns = 0;
+			numberOfRows = c.length;
+			for (int i = 0; i < numberOfRows; i++)
+				rows[i] = new Object[currentColumnCapacity];
+		}
 		checkColumnCapacity(true);
-		Object[] c = column.toArray();
-		numberOfRows = c.length;
+		rows = this.rows;
 		for (int i = 0; i < numberOfRows; i++) {
 			Object[] row = rows[i];
-			if (row == null) Arrays.fill(row = new Object[currentColumnCapacity], null);
+			System.arraycopy(row, index, row, index + 1, numberOfColumns - index);
 			row[index] = c[i];
-			this.rows[i] = row;
 		}
-
 		numberOfColumns++;
 		numberOfElements += c.length;
 		stillEmptyFromConstruction = false;
@@ -465,8 +579,7 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 *                                  definition of <i>Regular</i> matrix
      */
 	public boolean addColumn(Collection<E> col) {
-		addColumn(rows, col, numberOfColumns);
-		return true;
+		return super.addColumn(col);
 	}
 
     /**
@@ -486,25 +599,143 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
      */
 	public void addColumn(int index, Collection<E> col) {
 		super.addColumn(index, col);
-		checkColumnCapacity(true);
-		Object[] c = col.toArray();
-		numberOfRows = c.length;
+		addColumn(rows, col.toArray(), index);
+	}
+
+	/**
+	 * Appends all of the specified rows to the end of this matrix. Every row is
+	 * checked before any of them is added, and the row capacity is increased
+	 * at most once.
+	 *
+	 * @param newRows rows to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the collection is null or contains a
+	 *                              null row
+	 * @throws IncompatibleCollectionSizeException if any of the rows is
+	 *                              incompatible (the length of the row is
+	 *                              different than the number of columns)
+	 */
+	public boolean addRows(Collection<? extends Collection<E>> newRows) {
+		Object[][] arrays = new Object[newRows.size()][];
+		int count = 0;
+		for (Collection<E> row : newRows) {
+			Objects.requireNonNull(row);
+			arrays[count++] = row.toArray();
+		}
+		return appendRows(arrays, count, count == 0 ? 0 : arrays[0].length, true);
+	}
+
+	/**
+	 * Appends all of the rows of the specified matrix to the end of this matrix,
+	 * sizing the storage once. Rows of another {@code RegularMatrix} are copied
+	 * straight from its storage, and this matrix may be appended to itself.
+	 *
+	 * @param m matrix whose rows are to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the matrix is null
+	 * @throws IncompatibleCollectionSizeException if the rows of the matrix are
+	 *                              incompatible (their length is different than
+	 *                              the number of columns)
+	 */
+	public boolean addAll(Matrix<? extends E> m) {
+		int count = m.rowSize();
+		Object[][] arrays = new Object[count][];
+		if (m instanceof RegularMatrix<?> r) {
+			System.arraycopy(r.rows, 0, arrays, 0, count);
+			return appendRows(arrays, count, r.numberOfColumns, false);
+		}
+		for (int i = 0; i < count; i++)
+			arrays[i] = m.getRow(i).toArray();
+		return appendRows(arrays, count, m.columnSize(), true);
+	}
+
+	/**
+	 * Appends all of the specified columns to the end of this matrix. Every
+	 * column is checked before any of them is added, and the column capacity is
+	 * increased at most once.
+	 *
+	 * @param newColumns columns to be appended to this matrix
+	 * @return {@code true} if this matrix changed as a result of the call
+	 * @throws NullPointerException if the collection is null or contains a
+	 *                              null column
+	 * @throws IncompatibleCollectionSizeException if any of the columns is
+	 *                              incompatible (the length of the column is
+	 *                              different than the number of rows)
+	 */
+	public boolean addColumns(Collection<? extends Collection<E>> newColumns) {
+		Object[][] arrays = new Object[newColumns.size()][];
+		int count = 0;
+		for (Collection<E> column : newColumns) {
+			Objects.requireNonNull(column);
+			arrays[count++] = column.toArray();
+		}
+		if (count == 0)
+			return false;
+		int length = arrays[0].length;
+		for (int c = 0; c < count; c++)
+			if (arrays[c].length != length || (!isEmpty() && length != numberOfRows))
+				throw new IncompatibleCollectionSizeException();
+		if (length == 0)
+			return false;
+		if (isEmpty()) {
+			if (length > currentRowCapacity)
+				increaseRowCapacity(length);
+			numberOfColumns = 0;
+			numberOfRows = length;
+			currentColumnCapacity = Math.max(count, currentColumnCapacity);
+			for (int i = 0; i < numberOfRows; i++)
+				rows[i] = new Object[currentColumnCapacity];
+		} else {
+			growColumns(count);
+		}
 		for (int i = 0; i < numberOfRows; i++) {
-			Object[] currentRow = rows[i];
-			if (currentRow == null)
-				currentRow = new Object[currentColumnCapacity];
-//				Arrays.fill(currentRow = new Object[currentColumnCapacity], null);
-			System.arraycopy(currentRow, index, currentRow, index + 1, currentColumnCapacity - index - 1);
-			currentRow[index] = c[i];
-			rows[i] = currentRow;
+			Object[] row = rows[i];
+			for (int c = 0; c < count; c++)
+				row[numberOfColumns + c] = arrays[c][i];
 		}
-		numberOfColumns++;
-		numberOfElements += c.length;
+		numberOfColumns += count;
+		numberOfElements += count * length;
 		stillEmptyFromConstruction = false;
+		return true;
+	}
+
+	/**
+	 * Appends the first {@code columns} elements of each of the first
+	 * {@code count} arrays as new rows. If {@code checkLengths} is set, every
+	 * array must have exactly {@code columns} elements; otherwise the arrays are
+	 * rows of another matrix, padded to its column capacity.
+	 */
+	private boolean appendRows(Object[][] arrays, int count, int columns, boolean checkLengths) {
+		if (checkLengths)
+			for (int i = 0; i < count; i++)
+				if (arrays[i].length != columns)
+					throw new IncompatibleCollectionSizeException();
+		if (count == 0 || columns == 0)
+			return false;
+		if (isEmpty()) {
+			numberOfRows = 0;
+			currentColumnCapacity = Math.max(columns, currentColumnCapacity);
+		} else if (columns != numberOfColumns) {
+			throw new IncompatibleCollectionSizeException();
+		}
+		growRows(count);
+		for (int i = 0; i < count; i++) {
+			Object[] row = new Object[currentColumnCapacity];
+			System.arraycopy(arrays[i], 0, row, 0, columns);
+			rows[numberOfRows++] = row;
+		}
+		numberOfColumns = columns;
+		numberOfElements += count * columns;
+		stillEmptyFromConstruction = false;
+		return true;
 	}
 
     /**
      * Returns the row at the specified position in this matrix.
+     * The returned list is a view backed by this matrix, so no elements are
+     * copied: changes made with its {@code set} method are written through to
+     * this matrix, and non-structural changes in this matrix are visible in it.
+     * The view is no longer valid once the matrix is structurally modified.
      *
      * @param  indexRow index of the row to return
      * @return the row at the specified position in this matrix
@@ -512,7 +743,7 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
      */
 	public Collection<E> getRow(int indexRow) {
 		Objects.checkIndex(indexRow, rowSize());
-		return rowAt(indexRow);
+		return new RowView(indexRow);
 	}
 
 	protected Object[] columnToArray(int indexColumn) {
@@ -522,9 +753,10 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	}
 
 	/**
-	 * Just the main stuff of {@link #getRow(int)}
+	 * Copy of the row at the specified position, used when the row is
+	 * about to be removed or replaced and a view would no longer be valid.
 	 * @param indexRow index of the row to return
-	 * @return the row at the specified position in this matrix
+	 * @return a copy of the row at the specified position in this matrix
 	 */
 	@SuppressWarnings("unchecked")
 	private Collection<E> rowAt(int indexRow) {
@@ -533,20 +765,25 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 
     /**
      * Returns the column at the specified position in this matrix.
+     * The returned list is a view backed by this matrix, so no elements are
+     * copied: changes made with its {@code set} method are written through to
+     * this matrix, and non-structural changes in this matrix are visible in it.
+     * The view is no longer valid once the matrix is structurally modified.
      *
-     * @param  indexColumn index of the element to return
+     * @param  indexColumn index of the column to return
      * @return the column at the specified position in this matrix
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
 	public Collection<E> getColumn(int indexColumn) {
 		Objects.checkIndex(indexColumn, numberOfColumns);
-		return columnAt(indexColumn);
+		return new ColumnView(indexColumn);
 	}
 
 	/**
-	 * Just the main stuff of {@link #getColumn(int)}
-	 * @param indexColumn index of the row to return
-	 * @return the column at the specified position in this matrix
+	 * Copy of the column at the specified position, used when the column is
+	 * about to be removed or replaced and a view would no longer be valid.
+	 * @param indexColumn index of the column to return
+	 * @return a copy of the column at the specified position in this matrix
 	 */	
 	@SuppressWarnings("unchecked")
 	private Collection<E> columnAt(int indexColumn) {
@@ -603,9 +840,11 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 	 * @param index the index of the row to be removed
 	 */
 	private void fastRowRemove(Object[][] r, int index) {
+		if (numberOfRows == 1) {clear();return;}
 		System.arraycopy(r, index + 1, r, index, currentRowCapacity - index - 1);
 		r[currentRowCapacity - 1] = null;
 		numberOfRows--;
+		numberOfElements -= numberOfColumns;
 	}
 
     /**
@@ -722,37 +961,257 @@ public class RegularMatrix<E> extends AbstractRegularMatrix<E>
 		rows[indexRow1] = row2;
 		rows[indexRow2] = row1;
 	}
-	
-	@Override
-	public RegularMatrix<E> subMatrix(int indexRow, int indexColumn) {
-		//TODO SUBMATRIX PRIVATE CLASS
-		Objects.checkIndex(indexRow, numberOfRows);
-		Objects.checkIndex(indexColumn, numberOfColumns);
-		RegularMatrix<E> s = new RegularMatrix<>(numberOfRows-1,numberOfColumns);
-		copyValues(s);
-		s.numberOfElements -= numberOfColumns;
-		for (int i = 0; i < numberOfRows; i++) {
-			if (i == indexRow) continue;
-			s.numberOfElements--;
-			int j = i > indexRow? i - 1 : i;
-			s.rows[j] = Arrays.copyOf(rows[i], currentColumnCapacity);
+
+	/**
+	 * Returns {@code true} if this matrix contains the specified element.
+	 * The rows are scanned directly, without creating any object.
+	 *
+	 * @param o element whose presence in this matrix is to be tested
+	 * @return {@code true} if this matrix contains the specified element
+	 */
+	public boolean contains(Object o) {
+		return find(o, false) >= 0;
+	}
+
+	/**
+	 * Returns the coordinates of the first occurrence of the specified element
+	 * in this matrix, or null if this matrix does not contain the element.
+	 * The rows are scanned directly, and a {@code Point} is only created for
+	 * the position found. The scan of large matrices is split by ranges of rows
+	 * across the common {@code ForkJoinPool}.
+	 *
+	 * @param o element to search for
+	 * @return the coordinates of the first occurrence of the specified element,
+	 *         or null if this matrix does not contain the element
+	 */
+	public Point indexOf(Object o) {
+		return toPoint(find(o, false));
+	}
+
+	/**
+	 * Returns the coordinates of the last occurrence of the specified element
+	 * in this matrix, or null if this matrix does not contain the element.
+	 * The rows are scanned directly, and a {@code Point} is only created for
+	 * the position found. The scan of large matrices is split by ranges of rows
+	 * across the common {@code ForkJoinPool}.
+	 *
+	 * @param o element to search for
+	 * @return the coordinates of the last occurrence of the specified element,
+	 *         or null if this matrix does not contain the element
+	 */
+	public Point lastIndexOf(Object o) {
+		return toPoint(find(o, true));
+	}
+
+	/**
+	 * Returns the packed position of the first (or last) occurrence of the
+	 * specified element, or {@code -1} if there is none.
+	 */
+	private long find(Object o, boolean last) {
+		if ((long) numberOfRows * numberOfColumns >= PARALLEL_SEARCH_THRESHOLD
+				&& numberOfRows > 1 && ForkJoinPool.getCommonPoolParallelism() > 1)
+			return ForkJoinPool.commonPool().invoke(new Search(o, last, 0, numberOfRows));
+		return scan(o, last, 0, numberOfRows);
+	}
+
+	/**
+	 * Sequential search in the rows from {@code from} (inclusive) to {@code to}
+	 * (exclusive).
+	 */
+	private long scan(Object o, boolean last, int from, int to) {
+		Object[][] rows = this.rows;
+		int columns = numberOfColumns;
+		if (last) {
+			for (int i = to - 1; i >= from; i--) {
+				int j = lastIndexOfRange(rows[i], o, columns);
+				if (j >= 0)
+					return position(i, j);
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				int j = indexOfRange(rows[i], o, columns);
+				if (j >= 0)
+					return position(i, j);
+			}
 		}
-		s.numberOfRows--;
-		s.fastColumnRemove(s.rows, indexColumn);
-		s.trimToSize();
-		return s;
+		return -1;
 	}
-	
+
+	private static int indexOfRange(Object[] row, Object o, int end) {
+		if (o == null) {
+			for (int j = 0; j < end; j++)
+				if (row[j] == null)
+					return j;
+		} else {
+			for (int j = 0; j < end; j++)
+				if (o.equals(row[j]))
+					return j;
+		}
+		return -1;
+	}
+
+	private static int lastIndexOfRange(Object[] row, Object o, int end) {
+		if (o == null) {
+			for (int j = end - 1; j >= 0; j--)
+				if (row[j] == null)
+					return j;
+		} else {
+			for (int j = end - 1; j >= 0; j--)
+				if (o.equals(row[j]))
+					return j;
+		}
+		return -1;
+	}
+
 	/**
-	 * Copy essential values
-	 * @param rm matrix where the values of this matrix will be copied
+	 * Splits a search in halves of rows. The half that comes first in the
+	 * order of the search is computed in the current thread, and the other
+	 * half is only joined if nothing was found in the first one.
 	 */
-	private void copyValues(RegularMatrix<?> rm) {
-		rm.currentColumnCapacity = currentColumnCapacity;
-		rm.currentRowCapacity = currentRowCapacity;
-		rm.numberOfColumns = numberOfColumns;
-		rm.numberOfElements = numberOfElements;
-		rm.numberOfRows = numberOfRows;
+	private final class Search extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = -3094771250618209512L;
+
+		private final transient Object o;
+		private final boolean last;
+		private final int from, to;
+
+		Search(Object o, boolean last, int from, int to) {
+			this.o = o;
+			this.last = last;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected Long compute() {
+			if ((long) (to - from) * numberOfColumns < PARALLEL_SEARCH_THRESHOLD || to - from < 2)
+				return scan(o, last, from, to);
+			int mid = (from + to) >>> 1;
+			Search first = last ? new Search(o, last, mid, to) : new Search(o, last, from, mid);
+			Search second = last ? new Search(o, last, from, mid) : new Search(o, last, mid, to);
+			second.fork();
+			long found = first.compute();
+			if (found >= 0) {
+				second.cancel(false);
+				return found;
+			}
+			return second.join();
+		}
 	}
 	
-}
+	/**
+	 * Live view of a row of this matrix, reading and writing the row array
+	 * directly.
+	 */
+	private class RowView extends AbstractList<E> implements RandomAccess {
+
+		private final int indexRow;
+
+		RowView(int indexRow) {
+			this.indexRow = indexRow;
+		}
+
+		public int size() {
+			return numberOfColumns;
+		}
+
+		public E get(int index) {
+			Objects.checkIndex(index, numberOfColumns);
+			return elementAt(indexRow, index);
+		}
+
+		public E set(int index, E element) {
+			Objects.checkIndex(index, numberOfColumns);
+			E old = elementAt(indexRow, index);
+			rows[indexRow][index] = element;
+			return old;
+		}
+
+		public int indexOf(Object o) {
+			Object[] r = rows[indexRow];
+			if (o == null) {
+				for (int j = 0; j < numberOfColumns; j++)
+					if (r[j] == null)
+						return j;
+			} else {
+				for (int j = 0; j < numberOfColumns; j++)
+					if (o.equals(r[j]))
+						return j;
+			}
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public Object[] toArray() {
+			return Arrays.copyOf(rows[indexRow], numberOfColumns);
+		}
+
+		@SuppressWarnings("unchecked")
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			Object[] r = rows[indexRow];
+			for (int j = 0; j < numberOfColumns; j++)
+				action.accept((E) r[j]);
+		}
+	}
+
+	/**
+	 * Live view of a column of this matrix, reading and writing the same
+	 * position of every row array.
+	 */
+	private class ColumnView extends AbstractList<E> implements RandomAccess {
+
+		private final int indexColumn;
+
+		ColumnView(int indexColumn) {
+			this.indexColumn = indexColumn;
+		}
+
+		public int size() {
+			return numberOfRows;
+		}
+
+		public E get(int index) {
+			Objects.checkIndex(index, numberOfRows);
+			return elementAt(index, indexColumn);
+		}
+
+		public E set(int index, E element) {
+			Objects.checkIndex(index, numberOfRows);
+			E old = elementAt(index, indexColumn);
+			rows[index][indexColumn] = element;
+			return old;
+		}
+
+		public int indexOf(Object o) {
+			if (o == null) {
+				for (int i = 0; i < numberOfRows; i++)
+					if (rows[i][indexColumn] == null)
+						return i;
+			} else {
+				for (int i = 0; i < numberOfRows; i++)
+					if (o.equals(rows[i][indexColumn]))
+						return i;
+			}
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public Object[] toArray() {
+			return columnToArray(indexColumn);
+		}
+
+		public void forEach(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			for (int i = 0; i < numberOfRows; i++)
+				action.accept(elementAt(i, indexColumn));
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,416 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * Implementation of the interface {@code Matrix} for {@code double} values
+ * stored off the Java heap, in a {@link MemorySegment}. The values of a
+ * {@code SegmentDoubleMatrix} are not scanned nor moved by the garbage
+ * collector, so large matrices neither inflate the heap nor lengthen its
+ * pauses.<p>
+ *
+ * The values are stored in row-major order, with no padding, in the native
+ * byte order, and the segment is aligned to {@value #ALIGNMENT} bytes. The
+ * lifetime of the memory is the lifetime of the {@link Arena} it was allocated
+ * from: a matrix created without an arena allocates its memory from an arena of
+ * its own, which {@link #close()} closes, freeing the memory at once; a matrix
+ * created with an arena lives until that arena is closed, and closing the
+ * matrix has no effect. Any access to a matrix whose memory has been freed
+ * throws an {@code IllegalStateException}.<p>
+ *
+ * Besides the element-wise methods, values can be copied in bulk between a
+ * {@code SegmentDoubleMatrix} and heap arrays, with the methods of
+ * {@link NumericMatrix} and {@link #copyTo(double[], int)}, and between it and
+ * other segments, with {@link #copyTo(MemorySegment, long)}.<p>
+ *
+ * The dimension of a {@code SegmentDoubleMatrix} is fixed when it is created,
+ * so every operation that would change it throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see DoubleMatrix
+ * @see MappedDoubleMatrix
+ */
+public class SegmentDoubleMatrix extends AbstractMatrix<Double>
+		implements NumericMatrix, RandomAccess, AutoCloseable
+{
+
+	/**
+	 * Alignment in bytes of the segment of every matrix.
+	 */
+	public final static int ALIGNMENT = 64;
+
+	private final static ValueLayout.OfDouble LAYOUT = ValueLayout.JAVA_DOUBLE;
+
+	/**
+	 * The arena this matrix allocated its memory from, if it owns it, or
+	 * {@code null} if the arena belongs to the caller.
+	 */
+	private final Arena arena;
+
+	private final MemorySegment segment;
+
+	/**
+	 * The number of rows this SegmentDoubleMatrix has.
+	 */
+	private final int numberOfRows;
+	/**
+	 * The number of columns this SegmentDoubleMatrix has.
+	 */
+	private final int numberOfColumns;
+
+	/**
+	 * Constructs a matrix of the specified dimension, with every value zero,
+	 * whose memory is freed when the matrix is closed. The memory can be
+	 * accessed by any thread.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public SegmentDoubleMatrix(int rows, int columns) {
+		this(null, rows, columns);
+	}
+
+	/**
+	 * Constructs a matrix of the specified dimension, with every value zero,
+	 * whose memory is allocated from the specified arena and lives until the
+	 * arena is closed.
+	 *
+	 * @param arena the arena to allocate the memory from
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public SegmentDoubleMatrix(Arena arena, int rows, int columns) {
+		if (rows < 0 || columns < 0)
+			throw new IllegalArgumentException("Illegal dimension: " + rows + "x" + columns);
+		if (rows == 0 || columns == 0)
+			rows = columns = 0;
+		this.arena = arena == null ? Arena.ofShared() : null;
+		Arena allocator = arena == null ? this.arena : arena;
+		this.segment = allocator.allocate((long) rows * columns * Double.BYTES, ALIGNMENT);
+		this.numberOfRows = rows;
+		this.numberOfColumns = columns;
+	}
+
+	/**
+	 * Returns a new matrix, whose memory is freed when it is closed, with the
+	 * values of the specified matrix.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new matrix with the values of the specified matrix
+	 */
+	public static SegmentDoubleMatrix copyOf(NumericMatrix m) {
+		SegmentDoubleMatrix s = new SegmentDoubleMatrix(m.rowSize(), m.columnSize());
+		if (m instanceof SegmentDoubleMatrix other) {
+			s.copyFrom(other.segment, 0);
+		} else {
+			double[] row = new double[s.numberOfColumns];
+			for (int i = 0; i < s.numberOfRows; i++) {
+				m.copyRowTo(i, 0, row, 0, row.length);
+				s.copyRowFrom(i, 0, row, 0, row.length);
+			}
+		}
+		return s;
+	}
+
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/**
+	 * Returns the number of elements in this matrix, or {@code Integer.MAX_VALUE}
+	 * if there are more elements than that.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) numberOfRows * numberOfColumns;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix.
+	 * @return dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(numberOfColumns, numberOfRows);
+	}
+
+	/**
+	 * Returns the segment with the values of this matrix, in row-major order.
+	 * Changes in the segment are reflected in this matrix, and vice-versa.
+	 *
+	 * @return the segment backing this matrix
+	 */
+	public MemorySegment segment() {
+		return segment;
+	}
+
+	/**
+	 * Returns the index in the segment of the value at the specified coordinates.
+	 */
+	private long index(int indexRow, int indexColumn) {
+		return (long) indexRow * numberOfColumns + indexColumn;
+	}
+
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return segment.getAtIndex(LAYOUT, index(indexRow, indexColumn));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		long k = index(indexRow, indexColumn);
+		double old = segment.getAtIndex(LAYOUT, k);
+		segment.setAtIndex(LAYOUT, k, newValue);
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		MemorySegment.copy(segment, LAYOUT, index(indexRow, fromColumn) * Double.BYTES, dest, destPos, length);
+	}
+
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		MemorySegment.copy(src, srcPos, segment, LAYOUT, index(indexRow, fromColumn) * Double.BYTES, length);
+	}
+
+	/**
+	 * Copies every value of this matrix, in row-major order, into the
+	 * destination array.
+	 *
+	 * @param dest the destination array
+	 * @param destPos starting position in the destination array
+	 * @throws IndexOutOfBoundsException if the array has less than
+	 *         {@code rowSize() * columnSize()} positions from {@code destPos}
+	 */
+	public void copyTo(double[] dest, int destPos) {
+		int length = Math.toIntExact(index(numberOfRows, 0));
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		MemorySegment.copy(segment, LAYOUT, 0, dest, destPos, length);
+	}
+
+	/**
+	 * Replaces every value of this matrix with the values of the source array,
+	 * taken in row-major order.
+	 *
+	 * @param src the source array
+	 * @param srcPos starting position in the source array
+	 * @throws IndexOutOfBoundsException if the array has less than
+	 *         {@code rowSize() * columnSize()} positions from {@code srcPos}
+	 */
+	public void copyFrom(double[] src, int srcPos) {
+		int length = Math.toIntExact(index(numberOfRows, 0));
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		MemorySegment.copy(src, srcPos, segment, LAYOUT, 0, length);
+	}
+
+	/**
+	 * Copies every value of this matrix, in row-major order, into the
+	 * destination segment.
+	 *
+	 * @param dest the destination segment
+	 * @param destOffset starting offset in bytes in the destination segment
+	 * @throws IndexOutOfBoundsException if the segment has less than
+	 *         {@code segment().byteSize()} bytes from {@code destOffset}
+	 */
+	public void copyTo(MemorySegment dest, long destOffset) {
+		MemorySegment.copy(segment, 0, dest, destOffset, segment.byteSize());
+	}
+
+	/**
+	 * Replaces every value of this matrix with the values of the source
+	 * segment, taken in row-major order.
+	 *
+	 * @param src the source segment
+	 * @param srcOffset starting offset in bytes in the source segment
+	 * @throws IndexOutOfBoundsException if the segment has less than
+	 *         {@code segment().byteSize()} bytes from {@code srcOffset}
+	 */
+	public void copyFrom(MemorySegment src, long srcOffset) {
+		MemorySegment.copy(src, srcOffset, segment, 0, segment.byteSize());
+	}
+
+	/**
+	 * Returns the row at the specified position in this matrix.
+	 * The returned list is a view over the segment, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexRow index of the row to return
+	 * @return the row at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new Line(indexRow, true);
+	}
+
+	/**
+	 * Returns the column at the specified position in this matrix.
+	 * The returned list is a view over the segment, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexColumn index of the column to return
+	 * @return the column at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new Line(indexColumn, false);
+	}
+
+	/**
+	 * Replaces the row at the specified position in this matrix with the
+	 * specified row.
+	 *
+	 * @throws NullPointerException if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the row is
+	 *         different than the number of columns
+	 */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		if (newRow.size() != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		double[] row = new double[numberOfColumns];
+		int j = 0;
+		for (Double e : newRow)
+			row[j++] = e;
+		List<Double> replaced = new ArrayList<>(getRow(indexRow));
+		copyRowFrom(indexRow, 0, row, 0, numberOfColumns);
+		return replaced;
+	}
+
+	/**
+	 * Replaces the column at the specified position in this matrix with the
+	 * specified column.
+	 *
+	 * @throws NullPointerException if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the column is
+	 *         different than the number of rows
+	 */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		if (newColumn.size() != numberOfRows)
+			throw new IncompatibleCollectionSizeException();
+		double[] column = new double[numberOfRows];
+		int i = 0;
+		for (Double e : newColumn)
+			column[i++] = e;
+		List<Double> replaced = new ArrayList<>(numberOfRows);
+		for (i = 0; i < numberOfRows; i++)
+			replaced.add(setDouble(i, indexColumn, column[i]));
+		return replaced;
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeRow(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeColumn(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()}.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Frees the memory of this matrix, if it was allocated from an arena of its
+	 * own. Any later access to this matrix throws an {@code IllegalStateException}.
+	 * Closing a matrix created with an arena, or a closed matrix, has no effect.
+	 */
+	public void close() {
+		if (arena != null && segment.scope().isAlive())
+			arena.close();
+	}
+
+	/**
+	 * Live view of a row or a column of this matrix.
+	 */
+	private class Line extends AbstractList<Double> implements RandomAccess {
+
+		private final int index;
+		private final boolean row;
+
+		Line(int index, boolean row) {
+			this.index = index;
+			this.row = row;
+		}
+
+		public int size() {
+			return row ? numberOfColumns : numberOfRows;
+		}
+
+		public Double get(int i) {
+			return row ? getDouble(index, i) : getDouble(i, index);
+		}
+
+		public Double set(int i, Double element) {
+			return row ? setDouble(index, i, element) : setDouble(i, index, element);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package collections2d;
+
+/**
+ * Thrown when an operation needs the inverse of a matrix, or the solution of a
+ * system of equations, and the matrix is singular.
+*/
+public class SingularMatrixException extends MatrixException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 6310624402880419521L;
+
+	public SingularMatrixException() {
+		super();
+	}
+
+	public SingularMatrixException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,1205 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Compressed sparse row (CSR) implementation of the interface {@code Matrix}
+ * for {@code double} values, where only the elements different from zero are
+ * stored. The memory used by this matrix is proportional to its number of
+ * non-zero elements, not to its dimension.
+ *
+ * <p>The non-zero elements are kept in row-major order in two parallel arrays,
+ * one with their values and the other with their column indices. A third array
+ * holds, for each row, the position in those arrays where the row begins, so row
+ * {@code i} is stored in the positions {@code [rowPointers[i], rowPointers[i+1])},
+ * sorted by column. Reading an element is a binary search within its row.
+ *
+ * <p>Every element equal to {@code 0.0} (positive zero) is an <i>implicit</i>
+ * zero that is not stored: writing it removes the stored element, if any.
+ * Writing any other value into an implicit zero inserts a new element, which
+ * moves every element stored after it, so matrices should be filled in row-major
+ * order, or built at once with {@link #fromTriplets}.
+ *
+ * <p>This matrix does not permit null elements.
+ *
+ * @see NumericMatrix
+ * @see DoubleMatrix
+ */
+public class SparseMatrix extends AbstractRegularMatrix<Double>
+		implements NumericMatrix, Cloneable, java.io.Serializable
+{
+
+	@java.io.Serial
+	private static final long serialVersionUID = -2380915377314628705L;
+
+	/**
+	 * Default initial capacity of non-zero elements.
+	 */
+	private final static int DEFAULT_NON_ZERO_CAPACITY = 10;
+
+	/**
+	 * Position in {@code columnIndices} and {@code values} where each row starts.
+	 * Its length is at least {@code numberOfRows + 1}, and
+	 * {@code rowPointers[numberOfRows]} is the number of non-zero elements.
+	 */
+	private transient int[] rowPointers;
+
+	/**
+	 * Column of each non-zero element.
+	 */
+	private transient int[] columnIndices;
+
+	/**
+	 * Value of each non-zero element.
+	 */
+	private transient double[] values;
+
+	/**
+	 * The number of rows this SparseMatrix currently has.
+	 */
+	private int numberOfRows;
+	/**
+	 * The number of columns this SparseMatrix currently has.
+	 */
+	private int numberOfColumns;
+
+	/**
+	 * The serializable fields of a {@code SparseMatrix}, which are the ones of
+	 * its first versions, so that each version reads the instances written by
+	 * the others. The arrays are written trimmed to the number of rows and of
+	 * non-zero elements.
+	 *
+	 * @serialField rowPointers int[] the position where each row starts,
+	 *              followed by the number of non-zero elements
+	 * @serialField columnIndices int[] the column of each non-zero element
+	 * @serialField values double[] the value of each non-zero element
+	 * @serialField numberOfRows int the number of rows
+	 * @serialField numberOfColumns int the number of columns
+	 */
+	@java.io.Serial
+	private static final java.io.ObjectStreamField[] serialPersistentFields = {
+			new java.io.ObjectStreamField("rowPointers", int[].class),
+			new java.io.ObjectStreamField("columnIndices", int[].class),
+			new java.io.ObjectStreamField("values", double[].class),
+			new java.io.ObjectStreamField("numberOfRows", int.class),
+			new java.io.ObjectStreamField("numberOfColumns", int.class) };
+
+	/**
+	 * Constructs an empty SparseMatrix.
+	 */
+	public SparseMatrix() {
+		this(DEFAULT_NON_ZERO_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty SparseMatrix with room for the specified number of
+	 * non-zero elements.
+	 *
+	 * @param nonZeroCapacity the initial capacity of non-zero elements
+	 * @throws IllegalArgumentException if the capacity is negative
+	 */
+	public SparseMatrix(int nonZeroCapacity) {
+		if (nonZeroCapacity < 0)
+			throw new IllegalArgumentException("Illegal Non-Zero Capacity: " + nonZeroCapacity);
+		rowPointers = new int[1];
+		columnIndices = new int[nonZeroCapacity];
+		values = new double[nonZeroCapacity];
+	}
+
+	/**
+	 * Returns a new {@code rows x columns} SparseMatrix where every element is an
+	 * implicit zero.
+	 *
+	 * @param rows    the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @return a matrix of zeros
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 */
+	public static SparseMatrix zeros(int rows, int columns) {
+		if (rows < 0 || columns < 0)
+			throw new IllegalArgumentException("Illegal dimension: " + rows + "x" + columns);
+		SparseMatrix s = new SparseMatrix();
+		if (rows > 0 && columns > 0) {
+			s.rowPointers = new int[rows + 1];
+			s.numberOfRows = rows;
+			s.numberOfColumns = columns;
+		}
+		return s;
+	}
+
+	/**
+	 * Returns a new {@code rows x columns} SparseMatrix with the specified elements,
+	 * given as {@code count} triplets {@code (rowIndices[k], columnIndices[k], values[k])}
+	 * in any order. Values of repeated coordinates are added up. The matrix is
+	 * built in {@code O(rows + count log count)} time.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param rowIndices the row of each element
+	 * @param columnIndices the column of each element
+	 * @param values the value of each element
+	 * @param count the number of elements to take from the arrays
+	 * @return a new matrix with the specified elements
+	 * @throws IllegalArgumentException if any of the dimensions is negative
+	 * @throws IndexOutOfBoundsException if any coordinate is out of the bounds of
+	 *         the matrix, or {@code count} is greater than the length of the arrays
+	 */
+	public static SparseMatrix fromTriplets(int rows, int columns, int[] rowIndices, int[] columnIndices,
+			double[] values, int count) {
+		SparseMatrix s = zeros(rows, columns);
+		Objects.checkFromIndexSize(0, count, Math.min(rowIndices.length, Math.min(columnIndices.length, values.length)));
+		if (s.isEmpty()) {
+			if (count > 0)
+				throw new IndexOutOfBoundsException("Element in a matrix " + rows + "x" + columns);
+			return s;
+		}
+		// counting sort by row, then sort each row by column
+		int[] start = new int[rows + 1];
+		for (int k = 0; k < count; k++) {
+			Objects.checkIndex(rowIndices[k], rows);
+			Objects.checkIndex(columnIndices[k], columns);
+			start[rowIndices[k] + 1]++;
+		}
+		for (int i = 0; i < rows; i++)
+			start[i + 1] += start[i];
+		int[] next = Arrays.copyOf(start, rows);
+		int[] cols = new int[count];
+		double[] vals = new double[count];
+		for (int k = 0; k < count; k++) {
+			int p = next[rowIndices[k]]++;
+			cols[p] = columnIndices[k];
+			vals[p] = values[k];
+		}
+		int nonZeros = 0;
+		for (int i = 0; i < rows; i++) {
+			int from = start[i], to = start[i + 1];
+			sortByColumn(cols, vals, from, to);
+			s.rowPointers[i] = nonZeros;
+			for (int p = from; p < to; ) {
+				int c = cols[p];
+				double v = vals[p++];
+				while (p < to && cols[p] == c)
+					v += vals[p++];
+				if (!isImplicitZero(v)) {
+					cols[nonZeros] = c;
+					vals[nonZeros++] = v;
+				}
+			}
+		}
+		s.rowPointers[rows] = nonZeros;
+		s.columnIndices = cols;
+		s.values = vals;
+		return s;
+	}
+
+	/**
+	 * Returns a new {@code rows x columns} SparseMatrix with the specified
+	 * elements, given in compressed sparse row form: the elements of row
+	 * {@code i} are at the positions {@code [rowPointers[i], rowPointers[i+1])}
+	 * of the other two arrays, sorted by column. The arrays are copied, and any
+	 * element that is an implicit zero is dropped.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param rowPointers the position where each row starts, followed by the
+	 *        number of elements, so its length is at least {@code rows + 1}
+	 * @param columnIndices the column of each element
+	 * @param values the value of each element
+	 * @return a new matrix with the specified elements
+	 * @throws IllegalArgumentException if any of the dimensions is negative, the
+	 *         row pointers decrease, or the columns of a row are not strictly
+	 *         increasing
+	 * @throws IndexOutOfBoundsException if any column is out of the bounds of the
+	 *         matrix, or the arrays are shorter than the row pointers require
+	 */
+	public static SparseMatrix fromCompressedRows(int rows, int columns, int[] rowPointers, int[] columnIndices,
+			double[] values) {
+		SparseMatrix s = zeros(rows, columns);
+		if (s.isEmpty())
+			return s;
+		Objects.checkFromIndexSize(0, rows + 1, rowPointers.length);
+		int count = rowPointers[rows];
+		Objects.checkFromIndexSize(0, count, Math.min(columnIndices.length, values.length));
+		int[] cols = new int[count];
+		double[] vals = new double[count];
+		int nonZeros = 0;
+		for (int i = 0; i < rows; i++) {
+			int from = rowPointers[i], to = rowPointers[i + 1];
+			if (from > to || from < 0 || (i == 0 && from != 0))
+				throw new IllegalArgumentException("Illegal row pointers at row " + i);
+			s.rowPointers[i] = nonZeros;
+			int last = -1;
+			for (int p = from; p < to; p++) {
+				int c = Objects.checkIndex(columnIndices[p], columns);
+				if (c <= last)
+					throw new IllegalArgumentException("Unsorted columns at row " + i);
+				last = c;
+				if (!isImplicitZero(values[p])) {
+					cols[nonZeros] = c;
+					vals[nonZeros++] = values[p];
+				}
+			}
+		}
+		s.rowPointers[rows] = nonZeros;
+		s.columnIndices = cols;
+		s.values = vals;
+		return s;
+	}
+
+	/**
+	 * Sorts the range of both arrays by column, with an insertion sort for short
+	 * rows and an index sort otherwise.
+	 */
+	private static void sortByColumn(int[] cols, double[] vals, int from, int to) {
+		int length = to - from;
+		if (length < 32) {
+			for (int i = from + 1; i < to; i++) {
+				int c = cols[i];
+				double v = vals[i];
+				int j = i - 1;
+				while (j >= from && cols[j] > c) {
+					cols[j + 1] = cols[j];
+					vals[j + 1] = vals[j];
+					j--;
+				}
+				cols[j + 1] = c;
+				vals[j + 1] = v;
+			}
+			return;
+		}
+		long[] keys = new long[length];
+		for (int i = 0; i < length; i++)
+			keys[i] = ((long) cols[from + i] << 32) | i;
+		Arrays.sort(keys);
+		double[] sorted = new double[length];
+		for (int i = 0; i < length; i++) {
+			cols[from + i] = (int) (keys[i] >>> 32);
+			sorted[i] = vals[from + (int) keys[i]];
+		}
+		System.arraycopy(sorted, 0, vals, from, length);
+	}
+
+	/**
+	 * Returns {@code true} if the value is an implicit zero, which is only
+	 * positive zero so that {@link Double#equals(Object)} semantics are kept.
+	 */
+	private static boolean isImplicitZero(double v) {
+		return Double.doubleToRawLongBits(v) == 0L;
+	}
+
+	/** Returns the number of rows in this matrix.
+	 *
+	 * @return the number of rows in this matrix
+	 */
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	/** Returns the number of columns in this matrix.
+	 *
+	 * @return the number of columns in this matrix
+	 */
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/** Returns the number of elements in this matrix, including the implicit zeros,
+	 * which is {@link #rowSize()} * {@link #columnSize()}. If the matrix has more than
+	 * {@code Integer.MAX_VALUE} elements, returns {@code Integer.MAX_VALUE}.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) numberOfRows * numberOfColumns;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	/**
+	 * Returns the number of elements stored in this matrix, which are the
+	 * elements different from zero.
+	 *
+	 * @return the number of non-zero elements in this matrix
+	 */
+	public int nonZeroCount() {
+		return rowPointers[numberOfRows];
+	}
+
+	/**
+	 * Returns the number of elements stored in the specified row, which are
+	 * its elements different from zero.
+	 *
+	 * @param indexRow index of the row
+	 * @return the number of non-zero elements in the row
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *         ({@code indexRow < 0 || indexRow >= rowSize()})
+	 */
+	public int rowNonZeroCount(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return rowPointers[indexRow + 1] - rowPointers[indexRow];
+	}
+
+	/**
+	 * Copies the elements stored in the specified row, sorted by column, into
+	 * the destination arrays: the column of each one into {@code columns} and
+	 * its value into {@code values}, both from position {@code destPos}.
+	 *
+	 * @param indexRow index of the row
+	 * @param columns the destination array of the columns
+	 * @param values the destination array of the values
+	 * @param destPos starting position in both destination arrays
+	 * @return the number of elements copied, which is {@code rowNonZeroCount(indexRow)}
+	 * @throws IndexOutOfBoundsException if the row is out of range, or any of
+	 *         the destination arrays is too short
+	 */
+	public int copyRowNonZeros(int indexRow, int[] columns, double[] values, int destPos) {
+		int count = rowNonZeroCount(indexRow);
+		Objects.checkFromIndexSize(destPos, count, Math.min(columns.length, values.length));
+		int from = rowPointers[indexRow];
+		System.arraycopy(columnIndices, from, columns, destPos, count);
+		System.arraycopy(this.values, from, values, destPos, count);
+		return count;
+	}
+
+    /**
+     * Returns {@code true} if this matrix contains no elements.
+     *
+     * @return {@code true} if this matrix contains no elements
+     */
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix, which is
+	 * {@link #rowSize()} x {@link #columnSize()}.
+	 *
+	 * @return the dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(columnSize(), rowSize());
+	}
+
+	/**
+	 * This implementation always throws an {@code UnsupportedOperationException}.
+	 */
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * This implementation always throws an {@code UnsupportedOperationException}.
+	 */
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+     * Removes all of the elements from this matrix.
+     * The matrix will be empty after this call returns.
+     */
+	public void clear() {
+		numberOfRows = numberOfColumns = 0;
+		rowPointers = new int[1];
+	}
+
+    /**
+     * Returns a copy of this {@code SparseMatrix} instance, trimmed to its
+     * number of non-zero elements.
+     *
+     * @return a clone of this {@code SparseMatrix} instance
+     */
+	public Object clone() {
+		try {
+			SparseMatrix s = (SparseMatrix) super.clone();
+			int nonZeros = nonZeroCount();
+			s.rowPointers = Arrays.copyOf(rowPointers, numberOfRows + 1);
+			s.columnIndices = Arrays.copyOf(columnIndices, nonZeros);
+			s.values = Arrays.copyOf(values, nonZeros);
+			return s;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	/**
+	 * Saves the state of this {@code SparseMatrix} instance to a stream. Only
+	 * the stored elements are written, not the unused capacity, which is copied
+	 * only if it has any.
+	 */
+	@java.io.Serial
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		int nonZeros = nonZeroCount();
+		java.io.ObjectOutputStream.PutField fields = s.putFields();
+		fields.put("rowPointers",
+				rowPointers.length == numberOfRows + 1 ? rowPointers : Arrays.copyOf(rowPointers, numberOfRows + 1));
+		fields.put("columnIndices",
+				columnIndices.length == nonZeros ? columnIndices : Arrays.copyOf(columnIndices, nonZeros));
+		fields.put("values", values.length == nonZeros ? values : Arrays.copyOf(values, nonZeros));
+		fields.put("numberOfRows", numberOfRows);
+		fields.put("numberOfColumns", numberOfColumns);
+		s.writeFields();
+	}
+
+	/**
+	 * Reconstitutes a {@code SparseMatrix} instance from a stream, checking that
+	 * its elements are well formed, with its capacities trimmed.
+	 */
+	@java.io.Serial
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		java.io.ObjectInputStream.GetField fields = s.readFields();
+		int rowCount = fields.get("numberOfRows", 0), columnCount = fields.get("numberOfColumns", 0);
+		if (rowCount < 0 || columnCount < 0 || !(fields.get("rowPointers", null) instanceof int[] pointers)
+				|| !(fields.get("columnIndices", null) instanceof int[] cols)
+				|| !(fields.get("values", null) instanceof double[] vals))
+			throw new java.io.InvalidObjectException("Illegal dimension: " + rowCount + "x" + columnCount);
+		SparseMatrix m;
+		try {
+			m = fromCompressedRows(rowCount, columnCount, pointers, cols, vals);
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw (java.io.InvalidObjectException) new java.io.InvalidObjectException(e.getMessage()).initCause(e);
+		}
+		numberOfRows = m.numberOfRows;
+		numberOfColumns = m.numberOfColumns;
+		rowPointers = m.rowPointers;
+		columnIndices = m.columnIndices;
+		values = m.values;
+	}
+
+	/**
+	 * Trims the capacities of this {@code SparseMatrix} instance to be its current
+	 * number of rows and of non-zero elements.
+	 */
+	public void trimToSize() {
+		int nonZeros = nonZeroCount();
+		rowPointers = Arrays.copyOf(rowPointers, numberOfRows + 1);
+		columnIndices = Arrays.copyOf(columnIndices, nonZeros);
+		values = Arrays.copyOf(values, nonZeros);
+	}
+
+	/**
+	 * Ensures room for {@code extra} more non-zero elements, growing the capacity
+	 * by half of its value if that is enough.
+	 */
+	private void ensureNonZeroCapacity(int extra) {
+		int min = nonZeroCount() + extra;
+		if (min > values.length) {
+			int grown = values.length + (values.length >> 1);
+			int capacity = grown - min <= 0 ? Math.max(min, DEFAULT_NON_ZERO_CAPACITY) : grown;
+			columnIndices = Arrays.copyOf(columnIndices, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+	}
+
+	/**
+	 * Ensures room for {@code extra} more row pointers.
+	 */
+	private void ensureRowPointersCapacity(int extra) {
+		int min = numberOfRows + 1 + extra;
+		if (min > rowPointers.length)
+			rowPointers = Arrays.copyOf(rowPointers, Math.max(min, rowPointers.length + (rowPointers.length >> 1)));
+	}
+
+	/**
+	 * Returns the position of the element at the specified coordinates in the
+	 * value arrays if it is stored, or {@code -(insertion point) - 1} otherwise.
+	 */
+	private int find(int indexRow, int indexColumn) {
+		return Arrays.binarySearch(columnIndices, rowPointers[indexRow], rowPointers[indexRow + 1], indexColumn);
+	}
+
+	/**
+	 * Inserts a stored element at the specified position of the arrays, which
+	 * belongs to the specified row.
+	 */
+	private void insertAt(int position, int indexRow, int indexColumn, double value) {
+		ensureNonZeroCapacity(1);
+		int nonZeros = nonZeroCount();
+		System.arraycopy(columnIndices, position, columnIndices, position + 1, nonZeros - position);
+		System.arraycopy(values, position, values, position + 1, nonZeros - position);
+		columnIndices[position] = indexColumn;
+		values[position] = value;
+		for (int i = indexRow + 1; i <= numberOfRows; i++)
+			rowPointers[i]++;
+	}
+
+	/**
+	 * Removes the stored element at the specified position of the arrays, which
+	 * belongs to the specified row.
+	 */
+	private void removeAt(int position, int indexRow) {
+		int nonZeros = nonZeroCount();
+		System.arraycopy(columnIndices, position + 1, columnIndices, position, nonZeros - position - 1);
+		System.arraycopy(values, position + 1, values, position, nonZeros - position - 1);
+		for (int i = indexRow + 1; i <= numberOfRows; i++)
+			rowPointers[i]--;
+	}
+
+	/**
+	 * The non-zero values of a row or column being added, with their positions.
+	 */
+	private static final class NonZeros {
+		final int[] positions;
+		final double[] values;
+		int count;
+
+		/**
+		 * @throws NullPointerException if the collection contains null elements
+		 */
+		NonZeros(Collection<Double> c) {
+			int size = c.size();
+			positions = new int[size];
+			values = new double[size];
+			int index = 0;
+			for (Double e : c) {
+				double v = e;
+				if (!isImplicitZero(v)) {
+					positions[count] = index;
+					values[count++] = v;
+				}
+				index++;
+			}
+		}
+	}
+
+	/** Appends the specified row to the end of this matrix.
+ 	 *
+     * @throws NullPointerException if the row is null or contains null elements
+     * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public boolean addRow(Collection<Double> row) {
+		return super.addRow(row);
+	}
+
+    /**
+     * Inserts the specified row at the specified position in this
+     * matrix. Shifts the row currently at that position (if any) and
+     * any subsequent rows down (adds one to their indices). Only the non-zero
+     * elements of the row are stored.
+     *
+     * @param index index at which the specified row is to be inserted
+     * @param row row to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+ 	 * @throws NullPointerException     if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public void addRow(int index, Collection<Double> row) {
+		super.addRow(index, row);
+		NonZeros nz = new NonZeros(row);
+		int count = nz.count;
+		if (isEmpty()) {
+			if (row.isEmpty())
+				return;
+			numberOfColumns = row.size();
+		}
+		ensureNonZeroCapacity(count);
+		ensureRowPointersCapacity(1);
+		int start = rowPointers[index], total = nonZeroCount();
+		System.arraycopy(columnIndices, start, columnIndices, start + count, total - start);
+		System.arraycopy(values, start, values, start + count, total - start);
+		System.arraycopy(nz.positions, 0, columnIndices, start, count);
+		System.arraycopy(nz.values, 0, values, start, count);
+		System.arraycopy(rowPointers, index, rowPointers, index + 1, numberOfRows + 1 - index);
+		numberOfRows++;
+		for (int i = index + 1; i <= numberOfRows; i++)
+			rowPointers[i] += count;
+	}
+
+    /**
+     * Appends the specified column to the end of this matrix.
+     *
+     * @param column column to be appended to this matrix
+     * @return {@code true} (as specified by {@link Matrix#addColumn})
+	 * @throws NullPointerException     if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public boolean addColumn(Collection<Double> column) {
+		return super.addColumn(column);
+	}
+
+    /**
+     * Inserts the specified column at the specified position in this
+     * matrix. Shifts the column currently at that position (if any) and
+     * any subsequent column to the right (adds one to their indices).
+     * The whole storage is rebuilt in a single pass.
+     *
+     * @param index index at which the specified column is to be inserted
+     * @param column column to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+ 	 * @throws NullPointerException     if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public void addColumn(int index, Collection<Double> column) {
+		super.addColumn(index, column);
+		NonZeros nz = new NonZeros(column);
+		int count = nz.count;
+		if (isEmpty()) {
+			if (column.isEmpty())
+				return;
+			numberOfRows = column.size();
+			rowPointers = new int[numberOfRows + 1];
+		}
+		int total = nonZeroCount();
+		int[] newColumns = new int[Math.max(total + count, values.length)];
+		double[] newValues = new double[newColumns.length];
+		int p = 0, next = 0;
+		for (int i = 0; i < numberOfRows; i++) {
+			int from = rowPointers[i], to = rowPointers[i + 1];
+			rowPointers[i] = p;
+			boolean pending = next < count && nz.positions[next] == i;
+			for (int q = from; q < to; q++) {
+				int c = columnIndices[q];
+				if (pending && c >= index) {
+					newColumns[p] = index;
+					newValues[p++] = nz.values[next++];
+					pending = false;
+				}
+				newColumns[p] = c >= index ? c + 1 : c;
+				newValues[p++] = values[q];
+			}
+			if (pending) {
+				newColumns[p] = index;
+				newValues[p++] = nz.values[next++];
+			}
+		}
+		rowPointers[numberOfRows] = p;
+		columnIndices = newColumns;
+		values = newValues;
+		numberOfColumns++;
+	}
+
+    /**
+     * Returns the row at the specified position in this matrix.
+     * The returned list is a view backed by this matrix: reading an element is a
+     * binary search in the row, and changes made with its {@code set} method are
+     * written through to this matrix. The view is no longer valid once the matrix
+     * is structurally modified.
+     *
+     * @param  indexRow index of the row to return
+     * @return the row at the specified position in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new RowView(indexRow);
+	}
+
+	/**
+	 * Dense copy of the row at the specified position.
+	 */
+	private Collection<Double> rowAt(int indexRow) {
+		Double[] r = new Double[numberOfColumns];
+		Arrays.fill(r, 0.0);
+		for (int p = rowPointers[indexRow]; p < rowPointers[indexRow + 1]; p++)
+			r[columnIndices[p]] = values[p];
+		return Arrays.asList(r);
+	}
+
+    /**
+     * Returns the column at the specified position in this matrix.
+     * The returned list is a view backed by this matrix: reading an element is a
+     * binary search in its row, and changes made with its {@code set} method are
+     * written through to this matrix. The view is no longer valid once the matrix
+     * is structurally modified.
+     *
+     * @param  indexColumn index of the column to return
+     * @return the column at the specified position in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new ColumnView(indexColumn);
+	}
+
+	/**
+	 * Dense copy of the column at the specified position.
+	 */
+	private Collection<Double> columnAt(int indexColumn) {
+		Double[] c = new Double[numberOfRows];
+		for (int i = 0; i < numberOfRows; i++) {
+			int p = find(i, indexColumn);
+			c[i] = p >= 0 ? values[p] : 0.0;
+		}
+		return Arrays.asList(c);
+	}
+
+    /**
+     * Returns the element at the specified coordinates in this matrix.
+     *
+     * @param indexRow index of the row where the element is to return
+     * @param indexColumn index of the column where the element is to return
+     * @return the element at the specified coordinates in this matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation does a binary search in the stored elements of the row.
+	 */
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		int p = find(indexRow, indexColumn);
+		return p >= 0 ? values[p] : 0.0;
+	}
+
+    /**
+     * Replaces the element at the specified coordinates in this matrix with
+     * the specified element.
+     *
+     * @param indexRow index of the row where the element is to replace
+     * @param indexColumn index of the column where the element is to replace
+     * @return the element previously at the specified coordinates
+     * @throws NullPointerException if the specified element is null
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * Writing zero over a stored element removes it, and writing a non-zero value
+	 * over an implicit zero inserts it. Both move the elements stored after it.
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		int p = find(indexRow, indexColumn);
+		if (p >= 0) {
+			double old = values[p];
+			if (isImplicitZero(newValue))
+				removeAt(p, indexRow);
+			else
+				values[p] = newValue;
+			return old;
+		}
+		if (!isImplicitZero(newValue))
+			insertAt(-p - 1, indexRow, indexColumn, newValue);
+		return 0.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation fills the range with zeros and then writes the stored
+	 * elements of the row that fall inside it.
+	 */
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		Arrays.fill(dest, destPos, destPos + length, 0.0);
+		int p = find(indexRow, fromColumn);
+		if (p < 0)
+			p = -p - 1;
+		int to = fromColumn + length;
+		for (int end = rowPointers[indexRow + 1]; p < end && columnIndices[p] < to; p++)
+			dest[destPos + columnIndices[p] - fromColumn] = values[p];
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified vector, reading
+	 * only the stored elements.
+	 *
+	 * @param x the vector, of length {@code columnSize()}
+	 * @return a new array with the product {@code A * x}, of length {@code rowSize()}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the number of columns of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		double[] y = new double[numberOfRows];
+		multiply(x, y);
+		return y;
+	}
+
+	/**
+	 * Stores the product of this matrix and the vector {@code x} into the
+	 * vector {@code y}, reading only the stored elements, without allocating.
+	 *
+	 * @param x the vector, of length {@code columnSize()}
+	 * @param y the destination of the product {@code A * x}, of length
+	 *        {@code rowSize()}, which must not be {@code x}
+	 * @throws IncompatibleDimensionException if the lengths of the vectors do
+	 *         not agree with the dimension of this matrix
+	 */
+	public void multiply(double[] x, double[] y) {
+		if (x.length != numberOfColumns || y.length != numberOfRows)
+			throw new IncompatibleDimensionException("Vectors of length " + x.length + " and " + y.length
+					+ " for a matrix " + numberOfRows + "x" + numberOfColumns);
+		for (int i = 0; i < numberOfRows; i++) {
+			double s = 0.0;
+			for (int p = rowPointers[i], end = rowPointers[i + 1]; p < end; p++)
+				s += values[p] * x[columnIndices[p]];
+			y[i] = s;
+		}
+	}
+
+    /**
+     * Removes the row at the specified position in this matrix.
+     * Shifts any subsequent rows up (subtracts one from their indices).
+     *
+     * @param index the index of the row to be removed
+     * @return the row that was removed from the matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> removeRow(int index) {
+		Objects.checkIndex(index, numberOfRows);
+		Collection<Double> removedRow = rowAt(index);
+		if (numberOfRows == 1) {
+			clear();
+			return removedRow;
+		}
+		int from = rowPointers[index], to = rowPointers[index + 1], count = to - from;
+		int total = nonZeroCount();
+		System.arraycopy(columnIndices, to, columnIndices, from, total - to);
+		System.arraycopy(values, to, values, from, total - to);
+		System.arraycopy(rowPointers, index + 1, rowPointers, index, numberOfRows - index);
+		numberOfRows--;
+		for (int i = index; i <= numberOfRows; i++)
+			rowPointers[i] -= count;
+		return removedRow;
+	}
+
+    /**
+     * Removes the column at the specified position in this matrix.
+     * Shifts any subsequent columns to the left (subtracts one from their
+     * indices). The whole storage is compacted in a single pass.
+     *
+     * @param index the index of the column to be removed
+     * @return the column that was removed from the matrix
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+	public Collection<Double> removeColumn(int index) {
+		Objects.checkIndex(index, numberOfColumns);
+		Collection<Double> removedColumn = columnAt(index);
+		if (numberOfColumns == 1) {
+			clear();
+			return removedColumn;
+		}
+		int p = 0;
+		for (int i = 0; i < numberOfRows; i++) {
+			int from = rowPointers[i], to = rowPointers[i + 1];
+			rowPointers[i] = p;
+			for (int q = from; q < to; q++) {
+				int c = columnIndices[q];
+				if (c == index)
+					continue;
+				columnIndices[p] = c > index ? c - 1 : c;
+				values[p++] = values[q];
+			}
+		}
+		rowPointers[numberOfRows] = p;
+		numberOfColumns--;
+		return removedColumn;
+	}
+
+	/**
+     * Replaces the row at the specified position in this matrix with
+     * the specified row.
+     *
+     * @param indexRow index of the row to replace
+     * @param newRow row to be stored at the specified position
+     * @return the row previously at the specified position
+     * @throws NullPointerException if the specified row is null or contains null elements
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IncompatibleCollectionSizeException if the row is incompatible (the length of
+	 *                                  the row is different than the number of
+	 *                                  columns this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		checkRowCompability(newRow);
+		NonZeros nz = new NonZeros(newRow);
+		int count = nz.count;
+		Collection<Double> replacedRow = rowAt(indexRow);
+		int from = rowPointers[indexRow], to = rowPointers[indexRow + 1];
+		int delta = count - (to - from), total = nonZeroCount();
+		if (delta > 0)
+			ensureNonZeroCapacity(delta);
+		System.arraycopy(columnIndices, to, columnIndices, to + delta, total - to);
+		System.arraycopy(values, to, values, to + delta, total - to);
+		System.arraycopy(nz.positions, 0, columnIndices, from, count);
+		System.arraycopy(nz.values, 0, values, from, count);
+		for (int i = indexRow + 1; i <= numberOfRows; i++)
+			rowPointers[i] += delta;
+		return replacedRow;
+	}
+
+	/**
+     * Replaces the column at the specified position in this matrix with
+     * the specified column.
+     *
+     * @param indexColumn index of the column to replace
+     * @param newColumn column to be stored at the specified position
+     * @return the column previously at the specified position
+     * @throws NullPointerException if the specified column is null or contains null elements
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IncompatibleCollectionSizeException if the column is incompatible (the length of
+	 *                                  the column is different than the number of
+	 *                                  rows this matrix has) due to the
+	 *                                  definition of <i>Regular</i> matrix
+     */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		checkColumnCompability(newColumn);
+		double[] c = new double[numberOfRows];
+		int i = 0;
+		for (Double e : newColumn)
+			c[i++] = e;
+		Collection<Double> replacedColumn = columnAt(indexColumn);
+		for (i = 0; i < numberOfRows; i++)
+			setDouble(i, indexColumn, c[i]);
+		return replacedColumn;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * Searching for zero looks for the first implicit zero, and searching for any
+	 * other value only scans the stored elements.
+	 */
+	public boolean contains(Object o) {
+		if (!(o instanceof Double))
+			return false;
+		double v = (Double) o;
+		if (isImplicitZero(v))
+			return (long) numberOfRows * numberOfColumns > nonZeroCount();
+		long bits = Double.doubleToLongBits(v);
+		for (int p = 0, nonZeros = nonZeroCount(); p < nonZeros; p++)
+			if (Double.doubleToLongBits(values[p]) == bits)
+				return true;
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * Searching for zero looks for the first gap in the column indices of each
+	 * row, and searching for any other value only scans the stored elements.
+	 */
+	public Point indexOf(Object o) {
+		if (!(o instanceof Double))
+			return null;
+		double v = (Double) o;
+		if (isImplicitZero(v)) {
+			for (int i = 0; i < numberOfRows; i++) {
+				int from = rowPointers[i], to = rowPointers[i + 1];
+				if (to - from < numberOfColumns) {
+					int j = 0;
+					while (from + j < to && columnIndices[from + j] == j)
+						j++;
+					return new Point(i, j);
+				}
+			}
+			return null;
+		}
+		long bits = Double.doubleToLongBits(v);
+		for (int i = 0; i < numberOfRows; i++)
+			for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++)
+				if (Double.doubleToLongBits(values[p]) == bits)
+					return new Point(i, columnIndices[p]);
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * Searching for zero looks for the last gap in the column indices of each
+	 * row, and searching for any other value only scans the stored elements.
+	 */
+	public Point lastIndexOf(Object o) {
+		if (!(o instanceof Double))
+			return null;
+		double v = (Double) o;
+		if (isImplicitZero(v)) {
+			for (int i = numberOfRows - 1; i >= 0; i--) {
+				int from = rowPointers[i], to = rowPointers[i + 1];
+				if (to - from < numberOfColumns) {
+					int j = numberOfColumns - 1;
+					for (int p = to - 1; p >= from && columnIndices[p] == j; p--)
+						j--;
+					return new Point(i, j);
+				}
+			}
+			return null;
+		}
+		long bits = Double.doubleToLongBits(v);
+		for (int i = numberOfRows - 1; i >= 0; i--)
+			for (int p = rowPointers[i + 1] - 1; p >= rowPointers[i]; p--)
+				if (Double.doubleToLongBits(values[p]) == bits)
+					return new Point(i, columnIndices[p]);
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * If the specified object is also a {@code SparseMatrix}, only the stored
+	 * elements of both matrices are compared. Otherwise, the comparison of
+	 * {@link AbstractMatrix#equals(Object)} is done.
+	 */
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof SparseMatrix))
+			return super.equals(o);
+		SparseMatrix s = (SparseMatrix) o;
+		if (numberOfRows != s.numberOfRows || numberOfColumns != s.numberOfColumns
+				|| nonZeroCount() != s.nonZeroCount())
+			return false;
+		for (int i = 1; i <= numberOfRows; i++)
+			if (rowPointers[i] != s.rowPointers[i])
+				return false;
+		for (int p = 0, nonZeros = nonZeroCount(); p < nonZeros; p++)
+			if (columnIndices[p] != s.columnIndices[p]
+					|| Double.doubleToLongBits(values[p]) != Double.doubleToLongBits(s.values[p]))
+				return false;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation computes the same value as {@link AbstractMatrix#hashCode()},
+	 * but only visits the stored elements: a run of {@code k} zeros in a row
+	 * multiplies the hash code of the row by {@code 31^k}.
+	 */
+	public int hashCode() {
+		int hashCode = 0;
+		for (int i = 0; i < numberOfRows; i++) {
+			int rowHash = 1, previous = -1;
+			for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+				int c = columnIndices[p];
+				rowHash = rowHash * power31(c - previous) + Double.hashCode(values[p]);
+				previous = c;
+			}
+			hashCode += rowHash * power31(numberOfColumns - 1 - previous);
+		}
+		return hashCode == 0 ? 1 : hashCode;
+	}
+
+	/**
+	 * Live sparse view of a row of this matrix.
+	 */
+	private class RowView extends AbstractList<Double> implements RandomAccess {
+
+		private final int indexRow;
+
+		RowView(int indexRow) {
+			this.indexRow = indexRow;
+		}
+
+		public int size() {
+			return numberOfColumns;
+		}
+
+		public Double get(int index) {
+			return getDouble(indexRow, index);
+		}
+
+		public Double set(int index, Double element) {
+			return setDouble(indexRow, index, element);
+		}
+
+		public int indexOf(Object o) {
+			if (!(o instanceof Double))
+				return -1;
+			double v = (Double) o;
+			int from = rowPointers[indexRow], to = rowPointers[indexRow + 1];
+			if (isImplicitZero(v)) {
+				int j = 0;
+				while (from + j < to && columnIndices[from + j] == j)
+					j++;
+				return j < numberOfColumns ? j : -1;
+			}
+			long bits = Double.doubleToLongBits(v);
+			for (int p = from; p < to; p++)
+				if (Double.doubleToLongBits(values[p]) == bits)
+					return columnIndices[p];
+			return -1;
+		}
+
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+
+		public Iterator<Double> iterator() {
+			return new Iterator<Double>() {
+				int cursor = 0;
+				int position = rowPointers[indexRow];
+
+				public boolean hasNext() {
+					return cursor < numberOfColumns;
+				}
+
+				public Double next() {
+					if (cursor >= numberOfColumns)
+						throw new java.util.NoSuchElementException();
+					if (position < rowPointers[indexRow + 1] && columnIndices[position] == cursor) {
+						cursor++;
+						return values[position++];
+					}
+					cursor++;
+					return 0.0;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Live sparse view of a column of this matrix.
+	 */
+	private class ColumnView extends AbstractList<Double> implements RandomAccess {
+
+		private final int indexColumn;
+
+		ColumnView(int indexColumn) {
+			this.indexColumn = indexColumn;
+		}
+
+		public int size() {
+			return numberOfRows;
+		}
+
+		public Double get(int index) {
+			return getDouble(index, indexColumn);
+		}
+
+		public Double set(int index, Double element) {
+			return setDouble(index, indexColumn, element);
+		}
+	}
+}
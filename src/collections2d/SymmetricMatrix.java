@@ -0,0 +1,159 @@
+package collections2d;
+
+import java.util.Objects;
+
+/**
+ * Implementation of the interface {@code Matrix} for symmetric matrices of
+ * {@code double} values, such as covariance and Gram matrices, where only the
+ * lower triangle is stored. Row {@code i} of the triangle, the values
+ * {@code (i, 0)} to {@code (i, i)}, starts at position {@code i(i+1)/2} of a
+ * single array, so a matrix of order {@code n} takes {@code n(n+1)/2} values,
+ * about half the memory of a full matrix.<p>
+ *
+ * The elements {@code (i, j)} and {@code (j, i)} are the same value, so
+ * setting either of them sets both, and the matrix is always symmetric. The
+ * product with a vector reads each stored value once, so it also moves half
+ * the memory of the product with a full matrix.<p>
+ *
+ * The order of a {@code SymmetricMatrix} is fixed when it is created, so every
+ * operation that would change its dimension throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see LowerTriangularMatrix
+ * @see UpperTriangularMatrix
+ */
+public class SymmetricMatrix extends PackedMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = -6141953893049715233L;
+
+	/**
+	 * Constructs a symmetric matrix of the specified order, with every value zero.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @throws IllegalArgumentException if the order is negative or greater than
+	 *         {@link #MAX_ORDER}
+	 */
+	public SymmetricMatrix(int order) {
+		super(order, triangleLength(order));
+	}
+
+	/**
+	 * Returns a new symmetric matrix with the values of the specified matrix,
+	 * which must be symmetric.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new symmetric matrix with the values of the specified matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws IllegalArgumentException if the matrix is not symmetric
+	 */
+	public static SymmetricMatrix copyOf(NumericMatrix m) {
+		checkSquare(m);
+		SymmetricMatrix s = new SymmetricMatrix(m.rowSize());
+		for (int i = 0; i < s.order; i++) {
+			int k = triangle(i);
+			m.copyRowTo(i, 0, s.data, k, i + 1);
+			for (int j = 0; j < i; j++) {
+				double upper = m.getDouble(j, i);
+				if (upper != s.data[k + j] && Double.compare(upper, s.data[k + j]) != 0)
+					throw new IllegalArgumentException("Matrix is not symmetric at (" + i + ", " + j + ")");
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Returns the Gram matrix {@code A^T * A} of the columns of the specified
+	 * matrix, which is the covariance of the columns if they are centered.
+	 * Each row of {@code A} is read once, and added to the lower triangle of the
+	 * result.
+	 *
+	 * @param a the matrix whose columns are to be multiplied
+	 * @return a new symmetric matrix of order {@code a.columnSize()} with the
+	 *         products of every pair of columns of {@code a}
+	 * @throws IllegalArgumentException if {@code a} has more than
+	 *         {@link #MAX_ORDER} columns
+	 */
+	public static SymmetricMatrix gram(NumericMatrix a) {
+		int rows = a.rowSize(), n = a.columnSize();
+		SymmetricMatrix s = new SymmetricMatrix(n);
+		double[] row = new double[n], data = s.data;
+		for (int r = 0; r < rows; r++) {
+			a.copyRowTo(r, 0, row, 0, n);
+			for (int i = 0, k = 0; i < n; i++) {
+				double ri = row[i];
+				if (ri == 0) {
+					k += i + 1;
+					continue;
+				}
+				for (int j = 0; j <= i; j++)
+					data[k++] += ri * row[j];
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Returns the position in the packed array of the element at the specified
+	 * coordinates, which is the same for {@code (i, j)} and {@code (j, i)}.
+	 */
+	private int index(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		return indexRow >= indexColumn ? triangle(indexRow) + indexColumn : triangle(indexColumn) + indexRow;
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		return data[index(indexRow, indexColumn)];
+	}
+
+	/**
+	 * Replaces the element at the specified coordinates, which is also the
+	 * element at the transposed coordinates.
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		int k = index(indexRow, indexColumn);
+		double old = data[k];
+		data[k] = newValue;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		int to = fromColumn + length;
+		int stored = Math.min(to, indexRow + 1);
+		if (fromColumn < stored)
+			System.arraycopy(data, triangle(indexRow) + fromColumn, dest, destPos, stored - fromColumn);
+		for (int j = Math.max(fromColumn, indexRow + 1); j < to; j++)
+			dest[destPos + j - fromColumn] = data[triangle(j) + indexRow];
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified vector. Each stored
+	 * value {@code (i, j)} below the diagonal is used twice, for the element
+	 * {@code i} and for the element {@code j} of the result.
+	 *
+	 * @param x the vector, of length {@code rowSize()}
+	 * @return a new array with the product {@code A * x}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		checkLength(x);
+		double[] y = new double[order];
+		for (int i = 0, k = 0; i < order; i++) {
+			double xi = x[i], s = 0;
+			for (int j = 0; j < i; j++, k++) {
+				double a = data[k];
+				s += a * x[j];
+				y[j] += a * xi;
+			}
+			y[i] += s + data[k++] * xi;
+		}
+		return y;
+	}
+}
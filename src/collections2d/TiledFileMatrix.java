@@ -0,0 +1,804 @@
+package collections2d;
+
+import java.awt.Dimension;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import collections2d.io.MatrixFormat;
+
+/**
+ * Implementation of the interface {@code Matrix} for {@code double} values
+ * stored in a file, as square tiles of {@value #TILE_SIZE}x{@value #TILE_SIZE}
+ * values, of which only a bounded number is kept in memory. The matrix can be
+ * larger than the heap and than the physical memory; only the file has to fit
+ * on the disk.<p>
+ *
+ * The tiles in memory form a cache, with room for the number of tiles given
+ * when the matrix is created or opened. When a tile that is not in the cache
+ * is accessed, it is read from the file, and the least recently used tile is
+ * evicted to make room for it; an evicted tile that was modified is written
+ * back to the file first. When the tiles are accessed in order, along a row of
+ * tiles (as when iterating over the rows) or down a column of tiles (as when
+ * iterating over the columns), the next {@value #PREFETCH_DISTANCE} tiles in
+ * that direction are read in the background, so the next miss does not wait
+ * for the disk. At most {@value #PREFETCH_DISTANCE} prefetched tiles wait
+ * outside the cache at a time, so a newer prefetch drops the oldest one if it
+ * has not been used. The counts of hits, misses, evictions and prefetched tiles are
+ * kept to help choosing the size of the cache.<p>
+ *
+ * The file starts with a header of {@value #HEADER_SIZE} bytes, with the same
+ * fields as the files of {@link MappedDoubleMatrix} and
+ * {@link collections2d.io.MatrixWriter}, with a type tag of its own and the
+ * size of the tiles in the reserved field, followed by the tiles, row after
+ * row of tiles. Each tile holds its values in row-major order, and the tiles of
+ * the last row and column are full size, padded with zeros. Every number is
+ * stored in little-endian byte order.<p>
+ *
+ * The dimension of a {@code TiledFileMatrix} is fixed when its file is
+ * created, so every operation that would change it throws an
+ * {@code UnsupportedOperationException}. The values written are only
+ * guaranteed to be in the file after {@link #flush()} or {@link #close()};
+ * after closing, any access to this matrix throws an
+ * {@code IllegalStateException}. I/O errors while accessing the values are
+ * thrown as {@link UncheckedIOException}s.<p>
+ *
+ * This matrix is not synchronized, and does not permit null elements.
+ *
+ * @see NumericMatrix
+ * @see BlockedMatrix
+ * @see MappedDoubleMatrix
+ */
+public class TiledFileMatrix extends AbstractMatrix<Double>
+		implements NumericMatrix, RandomAccess, Closeable
+{
+
+	/**
+	 * Size in bytes of the header, which keeps the values aligned to eight bytes.
+	 */
+	public final static int HEADER_SIZE = MatrixFormat.HEADER_SIZE;
+
+	/**
+	 * The number of rows and columns of every tile.
+	 */
+	public final static int TILE_SIZE = 64;
+
+	/**
+	 * Number of tiles kept in memory when no other number is given, 32 MiB.
+	 */
+	public final static int DEFAULT_CACHE_SIZE = 1024;
+
+	/**
+	 * Number of tiles read ahead when the tiles are accessed in order.
+	 */
+	public final static int PREFETCH_DISTANCE = 2;
+
+	private final static int SHIFT = 6;
+	private final static int MASK = TILE_SIZE - 1;
+	private final static int TILE_LENGTH = TILE_SIZE * TILE_SIZE;
+	private final static int TILE_BYTES = TILE_LENGTH * Double.BYTES;
+
+	/**
+	 * A tile in memory.
+	 */
+	private static final class Tile {
+		final int index;
+		final double[] values;
+		boolean dirty;
+
+		Tile(int index, double[] values) {
+			this.index = index;
+			this.values = values;
+		}
+	}
+
+	private final FileChannel channel;
+
+	/**
+	 * The tiles in memory, from the least to the most recently used.
+	 * {@code null} once the matrix is closed.
+	 */
+	private LinkedHashMap<Integer, Tile> cache;
+
+	private final int cacheSize;
+
+	/**
+	 * The tile accessed last, which is checked before looking in the cache.
+	 */
+	private Tile last;
+
+	/**
+	 * Tiles being read in the background, or already read and not yet used, by
+	 * their index, from the oldest to the newest. There are at most
+	 * {@link #PREFETCH_DISTANCE} of them: a new prefetch drops the oldest one,
+	 * so tiles read ahead and never used are not kept outside the cache.
+	 */
+	private final LinkedHashMap<Integer, CompletableFuture<double[]>> prefetching = new LinkedHashMap<>();
+
+	/**
+	 * The thread that reads the prefetched tiles, created on the first prefetch.
+	 */
+	private ExecutorService prefetcher;
+
+	/**
+	 * Buffer for the transfers of tiles in the prefetcher thread, allocated with it.
+	 */
+	private ByteBuffer prefetchBuffer;
+
+	/**
+	 * Buffer for the transfers of tiles in the calling thread.
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(TILE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+	private long hits, misses, evictions, prefetched;
+
+	/**
+	 * The number of rows this TiledFileMatrix has.
+	 */
+	private final int numberOfRows;
+	/**
+	 * The number of columns this TiledFileMatrix has.
+	 */
+	private final int numberOfColumns;
+
+	/**
+	 * The number of rows and columns of tiles, and the number of tiles, which
+	 * is at most {@code Integer.MAX_VALUE}.
+	 */
+	private final int tileRows, tileColumns, tileCount;
+
+	private TiledFileMatrix(FileChannel channel, int rows, int columns, int cacheSize) {
+		if (cacheSize < 1)
+			throw new IllegalArgumentException("Illegal cache size: " + cacheSize);
+		this.channel = channel;
+		this.numberOfRows = rows;
+		this.numberOfColumns = columns;
+		this.tileRows = (rows + MASK) >>> SHIFT;
+		this.tileColumns = (columns + MASK) >>> SHIFT;
+		this.tileCount = (int) tileCount(rows, columns);
+		this.cacheSize = cacheSize;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the number of tiles of a matrix of the specified dimension.
+	 */
+	private static long tileCount(int rows, int columns) {
+		return (long) ((rows + MASK) >>> SHIFT) * ((columns + MASK) >>> SHIFT);
+	}
+
+	/**
+	 * Creates a new file, or truncates an existing one, for a matrix of the
+	 * specified dimension, keeping up to {@value #DEFAULT_CACHE_SIZE} tiles in
+	 * memory. Every value of the new matrix is zero.
+	 *
+	 * @param file the file of the matrix
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @return a new matrix backed by the file
+	 * @throws IllegalArgumentException if any of the dimensions is negative, or
+	 *         the matrix has more than {@code Integer.MAX_VALUE} tiles
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static TiledFileMatrix create(Path file, int rows, int columns) throws IOException {
+		return create(file, rows, columns, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a new file, or truncates an existing one, for a matrix of the
+	 * specified dimension, keeping up to the specified number of tiles in
+	 * memory. Every value of the new matrix is zero; on most file systems the
+	 * space for the tiles is only allocated as they are written.
+	 *
+	 * @param file the file of the matrix
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param cacheSize the number of tiles kept in memory
+	 * @return a new matrix backed by the file
+	 * @throws IllegalArgumentException if any of the dimensions is negative, the
+	 *         matrix has more than {@code Integer.MAX_VALUE} tiles, or the cache
+	 *         size is not positive
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static TiledFileMatrix create(Path file, int rows, int columns, int cacheSize) throws IOException {
+		return create(file, rows, columns, cacheSize, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Creates a matrix of the specified dimension in a new temporary file,
+	 * which is deleted when the matrix is closed, keeping up to the specified
+	 * number of tiles in memory. Every value of the new matrix is zero.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param cacheSize the number of tiles kept in memory
+	 * @return a new matrix backed by a temporary file
+	 * @throws IllegalArgumentException if any of the dimensions is negative, the
+	 *         matrix has more than {@code Integer.MAX_VALUE} tiles, or the cache
+	 *         size is not positive
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static TiledFileMatrix createTemporary(int rows, int columns, int cacheSize) throws IOException {
+		Path file = Files.createTempFile("matrix", ".tiles");
+		return create(file, rows, columns, cacheSize, StandardOpenOption.DELETE_ON_CLOSE);
+	}
+
+	private static TiledFileMatrix create(Path file, int rows, int columns, int cacheSize,
+			StandardOpenOption option) throws IOException {
+		if (rows < 0 || columns < 0)
+			throw new IllegalArgumentException("Illegal dimension: " + rows + "x" + columns);
+		if (rows == 0 || columns == 0)
+			rows = columns = 0;
+		if (tileCount(rows, columns) > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many tiles for a matrix " + rows + "x" + columns);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, option,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			TiledFileMatrix m = new TiledFileMatrix(channel, rows, columns, cacheSize);
+			int count = m.tileCount;
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MatrixFormat.MAGIC).putInt(MatrixFormat.VERSION).putInt(rows).putInt(columns)
+					.putInt(MatrixFormat.TILED).putInt(TILE_SIZE).putLong((long) count * TILE_LENGTH).rewind();
+			while (header.hasRemaining())
+				channel.write(header, header.position());
+			if (count > 0) {
+				ByteBuffer end = ByteBuffer.allocate(1);
+				channel.write(end, m.position(count) - 1);
+			}
+			return m;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens the file of an existing matrix, keeping up to
+	 * {@value #DEFAULT_CACHE_SIZE} tiles in memory.
+	 *
+	 * @param file the file of the matrix
+	 * @return a matrix backed by the file
+	 * @throws IOException if an I/O error occurs, or the file is not a tiled matrix
+	 */
+	public static TiledFileMatrix open(Path file) throws IOException {
+		return open(file, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Opens the file of an existing matrix, keeping up to the specified number
+	 * of tiles in memory. Only the header is read.
+	 *
+	 * @param file the file of the matrix
+	 * @param cacheSize the number of tiles kept in memory
+	 * @return a matrix backed by the file
+	 * @throws IllegalArgumentException if the cache size is not positive
+	 * @throws IOException if an I/O error occurs, or the file is not a tiled matrix
+	 */
+	public static TiledFileMatrix open(Path file, int cacheSize) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining())
+				if (channel.read(header, header.position()) < 0)
+					throw new IOException("Not a matrix file: " + file);
+			header.flip();
+			int magic = header.getInt(), version = header.getInt();
+			int rows = header.getInt(), columns = header.getInt(), type = header.getInt(), size = header.getInt();
+			if (magic != MatrixFormat.MAGIC)
+				throw new IOException("Not a matrix file: " + file);
+			if (version != MatrixFormat.VERSION)
+				throw new IOException("Unsupported version " + version + " of matrix file: " + file);
+			if (type != MatrixFormat.TILED || size != TILE_SIZE)
+				throw new IOException("Not a tiled matrix file: " + file);
+			if (rows < 0 || columns < 0 || (rows == 0) != (columns == 0)
+					|| tileCount(rows, columns) > Integer.MAX_VALUE)
+				throw new IOException("Illegal dimension " + rows + "x" + columns + " of matrix file: " + file);
+			TiledFileMatrix m = new TiledFileMatrix(channel, rows, columns, cacheSize);
+			if (channel.size() < m.position(m.tileCount))
+				throw new IOException("Truncated matrix file: " + file);
+			return m;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public int rowSize() {
+		return numberOfRows;
+	}
+
+	public int columnSize() {
+		return numberOfColumns;
+	}
+
+	/**
+	 * Returns the number of elements in this matrix, or {@code Integer.MAX_VALUE}
+	 * if there are more elements than that.
+	 *
+	 * @return the number of elements in this matrix
+	 */
+	public int totalSize() {
+		long size = (long) numberOfRows * numberOfColumns;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	public boolean isEmpty() {
+		return numberOfRows == 0;
+	}
+
+	/**
+	 * Returns the dimension of this matrix.
+	 * @return dimension of this matrix
+	 */
+	public Dimension getDimension() {
+		return new Dimension(numberOfColumns, numberOfRows);
+	}
+
+	/**
+	 * Returns the maximum number of tiles kept in memory.
+	 *
+	 * @return the size of the cache, in tiles
+	 */
+	public int cacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Returns the number of accesses to a tile that was in memory.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long hitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of accesses to a tile that was not in memory, including
+	 * those to a tile that was being prefetched.
+	 *
+	 * @return the number of cache misses
+	 */
+	public long missCount() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of tiles removed from memory to make room for others.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of tiles read ahead in the background.
+	 *
+	 * @return the number of prefetched tiles
+	 */
+	public long prefetchCount() {
+		return prefetched;
+	}
+
+	/**
+	 * Sets every counter of the cache to zero.
+	 */
+	public void resetStatistics() {
+		hits = misses = evictions = prefetched = 0;
+	}
+
+	/**
+	 * Returns the position in the file of the specified tile.
+	 */
+	private long position(int tile) {
+		return HEADER_SIZE + (long) tile * TILE_BYTES;
+	}
+
+	/**
+	 * Returns the position, in its tile, of the value at the specified coordinates.
+	 */
+	private static int offset(int indexRow, int indexColumn) {
+		return (indexRow & MASK) << SHIFT | (indexColumn & MASK);
+	}
+
+	/**
+	 * Returns the tile with the value at the specified coordinates, reading it
+	 * if it is not in memory.
+	 */
+	private Tile tileOf(int indexRow, int indexColumn) {
+		return tile((indexRow >>> SHIFT) * tileColumns + (indexColumn >>> SHIFT));
+	}
+
+	private Tile tile(int index) {
+		Tile t = last;
+		if (t != null && t.index == index) {
+			hits++;
+			return t;
+		}
+		if (cache == null)
+			throw new IllegalStateException("Matrix is closed");
+		t = cache.get(index);
+		if (t != null) {
+			hits++;
+		} else {
+			misses++;
+			t = load(index);
+		}
+		if (last != null)
+			prefetch(last.index, index);
+		last = t;
+		return t;
+	}
+
+	/**
+	 * Puts the specified tile in the cache, evicting the least recently used
+	 * tile if the cache is full and reusing its array, and returns it.
+	 */
+	private Tile load(int index) {
+		double[] values = null;
+		CompletableFuture<double[]> pending = prefetching.remove(index);
+		if (pending != null) {
+			try {
+				values = pending.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof UncheckedIOException u)
+					throw u;
+				throw e;
+			}
+		}
+		double[] free = null;
+		if (cache.size() >= cacheSize) {
+			Iterator<Tile> it = cache.values().iterator();
+			Tile eldest = it.next();
+			it.remove();
+			evictions++;
+			if (eldest.dirty)
+				write(eldest);
+			free = eldest.values;
+		}
+		if (values == null) {
+			values = free != null ? free : new double[TILE_LENGTH];
+			read(index, values, buffer);
+		}
+		Tile t = new Tile(index, values);
+		cache.put(index, t);
+		return t;
+	}
+
+	/**
+	 * Reads in the background the next tiles after {@code to}, if it follows
+	 * {@code from} along a row or a column of tiles.
+	 */
+	private void prefetch(int from, int to) {
+		int step;
+		if (to == from + 1)
+			step = 1;
+		else if (to == from + tileColumns)
+			step = tileColumns;
+		else
+			return;
+		long next = to;
+		for (int k = 1; k <= PREFETCH_DISTANCE && (next += step) < tileCount; k++) {
+			Integer key = (int) next;
+			if (cache.containsKey(key) || prefetching.containsKey(key))
+				continue;
+			if (prefetcher == null) {
+				prefetchBuffer = ByteBuffer.allocateDirect(TILE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				prefetcher = Executors.newSingleThreadExecutor(r -> {
+					Thread thread = new Thread(r, "TiledFileMatrix prefetcher");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+			if (prefetching.size() >= PREFETCH_DISTANCE) {
+				Iterator<CompletableFuture<double[]>> it = prefetching.values().iterator();
+				it.next().cancel(false);
+				it.remove();
+			}
+			int index = key;
+			prefetching.put(key, CompletableFuture.supplyAsync(() -> {
+				double[] values = new double[TILE_LENGTH];
+				read(index, values, prefetchBuffer);
+				return values;
+			}, prefetcher));
+			prefetched++;
+		}
+	}
+
+	/**
+	 * Reads a tile from the file. Positional reads do not change the position
+	 * of the channel, so tiles can be read by several threads at once.
+	 */
+	private void read(int index, double[] values, ByteBuffer buf) {
+		buf.clear();
+		try {
+			long position = position(index);
+			while (buf.hasRemaining())
+				if (channel.read(buf, position + buf.position()) < 0)
+					throw new IOException("Truncated matrix file");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		buf.flip();
+		buf.asDoubleBuffer().get(values);
+	}
+
+	/**
+	 * Writes a tile back to the file.
+	 */
+	private void write(Tile t) {
+		buffer.clear();
+		DoubleBuffer view = buffer.asDoubleBuffer();
+		view.put(t.values);
+		try {
+			long position = position(t.index);
+			while (buffer.hasRemaining())
+				channel.write(buffer, position + buffer.position());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		t.dirty = false;
+	}
+
+	public Double getElement(int indexRow, int indexColumn) {
+		return getDouble(indexRow, indexColumn);
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return tileOf(indexRow, indexColumn).values[offset(indexRow, indexColumn)];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public Double setElement(int indexRow, int indexColumn, Double newElement) {
+		return setDouble(indexRow, indexColumn, newElement);
+	}
+
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		Tile t = tileOf(indexRow, indexColumn);
+		int k = offset(indexRow, indexColumn);
+		double old = t.values[k];
+		t.values[k] = newValue;
+		t.dirty = true;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		for (int j = fromColumn, to = fromColumn + length; j < to; ) {
+			int n = Math.min(TILE_SIZE - (j & MASK), to - j);
+			System.arraycopy(tileOf(indexRow, j).values, offset(indexRow, j), dest, destPos + j - fromColumn, n);
+			j += n;
+		}
+	}
+
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		Objects.checkFromIndexSize(fromColumn, length, numberOfColumns);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		for (int j = fromColumn, to = fromColumn + length; j < to; ) {
+			int n = Math.min(TILE_SIZE - (j & MASK), to - j);
+			Tile t = tileOf(indexRow, j);
+			System.arraycopy(src, srcPos + j - fromColumn, t.values, offset(indexRow, j), n);
+			t.dirty = true;
+			j += n;
+		}
+	}
+
+	/**
+	 * Returns the row at the specified position in this matrix.
+	 * The returned list is a view over the tiles, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexRow index of the row to return
+	 * @return the row at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getRow(int indexRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		return new Line(indexRow, true);
+	}
+
+	/**
+	 * Returns the column at the specified position in this matrix.
+	 * The returned list is a view over the tiles, so no values are copied,
+	 * and changes made with its {@code set} method are written through to
+	 * this matrix.
+	 *
+	 * @param  indexColumn index of the column to return
+	 * @return the column at the specified position in this matrix
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public Collection<Double> getColumn(int indexColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		return new Line(indexColumn, false);
+	}
+
+	/**
+	 * Replaces the row at the specified position in this matrix with the
+	 * specified row.
+	 *
+	 * @throws NullPointerException if the row is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the row is
+	 *         different than the number of columns
+	 */
+	public Collection<Double> setRow(int indexRow, Collection<Double> newRow) {
+		Objects.checkIndex(indexRow, numberOfRows);
+		if (newRow.size() != numberOfColumns)
+			throw new IncompatibleCollectionSizeException();
+		double[] row = new double[numberOfColumns];
+		int j = 0;
+		for (Double e : newRow)
+			row[j++] = e;
+		List<Double> replaced = new ArrayList<>(getRow(indexRow));
+		copyRowFrom(indexRow, 0, row, 0, numberOfColumns);
+		return replaced;
+	}
+
+	/**
+	 * Replaces the column at the specified position in this matrix with the
+	 * specified column.
+	 *
+	 * @throws NullPointerException if the column is null or contains null elements
+	 * @throws IncompatibleCollectionSizeException if the length of the column is
+	 *         different than the number of rows
+	 */
+	public Collection<Double> setColumn(int indexColumn, Collection<Double> newColumn) {
+		Objects.checkIndex(indexColumn, numberOfColumns);
+		if (newColumn.size() != numberOfRows)
+			throw new IncompatibleCollectionSizeException();
+		double[] column = new double[numberOfRows];
+		int i = 0;
+		for (Double e : newColumn)
+			column[i++] = e;
+		List<Double> replaced = new ArrayList<>(numberOfRows);
+		for (i = 0; i < numberOfRows; i++)
+			replaced.add(setDouble(i, indexColumn, column[i]));
+		return replaced;
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeRow(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public Collection<Double> removeColumn(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws an {@code UnsupportedOperationException}, since the
+	 * dimension of this matrix is fixed.
+	 */
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @implSpec
+	 * This implementation returns the spliterator of {@link #doubleSpliterator()}.
+	 */
+	public Spliterator<Double> elementSpliterator() {
+		return doubleSpliterator();
+	}
+
+	/**
+	 * Writes every modified tile in memory back to the file, and the file to
+	 * the storage device that contains it. The tiles stay in memory.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 * @throws IllegalStateException if this matrix is closed
+	 */
+	public void flush() throws IOException {
+		if (cache == null)
+			throw new IllegalStateException("Matrix is closed");
+		try {
+			for (Tile t : cache.values())
+				if (t.dirty)
+					write(t);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		channel.force(false);
+	}
+
+	/**
+	 * Writes every modified tile in memory back to the file, and closes it. A
+	 * temporary file is deleted instead. Any later access to this matrix
+	 * throws an {@code IllegalStateException}. Closing a closed matrix has no
+	 * effect.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		if (cache == null)
+			return;
+		try {
+			for (CompletableFuture<double[]> pending : prefetching.values())
+				pending.cancel(false);
+			prefetching.clear();
+			if (prefetcher != null) {
+				prefetcher.shutdown();
+				try {
+					prefetcher.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			for (Tile t : cache.values())
+				if (t.dirty)
+					write(t);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			cache = null;
+			last = null;
+			channel.close();
+		}
+	}
+
+	/**
+	 * Live view of a row or a column of this matrix.
+	 */
+	private class Line extends AbstractList<Double> implements RandomAccess {
+
+		private final int index;
+		private final boolean row;
+
+		Line(int index, boolean row) {
+			this.index = index;
+			this.row = row;
+		}
+
+		public int size() {
+			return row ? numberOfColumns : numberOfRows;
+		}
+
+		public Double get(int i) {
+			return row ? getDouble(index, i) : getDouble(i, index);
+		}
+
+		public Double set(int i, Double element) {
+			return row ? setDouble(index, i, element) : setDouble(i, index, element);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package collections2d;
+
+import java.util.Objects;
+
+/**
+ * Implementation of the interface {@code Matrix} for tridiagonal matrices of
+ * {@code double} values, a {@link BandedMatrix} with one diagonal below and
+ * one above the main diagonal. Row {@code i} stores the elements
+ * {@code (i, i-1)}, {@code (i, i)} and {@code (i, i+1)} in three consecutive
+ * positions of a single array.<p>
+ *
+ * Systems are solved with the Thomas algorithm, Gaussian elimination without
+ * pivoting specialized to three diagonals, in {@code O(n)} time. It is stable
+ * for the diagonally dominant and the symmetric positive definite matrices
+ * that discretizations of differential equations produce; for any other
+ * matrix, {@link algebra.BandedLUDecomposition} solves with partial pivoting.
+ *
+ * @see BandedMatrix
+ */
+public class TridiagonalMatrix extends BandedMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = 5906361218357329664L;
+
+	/**
+	 * Constructs a tridiagonal matrix of the specified order, with every value zero.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @throws IllegalArgumentException if the order is negative, or the matrix
+	 *         is too large
+	 */
+	public TridiagonalMatrix(int order) {
+		super(order, 1, 1);
+	}
+
+	/**
+	 * Constructs a tridiagonal matrix with the specified diagonals.
+	 *
+	 * @param lower the diagonal below the main one, of length {@code n - 1}
+	 * @param diagonal the main diagonal, of length {@code n}, the order of the matrix
+	 * @param upper the diagonal above the main one, of length {@code n - 1}
+	 * @throws IncompatibleDimensionException if the lengths of the diagonals do
+	 *         not match
+	 * @throws IllegalArgumentException if the matrix is too large
+	 */
+	public TridiagonalMatrix(double[] lower, double[] diagonal, double[] upper) {
+		this(diagonal.length);
+		int off = Math.max(0, order - 1);
+		if (lower.length != off || upper.length != off)
+			throw new IncompatibleDimensionException("Diagonals of lengths " + lower.length + ", "
+					+ diagonal.length + " and " + upper.length);
+		for (int i = 0; i < order; i++) {
+			if (i > 0)
+				data[3 * i] = lower[i - 1];
+			data[3 * i + 1] = diagonal[i];
+			if (i < off)
+				data[3 * i + 2] = upper[i];
+		}
+	}
+
+	/**
+	 * Returns a new tridiagonal matrix with the values of the specified matrix,
+	 * which must be zero outside the three diagonals.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new tridiagonal matrix with the values of the specified matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws IllegalArgumentException if any element outside the diagonals is
+	 *         not zero
+	 */
+	public static TridiagonalMatrix copyOf(NumericMatrix m) {
+		checkSquare(m);
+		TridiagonalMatrix t = new TridiagonalMatrix(m.rowSize());
+		double[] row = new double[t.order];
+		for (int i = 0; i < t.order; i++) {
+			m.copyRowTo(i, 0, row, 0, t.order);
+			t.copyRowFrom(i, 0, row, 0, t.order);
+		}
+		return t;
+	}
+
+	/**
+	 * Solves {@code A * x = b} with the Thomas algorithm: a forward sweep that
+	 * eliminates the lower diagonal, and a back substitution over the upper
+	 * one. No pivoting is done.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of this matrix
+	 * @throws SingularMatrixException if a pivot of the elimination is zero,
+	 *         which happens if the matrix is singular, but may also happen for
+	 *         a non-singular matrix that needs pivoting
+	 */
+	public double[] solve(double[] b) {
+		checkLength(Objects.requireNonNull(b));
+		double[] x = new double[order];
+		if (order == 0)
+			return x;
+		double[] c = new double[order];
+		double pivot = data[1];
+		if (pivot == 0)
+			throw new SingularMatrixException("Zero pivot at row 0");
+		x[0] = b[0] / pivot;
+		for (int i = 1; i < order; i++) {
+			double l = data[3 * i];
+			c[i] = data[3 * i - 1] / pivot;
+			pivot = data[3 * i + 1] - l * c[i];
+			if (pivot == 0)
+				throw new SingularMatrixException("Zero pivot at row " + i);
+			x[i] = (b[i] - l * x[i - 1]) / pivot;
+		}
+		for (int i = order - 2; i >= 0; i--)
+			x[i] -= c[i + 1] * x[i + 1];
+		return x;
+	}
+}
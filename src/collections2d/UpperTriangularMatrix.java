@@ -0,0 +1,199 @@
+package collections2d;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of the interface {@code Matrix} for upper triangular matrices
+ * of {@code double} values, where only the elements on and above the diagonal
+ * are stored. Row {@code i}, the values {@code (i, i)} to {@code (i, n-1)},
+ * follows the rows before it in a single array, so a matrix of order {@code n}
+ * takes {@code n(n+1)/2} values, about half the memory of a full matrix.<p>
+ *
+ * Every element below the diagonal is zero: it can be set to zero, which has
+ * no effect, but setting it to any other value throws an
+ * {@code IllegalArgumentException}. Products and triangular solves read the
+ * packed rows directly, without looking at the zeros.<p>
+ *
+ * The order of an {@code UpperTriangularMatrix} is fixed when it is created, so
+ * every operation that would change its dimension throws an
+ * {@code UnsupportedOperationException}. This matrix does not permit null
+ * elements.
+ *
+ * @see NumericMatrix
+ * @see LowerTriangularMatrix
+ * @see SymmetricMatrix
+ */
+public class UpperTriangularMatrix extends PackedMatrix {
+
+	@java.io.Serial
+	private static final long serialVersionUID = -4528377301565914750L;
+
+	/**
+	 * Constructs an upper triangular matrix of the specified order, with every
+	 * value zero.
+	 *
+	 * @param order the number of rows and columns of the matrix
+	 * @throws IllegalArgumentException if the order is negative or greater than
+	 *         {@link #MAX_ORDER}
+	 */
+	public UpperTriangularMatrix(int order) {
+		super(order, triangleLength(order));
+	}
+
+	/**
+	 * Returns a new upper triangular matrix with the values of the specified
+	 * matrix, which must be upper triangular.
+	 *
+	 * @param m the matrix whose values are to be copied
+	 * @return a new upper triangular matrix with the values of the specified matrix
+	 * @throws IncompatibleDimensionException if the matrix is not square
+	 * @throws IllegalArgumentException if any element below the diagonal is
+	 *         not zero
+	 */
+	public static UpperTriangularMatrix copyOf(NumericMatrix m) {
+		checkSquare(m);
+		UpperTriangularMatrix u = new UpperTriangularMatrix(m.rowSize());
+		double[] row = new double[u.order];
+		for (int i = 0; i < u.order; i++) {
+			m.copyRowTo(i, 0, row, 0, u.order);
+			u.copyRowFrom(i, 0, row, 0, u.order);
+		}
+		return u;
+	}
+
+	/**
+	 * Returns the position in the packed array of the diagonal element of the
+	 * specified row, after the {@code n - k} values of each row {@code k} before
+	 * it. As in {@link #triangle}, the product fits in 32 bits as an unsigned
+	 * integer.
+	 */
+	private int rowStart(int indexRow) {
+		return (indexRow * (2 * order - indexRow + 1)) >>> 1;
+	}
+
+	public double getDouble(int indexRow, int indexColumn) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		return indexColumn < indexRow ? 0.0 : data[rowStart(indexRow) + indexColumn - indexRow];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if the element is below the diagonal and
+	 *         the new value is not zero
+	 */
+	public double setDouble(int indexRow, int indexColumn, double newValue) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkIndex(indexColumn, order);
+		if (indexColumn < indexRow) {
+			if (newValue != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + indexColumn
+						+ ") is below the diagonal of an upper triangular matrix");
+			return 0.0;
+		}
+		int k = rowStart(indexRow) + indexColumn - indexRow;
+		double old = data[k];
+		data[k] = newValue;
+		return old;
+	}
+
+	public void copyRowTo(int indexRow, int fromColumn, double[] dest, int destPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(destPos, length, dest.length);
+		int zeros = Math.max(0, Math.min(length, indexRow - fromColumn));
+		Arrays.fill(dest, destPos, destPos + zeros, 0.0);
+		System.arraycopy(data, rowStart(indexRow) + fromColumn + zeros - indexRow, dest, destPos + zeros,
+				length - zeros);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException if any of the values to be copied below
+	 *         the diagonal is not zero; no value is copied then
+	 */
+	public void copyRowFrom(int indexRow, int fromColumn, double[] src, int srcPos, int length) {
+		Objects.checkIndex(indexRow, order);
+		Objects.checkFromIndexSize(fromColumn, length, order);
+		Objects.checkFromIndexSize(srcPos, length, src.length);
+		int zeros = Math.max(0, Math.min(length, indexRow - fromColumn));
+		for (int j = 0; j < zeros; j++)
+			if (src[srcPos + j] != 0)
+				throw new IllegalArgumentException("Element (" + indexRow + ", " + (fromColumn + j)
+						+ ") is below the diagonal of an upper triangular matrix");
+		System.arraycopy(src, srcPos + zeros, data, rowStart(indexRow) + fromColumn + zeros - indexRow,
+				length - zeros);
+	}
+
+	/**
+	 * Returns the product of this matrix and the specified vector.
+	 *
+	 * @param x the vector, of length {@code rowSize()}
+	 * @return a new array with the product {@code U * x}
+	 * @throws IncompatibleDimensionException if the length of {@code x} is not
+	 *         the order of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		checkLength(x);
+		double[] y = new double[order];
+		for (int i = 0, k = 0; i < order; i++) {
+			double s = 0;
+			for (int j = i; j < order; j++)
+				s += data[k++] * x[j];
+			y[i] = s;
+		}
+		return y;
+	}
+
+	/**
+	 * Solves {@code U * x = b} by back substitution, reading each packed row
+	 * once, from the last one to the first one.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of this matrix
+	 * @throws SingularMatrixException if any element of the diagonal is zero
+	 */
+	public double[] solve(double[] b) {
+		checkLength(b);
+		double[] x = new double[order];
+		for (int i = order - 1; i >= 0; i--) {
+			int k = rowStart(i);
+			double s = b[i];
+			for (int j = i + 1; j < order; j++)
+				s -= data[k + j - i] * x[j];
+			double d = data[k];
+			if (d == 0)
+				throw new SingularMatrixException("Matrix is singular");
+			x[i] = s / d;
+		}
+		return x;
+	}
+
+	/**
+	 * Solves {@code U^T * x = b}, the system of the transpose of this matrix,
+	 * by forward substitution. Each packed row of this matrix is a column of
+	 * the transpose, which is read once.
+	 *
+	 * @param b the right-hand side, of length {@code rowSize()}
+	 * @return a new array with the solution {@code x}
+	 * @throws IncompatibleDimensionException if the length of {@code b} is not
+	 *         the order of this matrix
+	 * @throws SingularMatrixException if any element of the diagonal is zero
+	 */
+	public double[] solveTransposed(double[] b) {
+		checkLength(b);
+		double[] x = b.clone();
+		for (int i = 0, k = 0; i < order; i++) {
+			double d = data[k++];
+			if (d == 0)
+				throw new SingularMatrixException("Matrix is singular");
+			double xi = x[i] /= d;
+			for (int j = i + 1; j < order; j++)
+				x[j] -= data[k++] * xi;
+		}
+		return x;
+	}
+}
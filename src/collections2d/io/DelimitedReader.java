@@ -0,0 +1,182 @@
+package collections2d.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+
+/**
+ * Reads a matrix from delimited text, such as comma-separated values, from a
+ * channel. Each line of the text is a row of the matrix, with its values
+ * separated by the delimiter, and every row must have the same number of
+ * values. Spaces and tabs around the values are ignored, as are blank lines,
+ * and lines may end in {@code "\n"} or {@code "\r\n"}. If the delimiter is a
+ * space or a tab, any run of spaces and tabs separates two values. The values
+ * are unquoted decimal numbers, as read by {@link Double#parseDouble}.<p>
+ *
+ * The text is read in large blocks and its numbers are parsed from the bytes
+ * where they are, straight into the storage of the matrix, so reading a file
+ * of several gigabytes creates no object per line or per value.<p>
+ *
+ * A {@code DelimitedReader} is not safe for use by multiple threads.
+ *
+ * @see DelimitedWriter
+ */
+public class DelimitedReader implements Closeable {
+
+	private final TextScanner scanner;
+
+	/**
+	 * Creates a reader from the specified channel, with a buffer of the default size.
+	 *
+	 * @param channel the channel to read from
+	 * @param delimiter the character between two values of a row
+	 * @throws IllegalArgumentException if the delimiter is not an ASCII
+	 *         character that can separate values
+	 */
+	public DelimitedReader(ReadableByteChannel channel, char delimiter) {
+		this(channel, delimiter, MatrixFormat.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a reader from the specified channel, with a buffer of the specified size.
+	 *
+	 * @param channel the channel to read from
+	 * @param delimiter the character between two values of a row
+	 * @param bufferSize the size in bytes of the buffer
+	 * @throws IllegalArgumentException if the delimiter is not an ASCII
+	 *         character that can separate values, or the size is smaller than
+	 *         a kilobyte
+	 */
+	public DelimitedReader(ReadableByteChannel channel, char delimiter, int bufferSize) {
+		checkDelimiter(delimiter);
+		this.scanner = new TextScanner(channel, bufferSize, delimiter);
+	}
+
+	static void checkDelimiter(char delimiter) {
+		if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r' || delimiter == '.'
+				|| delimiter == '-' || delimiter == '+' || Character.isLetterOrDigit(delimiter))
+			throw new IllegalArgumentException("Illegal delimiter: '" + delimiter + "'");
+	}
+
+	/**
+	 * Reads the matrix of the specified file.
+	 *
+	 * @param file the file to read from
+	 * @param delimiter the character between two values of a row
+	 * @return a new matrix with the values read
+	 * @throws IllegalArgumentException if the delimiter is not an ASCII
+	 *         character that can separate values
+	 * @throws IOException if an I/O error occurs, or the file is not a matrix
+	 */
+	public static DoubleMatrix load(Path file, char delimiter) throws IOException {
+		try (DelimitedReader r = new DelimitedReader(FileChannel.open(file, StandardOpenOption.READ), delimiter)) {
+			return r.read();
+		}
+	}
+
+	/**
+	 * Skips the specified number of lines, such as the names of the columns.
+	 *
+	 * @param n the number of lines to skip
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void skipLines(int n) throws IOException {
+		for (int k = 0; k < n; k++)
+			scanner.skipLine();
+	}
+
+	/**
+	 * Reads every remaining row into a new {@link DoubleMatrix}. The number of
+	 * columns is that of the first row, and the row capacity grows
+	 * geometrically as rows are read.
+	 *
+	 * @return a new matrix with the rows read, empty if there are none
+	 * @throws IOException if an I/O error occurs, a value is not a number, or a
+	 *         row has a number of values different than the first one
+	 */
+	public DoubleMatrix read() throws IOException {
+		DoubleMatrix m = new DoubleMatrix();
+		if (!skipBlankLines())
+			return m;
+		double[] row = new double[16];
+		int cols = 0;
+		for (;;) {
+			if (cols == row.length)
+				row = Arrays.copyOf(row, cols * 2);
+			row[cols++] = scanner.nextDouble();
+			if (scanner.atLineEnd())
+				break;
+			scanner.skipDelimiter();
+		}
+		row = Arrays.copyOf(row, cols);
+		m.addRow(row);
+		while (skipBlankLines()) {
+			readRow(row);
+			m.addRow(row);
+		}
+		return m;
+	}
+
+	/**
+	 * Reads the next rows into the specified matrix, one for each of its rows,
+	 * replacing all of its values.
+	 *
+	 * @param dest the matrix to read into
+	 * @throws EOFException if the text ends before every row is read
+	 * @throws IOException if an I/O error occurs, a value is not a number, or a
+	 *         row has a number of values different than the columns of
+	 *         {@code dest}
+	 */
+	public void readInto(NumericMatrix dest) throws IOException {
+		double[] row = new double[dest.columnSize()];
+		for (int i = 0; i < dest.rowSize(); i++) {
+			if (!skipBlankLines())
+				throw new EOFException("Only " + i + " of " + dest.rowSize() + " rows");
+			readRow(row);
+			dest.copyRowFrom(i, 0, row, 0, row.length);
+		}
+	}
+
+	/**
+	 * Reads a whole line with exactly as many values as the length of the row.
+	 */
+	private void readRow(double[] row) throws IOException {
+		for (int j = 0; j < row.length; j++) {
+			if (j > 0) {
+				if (scanner.atLineEnd())
+					throw scanner.error("Row of " + j + " values, expected " + row.length);
+				scanner.skipDelimiter();
+			}
+			row[j] = scanner.nextDouble();
+		}
+		if (!scanner.atLineEnd())
+			throw scanner.error("Row of more than " + row.length + " values");
+	}
+
+	/**
+	 * Skips the end of the current line and any blank lines, and returns
+	 * {@code false} if the text ends.
+	 */
+	private boolean skipBlankLines() throws IOException {
+		scanner.skipWhitespace();
+		return !scanner.atEnd();
+	}
+
+	/**
+	 * Closes the channel of this reader.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		scanner.close();
+	}
+}
@@ -0,0 +1,130 @@
+package collections2d.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import collections2d.NumericMatrix;
+
+/**
+ * Writes matrices as delimited text, such as comma-separated values, to a
+ * channel: one line for each row, ended by {@code "\n"}, with its values
+ * separated by the delimiter. Each value is written as the shortest decimal
+ * that is read back as the same value. The text is encoded straight into a
+ * large buffer, which is written to the channel whenever it is full.<p>
+ *
+ * A {@code DelimitedWriter} is not safe for use by multiple threads.
+ *
+ * @see DelimitedReader
+ */
+public class DelimitedWriter implements Closeable, Flushable {
+
+	private final TextPrinter printer;
+
+	private final char delimiter;
+
+	/**
+	 * Creates a writer to the specified channel, with a buffer of the default size.
+	 *
+	 * @param channel the channel to write to
+	 * @param delimiter the character between two values of a row
+	 * @throws IllegalArgumentException if the delimiter is not an ASCII
+	 *         character that can separate values
+	 */
+	public DelimitedWriter(WritableByteChannel channel, char delimiter) {
+		this(channel, delimiter, MatrixFormat.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a writer to the specified channel, with a buffer of the specified size.
+	 *
+	 * @param channel the channel to write to
+	 * @param delimiter the character between two values of a row
+	 * @param bufferSize the size in bytes of the buffer
+	 * @throws IllegalArgumentException if the delimiter is not an ASCII
+	 *         character that can separate values, or the size is too small
+	 *         for a number
+	 */
+	public DelimitedWriter(WritableByteChannel channel, char delimiter, int bufferSize) {
+		DelimitedReader.checkDelimiter(delimiter);
+		this.printer = new TextPrinter(channel, bufferSize);
+		this.delimiter = delimiter;
+	}
+
+	/**
+	 * Writes the specified matrix to a file, which is created or truncated.
+	 *
+	 * @param m the matrix to write
+	 * @param file the file to write to
+	 * @param delimiter the character between two values of a row
+	 * @throws IllegalArgumentException if the delimiter is not an ASCII
+	 *         character that can separate values
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void save(NumericMatrix m, Path file, char delimiter) throws IOException {
+		try (DelimitedWriter w = new DelimitedWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), delimiter)) {
+			w.write(m);
+		}
+	}
+
+	/**
+	 * Writes a line with the specified text, such as the names of the columns.
+	 *
+	 * @param text the text of the line, which must not contain line breaks
+	 * @throws IllegalArgumentException if the text is not ASCII, or contains a
+	 *         line break
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeLine(String text) throws IOException {
+		for (int k = 0; k < text.length(); k++) {
+			char c = text.charAt(k);
+			if (c > 0x7F || c == '\n' || c == '\r')
+				throw new IllegalArgumentException("Illegal character in line: '" + c + "'");
+		}
+		printer.print(text);
+		printer.print('\n');
+	}
+
+	/**
+	 * Writes every row of the specified matrix.
+	 *
+	 * @param m the matrix to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(NumericMatrix m) throws IOException {
+		int rows = m.rowSize(), cols = m.columnSize();
+		double[] row = new double[cols];
+		for (int i = 0; i < rows; i++) {
+			m.copyRowTo(i, 0, row, 0, cols);
+			for (int j = 0; j < cols; j++) {
+				if (j > 0)
+					printer.print(delimiter);
+				printer.print(row[j]);
+			}
+			printer.print('\n');
+		}
+	}
+
+	/**
+	 * Writes to the channel all the text still in the buffer.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void flush() throws IOException {
+		printer.flush();
+	}
+
+	/**
+	 * Flushes this writer and closes its channel.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		printer.close();
+	}
+}
@@ -0,0 +1,76 @@
+package collections2d.io;
+
+/**
+ * Constants of the binary format of matrices written by {@link MatrixWriter}
+ * and read by {@link MatrixReader}. Every number is stored in little-endian
+ * byte order.<p>
+ *
+ * Each matrix starts with a header of {@value #HEADER_SIZE} bytes:
+ * <pre>
+ * offset  size  field
+ *      0     4  magic number, "MXKD" in ASCII
+ *      4     4  version of the format
+ *      8     4  number of rows
+ *     12     4  number of columns
+ *     16     4  type of the payload, {@link #DENSE} or {@link #SPARSE}
+ *     20     4  reserved, zero
+ *     24     8  number of values stored in the payload
+ * </pre>
+ * A {@link #DENSE} payload has every value ({@code double}) in row-major
+ * order, which is the layout of the files of
+ * {@link collections2d.MappedDoubleMatrix}, so a dense matrix written to a file
+ * can be mapped with {@link collections2d.MappedDoubleMatrix#open}.<p>
+ *
+ * A {@link #SPARSE} payload is the compressed sparse row form of the matrix:
+ * the position where each row starts, followed by the number of values
+ * ({@code rows + 1} values, each an {@code int}), then the column of each value
+ * (each an {@code int}), and then each value (each a {@code double}).<p>
+ *
+ * Type {@link #TILED} is used by the files of
+ * {@link collections2d.TiledFileMatrix}, whose payload holds square tiles of
+ * values, and whose reserved field holds the size of the tiles. These files
+ * are not read by {@code MatrixReader}.<p>
+ *
+ * The constants of the header are shared by every class that reads or writes
+ * these files, in this package and in {@code collections2d}.
+ */
+public final class MatrixFormat {
+
+	private MatrixFormat() {}
+
+	/**
+	 * Magic number at the start of each header, {@code "MXKD"} in ASCII.
+	 */
+	public static final int MAGIC = 0x444B584D;
+
+	/**
+	 * Version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Size in bytes of the header, which keeps the values aligned to eight bytes.
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	/**
+	 * Type of a payload with every value of the matrix.
+	 */
+	public static final int DENSE = 0;
+
+	/**
+	 * Type of a payload with the non-zero values of the matrix, in compressed
+	 * sparse row form.
+	 */
+	public static final int SPARSE = 1;
+
+	/**
+	 * Type of a payload of square tiles of values, row after row of tiles.
+	 */
+	public static final int TILED = 2;
+
+	/**
+	 * Default size in bytes of the buffers of readers and writers.
+	 */
+	static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+}
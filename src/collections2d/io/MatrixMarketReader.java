@@ -0,0 +1,254 @@
+package collections2d.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+import collections2d.SparseMatrix;
+
+/**
+ * Reads a matrix in the Matrix Market exchange format from a channel. The
+ * text is read in large blocks and its numbers are parsed from the bytes where
+ * they are, straight into the storage of the matrix, so reading a file of
+ * several gigabytes creates no object per line or per value.<p>
+ *
+ * The first line of the text is the header
+ * <pre>
+ * %%MatrixMarket matrix <i>format</i> <i>field</i> <i>symmetry</i>
+ * </pre>
+ * where <i>format</i> is {@code coordinate} or {@code array}, <i>field</i> is
+ * {@code real}, {@code integer} or, only for {@code coordinate}, {@code pattern},
+ * and <i>symmetry</i> is {@code general}, {@code symmetric} or
+ * {@code skew-symmetric}. It is followed by any number of comment lines
+ * starting with {@code %}, and then by the size line and the values:
+ * <ul>
+ * <li>In the {@code coordinate} format, the size line holds the number of rows,
+ *     columns and entries, and each entry is the row, the column (both starting
+ *     at 1) and the value, except for {@code pattern}, whose entries have no
+ *     value and are read as {@code 1.0}. Values of repeated entries are added up.
+ * <li>In the {@code array} format, the size line holds the number of rows and
+ *     columns, followed by every value in column-major order.
+ * </ul>
+ * A symmetric matrix only has the entries of its lower triangle, including
+ * the diagonal, and a skew-symmetric one those below the diagonal; the rest
+ * of the matrix is filled in from them. Complex and Hermitian matrices are not
+ * supported.<p>
+ *
+ * A {@code MatrixMarketReader} is not safe for use by multiple threads.
+ *
+ * @see MatrixMarketWriter
+ */
+public class MatrixMarketReader implements Closeable {
+
+	private final TextScanner scanner;
+
+	/**
+	 * Format, field and symmetry of the matrix being read.
+	 */
+	private boolean coordinate, pattern;
+	private int symmetry;
+
+	private static final int GENERAL = 0, SYMMETRIC = 1, SKEW_SYMMETRIC = 2;
+
+	/**
+	 * Dimension and number of entries of the matrix being read.
+	 */
+	private int rows, cols;
+	private long entries;
+
+	/**
+	 * Creates a reader from the specified channel, with a buffer of the default size.
+	 *
+	 * @param channel the channel to read from
+	 */
+	public MatrixMarketReader(ReadableByteChannel channel) {
+		this(channel, MatrixFormat.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a reader from the specified channel, with a buffer of the specified size.
+	 *
+	 * @param channel the channel to read from
+	 * @param bufferSize the size in bytes of the buffer
+	 * @throws IllegalArgumentException if the size is smaller than a kilobyte
+	 */
+	public MatrixMarketReader(ReadableByteChannel channel, int bufferSize) {
+		this.scanner = new TextScanner(channel, bufferSize, ' ');
+	}
+
+	/**
+	 * Reads the matrix of the specified file.
+	 *
+	 * @param file the file to read from
+	 * @return a new matrix with the values read
+	 * @throws IOException if an I/O error occurs, or the file is not a matrix
+	 *         in a supported Matrix Market format
+	 */
+	public static NumericMatrix load(Path file) throws IOException {
+		try (MatrixMarketReader r = new MatrixMarketReader(FileChannel.open(file, StandardOpenOption.READ))) {
+			return r.read();
+		}
+	}
+
+	/**
+	 * Reads the matrix, into a new {@link SparseMatrix} if it is in the
+	 * {@code coordinate} format, or into a new {@link DoubleMatrix} if it is in
+	 * the {@code array} format.
+	 *
+	 * @return a new matrix with the values read
+	 * @throws EOFException if the text ends before the matrix
+	 * @throws IOException if an I/O error occurs, or the text is not a matrix
+	 *         in a supported Matrix Market format
+	 */
+	public NumericMatrix read() throws IOException {
+		readHeader();
+		if (!coordinate) {
+			DoubleMatrix m = DoubleMatrix.zeros(rows, cols);
+			readArray(m);
+			return m;
+		}
+		long capacity = symmetry == GENERAL ? entries : 2 * entries;
+		if (capacity > Integer.MAX_VALUE - 8)
+			throw new IOException("Too many entries: " + entries);
+		int[] rowIndices = new int[(int) capacity], columnIndices = new int[(int) capacity];
+		double[] values = new double[(int) capacity];
+		int count = 0;
+		for (long k = 0; k < entries; k++) {
+			int i = nextIndex(rows), j = nextIndex(cols);
+			double v = nextValue();
+			rowIndices[count] = i;
+			columnIndices[count] = j;
+			values[count++] = v;
+			if (symmetry != GENERAL && i != j) {
+				rowIndices[count] = j;
+				columnIndices[count] = i;
+				values[count++] = symmetry == SYMMETRIC ? v : -v;
+			}
+		}
+		return SparseMatrix.fromTriplets(rows, cols, rowIndices, columnIndices, values, count);
+	}
+
+	/**
+	 * Reads the matrix into the specified matrix, which must have the same
+	 * dimension, replacing all of its values. A matrix in the {@code coordinate}
+	 * format is read by setting each value of the specified matrix to zero and
+	 * then adding each entry to it.
+	 *
+	 * @param dest the matrix to read into
+	 * @throws IncompatibleDimensionException if the dimension of the matrix read
+	 *         is not the dimension of {@code dest}
+	 * @throws EOFException if the text ends before the matrix
+	 * @throws IOException if an I/O error occurs, or the text is not a matrix
+	 *         in a supported Matrix Market format
+	 */
+	public void readInto(NumericMatrix dest) throws IOException {
+		readHeader();
+		if (dest.rowSize() != rows || dest.columnSize() != cols)
+			throw new IncompatibleDimensionException("Matrix " + rows + "x" + cols + " read into a matrix "
+					+ dest.rowSize() + "x" + dest.columnSize());
+		if (!coordinate) {
+			readArray(dest);
+			return;
+		}
+		double[] zeros = new double[cols];
+		for (int i = 0; i < rows; i++)
+			dest.copyRowFrom(i, 0, zeros, 0, cols);
+		for (long k = 0; k < entries; k++) {
+			int i = nextIndex(rows), j = nextIndex(cols);
+			double v = nextValue();
+			dest.setDouble(i, j, dest.getDouble(i, j) + v);
+			if (symmetry != GENERAL && i != j)
+				dest.setDouble(j, i, dest.getDouble(j, i) + (symmetry == SYMMETRIC ? v : -v));
+		}
+	}
+
+	/**
+	 * Reads the values of the {@code array} format, in column-major order.
+	 */
+	private void readArray(NumericMatrix dest) throws IOException {
+		for (int j = 0; j < cols; j++) {
+			int from = symmetry == GENERAL ? 0 : symmetry == SYMMETRIC ? j : j + 1;
+			for (int i = from; i < rows; i++) {
+				scanner.skipWhitespace();
+				double v = scanner.nextDouble();
+				dest.setDouble(i, j, v);
+				if (symmetry != GENERAL && i != j)
+					dest.setDouble(j, i, symmetry == SYMMETRIC ? v : -v);
+			}
+		}
+	}
+
+	/**
+	 * Reads an index starting at 1, and returns it starting at 0.
+	 */
+	private int nextIndex(int size) throws IOException {
+		scanner.skipWhitespace();
+		int index = scanner.nextInt();
+		if (index < 1 || index > size)
+			throw scanner.error("Index " + index + " out of bounds for size " + size);
+		return index - 1;
+	}
+
+	private double nextValue() throws IOException {
+		if (pattern)
+			return 1.0;
+		scanner.skipWhitespace();
+		return scanner.nextDouble();
+	}
+
+	private void readHeader() throws IOException {
+		if (scanner.atEnd())
+			throw new EOFException("No matrix");
+		String[] banner = scanner.readLine().trim().toLowerCase(Locale.ROOT).split("[ \t]+");
+		if (banner.length != 5 || !banner[0].equals("%%matrixmarket"))
+			throw new IOException("Not a Matrix Market header");
+		if (!banner[1].equals("matrix"))
+			throw new IOException("Unsupported object: " + banner[1]);
+		switch (banner[2]) {
+			case "coordinate" -> coordinate = true;
+			case "array" -> coordinate = false;
+			default -> throw new IOException("Unsupported format: " + banner[2]);
+		}
+		switch (banner[3]) {
+			case "real", "integer" -> pattern = false;
+			case "pattern" -> pattern = true;
+			default -> throw new IOException("Unsupported field: " + banner[3]);
+		}
+		switch (banner[4]) {
+			case "general" -> symmetry = GENERAL;
+			case "symmetric" -> symmetry = SYMMETRIC;
+			case "skew-symmetric" -> symmetry = SKEW_SYMMETRIC;
+			default -> throw new IOException("Unsupported symmetry: " + banner[4]);
+		}
+		if (pattern && !coordinate)
+			throw new IOException("Unsupported field pattern in array format");
+		for (scanner.skipWhitespace(); scanner.peek() == '%'; scanner.skipWhitespace())
+			scanner.skipLine();
+		rows = scanner.nextInt();
+		cols = scanner.nextInt();
+		entries = coordinate ? scanner.nextLong() : (long) rows * cols;
+		if (symmetry != GENERAL && rows != cols)
+			throw new IOException("Symmetric matrix " + rows + "x" + cols + " is not square");
+		if (rows == 0 || cols == 0)
+			rows = cols = 0;
+		if (entries > 0 && rows == 0)
+			throw new IOException("Entries in an empty matrix");
+	}
+
+	/**
+	 * Closes the channel of this reader.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		scanner.close();
+	}
+}
@@ -0,0 +1,202 @@
+package collections2d.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import collections2d.NumericMatrix;
+import collections2d.SparseMatrix;
+
+/**
+ * Writes a matrix in the Matrix Market exchange format to a channel, either
+ * in the {@code coordinate} format, with one line for each non-zero value, or
+ * in the {@code array} format, with every value in column-major order. The
+ * field is always {@code real} and the symmetry {@code general}. The text is
+ * encoded straight into a large buffer, which is written to the channel
+ * whenever it is full.<p>
+ *
+ * The {@code array} format reads the matrix in panels of consecutive columns,
+ * of at most {@value #PANEL_VALUES} values, copying the part of each row in the
+ * panel with {@link NumericMatrix#copyRowTo} and printing the panel a column at
+ * a time, so every value is read once, in bulk, and never with
+ * {@link NumericMatrix#getDouble}.<p>
+ *
+ * A {@code MatrixMarketWriter} is not safe for use by multiple threads.
+ *
+ * @see MatrixMarketReader
+ */
+public class MatrixMarketWriter implements Closeable, Flushable {
+
+	/**
+	 * Maximum number of values of each panel of columns of the {@code array}
+	 * format.
+	 */
+	static final int PANEL_VALUES = 1 << 16;
+
+	private final TextPrinter printer;
+
+	/**
+	 * Creates a writer to the specified channel, with a buffer of the default size.
+	 *
+	 * @param channel the channel to write to
+	 */
+	public MatrixMarketWriter(WritableByteChannel channel) {
+		this(channel, MatrixFormat.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a writer to the specified channel, with a buffer of the specified size.
+	 *
+	 * @param channel the channel to write to
+	 * @param bufferSize the size in bytes of the buffer
+	 * @throws IllegalArgumentException if the size is too small for a number
+	 */
+	public MatrixMarketWriter(WritableByteChannel channel, int bufferSize) {
+		this.printer = new TextPrinter(channel, bufferSize);
+	}
+
+	/**
+	 * Writes the specified matrix to a file, which is created or truncated.
+	 * The matrix is written in the {@code coordinate} format if it is a
+	 * {@link SparseMatrix}, and in the {@code array} format otherwise.
+	 *
+	 * @param m the matrix to write
+	 * @param file the file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void save(NumericMatrix m, Path file) throws IOException {
+		try (MatrixMarketWriter w = new MatrixMarketWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+			w.write(m);
+		}
+	}
+
+	/**
+	 * Writes the specified matrix in the {@code coordinate} format if it is a
+	 * {@link SparseMatrix}, and in the {@code array} format otherwise.
+	 *
+	 * @param m the matrix to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(NumericMatrix m) throws IOException {
+		write(m, m instanceof SparseMatrix);
+	}
+
+	/**
+	 * Writes the specified matrix in the specified format. Writing a matrix that
+	 * is not a {@link SparseMatrix} in the {@code coordinate} format reads it
+	 * twice, since the number of non-zero values comes first. The
+	 * {@code array} format reads the matrix by panels of columns.
+	 *
+	 * @param m the matrix to write
+	 * @param coordinate whether to write only the non-zero values, in the
+	 *        {@code coordinate} format
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(NumericMatrix m, boolean coordinate) throws IOException {
+		int rows = m.rowSize(), cols = m.columnSize();
+		printer.print(coordinate ? "%%MatrixMarket matrix coordinate real general\n"
+				: "%%MatrixMarket matrix array real general\n");
+		printer.print(rows);
+		printer.print(' ');
+		printer.print(cols);
+		if (!coordinate) {
+			printer.print('\n');
+			writeColumns(m, rows, cols);
+			return;
+		}
+		if (m instanceof SparseMatrix s) {
+			printer.print(' ');
+			printer.print(s.nonZeroCount());
+			printer.print('\n');
+			int[] c = new int[cols];
+			double[] v = new double[cols];
+			for (int i = 0; i < rows; i++)
+				printEntries(i, c, v, s.copyRowNonZeros(i, c, v, 0));
+			return;
+		}
+		double[] row = new double[cols];
+		int[] c = new int[cols];
+		long nonZeros = 0;
+		for (int i = 0; i < rows; i++) {
+			m.copyRowTo(i, 0, row, 0, cols);
+			nonZeros += gather(row, c);
+		}
+		printer.print(' ');
+		printer.print(nonZeros);
+		printer.print('\n');
+		for (int i = 0; i < rows; i++) {
+			m.copyRowTo(i, 0, row, 0, cols);
+			int count = gather(row, c);
+			for (int k = 0; k < count; k++)
+				row[k] = row[c[k]];
+			printEntries(i, c, row, count);
+		}
+	}
+
+	/**
+	 * Prints every value of the matrix in column-major order, reading it in
+	 * panels of columns, each one stored row after row in a reused buffer.
+	 */
+	private void writeColumns(NumericMatrix m, int rows, int cols) throws IOException {
+		if (rows == 0 || cols == 0)
+			return;
+		int width = Math.max(1, Math.min(cols, PANEL_VALUES / rows));
+		double[] panel = new double[rows * width];
+		for (int j0 = 0; j0 < cols; j0 += width) {
+			int w = Math.min(width, cols - j0);
+			for (int i = 0; i < rows; i++)
+				m.copyRowTo(i, j0, panel, i * w, w);
+			for (int j = 0; j < w; j++)
+				for (int i = 0, k = j; i < rows; i++, k += w) {
+					printer.print(panel[k]);
+					printer.print('\n');
+				}
+		}
+	}
+
+	/**
+	 * Stores in {@code c} the columns of the non-zero values of the row, and
+	 * returns how many there are.
+	 */
+	private static int gather(double[] row, int[] c) {
+		int count = 0;
+		for (int j = 0; j < row.length; j++)
+			if (Double.doubleToRawLongBits(row[j]) != 0L)
+				c[count++] = j;
+		return count;
+	}
+
+	private void printEntries(int row, int[] columns, double[] values, int count) throws IOException {
+		for (int k = 0; k < count; k++) {
+			printer.print(row + 1);
+			printer.print(' ');
+			printer.print(columns[k] + 1);
+			printer.print(' ');
+			printer.print(values[k]);
+			printer.print('\n');
+		}
+	}
+
+	/**
+	 * Writes to the channel all the text still in the buffer.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void flush() throws IOException {
+		printer.flush();
+	}
+
+	/**
+	 * Flushes this writer and closes its channel.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		printer.close();
+	}
+}
@@ -0,0 +1,249 @@
+package collections2d.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import collections2d.DoubleMatrix;
+import collections2d.IncompatibleDimensionException;
+import collections2d.NumericMatrix;
+import collections2d.SparseMatrix;
+
+/**
+ * Reads numeric matrices written by a {@link MatrixWriter} from a channel.
+ * The channel is read into a direct buffer, from which the values are copied
+ * in bulk into each row of the new matrix.<p>
+ *
+ * A dense matrix is read into a new {@link DoubleMatrix}, and a sparse one into
+ * a new {@link SparseMatrix}. Either kind can instead be read into an existing
+ * matrix with {@link #readInto(NumericMatrix)}, for instance a matrix stored
+ * off the heap.<p>
+ *
+ * A {@code MatrixReader} is not safe for use by multiple threads.
+ *
+ * @see MatrixWriter
+ */
+public class MatrixReader implements Closeable {
+
+	private final ReadableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Dimension, type and number of values of the matrix being read.
+	 */
+	private int rows, cols, type;
+	private long count;
+
+	/**
+	 * Creates a reader from the specified channel, with a buffer of the default size.
+	 *
+	 * @param channel the channel to read from
+	 */
+	public MatrixReader(ReadableByteChannel channel) {
+		this(channel, MatrixFormat.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a reader from the specified channel, with a buffer of the specified size.
+	 *
+	 * @param channel the channel to read from
+	 * @param bufferSize the size in bytes of the buffer
+	 * @throws IllegalArgumentException if the size is smaller than the header
+	 */
+	public MatrixReader(ReadableByteChannel channel, int bufferSize) {
+		if (bufferSize < MatrixFormat.HEADER_SIZE)
+			throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.limit(0);
+	}
+
+	/**
+	 * Reads the first matrix of the specified file.
+	 *
+	 * @param file the file to read from
+	 * @return a new matrix with the values read
+	 * @throws IOException if an I/O error occurs, or the file is not a matrix
+	 */
+	public static NumericMatrix load(Path file) throws IOException {
+		try (MatrixReader r = new MatrixReader(FileChannel.open(file, StandardOpenOption.READ))) {
+			return r.read();
+		}
+	}
+
+	/**
+	 * Reads the next matrix, into a new {@link DoubleMatrix} if it was written
+	 * dense, or into a new {@link SparseMatrix} if it was written sparse.
+	 *
+	 * @return a new matrix with the values read
+	 * @throws EOFException if there are no more matrices in the channel
+	 * @throws IOException if an I/O error occurs, or the data is not a matrix
+	 */
+	public NumericMatrix read() throws IOException {
+		readHeader();
+		if (type == MatrixFormat.DENSE) {
+			DoubleMatrix m = DoubleMatrix.zeros(rows, cols);
+			readDense(m);
+			return m;
+		}
+		int[] pointers = readPointers();
+		int[] columns = new int[(int) count];
+		double[] values = new double[(int) count];
+		getInts(columns, 0, columns.length);
+		getDoubles(values, 0, values.length);
+		try {
+			return SparseMatrix.fromCompressedRows(rows, cols, pointers, columns, values);
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IOException("Malformed sparse matrix: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads the next matrix into the specified matrix, which must have the same
+	 * dimension, replacing all of its values.
+	 *
+	 * @param dest the matrix to read into
+	 * @throws IncompatibleDimensionException if the dimension of the matrix read
+	 *         is not the dimension of {@code dest}; the header of the matrix read
+	 *         is consumed
+	 * @throws EOFException if there are no more matrices in the channel
+	 * @throws IOException if an I/O error occurs, or the data is not a matrix
+	 */
+	public void readInto(NumericMatrix dest) throws IOException {
+		readHeader();
+		if (dest.rowSize() != rows || dest.columnSize() != cols)
+			throw new IncompatibleDimensionException("Matrix " + rows + "x" + cols + " read into a matrix "
+					+ dest.rowSize() + "x" + dest.columnSize());
+		if (type == MatrixFormat.DENSE) {
+			readDense(dest);
+			return;
+		}
+		int[] pointers = readPointers();
+		int[] columns = new int[(int) count];
+		getInts(columns, 0, columns.length);
+		double[] row = new double[cols], values = new double[cols];
+		for (int i = 0; i < rows; i++) {
+			int from = pointers[i], length = pointers[i + 1] - from;
+			if (length > cols)
+				throw new IOException("Malformed sparse matrix: row " + i + " has " + length + " values");
+			getDoubles(values, 0, length);
+			Arrays.fill(row, 0.0);
+			for (int k = 0; k < length; k++) {
+				int c = columns[from + k];
+				if (c < 0 || c >= cols)
+					throw new IOException("Malformed sparse matrix: column " + c + " at row " + i);
+				row[c] = values[k];
+			}
+			dest.copyRowFrom(i, 0, row, 0, cols);
+		}
+	}
+
+	private void readDense(NumericMatrix dest) throws IOException {
+		double[] row = new double[cols];
+		for (int i = 0; i < rows; i++) {
+			getDoubles(row, 0, cols);
+			dest.copyRowFrom(i, 0, row, 0, cols);
+		}
+	}
+
+	/**
+	 * Reads and checks the row pointers of a sparse matrix.
+	 */
+	private int[] readPointers() throws IOException {
+		int[] pointers = new int[rows + 1];
+		getInts(pointers, 0, rows + 1);
+		if (pointers[0] != 0 || pointers[rows] != count)
+			throw new IOException("Malformed sparse matrix: " + count + " values");
+		for (int i = 0; i < rows; i++)
+			if (pointers[i] > pointers[i + 1])
+				throw new IOException("Malformed sparse matrix: row pointers decrease at row " + i);
+		return pointers;
+	}
+
+	private void readHeader() throws IOException {
+		if (!buffer.hasRemaining() && !fill(1))
+			throw new EOFException("No more matrices");
+		if (!fill(MatrixFormat.HEADER_SIZE))
+			throw new EOFException("Truncated matrix header");
+		int magic = buffer.getInt(), version = buffer.getInt();
+		rows = buffer.getInt();
+		cols = buffer.getInt();
+		type = buffer.getInt();
+		buffer.getInt();
+		count = buffer.getLong();
+		if (magic != MatrixFormat.MAGIC)
+			throw new IOException("Not a matrix");
+		if (version != MatrixFormat.VERSION)
+			throw new IOException("Unsupported version " + version + " of matrix");
+		if (rows < 0 || cols < 0 || (rows == 0) != (cols == 0))
+			throw new IOException("Illegal dimension: " + rows + "x" + cols);
+		if (type == MatrixFormat.DENSE) {
+			if (count != (long) rows * cols)
+				throw new IOException("Dense matrix " + rows + "x" + cols + " with " + count + " values");
+		} else if (type == MatrixFormat.SPARSE) {
+			if (count < 0 || count > Math.min((long) rows * cols, Integer.MAX_VALUE - 8))
+				throw new IOException("Sparse matrix " + rows + "x" + cols + " with " + count + " values");
+		} else {
+			throw new IOException("Unknown type " + type + " of matrix");
+		}
+	}
+
+	/**
+	 * Reads from the channel until the buffer has at least {@code n} bytes
+	 * remaining, or returns {@code false} if the channel ends first.
+	 */
+	private boolean fill(int n) throws IOException {
+		if (buffer.remaining() >= n)
+			return true;
+		buffer.compact();
+		try {
+			while (buffer.position() < n)
+				if (channel.read(buffer) < 0)
+					return false;
+			return true;
+		} finally {
+			buffer.flip();
+		}
+	}
+
+	private void getDoubles(double[] a, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (!fill(Double.BYTES))
+				throw new EOFException("Truncated matrix");
+			int n = Math.min(length, buffer.remaining() / Double.BYTES);
+			buffer.asDoubleBuffer().get(a, offset, n);
+			buffer.position(buffer.position() + n * Double.BYTES);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	private void getInts(int[] a, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (!fill(Integer.BYTES))
+				throw new EOFException("Truncated matrix");
+			int n = Math.min(length, buffer.remaining() / Integer.BYTES);
+			buffer.asIntBuffer().get(a, offset, n);
+			buffer.position(buffer.position() + n * Integer.BYTES);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Closes the channel of this reader.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+}
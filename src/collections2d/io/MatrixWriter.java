@@ -0,0 +1,260 @@
+package collections2d.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import collections2d.NumericMatrix;
+import collections2d.SparseMatrix;
+
+/**
+ * Writes numeric matrices to a channel in a compact binary format, with a
+ * header of {@value MatrixFormat#HEADER_SIZE} bytes with the dimension and the
+ * type of the payload, followed by the values of the matrix, either dense in
+ * row-major order or in compressed sparse row form. The values are gathered
+ * row by row in a direct buffer, which is written to the channel whenever it
+ * is full, so no copy of the matrix is made.<p>
+ *
+ * Several matrices can be written one after another to the same channel, and
+ * read back in the same order with a {@link MatrixReader}. A dense matrix
+ * written alone to a file can also be opened with
+ * {@link collections2d.MappedDoubleMatrix#open}.<p>
+ *
+ * A {@code MatrixWriter} is not safe for use by multiple threads.
+ *
+ * @see MatrixReader
+ */
+public class MatrixWriter implements Closeable, Flushable {
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Reusable buffer of the values of a row.
+	 */
+	private double[] row = {};
+
+	/**
+	 * Reusable buffer of the columns of the non-zero values of a row.
+	 */
+	private int[] columns = {};
+
+	/**
+	 * Creates a writer to the specified channel, with a buffer of the default size.
+	 *
+	 * @param channel the channel to write to
+	 */
+	public MatrixWriter(WritableByteChannel channel) {
+		this(channel, MatrixFormat.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a writer to the specified channel, with a buffer of the specified size.
+	 *
+	 * @param channel the channel to write to
+	 * @param bufferSize the size in bytes of the buffer
+	 * @throws IllegalArgumentException if the size is smaller than the header
+	 */
+	public MatrixWriter(WritableByteChannel channel, int bufferSize) {
+		if (bufferSize < MatrixFormat.HEADER_SIZE)
+			throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Writes the specified matrix to a file, which is created or truncated.
+	 * The matrix is written sparse if it is a {@link SparseMatrix}.
+	 *
+	 * @param m the matrix to write
+	 * @param file the file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void save(NumericMatrix m, Path file) throws IOException {
+		try (MatrixWriter w = new MatrixWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+			w.write(m);
+		}
+	}
+
+	/**
+	 * Writes the specified matrix, sparse if it is a {@link SparseMatrix} and
+	 * dense otherwise. The matrix may remain partially in the buffer until the
+	 * writer is flushed or closed.
+	 *
+	 * @param m the matrix to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(NumericMatrix m) throws IOException {
+		write(m, m instanceof SparseMatrix);
+	}
+
+	/**
+	 * Writes the specified matrix, in the specified encoding. Writing a matrix
+	 * that is not a {@link SparseMatrix} sparse reads it three times: to count
+	 * the non-zero values of each row, to write their columns and to write
+	 * their values.
+	 *
+	 * @param m the matrix to write
+	 * @param sparse whether to write only the non-zero values
+	 * @throws IllegalArgumentException if the matrix is written sparse and has
+	 *         more non-zero values than an array can hold
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(NumericMatrix m, boolean sparse) throws IOException {
+		int rows = m.rowSize(), cols = m.columnSize();
+		if (!sparse) {
+			putHeader(rows, cols, MatrixFormat.DENSE, (long) rows * cols);
+			double[] r = rowBuffer(cols);
+			for (int i = 0; i < rows; i++) {
+				m.copyRowTo(i, 0, r, 0, cols);
+				putDoubles(r, 0, cols);
+			}
+		} else if (m instanceof SparseMatrix s) {
+			writeSparse(s);
+		} else {
+			writeSparse(m);
+		}
+	}
+
+	private void writeSparse(SparseMatrix s) throws IOException {
+		int rows = s.rowSize();
+		putHeader(rows, s.columnSize(), MatrixFormat.SPARSE, s.nonZeroCount());
+		int[] pointers = new int[rows + 1];
+		int longest = 0;
+		for (int i = 0; i < rows; i++) {
+			int count = s.rowNonZeroCount(i);
+			pointers[i + 1] = pointers[i] + count;
+			longest = Math.max(longest, count);
+		}
+		putInts(pointers, 0, rows + 1);
+		int[] c = columnBuffer(longest);
+		double[] v = rowBuffer(longest);
+		for (int i = 0; i < rows; i++)
+			putInts(c, 0, s.copyRowNonZeros(i, c, v, 0));
+		for (int i = 0; i < rows; i++)
+			putDoubles(v, 0, s.copyRowNonZeros(i, c, v, 0));
+	}
+
+	private void writeSparse(NumericMatrix m) throws IOException {
+		int rows = m.rowSize(), cols = m.columnSize();
+		double[] r = rowBuffer(cols);
+		int[] c = columnBuffer(cols);
+		int[] pointers = new int[rows + 1];
+		long nonZeros = 0;
+		for (int i = 0; i < rows; i++) {
+			m.copyRowTo(i, 0, r, 0, cols);
+			nonZeros += gather(r, cols, c);
+			if (nonZeros > Integer.MAX_VALUE - 8)
+				throw new IllegalArgumentException("Too many non-zero values to write sparse");
+			pointers[i + 1] = (int) nonZeros;
+		}
+		putHeader(rows, cols, MatrixFormat.SPARSE, nonZeros);
+		putInts(pointers, 0, rows + 1);
+		for (int i = 0; i < rows; i++) {
+			m.copyRowTo(i, 0, r, 0, cols);
+			putInts(c, 0, gather(r, cols, c));
+		}
+		for (int i = 0; i < rows; i++) {
+			m.copyRowTo(i, 0, r, 0, cols);
+			int count = gather(r, cols, c);
+			for (int k = 0; k < count; k++)
+				r[k] = r[c[k]];
+			putDoubles(r, 0, count);
+		}
+	}
+
+	/**
+	 * Stores in {@code c} the columns of the non-zero values of the row, and
+	 * returns how many there are. Only positive zero is left out, as in
+	 * {@link SparseMatrix}.
+	 */
+	private static int gather(double[] r, int length, int[] c) {
+		int count = 0;
+		for (int j = 0; j < length; j++)
+			if (Double.doubleToRawLongBits(r[j]) != 0L)
+				c[count++] = j;
+		return count;
+	}
+
+	private double[] rowBuffer(int length) {
+		if (row.length < length)
+			row = new double[length];
+		return row;
+	}
+
+	private int[] columnBuffer(int length) {
+		if (columns.length < length)
+			columns = new int[length];
+		return columns;
+	}
+
+	private void putHeader(int rows, int cols, int type, long count) throws IOException {
+		if (buffer.remaining() < MatrixFormat.HEADER_SIZE)
+			drain();
+		buffer.putInt(MatrixFormat.MAGIC).putInt(MatrixFormat.VERSION).putInt(rows).putInt(cols)
+				.putInt(type).putInt(0).putLong(count);
+	}
+
+	private void putDoubles(double[] a, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (buffer.remaining() < Double.BYTES)
+				drain();
+			int n = Math.min(length, buffer.remaining() / Double.BYTES);
+			buffer.asDoubleBuffer().put(a, offset, n);
+			buffer.position(buffer.position() + n * Double.BYTES);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	private void putInts(int[] a, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (buffer.remaining() < Integer.BYTES)
+				drain();
+			int n = Math.min(length, buffer.remaining() / Integer.BYTES);
+			buffer.asIntBuffer().put(a, offset, n);
+			buffer.position(buffer.position() + n * Integer.BYTES);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Writes the whole content of the buffer to the channel.
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes to the channel every matrix still in the buffer.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void flush() throws IOException {
+		drain();
+	}
+
+	/**
+	 * Flushes this writer and closes its channel.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		try (channel) {
+			if (channel.isOpen())
+				drain();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package collections2d.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Printer of numbers as ASCII text to a channel. The text is encoded directly
+ * into the bytes of a large buffer, which is written to the channel whenever it
+ * is full. Integers, including every {@code double} with an integral value of
+ * moderate size, are printed digit by digit; any other {@code double} is
+ * printed as the shortest decimal that {@link Double#parseDouble} reads back as
+ * the same value, the same text as {@link Double#toString(double)}.<p>
+ *
+ * Such a {@code double} is formatted into a reused {@link StringBuilder} and
+ * copied to the buffer, which avoids the {@code String} of
+ * {@code Double.toString}, but not every allocation: depending on the JDK,
+ * {@link StringBuilder#append(double)} may still allocate a small formatter
+ * for each value. Integers never allocate.
+ */
+final class TextPrinter {
+
+	/**
+	 * Room left in the buffer for any single number.
+	 */
+	private static final int MAX_NUMBER = 32;
+
+	/**
+	 * Largest magnitude of a {@code double} printed as an integer.
+	 */
+	private static final double MAX_INTEGRAL = 1e15;
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * The backing array of the buffer, and the position of the next byte.
+	 */
+	private final byte[] bytes;
+	private int position;
+
+	/**
+	 * Text of the last {@code double} that is not printed as an integer, and
+	 * its characters.
+	 */
+	private final StringBuilder text = new StringBuilder(MAX_NUMBER);
+	private final char[] chars = new char[MAX_NUMBER];
+
+	TextPrinter(WritableByteChannel channel, int bufferSize) {
+		if (bufferSize < MAX_NUMBER)
+			throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.bytes = buffer.array();
+	}
+
+	private void ensure(int n) throws IOException {
+		if (bytes.length - position < n)
+			flush();
+	}
+
+	void print(char c) throws IOException {
+		ensure(1);
+		bytes[position++] = (byte) c;
+	}
+
+	void print(String s) throws IOException {
+		for (int i = 0; i < s.length(); i++)
+			print(s.charAt(i));
+	}
+
+	void print(long value) throws IOException {
+		if (value == Long.MIN_VALUE) {
+			print(Long.toString(value));
+			return;
+		}
+		ensure(MAX_NUMBER);
+		if (value < 0) {
+			bytes[position++] = '-';
+			value = -value;
+		}
+		int end = position + digits(value);
+		for (int p = end; p > position; value /= 10)
+			bytes[--p] = (byte) ('0' + value % 10);
+		position = end;
+	}
+
+	private static int digits(long value) {
+		int n = 1;
+		for (long limit = 10; n < 19 && value >= limit; limit *= 10)
+			n++;
+		return n;
+	}
+
+	void print(double value) throws IOException {
+		if (value == (long) value && Math.abs(value) < MAX_INTEGRAL
+				&& Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0)) {
+			print((long) value);
+			return;
+		}
+		ensure(MAX_NUMBER);
+		text.setLength(0);
+		text.append(value);
+		int length = text.length();
+		text.getChars(0, length, chars, 0);
+		for (int i = 0; i < length; i++)
+			bytes[position++] = (byte) chars[i];
+	}
+
+	/**
+	 * Writes every byte in the buffer to the channel.
+	 */
+	void flush() throws IOException {
+		buffer.clear().limit(position);
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		position = 0;
+	}
+
+	void close() throws IOException {
+		try (channel) {
+			if (channel.isOpen())
+				flush();
+		}
+	}
+}
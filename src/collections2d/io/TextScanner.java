@@ -0,0 +1,325 @@
+package collections2d.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner of numbers in ASCII text read from a channel. The channel is read in
+ * large blocks into a buffer, and numbers are parsed from the bytes of the
+ * buffer where they are, without creating a {@code String} for each line or
+ * each number.<p>
+ *
+ * A decimal number whose significant digits fit in 53 bits and whose exponent
+ * is small is converted with a single multiplication or division of exact
+ * values, which gives the correctly rounded value of {@link Double#parseDouble}.
+ * Any other number is passed to {@code Double.parseDouble}.
+ */
+final class TextScanner {
+
+	/**
+	 * Maximum length of a number, which is always held whole in the buffer.
+	 */
+	private static final int MAX_TOKEN = 1 << 10;
+
+	/**
+	 * Powers of ten that are exactly representable as {@code double}.
+	 */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final ReadableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * The backing array of the buffer, and the bounds of the bytes not yet scanned.
+	 */
+	private final byte[] bytes;
+	private int position, limit;
+
+	private boolean endOfInput;
+
+	/**
+	 * The byte that separates numbers on a line, besides spaces and tabs.
+	 */
+	private final byte delimiter;
+
+	/**
+	 * The number of the line being scanned, for the messages of errors.
+	 */
+	private long line = 1;
+
+	TextScanner(ReadableByteChannel channel, int bufferSize, char delimiter) {
+		if (bufferSize < MAX_TOKEN)
+			throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.bytes = buffer.array();
+		this.delimiter = (byte) delimiter;
+	}
+
+	/**
+	 * Reads from the channel until at least {@code n} bytes are left to scan,
+	 * or the channel ends.
+	 */
+	private void ensure(int n) throws IOException {
+		if (limit - position >= n || endOfInput)
+			return;
+		System.arraycopy(bytes, position, bytes, 0, limit - position);
+		limit -= position;
+		position = 0;
+		buffer.clear().position(limit);
+		while (limit < n) {
+			int read = channel.read(buffer);
+			if (read < 0) {
+				endOfInput = true;
+				return;
+			}
+			limit += read;
+		}
+	}
+
+	/**
+	 * Returns the next byte without consuming it, or {@code -1} at the end of
+	 * the input.
+	 */
+	int peek() throws IOException {
+		if (position == limit) {
+			ensure(1);
+			if (position == limit)
+				return -1;
+		}
+		return bytes[position] & 0xFF;
+	}
+
+	boolean atEnd() throws IOException {
+		return peek() < 0;
+	}
+
+	/**
+	 * Skips spaces, tabs and carriage returns, but not line feeds.
+	 */
+	void skipSpaces() throws IOException {
+		for (int c = peek(); c == ' ' || c == '\t' || c == '\r'; c = peek())
+			position++;
+	}
+
+	/**
+	 * Skips every white space, including line feeds.
+	 */
+	void skipWhitespace() throws IOException {
+		for (int c = peek(); c == ' ' || c == '\t' || c == '\r' || c == '\n'; c = peek()) {
+			if (c == '\n')
+				line++;
+			position++;
+		}
+	}
+
+	/**
+	 * Skips spaces, and returns {@code true} if they are followed by the end
+	 * of a line or of the input.
+	 */
+	boolean atLineEnd() throws IOException {
+		skipSpaces();
+		int c = peek();
+		return c == '\n' || c < 0;
+	}
+
+	/**
+	 * Skips the rest of the current line, including its line feed.
+	 */
+	void skipLine() throws IOException {
+		for (;;) {
+			for (int p = position; p < limit; p++)
+				if (bytes[p] == '\n') {
+					position = p + 1;
+					line++;
+					return;
+				}
+			position = limit;
+			if (peek() < 0)
+				return;
+		}
+	}
+
+	/**
+	 * Skips spaces and then the delimiter, if the delimiter is not white space.
+	 *
+	 * @throws IOException if there is no delimiter
+	 */
+	void skipDelimiter() throws IOException {
+		skipSpaces();
+		if (delimiter == ' ' || delimiter == '\t')
+			return;
+		if (peek() != delimiter)
+			throw error("Expected '" + (char) delimiter + "'");
+		position++;
+	}
+
+	/**
+	 * Returns the rest of the current line, without its line feed, and
+	 * consumes it. Only meant for short lines, such as headers.
+	 */
+	String readLine() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int c = peek(); c >= 0 && c != '\n'; c = peek()) {
+			if (c != '\r')
+				sb.append((char) c);
+			position++;
+		}
+		if (peek() == '\n') {
+			position++;
+			line++;
+		}
+		return sb.toString();
+	}
+
+	private boolean isSeparator(int c) {
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == delimiter;
+	}
+
+	/**
+	 * Returns the position of the first separator from the specified position
+	 * on, which ends the number that starts at the current position.
+	 */
+	private int tokenEnd(int p) throws IOException {
+		while (p < limit && !isSeparator(bytes[p]))
+			p++;
+		if (p == limit && !endOfInput)
+			throw error("Number too long");
+		return p;
+	}
+
+	/**
+	 * Parses the next number, after skipping spaces.
+	 *
+	 * @throws EOFException if the input ends before the number
+	 * @throws IOException if the next characters are not a number
+	 */
+	double nextDouble() throws IOException {
+		skipSpaces();
+		ensure(MAX_TOKEN);
+		if (position == limit)
+			throw new EOFException("Unexpected end of input at line " + line);
+		int p = position, start = p;
+		boolean negative = false;
+		if (bytes[p] == '-' || bytes[p] == '+')
+			negative = bytes[p++] == '-';
+		long mantissa = 0;
+		int digits = 0, scale = 0, exponent = 0;
+		boolean any = false, exact = true;
+		int c;
+		for (; p < limit && (c = bytes[p] - '0') >= 0 && c <= 9; p++, any = true) {
+			if (digits < 18) {
+				mantissa = mantissa * 10 + c;
+				if (mantissa != 0)
+					digits++;
+			} else {
+				scale++;
+				exact &= c == 0;
+			}
+		}
+		if (p < limit && bytes[p] == '.') {
+			for (p++; p < limit && (c = bytes[p] - '0') >= 0 && c <= 9; p++, any = true) {
+				if (digits < 18) {
+					mantissa = mantissa * 10 + c;
+					scale--;
+					if (mantissa != 0)
+						digits++;
+				} else {
+					exact &= c == 0;
+				}
+			}
+		}
+		if (any && p < limit && (bytes[p] == 'e' || bytes[p] == 'E')) {
+			p++;
+			boolean negativeExponent = false;
+			if (p < limit && (bytes[p] == '-' || bytes[p] == '+'))
+				negativeExponent = bytes[p++] == '-';
+			boolean anyExponent = false;
+			for (; p < limit && (c = bytes[p] - '0') >= 0 && c <= 9; p++, anyExponent = true)
+				if (exponent < 100_000)
+					exponent = exponent * 10 + c;
+			any = anyExponent;
+			if (negativeExponent)
+				exponent = -exponent;
+		}
+		if (any && (p < limit ? isSeparator(bytes[p]) : endOfInput)) {
+			int power = scale + exponent;
+			if (mantissa == 0) {
+				position = p;
+				return negative ? -0.0 : 0.0;
+			}
+			if (exact && mantissa < 1L << 53 && power >= -22 && power <= 22) {
+				double value = power < 0 ? mantissa / POWERS_OF_TEN[-power] : mantissa * POWERS_OF_TEN[power];
+				position = p;
+				return negative ? -value : value;
+			}
+		}
+		int end = tokenEnd(p);
+		String token = new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+		try {
+			double value = Double.parseDouble(token);
+			position = end;
+			return value;
+		} catch (NumberFormatException e) {
+			throw error("Not a number: \"" + token + "\"");
+		}
+	}
+
+	/**
+	 * Parses the next non-negative integer, after skipping spaces.
+	 *
+	 * @throws EOFException if the input ends before the integer
+	 * @throws IOException if the next characters are not an integer, or it
+	 *         does not fit in a {@code long}
+	 */
+	long nextLong() throws IOException {
+		skipSpaces();
+		ensure(MAX_TOKEN);
+		if (position == limit)
+			throw new EOFException("Unexpected end of input at line " + line);
+		int p = position;
+		long value = 0;
+		int c;
+		for (; p < limit && (c = bytes[p] - '0') >= 0 && c <= 9; p++) {
+			if (value > (Long.MAX_VALUE - c) / 10)
+				throw error("Integer too large");
+			value = value * 10 + c;
+		}
+		if (p == position || (p < limit ? !isSeparator(bytes[p]) : !endOfInput))
+			throw error("Not an integer: \""
+					+ new String(bytes, position, tokenEnd(p) - position, StandardCharsets.ISO_8859_1) + "\"");
+		position = p;
+		return value;
+	}
+
+	/**
+	 * Parses the next non-negative integer, after skipping spaces.
+	 *
+	 * @throws IOException if the next characters are not an integer, or it
+	 *         does not fit in an {@code int}
+	 */
+	int nextInt() throws IOException {
+		long value = nextLong();
+		if (value > Integer.MAX_VALUE)
+			throw error("Integer too large: " + value);
+		return (int) value;
+	}
+
+	/**
+	 * Returns an exception with the specified message and the current line.
+	 */
+	IOException error(String message) {
+		return new IOException(message + " at line " + line);
+	}
+
+	void close() throws IOException {
+		channel.close();
+	}
+}